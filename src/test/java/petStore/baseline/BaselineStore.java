@@ -0,0 +1,81 @@
+package petStore.baseline;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import petStore.logging.Log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Baseline Store - Append-only history of run records, one JSON object per line
+ * Lines that cannot be parsed (e.g. a run killed while writing) are skipped with a warning.
+ */
+public class BaselineStore {
+
+    private static final Gson GSON = new Gson();
+
+    private final Path file;
+
+    /**
+     * @param file History file; created with its folders on the first append
+     */
+    public BaselineStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Append a run to the history
+     * @param record Run to store
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void append(RunRecord record) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(GSON.toJson(record));
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Read all stored runs, oldest first
+     * @return Runs; empty if there is no history yet
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized List<RunRecord> readAll() throws IOException {
+        List<RunRecord> records = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return records;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    records.add(GSON.fromJson(line, RunRecord.class));
+                } catch (JsonParseException e) {
+                    Log.warn("⚠️ Skipping unreadable line {} of {}: {}", lineNumber, file, e.getMessage());
+                }
+            }
+        }
+        return records;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,102 @@
+package petStore.baseline;
+
+import java.util.Arrays;
+
+/**
+ * Mann-Whitney U - Rank-sum test telling whether one latency sample is stochastically larger than another
+ * Uses the normal approximation with tie and continuity correction, accurate from about 20 values per side.
+ * Non-parametric on purpose: latency distributions are skewed and often multi-modal.
+ * Either side may be a representative subset (reservoir sample, quantile sketch) of a larger sample:
+ * U is estimated from the values given and its distribution uses the real sample sizes.
+ */
+public class MannWhitney {
+
+    private MannWhitney() {
+    }
+
+    /**
+     * One-sided p-value for "current is slower than baseline"
+     * @param current Latencies of the current run
+     * @param baseline Latencies of the baseline runs
+     * @return Probability of a rank sum at least this large if both come from the same distribution
+     */
+    public static double pValueGreater(double[] current, double[] baseline) {
+        return pValueGreater(current, current.length, baseline, baseline.length);
+    }
+
+    /**
+     * One-sided p-value for "current is slower than baseline" when the values only represent the samples
+     * @param current Latencies representing the current run
+     * @param currentCount Requests the current run actually sent
+     * @param baseline Latencies representing the baseline runs
+     * @param baselineCount Requests the baseline runs actually sent
+     * @return Probability of a rank sum at least this large if both come from the same distribution
+     */
+    public static double pValueGreater(double[] current, long currentCount, double[] baseline, long baselineCount) {
+        int m1 = current.length;
+        int m2 = baseline.length;
+        if (m1 == 0 || m2 == 0 || currentCount == 0 || baselineCount == 0) {
+            return 1.0;
+        }
+
+        int m = m1 + m2;
+        double[][] values = new double[m][];
+        for (int i = 0; i < m1; i++) {
+            values[i] = new double[]{current[i], 1};
+        }
+        for (int i = 0; i < m2; i++) {
+            values[m1 + i] = new double[]{baseline[i], 0};
+        }
+        Arrays.sort(values, (a, b) -> Double.compare(a[0], b[0]));
+
+        // Average ranks over ties; the share of each tie group (sum of share^3) feeds the variance correction
+        double rankSumCurrent = 0;
+        double tieShare = 0;
+        int i = 0;
+        while (i < m) {
+            int j = i;
+            while (j + 1 < m && values[j + 1][0] == values[i][0]) {
+                j++;
+            }
+            double averageRank = (i + j) / 2.0 + 1;
+            for (int k = i; k <= j; k++) {
+                if (values[k][1] == 1) {
+                    rankSumCurrent += averageRank;
+                }
+            }
+            double share = (j - i + 1) / (double) m;
+            tieShare += share * share * share;
+            i = j + 1;
+        }
+
+        // P(current > baseline) + P(tie) / 2, scaled to the real sample sizes; equals the classic U when m = n
+        double superiority = (rankSumCurrent - m1 * (m1 + 1) / 2.0) / ((double) m1 * m2);
+        double n1 = currentCount;
+        double n2 = baselineCount;
+        double n = n1 + n2;
+        double u = superiority * n1 * n2;
+        double mean = n1 * n2 / 2.0;
+        // sum(t^3 - t) / (n(n - 1)) with every tie group t = share * n
+        double variance = n1 * n2 / 12.0 * ((n + 1) - (n * n * tieShare - 1) / (n - 1));
+        if (variance <= 0) {
+            return 1.0;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1.0 - normalCdf(z);
+    }
+
+    static double normalCdf(double z) {
+        return 0.5 * (1 + erf(z / Math.sqrt(2)));
+    }
+
+    /**
+     * Abramowitz and Stegun 7.1.26, absolute error below 1.5e-7
+     */
+    private static double erf(double x) {
+        double sign = Math.signum(x);
+        x = Math.abs(x);
+        double t = 1 / (1 + 0.3275911 * x);
+        double polynomial = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))));
+        return sign * (1 - polynomial * Math.exp(-x * x));
+    }
+}
@@ -0,0 +1,282 @@
+package petStore.baseline;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.ResultsUtils;
+import petStore.common.ConfigurationReader;
+import petStore.common.EnvironmentContext;
+import petStore.logging.Log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Regression Gate - Compares this run's latencies with a rolling baseline of previous runs
+ * At the end of the run the per-endpoint latencies collected by RunSamples are summarized into a RunRecord,
+ * compared with the last baselineWindowRuns runs against the same base URI with the same scenario tags, and
+ * appended to the history file. An endpoint regressed when a one-sided Mann-Whitney test says it is slower
+ * (p below baselineAlpha, this run's raw samples against the stored sketches, weighted by the real request counts)
+ * AND its p50 or p95 grew by at least baselineMinEffectPercent - significance alone flags harmless shifts
+ * on large samples. Runs that regressed are kept in the history but never become part of the baseline.
+ *
+ * Off unless baselineEnabled=true, since it writes files and adds a result to Allure.
+ * baselineGate=warn only reports; fail makes the run fail. A trend chart of p50/p95 over the stored runs
+ * is attached to the Allure report and written to target/baseline/trend.html.
+ */
+public class RegressionGate {
+
+    private static final boolean ENABLED = ConfigurationReader.getBoolean("baselineEnabled", false);
+    private static final String HISTORY_FILE = ConfigurationReader.get("baselineHistoryFile", "perf-history/latency-history.jsonl");
+    private static final int WINDOW_RUNS = ConfigurationReader.getInt("baselineWindowRuns", 10);
+    private static final int MIN_BASELINE_RUNS = ConfigurationReader.getInt("baselineMinRuns", 3);
+    private static final int MIN_SAMPLES = ConfigurationReader.getInt("baselineMinSamples", 20);
+    private static final double ALPHA = ConfigurationReader.getDouble("baselineAlpha", 0.01);
+    private static final double MIN_EFFECT_PERCENT = ConfigurationReader.getDouble("baselineMinEffectPercent", 10);
+    private static final int TREND_RUNS = ConfigurationReader.getInt("baselineTrendRuns", 30);
+    private static final boolean FAIL_ON_REGRESSION = "fail".equalsIgnoreCase(ConfigurationReader.get("baselineGate", "warn"));
+
+    private static final Path TREND_FILE = Path.of("target", "baseline", "trend.html");
+
+    /**
+     * Record the current run, compare it with the baseline and report
+     * @return Verdict per endpoint with enough samples; empty when disabled or nothing was sent
+     * @throws AssertionError if an endpoint regressed and baselineGate=fail
+     */
+    public static List<Verdict> evaluate() {
+        Map<String, double[]> samples = RunSamples.samplesMs();
+        if (!ENABLED || samples.isEmpty()) {
+            return List.of();
+        }
+
+        String environment = EnvironmentContext.currentName();
+        String baseUri = ConfigurationReader.get("baseUri");
+        String tags = RunSamples.scenarioTags();
+        RunRecord current = new RunRecord(Instant.now().toString(), environment, baseUri, tags, RunSamples.runWindowMs());
+        Map<String, Long> counts = RunSamples.requestCounts();
+        samples.forEach((endpoint, values) -> current.addEndpoint(endpoint, values, counts.getOrDefault(endpoint, (long) values.length)));
+
+        BaselineStore store = new BaselineStore(Path.of(HISTORY_FILE));
+        List<RunRecord> history;
+        try {
+            history = store.readAll();
+        } catch (IOException e) {
+            Log.warn("⚠️ Cannot read latency history {}: {}", store.getFile(), e.getMessage());
+            history = new ArrayList<>();
+        }
+        List<RunRecord> sameTarget = history.stream()
+                .filter(run -> baseUri != null && baseUri.equals(run.getBaseUri()) && tags.equals(run.getTags()))
+                .collect(Collectors.toList());
+        List<RunRecord> accepted = sameTarget.stream().filter(run -> !run.isRegressed()).collect(Collectors.toList());
+        List<RunRecord> baseline = accepted.subList(Math.max(0, accepted.size() - WINDOW_RUNS), accepted.size());
+
+        List<Verdict> verdicts = new ArrayList<>();
+        current.getEndpoints().forEach((endpoint, stats) -> {
+            if (stats.getCount() >= MIN_SAMPLES) {
+                verdicts.add(compare(endpoint, stats, samples.get(endpoint), baseline));
+            }
+        });
+        boolean regressed = verdicts.stream().anyMatch(Verdict::isRegression);
+        current.setRegressed(regressed);
+
+        try {
+            store.append(current);
+        } catch (IOException e) {
+            Log.warn("⚠️ Cannot append to latency history {}: {}", store.getFile(), e.getMessage());
+        }
+
+        sameTarget.add(current);
+        List<RunRecord> trend = sameTarget.subList(Math.max(0, sameTarget.size() - TREND_RUNS), sameTarget.size());
+        String chart = TrendChart.html(trend, verdicts);
+        writeTrendFile(chart);
+        attachToAllure(chart, verdicts, regressed);
+        printVerdicts(verdicts, baseline.size(), store.getFile());
+
+        if (regressed && FAIL_ON_REGRESSION) {
+            throw new AssertionError("Latency regression against baseline: " + verdicts.stream()
+                    .filter(Verdict::isRegression).map(Verdict::toString).collect(Collectors.joining("; ")));
+        }
+        return verdicts;
+    }
+
+    private static Verdict compare(String endpoint, RunRecord.EndpointStats stats, double[] samplesMs, List<RunRecord> baseline) {
+        List<RunRecord.EndpointStats> previous = baseline.stream()
+                .map(run -> run.getEndpoints().get(endpoint))
+                .filter(previousStats -> previousStats != null && previousStats.getCount() >= MIN_SAMPLES)
+                .collect(Collectors.toList());
+        if (previous.size() < MIN_BASELINE_RUNS) {
+            return new Verdict(endpoint, previous.size(), stats, Double.NaN, Double.NaN, 1.0, false,
+                    "NO BASELINE (" + previous.size() + "/" + MIN_BASELINE_RUNS + " runs)");
+        }
+
+        // Every run weighs the same in the pooled distribution; the sample sizes are the real request counts,
+        // not the number of points the sketches happen to keep
+        double[] pooled = previous.stream().flatMapToDouble(previousStats -> Arrays.stream(previousStats.getSketch())).toArray();
+        long baselineCount = previous.stream().mapToLong(RunRecord.EndpointStats::getCount).sum();
+        double pValue = MannWhitney.pValueGreater(samplesMs, stats.getCount(), pooled, baselineCount);
+        double baselineP50 = median(previous.stream().mapToDouble(RunRecord.EndpointStats::getP50).toArray());
+        double baselineP95 = median(previous.stream().mapToDouble(RunRecord.EndpointStats::getP95).toArray());
+        double effectPercent = Math.max(growthPercent(stats.getP50(), baselineP50), growthPercent(stats.getP95(), baselineP95));
+
+        boolean regression = pValue < ALPHA && effectPercent >= MIN_EFFECT_PERCENT;
+        String status = regression ? String.format("REGRESSION (+%.0f%%)", effectPercent) : "OK";
+        return new Verdict(endpoint, previous.size(), stats, baselineP50, baselineP95, pValue, regression, status);
+    }
+
+    private static double growthPercent(double value, double baseline) {
+        return baseline <= 0 ? 0 : (value - baseline) * 100 / baseline;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static void writeTrendFile(String chart) {
+        try {
+            Files.createDirectories(TREND_FILE.getParent());
+            Files.writeString(TREND_FILE, chart, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Log.warn("⚠️ Cannot write {}: {}", TREND_FILE, e.getMessage());
+        }
+    }
+
+    /**
+     * No scenario is running any more, so the chart goes into a test result of its own
+     */
+    private static void attachToAllure(String chart, List<Verdict> verdicts, boolean regressed) {
+        try {
+            AllureLifecycle lifecycle = Allure.getLifecycle();
+            String uuid = UUID.randomUUID().toString();
+            String environment = EnvironmentContext.currentName();
+            String name = "Latency baseline" + (environment != null ? " [" + environment + "]" : "");
+
+            TestResult result = new TestResult()
+                    .setUuid(uuid)
+                    .setName(name)
+                    .setFullName("petStore.baseline.RegressionGate" + (environment != null ? "." + environment : ""))
+                    .setHistoryId("latency-baseline-" + (environment != null ? environment : "default"))
+                    .setLabels(new ArrayList<>(List.of(ResultsUtils.createEpicLabel("Pet Store API"),
+                            ResultsUtils.createFeatureLabel("Performance Baseline"))));
+            lifecycle.scheduleTestCase(result);
+            lifecycle.startTestCase(uuid);
+            lifecycle.addAttachment("Latency trend", "text/html", "html", chart.getBytes(StandardCharsets.UTF_8));
+            lifecycle.addAttachment("Baseline comparison", "text/plain", "txt", verdicts.stream()
+                    .map(Verdict::toString).collect(Collectors.joining("\n")).getBytes(StandardCharsets.UTF_8));
+            lifecycle.updateTestCase(uuid, testResult -> {
+                testResult.setStatus(regressed ? (FAIL_ON_REGRESSION ? Status.FAILED : Status.BROKEN) : Status.PASSED);
+                if (regressed) {
+                    testResult.setStatusDetails(new StatusDetails().setMessage("Latency regression against baseline"));
+                }
+            });
+            lifecycle.stopTestCase(uuid);
+            lifecycle.writeTestCase(uuid);
+        } catch (RuntimeException e) {
+            Log.warn("⚠️ Cannot attach latency trend to Allure: {}", e.getMessage());
+        }
+    }
+
+    private static void printVerdicts(List<Verdict> verdicts, int baselineRuns, Path historyFile) {
+        Log.info("========== LATENCY BASELINE ==========");
+        Log.info("History: " + historyFile.toAbsolutePath() + " | baseline runs: " + baselineRuns
+                + " | alpha: " + ALPHA + " | min effect: " + MIN_EFFECT_PERCENT + "% | gate: " + (FAIL_ON_REGRESSION ? "fail" : "warn"));
+        if (verdicts.isEmpty()) {
+            Log.info("No endpoint reached " + MIN_SAMPLES + " requests, nothing compared");
+        }
+        verdicts.forEach(verdict -> {
+            if (verdict.isRegression()) {
+                Log.warn("❌ " + verdict);
+            } else {
+                Log.info("   " + verdict);
+            }
+        });
+        Log.info("Trend chart: " + TREND_FILE.toAbsolutePath());
+        Log.info("======================================");
+    }
+
+    /**
+     * Comparison of one endpoint with its baseline
+     */
+    public static class Verdict {
+        private final String endpoint;
+        private final int baselineRuns;
+        private final RunRecord.EndpointStats stats;
+        private final double baselineP50;
+        private final double baselineP95;
+        private final double pValue;
+        private final boolean regression;
+        private final String status;
+
+        Verdict(String endpoint, int baselineRuns, RunRecord.EndpointStats stats, double baselineP50, double baselineP95,
+                double pValue, boolean regression, String status) {
+            this.endpoint = endpoint;
+            this.baselineRuns = baselineRuns;
+            this.stats = stats;
+            this.baselineP50 = baselineP50;
+            this.baselineP95 = baselineP95;
+            this.pValue = pValue;
+            this.regression = regression;
+            this.status = status;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public int getBaselineRuns() {
+            return baselineRuns;
+        }
+
+        public double getP50() {
+            return stats.getP50();
+        }
+
+        public double getP95() {
+            return stats.getP95();
+        }
+
+        public double getThroughput() {
+            return stats.getThroughput();
+        }
+
+        public double getBaselineP50() {
+            return baselineP50;
+        }
+
+        public double getBaselineP95() {
+            return baselineP95;
+        }
+
+        public double getPValue() {
+            return pValue;
+        }
+
+        public boolean isRegression() {
+            return regression;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: p50=%.1fms (baseline %.1f) p95=%.1fms (baseline %.1f) %.1f req/s n=%d p=%.4f -> %s",
+                    endpoint, stats.getP50(), baselineP50, stats.getP95(), baselineP95, stats.getThroughput(),
+                    stats.getCount(), pValue, status);
+        }
+    }
+}
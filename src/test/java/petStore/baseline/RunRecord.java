@@ -0,0 +1,147 @@
+package petStore.baseline;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Run Record - One line of the latency history: per-endpoint percentiles and throughput of a run
+ * Besides p50/p95/p99 every endpoint keeps a fixed-size quantile sketch (QUANTILES points of its
+ * latency distribution), which is what the significance test compares across runs.
+ */
+public class RunRecord {
+
+    public static final int QUANTILES = 101;
+
+    private String timestamp;
+    private String environment;
+    private String baseUri;
+    private String tags;
+    private double durationMs;
+    private boolean regressed;
+    private Map<String, EndpointStats> endpoints = new TreeMap<>();
+
+    RunRecord() {
+        // Gson
+    }
+
+    RunRecord(String timestamp, String environment, String baseUri, String tags, double durationMs) {
+        this.timestamp = timestamp;
+        this.environment = environment;
+        this.baseUri = baseUri;
+        this.tags = tags;
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * Summarize the latency samples of one endpoint into this record
+     * @param endpoint Endpoint key (e.g. GET pet/{id})
+     * @param samplesMs Latencies in milliseconds
+     * @param totalRequests Requests sent to the endpoint (may exceed the retained samples)
+     */
+    void addEndpoint(String endpoint, double[] samplesMs, long totalRequests) {
+        double[] sorted = samplesMs.clone();
+        Arrays.sort(sorted);
+        double[] sketch = new double[QUANTILES];
+        for (int i = 0; i < QUANTILES; i++) {
+            sketch[i] = round(quantile(sorted, i / (double) (QUANTILES - 1)));
+        }
+        double throughput = durationMs > 0 ? totalRequests * 1000.0 / durationMs : 0;
+        endpoints.put(endpoint, new EndpointStats(totalRequests, round(quantile(sorted, 0.50)),
+                round(quantile(sorted, 0.95)), round(quantile(sorted, 0.99)), round(throughput), sketch));
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public String getEnvironment() {
+        return environment;
+    }
+
+    public String getBaseUri() {
+        return baseUri;
+    }
+
+    /**
+     * @return Tags of the scenarios the run executed; null in history written before tags were recorded
+     */
+    public String getTags() {
+        return tags;
+    }
+
+    public boolean isRegressed() {
+        return regressed;
+    }
+
+    void setRegressed(boolean regressed) {
+        this.regressed = regressed;
+    }
+
+    public Map<String, EndpointStats> getEndpoints() {
+        return endpoints;
+    }
+
+    private static double quantile(double[] sorted, double q) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        double position = q * (sorted.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (position - lower);
+    }
+
+    // 0.01 ms is far below run-to-run noise and keeps the history file compact
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * Latency and throughput of one endpoint in one run
+     */
+    public static class EndpointStats {
+        private long count;
+        private double p50;
+        private double p95;
+        private double p99;
+        private double throughput;
+        private double[] sketch;
+
+        EndpointStats(long count, double p50, double p95, double p99, double throughput, double[] sketch) {
+            this.count = count;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.throughput = throughput;
+            this.sketch = sketch;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP95() {
+            return p95;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        /**
+         * @return Requests per second to this endpoint over the run
+         */
+        public double getThroughput() {
+            return throughput;
+        }
+
+        public double[] getSketch() {
+            return sketch;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package petStore.baseline;
+
+import io.restassured.filter.Filter;
+import petStore.common.EndpointTemplate;
+import petStore.common.EnvironmentContext;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Run Samples - Latency of every request sent during this run, per environment and endpoint
+ * Unlike LatencyTracker (a short sliding window feeding hedging), this keeps the whole run:
+ * every sample up to MAX_SAMPLES per endpoint, then a uniform reservoir sample, so the recorded
+ * distribution stays representative on long runs.
+ */
+public class RunSamples {
+
+    private static final int MAX_SAMPLES = 10_000;
+    private static final String NO_ENVIRONMENT = "";
+
+    private static final Map<String, Map<String, Samples>> samplesByEnvironment = new ConcurrentHashMap<>();
+    private static final Map<String, long[]> runWindowByEnvironment = new ConcurrentHashMap<>();
+    private static final Map<String, Set<String>> scenarioTagsByEnvironment = new ConcurrentHashMap<>();
+
+    private static final Filter FILTER = (requestSpec, responseSpec, context) -> {
+        long start = System.nanoTime();
+        try {
+            return context.next(requestSpec, responseSpec);
+        } finally {
+            record(EndpointTemplate.of(requestSpec.getMethod(), requestSpec.getURI()), start, System.nanoTime());
+        }
+    };
+
+    /**
+     * RestAssured filter timing each request of the run
+     * @return Shared filter instance
+     */
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    /**
+     * Latency samples of the current thread's environment, in milliseconds
+     * @return Samples by endpoint key (copies)
+     */
+    public static Map<String, double[]> samplesMs() {
+        Map<String, double[]> copy = new TreeMap<>();
+        samplesByEnvironment.getOrDefault(environment(), Map.of()).forEach((endpoint, samples) -> copy.put(endpoint, samples.toMillis()));
+        return copy;
+    }
+
+    /**
+     * Requests sent per endpoint in the current thread's environment, including those not kept as samples
+     * @return Request count by endpoint key
+     */
+    public static Map<String, Long> requestCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        samplesByEnvironment.getOrDefault(environment(), Map.of()).forEach((endpoint, samples) -> counts.put(endpoint, samples.seen()));
+        return counts;
+    }
+
+    /**
+     * @return Time between the first request start and the last response of the current environment, in ms
+     */
+    public static double runWindowMs() {
+        long[] window = runWindowByEnvironment.get(environment());
+        return window == null ? 0 : (window[1] - window[0]) / 1_000_000.0;
+    }
+
+    /**
+     * Remember the tags of a scenario that ran, so the run can be compared with runs of the same selection
+     * @param tags Source tag names of the scenario
+     */
+    public static void recordScenario(Collection<String> tags) {
+        scenarioTagsByEnvironment.computeIfAbsent(environment(), key -> new ConcurrentSkipListSet<>()).addAll(tags);
+    }
+
+    /**
+     * @return Sorted, space-separated tags of the scenarios run in the current environment - identifies the tag selection
+     */
+    public static String scenarioTags() {
+        return String.join(" ", scenarioTagsByEnvironment.getOrDefault(environment(), Set.of()));
+    }
+
+    private static void record(String endpoint, long startNanos, long endNanos) {
+        String environment = environment();
+        samplesByEnvironment.computeIfAbsent(environment, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(endpoint, key -> new Samples())
+                .add(endNanos - startNanos);
+
+        long[] window = runWindowByEnvironment.computeIfAbsent(environment, key -> new long[]{startNanos, endNanos});
+        synchronized (window) {
+            window[0] = Math.min(window[0], startNanos);
+            window[1] = Math.max(window[1], endNanos);
+        }
+    }
+
+    private static String environment() {
+        String name = EnvironmentContext.currentName();
+        return name == null ? NO_ENVIRONMENT : name;
+    }
+
+    /**
+     * Reservoir of request durations for one endpoint
+     */
+    private static class Samples {
+        private long[] nanos = new long[64];
+        private int size;
+        private long seen;
+
+        synchronized void add(long value) {
+            seen++;
+            if (size < MAX_SAMPLES) {
+                if (size == nanos.length) {
+                    nanos = Arrays.copyOf(nanos, Math.min(MAX_SAMPLES, size * 2));
+                }
+                nanos[size++] = value;
+                return;
+            }
+            long slot = ThreadLocalRandom.current().nextLong(seen);
+            if (slot < MAX_SAMPLES) {
+                nanos[(int) slot] = value;
+            }
+        }
+
+        synchronized long seen() {
+            return seen;
+        }
+
+        synchronized double[] toMillis() {
+            double[] millis = new double[size];
+            for (int i = 0; i < size; i++) {
+                millis[i] = nanos[i] / 1_000_000.0;
+            }
+            return millis;
+        }
+    }
+}
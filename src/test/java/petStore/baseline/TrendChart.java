@@ -0,0 +1,107 @@
+package petStore.baseline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Trend Chart - Self-contained HTML page with one inline SVG line chart per endpoint
+ * Plots p50 and p95 over the stored runs (oldest left); runs flagged as regressions are drawn in red.
+ * No scripts or external resources, so it renders as an Allure attachment.
+ */
+class TrendChart {
+
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 200;
+    private static final int MARGIN = 40;
+
+    private TrendChart() {
+    }
+
+    /**
+     * @param runs Runs to plot, oldest first (the current run last)
+     * @param verdicts Gate verdicts of the current run, rendered below the charts
+     * @return HTML document
+     */
+    static String html(List<RunRecord> runs, List<RegressionGate.Verdict> verdicts) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Latency trend</title>")
+                .append("<style>body{font-family:sans-serif;font-size:13px}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:2px 6px;text-align:right}.bad{color:#c00;font-weight:bold}</style>")
+                .append("</head><body><h2>Latency trend (").append(runs.size()).append(" runs)</h2>")
+                .append("<p><span style=\"color:#1f77b4\">&#9632; p50</span> &nbsp; <span style=\"color:#ff7f0e\">&#9632; p95</span>")
+                .append(" &nbsp; <span style=\"color:#c00\">&#9679; run flagged as regression</span></p>");
+
+        Set<String> endpoints = new TreeSet<>();
+        runs.forEach(run -> endpoints.addAll(run.getEndpoints().keySet()));
+        for (String endpoint : endpoints) {
+            html.append("<h3>").append(escape(endpoint)).append("</h3>").append(svg(runs, endpoint));
+        }
+
+        html.append("<h2>Current run vs baseline</h2><table><tr><th>Endpoint</th><th>Baseline runs</th>")
+                .append("<th>p50 (ms)</th><th>Baseline p50</th><th>p95 (ms)</th><th>Baseline p95</th>")
+                .append("<th>Throughput (req/s)</th><th>p-value</th><th>Verdict</th></tr>");
+        for (RegressionGate.Verdict verdict : verdicts) {
+            html.append("<tr><td style=\"text-align:left\">").append(escape(verdict.getEndpoint())).append("</td><td>")
+                    .append(verdict.getBaselineRuns()).append("</td><td>").append(format(verdict.getP50())).append("</td><td>")
+                    .append(format(verdict.getBaselineP50())).append("</td><td>").append(format(verdict.getP95())).append("</td><td>")
+                    .append(format(verdict.getBaselineP95())).append("</td><td>").append(format(verdict.getThroughput()))
+                    .append("</td><td>").append(String.format(Locale.ROOT, "%.4f", verdict.getPValue())).append("</td><td")
+                    .append(verdict.isRegression() ? " class=\"bad\"" : "").append(">").append(verdict.getStatus()).append("</td></tr>");
+        }
+        return html.append("</table></body></html>").toString();
+    }
+
+    private static String svg(List<RunRecord> runs, String endpoint) {
+        List<double[]> points = new ArrayList<>();
+        List<Boolean> regressed = new ArrayList<>();
+        double max = 1;
+        for (RunRecord run : runs) {
+            RunRecord.EndpointStats stats = run.getEndpoints().get(endpoint);
+            if (stats == null) {
+                continue;
+            }
+            points.add(new double[]{stats.getP50(), stats.getP95()});
+            regressed.add(run.isRegressed());
+            max = Math.max(max, stats.getP95());
+        }
+
+        StringBuilder svg = new StringBuilder("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + WIDTH
+                + "\" height=\"" + HEIGHT + "\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\" stroke=\"#ccc\"/>");
+        svg.append("<text x=\"4\" y=\"14\" font-size=\"11\">").append(format(max)).append(" ms</text>")
+                .append("<text x=\"4\" y=\"").append(HEIGHT - MARGIN / 2).append("\" font-size=\"11\">0</text>");
+
+        for (int series = 0; series < 2; series++) {
+            StringBuilder polyline = new StringBuilder();
+            for (int i = 0; i < points.size(); i++) {
+                polyline.append(format(x(i, points.size()))).append(',').append(format(y(points.get(i)[series], max))).append(' ');
+            }
+            svg.append("<polyline fill=\"none\" stroke-width=\"2\" stroke=\"").append(series == 0 ? "#1f77b4" : "#ff7f0e")
+                    .append("\" points=\"").append(polyline.toString().trim()).append("\"/>");
+        }
+        for (int i = 0; i < points.size(); i++) {
+            svg.append("<circle r=\"3\" cx=\"").append(format(x(i, points.size()))).append("\" cy=\"")
+                    .append(format(y(points.get(i)[1], max))).append("\" fill=\"").append(regressed.get(i) ? "#c00" : "#ff7f0e")
+                    .append("\"/>");
+        }
+        return svg.append("</svg>").toString();
+    }
+
+    private static double x(int index, int count) {
+        return count <= 1 ? WIDTH / 2.0 : MARGIN + index * (WIDTH - 2.0 * MARGIN) / (count - 1);
+    }
+
+    private static double y(double value, double max) {
+        return HEIGHT - MARGIN / 2.0 - value / max * (HEIGHT - 1.5 * MARGIN);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
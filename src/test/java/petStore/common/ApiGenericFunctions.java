@@ -2,6 +2,13 @@ package petStore.common;
 
 import io.restassured.response.Response;
 import org.junit.Assert;
+import petStore.logging.Log;
+import petStore.validation.SchemaValidator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 /**
  * Generic utility functions for API testing
@@ -68,6 +75,39 @@ public class ApiGenericFunctions {
         }
     }
 
+    /**
+     * Verify response body matches a JSON schema, reporting every violation at once
+     * @param schemaName Schema file name in src/test/resources/schemas (e.g. SchemaValidator.PET)
+     * @param response REST Assured Response object
+     */
+    public static void verifyMatchesSchema(String schemaName, Response response) {
+        List<String> violations = SchemaValidator.validate(schemaName, response);
+        Assert.assertTrue(
+                "Response does not match schema '" + schemaName + "' (" + violations.size() + " violation(s)):\n"
+                        + String.join("\n", violations),
+                violations.isEmpty()
+        );
+    }
+
+    /**
+     * Verify a response view's body matches a JSON schema, streaming the body instead of materialising it
+     * @param schemaName Schema file name in src/test/resources/schemas (e.g. SchemaValidator.PET)
+     * @param response Response view kept by a step definition
+     */
+    public static void verifyMatchesSchema(String schemaName, ResponseView response) {
+        List<String> violations;
+        try (InputStream body = response.openBody()) {
+            violations = SchemaValidator.validate(schemaName, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Assert.assertTrue(
+                "Response does not match schema '" + schemaName + "' (" + violations.size() + " violation(s)):\n"
+                        + String.join("\n", violations),
+                violations.isEmpty()
+        );
+    }
+
     /**
      * Verify response time is within acceptable limit
      * @param maxTimeInMs Maximum acceptable response time in milliseconds
@@ -129,10 +169,10 @@ public class ApiGenericFunctions {
     public static void waitForSec(int seconds) {
         try {
             Thread.sleep(seconds * 1000L);
-            System.out.println("⏱️ Waited for " + seconds + " second(s)");
+            Log.info("⏱️ Waited for {} second(s)", seconds);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            System.err.println("Wait interrupted: " + e.getMessage());
+            Log.warn("Wait interrupted: {}", e.getMessage());
         }
     }
 
@@ -141,12 +181,12 @@ public class ApiGenericFunctions {
      * @param response REST Assured Response object
      */
     public static void logResponse(Response response) {
-        System.out.println("========== RESPONSE DETAILS ==========");
-        System.out.println("Status Code: " + response.getStatusCode());
-        System.out.println("Content Type: " + response.getContentType());
-        System.out.println("Response Time: " + response.getTime() + "ms");
-        System.out.println("Response Body: " + response.getBody().asString());
-        System.out.println("======================================");
+        Log.info(() -> "========== RESPONSE DETAILS ==========" + System.lineSeparator()
+                + "Status Code: " + response.getStatusCode() + System.lineSeparator()
+                + "Content Type: " + response.getContentType() + System.lineSeparator()
+                + "Response Time: " + response.getTime() + "ms" + System.lineSeparator()
+                + "Response Body: " + response.getBody().asString() + System.lineSeparator()
+                + "======================================");
     }
 
     /**
@@ -159,7 +199,7 @@ public class ApiGenericFunctions {
         try {
             return response.path(key);
         } catch (Exception e) {
-            System.err.println("Could not extract value for key '" + key + "': " + e.getMessage());
+            Log.warn("Could not extract value for key '{}': {}", key, e.getMessage());
             return null;
         }
     }
@@ -1,7 +1,14 @@
 package petStore.common;
 
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import petStore.baseline.RunSamples;
+import petStore.logging.Log;
+import petStore.profiling.HttpWaitTracker;
+import petStore.profiling.JfrHttpFilter;
+import petStore.profiling.NetworkPhases;
+import petStore.validation.SchemaValidator;
 
 import static io.restassured.RestAssured.given;
 
@@ -11,6 +18,11 @@ import static io.restassured.RestAssured.given;
  */
 public class CommonRestCRUD {
 
+    static {
+        // Before the first given(): RestAssured picks the HTTP client factory up from its global config
+        NetworkPhases.install();
+    }
+
     /**
      * Perform GET request
      * @param requestSpecification Request specification with base URI, headers, etc.
@@ -18,11 +30,17 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response get(RequestSpecification requestSpecification, int expectedResponseCode) {
-        System.out.println("🔵 Executing GET request...");
-        return given().spec(requestSpecification)
-                .when().log().all()
+        Log.info("🔵 Executing GET request...");
+        if (SingleFlight.isEnabled()) {
+            // Coalesced callers share one response; each one checks the status code it expects
+            Response response = coalescedGet(requestSpecification);
+            response.then().statusCode(expectedResponseCode);
+            return response;
+        }
+        return request(requestSpecification)
+                .when()
                 .get()
-                .then().log().all()
+                .then()
                 .statusCode(expectedResponseCode)
                 .extract().response();
     }
@@ -34,11 +52,14 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response get(RequestSpecification requestSpecification) {
-        System.out.println("🔵 Executing GET request (no status validation)...");
-        return given().spec(requestSpecification)
-                .when().log().all()
+        Log.info("🔵 Executing GET request (no status validation)...");
+        if (SingleFlight.isEnabled()) {
+            return coalescedGet(requestSpecification);
+        }
+        return request(requestSpecification)
+                .when()
                 .get()
-                .then().log().all()
+                .then()
                 .extract().response();
     }
 
@@ -49,11 +70,11 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response post(RequestSpecification requestSpecification, int expectedResponseCode) {
-        System.out.println("🟢 Executing POST request...");
-        return given().spec(requestSpecification)
-                .when().log().all()
+        Log.info("🟢 Executing POST request...");
+        return request(requestSpecification)
+                .when()
                 .post()
-                .then().log().all()
+                .then()
                 .statusCode(expectedResponseCode)
                 .extract().response();
     }
@@ -64,11 +85,11 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response post(RequestSpecification requestSpecification) {
-        System.out.println("🟢 Executing POST request (no status validation)...");
-        return given().spec(requestSpecification)
-                .when().log().all()
+        Log.info("🟢 Executing POST request (no status validation)...");
+        return request(requestSpecification)
+                .when()
                 .post()
-                .then().log().all()
+                .then()
                 .extract().response();
     }
 
@@ -79,11 +100,11 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response put(RequestSpecification requestSpecification, int expectedResponseCode) {
-        System.out.println("🟡 Executing PUT request...");
-        return given().spec(requestSpecification)
-                .when().log().all()
+        Log.info("🟡 Executing PUT request...");
+        return request(requestSpecification)
+                .when()
                 .put()
-                .then().log().all()
+                .then()
                 .statusCode(expectedResponseCode)
                 .extract().response();
     }
@@ -94,11 +115,11 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response put(RequestSpecification requestSpecification) {
-        System.out.println("🟡 Executing PUT request (no status validation)...");
-        return given().spec(requestSpecification)
-                .when().log().all()
+        Log.info("🟡 Executing PUT request (no status validation)...");
+        return request(requestSpecification)
+                .when()
                 .put()
-                .then().log().all()
+                .then()
                 .extract().response();
     }
 
@@ -109,11 +130,11 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response patch(RequestSpecification requestSpecification, int expectedResponseCode) {
-        System.out.println("🟠 Executing PATCH request...");
-        return given().spec(requestSpecification)
-                .when().log().all()
+        Log.info("🟠 Executing PATCH request...");
+        return request(requestSpecification)
+                .when()
                 .patch()
-                .then().log().all()
+                .then()
                 .statusCode(expectedResponseCode)
                 .extract().response();
     }
@@ -124,11 +145,11 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response patch(RequestSpecification requestSpecification) {
-        System.out.println("🟠 Executing PATCH request (no status validation)...");
-        return given().spec(requestSpecification)
-                .when().log().all()
+        Log.info("🟠 Executing PATCH request (no status validation)...");
+        return request(requestSpecification)
+                .when()
                 .patch()
-                .then().log().all()
+                .then()
                 .extract().response();
     }
 
@@ -139,11 +160,11 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response delete(RequestSpecification requestSpecification, int expectedResponseCode) {
-        System.out.println("🔴 Executing DELETE request...");
-        return given().spec(requestSpecification)
-                .when().log().all()
+        Log.info("🔴 Executing DELETE request...");
+        return request(requestSpecification)
+                .when()
                 .delete()
-                .then().log().all()
+                .then()
                 .statusCode(expectedResponseCode)
                 .extract().response();
     }
@@ -154,14 +175,66 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response delete(RequestSpecification requestSpecification) {
-        System.out.println("🔴 Executing DELETE request (no status validation)...");
-        return given().spec(requestSpecification)
-                .when().log().all()
+        Log.info("🔴 Executing DELETE request (no status validation)...");
+        return request(requestSpecification)
+                .when()
                 .delete()
-                .then().log().all()
+                .then()
                 .extract().response();
     }
 
+    /**
+     * Perform hedged GET request (see HedgedRequests)
+     * A second attempt is sent if the first one is slower than recent latency for this endpoint
+     * @param requestSpecification Request specification
+     * @param expectedResponseCode Expected HTTP status code
+     * @return Response object of the attempt that completed first
+     */
+    public static Response getHedged(RequestSpecification requestSpecification, int expectedResponseCode) {
+        Log.info("🔵 Executing hedged GET request...");
+        String endpoint = EndpointTemplate.of("GET", requestSpecification);
+
+        return HedgedRequests.execute(endpoint, () -> withAdaptiveTimeout(endpoint, requestSpecification)
+                .when()
+                .get()
+                .then()
+                .statusCode(expectedResponseCode)
+                .extract().response());
+    }
+
+    /**
+     * Perform hedged GET request without status code validation
+     * @param requestSpecification Request specification
+     * @return Response object of the attempt that completed first
+     */
+    public static Response getHedged(RequestSpecification requestSpecification) {
+        Log.info("🔵 Executing hedged GET request (no status validation)...");
+        String endpoint = EndpointTemplate.of("GET", requestSpecification);
+
+        return HedgedRequests.execute(endpoint, () -> withAdaptiveTimeout(endpoint, requestSpecification)
+                .when()
+                .get()
+                .then()
+                .extract().response());
+    }
+
+    /**
+     * Perform hedged DELETE request without status code validation
+     * Only for cleanup: a hedged DELETE may answer 404 because the first attempt already deleted the pet
+     * @param requestSpecification Request specification
+     * @return Response object of the attempt that completed first
+     */
+    public static Response deleteHedged(RequestSpecification requestSpecification) {
+        Log.info("🔴 Executing hedged DELETE request (no status validation)...");
+        String endpoint = EndpointTemplate.of("DELETE", requestSpecification);
+
+        return HedgedRequests.execute(endpoint, () -> withAdaptiveTimeout(endpoint, requestSpecification)
+                .when()
+                .delete()
+                .then()
+                .extract().response());
+    }
+
     /**
      * Perform GET request with path parameters
      * @param requestSpecification Request specification
@@ -170,12 +243,12 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response getWithPathParam(RequestSpecification requestSpecification, String pathParam, int expectedResponseCode) {
-        System.out.println("🔵 Executing GET request with path param: " + pathParam);
-        return given().spec(requestSpecification)
+        Log.info("🔵 Executing GET request with path param: {}", pathParam);
+        return request(requestSpecification)
                 .pathParam("id", pathParam)
-                .when().log().all()
+                .when()
                 .get("/{id}")
-                .then().log().all()
+                .then()
                 .statusCode(expectedResponseCode)
                 .extract().response();
     }
@@ -192,12 +265,12 @@ public class CommonRestCRUD {
                                              String queryParamName,
                                              String queryParamValue,
                                              int expectedResponseCode) {
-        System.out.println("🔵 Executing GET request with query param: " + queryParamName + "=" + queryParamValue);
-        return given().spec(requestSpecification)
+        Log.info("🔵 Executing GET request with query param: {}={}", queryParamName, queryParamValue);
+        return request(requestSpecification)
                 .queryParam(queryParamName, queryParamValue)
-                .when().log().all()
+                .when()
                 .get()
-                .then().log().all()
+                .then()
                 .statusCode(expectedResponseCode)
                 .extract().response();
     }
@@ -211,36 +284,36 @@ public class CommonRestCRUD {
      * @return Response object
      */
     public static Response executeRequest(RequestSpecification requestSpecification, String endpoint, String method) {
-        System.out.println("🔷 Executing " + method + " request to endpoint: " + endpoint);
+        Log.info("🔷 Executing {} request to endpoint: {}", method, endpoint);
         Response response = null;
 
         switch (method.toUpperCase()) {
             case "GET":
-                response = given().spec(requestSpecification)
-                        .when().log().all()
+                response = request(requestSpecification)
+                        .when()
                         .get(endpoint)
-                        .then().log().all()
+                        .then()
                         .extract().response();
                 break;
             case "POST":
-                response = given().spec(requestSpecification)
-                        .when().log().all()
+                response = request(requestSpecification)
+                        .when()
                         .post(endpoint)
-                        .then().log().all()
+                        .then()
                         .extract().response();
                 break;
             case "PUT":
-                response = given().spec(requestSpecification)
-                        .when().log().all()
+                response = request(requestSpecification)
+                        .when()
                         .put(endpoint)
-                        .then().log().all()
+                        .then()
                         .extract().response();
                 break;
             case "DELETE":
-                response = given().spec(requestSpecification)
-                        .when().log().all()
+                response = request(requestSpecification)
+                        .when()
                         .delete(endpoint)
-                        .then().log().all()
+                        .then()
                         .extract().response();
                 break;
             default:
@@ -249,4 +322,49 @@ public class CommonRestCRUD {
 
         return response;
     }
+
+    /**
+     * GET without status validation that joins an identical request already in flight (see SingleFlight)
+     * @param requestSpecification Request specification
+     * @return Response shared with concurrent identical callers
+     */
+    private static Response coalescedGet(RequestSpecification requestSpecification) {
+        return SingleFlight.execute(requestSpecification, () -> request(requestSpecification)
+                .when()
+                .get()
+                .then()
+                .extract().response());
+    }
+
+    /**
+     * Start a request from the given spec, applying adaptive timeouts when enabled
+     * @param endpoint Endpoint key used to look up recent latency
+     * @param requestSpecification Request specification
+     * @return RequestSpecification ready to send
+     */
+    private static RequestSpecification withAdaptiveTimeout(String endpoint, RequestSpecification requestSpecification) {
+        RequestSpecification request = request(requestSpecification);
+        RestAssuredConfig config = HedgedRequests.adaptiveTimeoutConfig(endpoint);
+
+        return config != null ? request.config(config) : request;
+    }
+
+    /**
+     * Start a request from the given spec
+     * Every call in this class goes through here, so client-side filters (rate limiting,
+     * schema validation, JFR events, HTTP wait tracking, run samples, network phases) apply to all of them.
+     * The HTTP/2 transport filter comes last: when active it sends the request itself
+     * @param requestSpecification Request specification
+     * @return RequestSpecification ready to send
+     */
+    protected static RequestSpecification request(RequestSpecification requestSpecification) {
+        return given().spec(requestSpecification)
+                .filter(RateLimiter.filter())
+                .filter(SchemaValidator.filter())
+                .filter(JfrHttpFilter.filter())
+                .filter(HttpWaitTracker.filter())
+                .filter(RunSamples.filter())
+                .filter(NetworkPhases.filter())
+                .filter(Http2Transport.filter());
+    }
 }
\ No newline at end of file
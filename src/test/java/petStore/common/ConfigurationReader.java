@@ -1,5 +1,8 @@
 package petStore.common;
 
+import petStore.logging.Log;
+import petStore.logging.LogLevel;
+
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -8,11 +11,13 @@ import java.util.Properties;
 /**
  * Configuration Reader - Loads properties from configuration file
  * Supports both file system and classpath loading
+ * System properties override file values (e.g. -DsoakDurationMinutes=240),
+ * and in multi-environment runs the thread's EnvironmentContext overrides both
  */
 public class ConfigurationReader {
 
     private static Properties properties;
-    private static final String CONFIG_FILE = "configuration.properties";
+    private static final String CONFIG_FILE = "Configuration.properties";
 
     static {
         properties = new Properties();
@@ -32,18 +37,19 @@ public class ConfigurationReader {
 
             if (input != null) {
                 properties.load(input);
-                System.out.println("✓ Configuration loaded from classpath: " + CONFIG_FILE);
+                applyLogSettings();
+                Log.info("✓ Configuration loaded from classpath: {}", CONFIG_FILE);
             } else {
                 // Fallback: Try loading from file system
                 input = new FileInputStream(CONFIG_FILE);
                 properties.load(input);
-                System.out.println("✓ Configuration loaded from file system: " + CONFIG_FILE);
+                applyLogSettings();
+                Log.info("✓ Configuration loaded from file system: {}", CONFIG_FILE);
             }
 
         } catch (IOException e) {
-            System.err.println("❌ ERROR: Could not load configuration file: " + CONFIG_FILE);
-            System.err.println("Please ensure the file exists in src/test/resources/ or project root");
-            e.printStackTrace();
+            Log.error("❌ ERROR: Could not load configuration file: " + CONFIG_FILE
+                    + " - please ensure the file exists in src/test/resources/ or project root", e);
             throw new RuntimeException("Configuration file not found: " + CONFIG_FILE, e);
         } finally {
             closeInputStream(input);
@@ -56,10 +62,10 @@ public class ConfigurationReader {
      * @return Property value, or null if not found
      */
     public static String get(String keyName) {
-        String value = properties.getProperty(keyName);
+        String value = lookup(keyName);
 
         if (value == null) {
-            System.err.println("⚠️ WARNING: Property '" + keyName + "' not found in configuration");
+            Log.warn("⚠️ WARNING: Property '{}' not found in configuration", keyName);
         }
 
         return value;
@@ -72,10 +78,10 @@ public class ConfigurationReader {
      * @return Property value or default value
      */
     public static String get(String keyName, String defaultValue) {
-        String value = properties.getProperty(keyName);
+        String value = lookup(keyName);
 
         if (value == null) {
-            System.out.println("ℹ️ Property '" + keyName + "' not found, using default: " + defaultValue);
+            Log.info("ℹ️ Property '{}' not found, using default: {}", keyName, defaultValue);
             return defaultValue;
         }
 
@@ -112,7 +118,29 @@ public class ConfigurationReader {
         try {
             return getInt(keyName);
         } catch (Exception e) {
-            System.out.println("ℹ️ Using default integer value for '" + keyName + "': " + defaultValue);
+            Log.info("ℹ️ Using default integer value for '{}': {}", keyName, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get property as double with default value
+     * @param keyName Property key
+     * @param defaultValue Default value if key not found or invalid
+     * @return Double value or default
+     */
+    public static double getDouble(String keyName, double defaultValue) {
+        String value = lookup(keyName);
+
+        if (value == null) {
+            Log.info("ℹ️ Using default double value for '{}': {}", keyName, defaultValue);
+            return defaultValue;
+        }
+
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            Log.info("ℹ️ Property '{}' value '{}' is not a valid number, using default: {}", keyName, value, defaultValue);
             return defaultValue;
         }
     }
@@ -142,7 +170,7 @@ public class ConfigurationReader {
         try {
             return getBoolean(keyName);
         } catch (Exception e) {
-            System.out.println("ℹ️ Using default boolean value for '" + keyName + "': " + defaultValue);
+            Log.info("ℹ️ Using default boolean value for '{}': {}", keyName, defaultValue);
             return defaultValue;
         }
     }
@@ -153,7 +181,7 @@ public class ConfigurationReader {
      * @return true if property exists, false otherwise
      */
     public static boolean hasProperty(String keyName) {
-        return properties.containsKey(keyName);
+        return lookup(keyName) != null;
     }
 
     /**
@@ -168,9 +196,37 @@ public class ConfigurationReader {
      * Print all configuration properties (for debugging)
      */
     public static void printAllProperties() {
-        System.out.println("========== CONFIGURATION PROPERTIES ==========");
-        properties.forEach((key, value) -> System.out.println(key + " = " + value));
-        System.out.println("==============================================");
+        Log.info(() -> {
+            StringBuilder message = new StringBuilder("========== CONFIGURATION PROPERTIES ==========");
+            properties.forEach((key, value) -> message.append(System.lineSeparator()).append(key).append(" = ").append(value));
+            return message.append(System.lineSeparator()).append("==============================================").toString();
+        });
+    }
+
+    /**
+     * Apply logLevel, logQuiet, logFormat and logQueueCapacity to the logging facade
+     * Read directly from the properties so no "using default" messages are logged before the level is known
+     */
+    private static void applyLogSettings() {
+        String capacity = lookup("logQueueCapacity");
+        Log.configure(LogLevel.parse(lookup("logLevel"), LogLevel.INFO),
+                Boolean.parseBoolean(lookup("logQuiet")),
+                "json".equalsIgnoreCase(lookup("logFormat")),
+                capacity == null ? 8192 : Integer.parseInt(capacity.trim()));
+    }
+
+    /**
+     * Look up a key: current environment first, then system properties, then the configuration file
+     * @param keyName Property key
+     * @return Value, or null if not set anywhere
+     */
+    private static String lookup(String keyName) {
+        EnvironmentContext environment = EnvironmentContext.current();
+        String override = environment != null ? environment.get(keyName) : null;
+        if (override == null) {
+            override = System.getProperty(keyName);
+        }
+        return override != null ? override : properties.getProperty(keyName);
     }
 
     /**
@@ -182,7 +238,7 @@ public class ConfigurationReader {
             try {
                 input.close();
             } catch (IOException e) {
-                System.err.println("Warning: Could not close input stream: " + e.getMessage());
+                Log.warn("Warning: Could not close input stream: {}", e.getMessage());
             }
         }
     }
@@ -0,0 +1,68 @@
+package petStore.common;
+
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+
+/**
+ * Endpoint Template - Normalises request URIs into endpoint keys
+ * e.g. "GET https://petstore.swagger.io/v2/pet/20001001" becomes "GET pet/{id}"
+ * Used to group latency data and per-endpoint settings
+ */
+public class EndpointTemplate {
+
+    /**
+     * Build endpoint key from a request specification
+     * @param method HTTP method (GET, POST, PUT, DELETE)
+     * @param requestSpecification Request specification built by PetReqSpec
+     * @return Endpoint key such as "GET pet/{id}"
+     */
+    public static String of(String method, RequestSpecification requestSpecification) {
+        QueryableRequestSpecification queryable = SpecificationQuerier.query(requestSpecification);
+        return of(method, queryable.getBaseUri() + queryable.getBasePath());
+    }
+
+    /**
+     * Build endpoint key from a raw URI
+     * Query string and configured base URI are stripped, numeric path segments become {id}
+     * @param method HTTP method
+     * @param uri Full or relative request URI
+     * @return Endpoint key
+     */
+    public static String of(String method, String uri) {
+        String path = uri == null ? "" : uri;
+
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
+        }
+
+        String baseUri = ConfigurationReader.get("baseUri");
+        if (baseUri != null && path.startsWith(baseUri.trim())) {
+            path = path.substring(baseUri.trim().length());
+        }
+
+        StringBuilder template = new StringBuilder();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (template.length() > 0) {
+                template.append('/');
+            }
+            template.append(isNumeric(segment) ? "{id}" : segment);
+        }
+
+        return method.toUpperCase() + " " + template;
+    }
+
+    private static boolean isNumeric(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return c == '-' && i == 0 && segment.length() > 1 && isNumeric(segment.substring(1));
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,146 @@
+package petStore.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Environment Context - Per-environment configuration overlay for multi-environment runs
+ * Environments are listed in "environments" (e.g. local,staging,public) and each one overrides
+ * any key with "env.<name>.<key>", e.g. env.staging.baseUri = https://staging.example.com/v2/
+ *
+ * The context is bound to the current thread; ConfigurationReader consults it first, so everything
+ * that reads configuration per request (base URI, specs) follows the environment of its thread.
+ */
+public class EnvironmentContext {
+
+    private static final String ENVIRONMENTS_KEY = "environments";
+    private static final String PREFIX = "env.";
+
+    private static final ThreadLocal<EnvironmentContext> current = new ThreadLocal<>();
+
+    private final String name;
+    private final Properties overrides;
+
+    /**
+     * @param name Environment name
+     * @param overrides Keys overridden for this environment (without the env.<name>. prefix)
+     */
+    public EnvironmentContext(String name, Properties overrides) {
+        this.name = name;
+        this.overrides = overrides;
+    }
+
+    /**
+     * Environments listed in the "environments" key, with their env.<name>.* overrides
+     * @return Configured environments, empty if none
+     */
+    public static List<EnvironmentContext> configured() {
+        String names = ConfigurationReader.hasProperty(ENVIRONMENTS_KEY) ? ConfigurationReader.get(ENVIRONMENTS_KEY) : "";
+        List<EnvironmentContext> environments = new ArrayList<>();
+
+        for (String name : names.split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+
+            String prefix = PREFIX + name + ".";
+            Properties overrides = new Properties();
+            Properties all = ConfigurationReader.getAllProperties();
+            for (String key : all.stringPropertyNames()) {
+                if (key.startsWith(prefix)) {
+                    overrides.setProperty(key.substring(prefix.length()), all.getProperty(key).trim());
+                }
+            }
+            // -Denv.<name>.<key>=... works as well
+            for (String key : System.getProperties().stringPropertyNames()) {
+                if (key.startsWith(prefix)) {
+                    overrides.setProperty(key.substring(prefix.length()), System.getProperty(key).trim());
+                }
+            }
+            environments.add(new EnvironmentContext(name, overrides));
+        }
+
+        return Collections.unmodifiableList(environments);
+    }
+
+    /**
+     * @return Environment bound to the current thread, or null outside a multi-environment run
+     */
+    public static EnvironmentContext current() {
+        return current.get();
+    }
+
+    /**
+     * @return Name of the current thread's environment, or null
+     */
+    public static String currentName() {
+        EnvironmentContext context = current.get();
+        return context == null ? null : context.name;
+    }
+
+    /**
+     * Bind this environment to the current thread until unbind() is called
+     */
+    public void bind() {
+        current.set(this);
+    }
+
+    public static void unbind() {
+        current.remove();
+    }
+
+    /**
+     * Wrap a task so it runs in the caller's environment on another thread
+     * @param task Task to run on a pool thread
+     * @return Wrapped task
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        EnvironmentContext context = current.get();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            EnvironmentContext previous = current.get();
+            current.set(context);
+            try {
+                return task.get();
+            } finally {
+                current.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Copy of this environment with one more key overridden, e.g. to run part of a suite with another transport
+     * @param key Property key
+     * @param value Value for this copy
+     * @return New context with the same name
+     */
+    public EnvironmentContext withOverride(String key, String value) {
+        Properties copy = new Properties();
+        copy.putAll(overrides);
+        copy.setProperty(key, value);
+        return new EnvironmentContext(name, copy);
+    }
+
+    /**
+     * @param key Property key
+     * @return Value overridden by this environment, or null
+     */
+    public String get(String key) {
+        return overrides.getProperty(key);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + overrides;
+    }
+}
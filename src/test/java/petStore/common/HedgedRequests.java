@@ -0,0 +1,202 @@
+package petStore.common;
+
+import io.restassured.RestAssured;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.response.Response;
+import petStore.logging.Log;
+import petStore.profiling.HttpWaitTracker;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedged Requests - Tail latency control for idempotent calls (GET, cleanup DELETE)
+ * If the first attempt has not answered within a recent latency percentile of the endpoint,
+ * a second attempt is sent and whichever answers first is used.
+ * Also derives adaptive socket/connect timeouts from the same latency data.
+ *
+ * Only the first attempt's latency is recorded, so a slow server still shows up
+ * in LatencyTracker even when the hedge wins.
+ */
+public class HedgedRequests {
+
+    private static final boolean HEDGING_ENABLED = ConfigurationReader.getBoolean("hedgingEnabled", false);
+    private static final double HEDGING_PERCENTILE = ConfigurationReader.getDouble("hedgingPercentile", 95);
+    private static final long HEDGING_MIN_DELAY_MS = ConfigurationReader.getInt("hedgingMinDelayMs", 50);
+    private static final double HEDGING_MAX_RATE_PERCENT = ConfigurationReader.getDouble("hedgingMaxRatePercent", 10);
+
+    private static final boolean ADAPTIVE_TIMEOUT_ENABLED = ConfigurationReader.getBoolean("adaptiveTimeoutEnabled", false);
+    private static final double ADAPTIVE_TIMEOUT_PERCENTILE = ConfigurationReader.getDouble("adaptiveTimeoutPercentile", 99);
+    private static final double ADAPTIVE_TIMEOUT_MULTIPLIER = ConfigurationReader.getDouble("adaptiveTimeoutMultiplier", 3);
+    private static final int ADAPTIVE_TIMEOUT_MIN_MS = ConfigurationReader.getInt("adaptiveTimeoutMinMs", 1000);
+    private static final int ADAPTIVE_TIMEOUT_MAX_MS = ConfigurationReader.getInt("adaptiveTimeoutMaxMs", 30000);
+
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "hedged-request");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final LongAdder requests = new LongAdder();
+    private static final LongAdder hedgesSent = new LongAdder();
+    private static final LongAdder hedgesWon = new LongAdder();
+
+    /**
+     * Execute an idempotent request with hedging (when enabled)
+     * @param endpoint Endpoint key (see EndpointTemplate)
+     * @param call The request to execute; must be safe to send twice
+     * @return Response of whichever attempt completed first
+     */
+    public static Response execute(String endpoint, Supplier<Response> call) {
+        requests.increment();
+
+        long hedgeDelay = HEDGING_ENABLED ? hedgeDelayMs(endpoint) : -1;
+        if (hedgeDelay < 0) {
+            return timed(endpoint, call);
+        }
+
+        // The HTTP work runs on pool threads, so the wait is charged to the calling thread here
+        long start = System.nanoTime();
+        try {
+            return executeHedged(endpoint, call, hedgeDelay);
+        } finally {
+            HttpWaitTracker.add(System.nanoTime() - start);
+        }
+    }
+
+    private static Response executeHedged(String endpoint, Supplier<Response> request, long hedgeDelay) {
+        Supplier<Response> call = EnvironmentContext.propagate(Log.withCorrelationId(request));
+        CompletableFuture<Response> primary = CompletableFuture.supplyAsync(() -> timed(endpoint, call), executor);
+
+        try {
+            return primary.get(hedgeDelay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (!withinHedgeBudget()) {
+                return await(primary);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + endpoint, e);
+        } catch (ExecutionException e) {
+            throw rethrow(e);
+        }
+
+        hedgesSent.increment();
+        Log.info("🔁 Hedging {} after {}ms", endpoint, hedgeDelay);
+
+        CompletableFuture<Response> hedge = CompletableFuture.supplyAsync(call, executor);
+        CompletableFuture<Object> first = CompletableFuture.anyOf(primary, hedge);
+
+        Response response = (Response) await(first);
+        if (hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.join() == response) {
+            hedgesWon.increment();
+        }
+        return response;
+    }
+
+    /**
+     * Build a RestAssured config whose timeouts follow recent latency of the endpoint
+     * Falls back to adaptiveTimeoutMaxMs until enough samples are collected
+     * @param endpoint Endpoint key
+     * @return RestAssuredConfig with socket and connection timeouts, or null when disabled
+     */
+    public static RestAssuredConfig adaptiveTimeoutConfig(String endpoint) {
+        if (!ADAPTIVE_TIMEOUT_ENABLED) {
+            return null;
+        }
+
+        int timeoutMs = adaptiveTimeoutMs(endpoint);
+
+        // Start from the global client config so its client factory (see NetworkPhases) is kept
+        return RestAssured.config().httpClient(RestAssured.config().getHttpClientConfig()
+                .setParam("http.connection.timeout", timeoutMs)
+                .setParam("http.socket.timeout", timeoutMs));
+    }
+
+    /**
+     * Compute adaptive timeout for an endpoint
+     * @param endpoint Endpoint key
+     * @return Timeout in milliseconds, clamped to [adaptiveTimeoutMinMs, adaptiveTimeoutMaxMs]
+     */
+    public static int adaptiveTimeoutMs(String endpoint) {
+        long observed = LatencyTracker.percentile(endpoint, ADAPTIVE_TIMEOUT_PERCENTILE);
+        if (observed < 0) {
+            return ADAPTIVE_TIMEOUT_MAX_MS;
+        }
+
+        long timeout = (long) (observed * ADAPTIVE_TIMEOUT_MULTIPLIER);
+        return (int) Math.max(ADAPTIVE_TIMEOUT_MIN_MS, Math.min(timeout, ADAPTIVE_TIMEOUT_MAX_MS));
+    }
+
+    /**
+     * Log hedging statistics (for debugging); nothing when hedging is disabled
+     */
+    public static void printStats() {
+        if (!HEDGING_ENABLED) {
+            return;
+        }
+        Log.info("========== HEDGING STATS ==========");
+        Log.info("Requests: " + requests.sum());
+        Log.info("Hedges sent: " + hedgesSent.sum());
+        Log.info("Hedges won: " + hedgesWon.sum());
+        Log.info("===================================");
+    }
+
+    /**
+     * Delay before a hedge is sent: a recent latency percentile, never below hedgingMinDelayMs
+     * @return Delay in milliseconds, or -1 if there is not enough latency data yet
+     */
+    private static long hedgeDelayMs(String endpoint) {
+        long observed = LatencyTracker.percentile(endpoint, HEDGING_PERCENTILE);
+        return observed < 0 ? -1 : Math.max(HEDGING_MIN_DELAY_MS, observed);
+    }
+
+    /**
+     * Hedges are capped to a share of all requests so a degraded server
+     * is not hit with double load and its slowness stays visible
+     */
+    private static boolean withinHedgeBudget() {
+        return hedgesSent.sum() < requests.sum() * HEDGING_MAX_RATE_PERCENT / 100.0;
+    }
+
+    /**
+     * Run the call and record its latency, excluding time spent waiting for rate limiter permits
+     */
+    private static Response timed(String endpoint, Supplier<Response> call) {
+        long start = System.nanoTime();
+        long waitedBefore = RateLimiter.currentThreadWaitNanos();
+        try {
+            return call.get();
+        } finally {
+            long waited = RateLimiter.currentThreadWaitNanos() - waitedBefore;
+            LatencyTracker.record(endpoint, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start - waited));
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable wrapper) {
+        Throwable cause = wrapper.getCause() != null ? wrapper.getCause() : wrapper;
+
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new RuntimeException(cause);
+    }
+}
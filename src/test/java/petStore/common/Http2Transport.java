@@ -0,0 +1,193 @@
+package petStore.common;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import petStore.logging.Log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP/2 Transport - Sends CommonRestCRUD calls through the JDK HttpClient instead of RestAssured's HTTP/1.1 client
+ * Enabled with httpTransport=http2 (per environment as well, e.g. env.staging.httpTransport). The request is
+ * taken from the same RequestSpecification (URI, method, headers, body), so specs, filters, logging and
+ * validation are unchanged. One shared client multiplexes concurrent requests over a single connection per
+ * host; servers without HTTP/2 (no ALPN / h2c) are served over HTTP/1.1 with pooled keep-alive connections.
+ * Multipart and form requests always use the default transport. With adaptive timeouts on, each request gets
+ * the timeout HedgedRequests derived for its endpoint instead of http2RequestTimeoutSeconds.
+ */
+public class Http2Transport {
+
+    private static final String TRANSPORT_KEY = "httpTransport";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(ConfigurationReader.getInt("http2RequestTimeoutSeconds", 30));
+
+    // Put on the request config by HedgedRequests.adaptiveTimeoutConfig
+    private static final String ADAPTIVE_TIMEOUT_PARAM = "http.socket.timeout";
+
+    // A pooled HTTP/1.1 connection the server already closed fails before any response; these are safe to resend
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+
+    // Set by HttpClient itself; sending them is rejected
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(ConfigurationReader.getInt("http2ConnectTimeoutSeconds", 10)))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private static final Map<HttpClient.Version, LongAdder> responsesByVersion = new ConcurrentHashMap<>();
+    private static final LongAdder defaultTransportFallbacks = new LongAdder();
+    private static final LongAdder retries = new LongAdder();
+
+    private static final Filter FILTER = (requestSpec, responseSpec, context) -> {
+        if (!isActive()) {
+            return context.next(requestSpec, responseSpec);
+        }
+        if (!requestSpec.getMultiPartParams().isEmpty() || !requestSpec.getFormParams().isEmpty()) {
+            defaultTransportFallbacks.increment();
+            return context.next(requestSpec, responseSpec);
+        }
+        return send(requestSpec);
+    };
+
+    /**
+     * RestAssured filter that sends the request over HTTP/2 when the transport is active
+     * Must be the last filter, so every other filter wraps the actual send
+     * @return Shared filter instance
+     */
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    /**
+     * @return true if the current thread's configuration (or environment) selects the HTTP/2 transport
+     */
+    public static boolean isActive() {
+        return "http2".equalsIgnoreCase(ConfigurationReader.get(TRANSPORT_KEY, "http1"));
+    }
+
+    /**
+     * Responses received through the HTTP/2 transport, by negotiated protocol version
+     * @return e.g. {HTTP_2=120} or {HTTP_1_1=120} when the server fell back
+     */
+    public static Map<String, Long> responsesByVersion() {
+        Map<String, Long> counts = new TreeMap<>();
+        responsesByVersion.forEach((version, count) -> counts.put(version.name(), count.sum()));
+        return counts;
+    }
+
+    /**
+     * Log protocol versions negotiated by the HTTP/2 transport (for debugging)
+     */
+    public static void printStats() {
+        if (responsesByVersion.isEmpty() && defaultTransportFallbacks.sum() == 0) {
+            return;
+        }
+        Log.info("========== HTTP/2 TRANSPORT ==========");
+        Log.info("Responses by protocol: " + responsesByVersion());
+        Log.info("Retried after a connection error: " + retries.sum());
+        Log.info("Sent with default transport (multipart/form): " + defaultTransportFallbacks.sum());
+        Log.info("======================================");
+    }
+
+    private static Response send(FilterableRequestSpecification requestSpec) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(requestSpec.getURI()))
+                .timeout(timeoutOf(requestSpec))
+                .method(requestSpec.getMethod(), bodyOf(requestSpec));
+
+        for (Header header : requestSpec.getHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase())) {
+                request.header(header.getName(), header.getValue());
+            }
+        }
+        if (requestSpec.getContentType() != null && !requestSpec.getHeaders().hasHeaderWithName("Content-Type")) {
+            request.header("Content-Type", requestSpec.getContentType());
+        }
+
+        HttpRequest httpRequest = request.build();
+        HttpResponse<byte[]> response;
+        try {
+            response = sendWithRetry(httpRequest);
+        } catch (IOException e) {
+            throw new UncheckedIOException("HTTP/2 transport: " + requestSpec.getMethod() + " " + requestSpec.getURI() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("HTTP/2 transport: interrupted while waiting for " + requestSpec.getURI(), e);
+        }
+        responsesByVersion.computeIfAbsent(response.version(), version -> new LongAdder()).increment();
+
+        return toRestAssuredResponse(response);
+    }
+
+    /**
+     * Adaptive timeout of the request's endpoint when CommonRestCRUD applied one, otherwise http2RequestTimeoutSeconds
+     */
+    private static Duration timeoutOf(FilterableRequestSpecification requestSpec) {
+        RestAssuredConfig config = requestSpec.getConfig();
+        Object adaptiveMs = config == null ? null : config.getHttpClientConfig().params().get(ADAPTIVE_TIMEOUT_PARAM);
+        return adaptiveMs instanceof Number ? Duration.ofMillis(((Number) adaptiveMs).longValue()) : REQUEST_TIMEOUT;
+    }
+
+    /**
+     * Send once more on a fresh connection if an idempotent request failed with an I/O error
+     * (typically a keep-alive connection the server closed while it sat in the pool)
+     * Timeouts are not retried: the server is slow, not the connection stale, and a resend doubles the wait.
+     */
+    private static HttpResponse<byte[]> sendWithRetry(HttpRequest request) throws IOException, InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            if (e instanceof HttpTimeoutException || !IDEMPOTENT_METHODS.contains(request.method())) {
+                throw e;
+            }
+            retries.increment();
+            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+    }
+
+    /**
+     * GET/DELETE specs carry an empty string body; send those without a body
+     */
+    private static HttpRequest.BodyPublisher bodyOf(FilterableRequestSpecification requestSpec) {
+        Object body = requestSpec.getBody();
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        byte[] bytes = body instanceof byte[] ? (byte[]) body : body.toString().getBytes(StandardCharsets.UTF_8);
+        return bytes.length == 0 ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(bytes);
+    }
+
+    private static Response toRestAssuredResponse(HttpResponse<byte[]> response) {
+        List<Header> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> values.forEach(value -> headers.add(new Header(name, value))));
+        String protocol = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+
+        return new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine(protocol + " " + response.statusCode())
+                .setHeaders(new Headers(headers))
+                .setContentType(response.headers().firstValue("Content-Type").orElse(""))
+                .setBody(response.body())
+                .build();
+    }
+}
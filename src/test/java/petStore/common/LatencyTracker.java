@@ -0,0 +1,139 @@
+package petStore.common;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency Tracker - Keeps a sliding window of recent latencies per endpoint
+ * Feeds hedging delays and adaptive timeouts with recent percentiles
+ * Windows are kept per environment (see EnvironmentContext) so environments never share percentiles
+ */
+public class LatencyTracker {
+
+    private static final int WINDOW_SIZE = ConfigurationReader.getInt("latencyWindowSize", 256);
+    private static final int MIN_SAMPLES = 20;
+
+    private static final String NO_ENVIRONMENT = "";
+
+    private static final Map<String, Map<String, Window>> windowsByEnvironment = new ConcurrentHashMap<>();
+
+    /**
+     * Record a completed request
+     * @param endpoint Endpoint key (see EndpointTemplate)
+     * @param latencyMs Observed latency in milliseconds
+     */
+    public static void record(String endpoint, long latencyMs) {
+        windows().computeIfAbsent(endpoint, key -> new Window(WINDOW_SIZE)).add(latencyMs);
+    }
+
+    /**
+     * Get a percentile of recent latency for an endpoint
+     * @param endpoint Endpoint key
+     * @param percentile Percentile between 0 and 100
+     * @return Latency in milliseconds, or -1 if there are not enough samples yet
+     */
+    public static long percentile(String endpoint, double percentile) {
+        Window window = windows().get(endpoint);
+        return window == null ? -1 : window.percentile(percentile);
+    }
+
+    /**
+     * Get number of samples currently held for an endpoint
+     * @param endpoint Endpoint key
+     * @return Sample count (capped at the window size)
+     */
+    public static int sampleCount(String endpoint) {
+        Window window = windows().get(endpoint);
+        return window == null ? 0 : window.size();
+    }
+
+    /**
+     * Print p50/p95/p99 for every tracked endpoint (for debugging)
+     */
+    public static void printSummary() {
+        System.out.println("========== LATENCY SUMMARY ==========");
+        new TreeMap<>(windowsByEnvironment).forEach((environment, windows) -> windows.forEach((endpoint, window) ->
+                System.out.println((environment.isEmpty() ? "" : "[" + environment + "] ") + endpoint
+                        + " | samples=" + window.size()
+                        + " p50=" + window.percentile(50) + "ms"
+                        + " p95=" + window.percentile(95) + "ms"
+                        + " p99=" + window.percentile(99) + "ms")));
+        System.out.println("=====================================");
+    }
+
+    /**
+     * Write recent percentiles of every environment and endpoint as CSV, for side-by-side comparison
+     * @param file Output file (environment,endpoint,samples,p50Ms,p95Ms,p99Ms)
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeCsv(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("environment,endpoint,samples,p50Ms,p95Ms,p99Ms");
+            writer.newLine();
+            for (Map.Entry<String, Map<String, Window>> environment : new TreeMap<>(windowsByEnvironment).entrySet()) {
+                for (Map.Entry<String, Window> entry : new TreeMap<>(environment.getValue()).entrySet()) {
+                    Window window = entry.getValue();
+                    writer.write(environment.getKey() + "," + entry.getKey() + "," + window.size() + ","
+                            + window.percentile(50) + "," + window.percentile(95) + "," + window.percentile(99));
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Windows of the current thread's environment
+     */
+    private static Map<String, Window> windows() {
+        String environment = EnvironmentContext.currentName();
+        return windowsByEnvironment.computeIfAbsent(environment == null ? NO_ENVIRONMENT : environment,
+                key -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Fixed-size ring buffer of latency samples
+     */
+    private static class Window {
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        Window(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void add(long latencyMs) {
+            samples[next] = latencyMs;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        long percentile(double percentile) {
+            long[] sorted;
+            synchronized (this) {
+                if (count < MIN_SAMPLES) {
+                    return -1;
+                }
+                sorted = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package petStore.common;
+
+import io.restassured.filter.Filter;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Rate Limiter - Client-side throttling shared by all worker threads
+ * One global token bucket plus optional per-endpoint buckets, configured in Configuration.properties:
+ *   rateLimitEnabled = true
+ *   rateLimitPermitsPerSecond = 20
+ *   rateLimitBurst = 5
+ *   rateLimitPermitsPerSecond.GET.pet/{id} = 10
+ *   rateLimitBurst.GET.pet/{id} = 2
+ * Time each thread spends waiting for permits is tracked and can be printed at the end of a run.
+ */
+public class RateLimiter {
+
+    private static final boolean ENABLED = ConfigurationReader.getBoolean("rateLimitEnabled", false);
+    private static final String RATE_KEY = "rateLimitPermitsPerSecond";
+    private static final String BURST_KEY = "rateLimitBurst";
+
+    private static final TokenBucket globalBucket = ENABLED
+            ? new TokenBucket(ConfigurationReader.getDouble(RATE_KEY, 20), ConfigurationReader.getInt(BURST_KEY, 5))
+            : null;
+
+    private static final Map<String, Optional<TokenBucket>> endpointBuckets = new ConcurrentHashMap<>();
+    private static final Map<Long, WaitStats> waitStatsByThread = new ConcurrentHashMap<>();
+    private static final ThreadLocal<WaitStats> waitStats = ThreadLocal.withInitial(() -> {
+        WaitStats stats = new WaitStats(Thread.currentThread().getName());
+        waitStatsByThread.put(Thread.currentThread().getId(), stats);
+        return stats;
+    });
+
+    private static final Filter FILTER = (requestSpec, responseSpec, context) -> {
+        acquire(EndpointTemplate.of(requestSpec.getMethod(), requestSpec.getURI()));
+        return context.next(requestSpec, responseSpec);
+    };
+
+    /**
+     * RestAssured filter that takes a permit before the request is sent
+     * @return Shared filter instance
+     */
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    /**
+     * Block until both the global and the endpoint bucket grant a permit
+     * Both reservations are taken at once, so the wait is the longer of the two, not the sum
+     * @param endpoint Endpoint key (see EndpointTemplate)
+     */
+    public static void acquire(String endpoint) {
+        if (!ENABLED) {
+            return;
+        }
+
+        long waitNanos = globalBucket.reserve();
+
+        Optional<TokenBucket> endpointBucket = endpointBuckets.computeIfAbsent(endpoint, RateLimiter::bucketFor);
+        if (endpointBucket.isPresent()) {
+            waitNanos = Math.max(waitNanos, endpointBucket.get().reserve());
+        }
+
+        sleep(waitNanos);
+        waitStats.get().record(waitNanos);
+    }
+
+    /**
+     * Total time the current thread has spent waiting for permits
+     * @return Wait time in nanoseconds
+     */
+    public static long currentThreadWaitNanos() {
+        return waitStats.get().totalWaitNanos.sum();
+    }
+
+    /**
+     * Total time all threads have spent waiting for permits
+     * @return Wait time in nanoseconds
+     */
+    public static long totalWaitNanos() {
+        return waitStatsByThread.values().stream().mapToLong(stats -> stats.totalWaitNanos.sum()).sum();
+    }
+
+    /**
+     * Print permits taken and time spent waiting per thread (for debugging)
+     */
+    public static void printWaitStats() {
+        if (!ENABLED) {
+            return;
+        }
+
+        System.out.println("========== RATE LIMITER WAIT TIME ==========");
+        waitStatsByThread.values().forEach(stats -> System.out.println(stats.threadName
+                + " | permits=" + stats.permits.sum()
+                + " waited=" + TimeUnit.NANOSECONDS.toMillis(stats.totalWaitNanos.sum()) + "ms"));
+        System.out.println("Total waited: " + TimeUnit.NANOSECONDS.toMillis(totalWaitNanos()) + "ms");
+        System.out.println("============================================");
+    }
+
+    /**
+     * Look up per-endpoint limits, e.g. "rateLimitPermitsPerSecond.GET.pet/{id}"
+     */
+    private static Optional<TokenBucket> bucketFor(String endpoint) {
+        String suffix = "." + endpoint.replaceFirst(" ", ".");
+
+        if (!ConfigurationReader.hasProperty(RATE_KEY + suffix)) {
+            return Optional.empty();
+        }
+
+        double permitsPerSecond = ConfigurationReader.getDouble(RATE_KEY + suffix, 0);
+        int burst = ConfigurationReader.getInt(BURST_KEY + suffix, 1);
+        return Optional.of(new TokenBucket(permitsPerSecond, burst));
+    }
+
+    private static void sleep(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+
+        while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Per-thread wait counters
+     */
+    private static class WaitStats {
+        private final String threadName;
+        private final LongAdder permits = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+
+        WaitStats(String threadName) {
+            this.threadName = threadName;
+        }
+
+        void record(long waitNanos) {
+            permits.increment();
+            totalWaitNanos.add(waitNanos);
+        }
+    }
+}
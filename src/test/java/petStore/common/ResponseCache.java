@@ -0,0 +1,169 @@
+package petStore.common;
+
+import io.restassured.response.Response;
+import petStore.logging.Log;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Response Cache - Read-through cache for idempotent pet GETs used as fixture lookups
+ * Entries expire after responseCacheTtlSeconds and the least recently used entry is evicted
+ * beyond responseCacheMaxEntries. PetServices invalidates the pet ID on each POST, PUT or DELETE it sends,
+ * so the first read after a write always reaches the API.
+ *
+ * Creation checks and the cleanup lookup go through the cache; steps that check consistency after a write
+ * always call the API. With responseCacheScope=scenario, Hooks empties the cache before every scenario;
+ * with suite, entries live until they expire or are invalidated.
+ * Keys include the environment (see EnvironmentContext), so environments never share entries.
+ */
+public class ResponseCache {
+
+    private static final boolean ENABLED = ConfigurationReader.getBoolean("responseCacheEnabled", false);
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(ConfigurationReader.getInt("responseCacheTtlSeconds", 30));
+    private static final int MAX_ENTRIES = ConfigurationReader.getInt("responseCacheMaxEntries", 256);
+    private static final boolean SCENARIO_SCOPE =
+            !"suite".equalsIgnoreCase(ConfigurationReader.get("responseCacheScope", "scenario"));
+
+    private static final String PET_PREFIX = "pet:";
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > MAX_ENTRIES) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Bumped by every invalidation (guarded by entries): a load that overlapped a write is not stored
+    private static long generation;
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+    private static final LongAdder invalidations = new LongAdder();
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Cached pet lookup
+     * @param id Pet ID
+     * @param loader Sends the GET on a miss
+     * @return Cached or freshly loaded response
+     */
+    public static Response pet(String id, Supplier<Response> loader) {
+        return readThrough(PET_PREFIX + id, loader);
+    }
+
+    /**
+     * Drop the cached pet a write may have changed
+     * @param id Pet ID that was created, updated or deleted
+     */
+    public static void invalidatePet(String id) {
+        if (!ENABLED) {
+            return;
+        }
+        String key = environmentPrefix() + PET_PREFIX + id;
+        synchronized (entries) {
+            generation++;
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Start of a scenario: empties the current environment's entries when the cache is scenario-scoped
+     */
+    public static void startScenario() {
+        if (!ENABLED || !SCENARIO_SCOPE) {
+            return;
+        }
+        String environment = environmentPrefix();
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(environment));
+        }
+    }
+
+    public static long hitCount() {
+        return hits.sum();
+    }
+
+    public static long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Log hit/miss statistics (for debugging)
+     */
+    public static void printStats() {
+        if (!ENABLED) {
+            return;
+        }
+        long total = hits.sum() + misses.sum();
+        Log.info("========== RESPONSE CACHE ==========");
+        Log.info("Scope: " + (SCENARIO_SCOPE ? "scenario" : "suite") + " | TTL: "
+                + TimeUnit.NANOSECONDS.toSeconds(TTL_NANOS) + "s | max entries: " + MAX_ENTRIES);
+        Log.info("Hits: " + hits.sum() + " | Misses: " + misses.sum() + " | Hit rate: "
+                + (total == 0 ? 0 : Math.round(hits.sum() * 100.0 / total)) + "%");
+        Log.info("Evictions: " + evictions.sum() + " | Invalidations: " + invalidations.sum());
+        Log.info("====================================");
+    }
+
+    private static Response readThrough(String key, Supplier<Response> loader) {
+        if (!ENABLED) {
+            return loader.get();
+        }
+        String fullKey = environmentPrefix() + key;
+        long now = System.nanoTime();
+        long loadGeneration;
+
+        synchronized (entries) {
+            loadGeneration = generation;
+            Entry entry = entries.get(fullKey);
+            if (entry != null && now - entry.loadedAtNanos < TTL_NANOS) {
+                hits.increment();
+                return entry.response;
+            }
+            if (entry != null) {
+                entries.remove(fullKey);
+            }
+        }
+
+        // Loaded outside the lock; two threads missing the same key both load, the later one wins
+        misses.increment();
+        Response response = loader.get();
+        if (response.getStatusCode() == 200) {
+            synchronized (entries) {
+                if (generation == loadGeneration) {
+                    entries.put(fullKey, new Entry(response, now));
+                }
+            }
+        }
+        return response;
+    }
+
+    private static String environmentPrefix() {
+        String environment = EnvironmentContext.currentName();
+        return environment == null ? "" : environment + "|";
+    }
+
+    private static class Entry {
+        private final Response response;
+        private final long loadedAtNanos;
+
+        Entry(Response response, long loadedAtNanos) {
+            this.response = response;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
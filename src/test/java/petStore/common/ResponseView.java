@@ -0,0 +1,211 @@
+package petStore.common;
+
+import io.qameta.allure.Allure;
+import io.restassured.http.Headers;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import petStore.logging.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response View - What step definitions keep of a response: status, headers, time and the body bytes
+ * The RestAssured Response (with its own copies of the body, String and parsed tree) is dropped right away.
+ * Bodies up to responseViewInlineBytes stay in memory; larger ones are spilled to a temp file and only
+ * the first responseViewPreviewBytes are kept for logs and messages. The full String is built only when
+ * asString() is called; jsonPath() parses on demand and keeps the parsed tree softly, so the GC can drop it
+ * under memory pressure and it is parsed again on the next use.
+ * Call discard() when the view is replaced or the scenario ends so a spilled body file is deleted;
+ * nothing else deletes it (deleteOnExit would keep one path per spill in memory until the JVM exits).
+ */
+public class ResponseView {
+
+    private static final int INLINE_BYTES = ConfigurationReader.getInt("responseViewInlineBytes", 64 * 1024);
+    private static final int PREVIEW_BYTES = ConfigurationReader.getInt("responseViewPreviewBytes", 4 * 1024);
+
+    private final int statusCode;
+    private final String statusLine;
+    private final Headers headers;
+    private final String contentType;
+    private final long timeMs;
+    private final long bodySize;
+    private final byte[] inlineBody;
+    private final Path spillFile;
+    private final String preview;
+    private final boolean truncated;
+    private SoftReference<JsonPath> parsed = new SoftReference<>(null);
+
+    private ResponseView(Response response) {
+        this.statusCode = response.getStatusCode();
+        this.statusLine = response.getStatusLine();
+        this.headers = response.getHeaders();
+        this.contentType = response.getContentType();
+        this.timeMs = response.getTimeIn(TimeUnit.MILLISECONDS);
+
+        byte[] body = response.asByteArray();
+        this.bodySize = body.length;
+        if (body.length <= INLINE_BYTES) {
+            this.inlineBody = body;
+            this.spillFile = null;
+        } else {
+            this.inlineBody = null;
+            this.spillFile = spill(body);
+        }
+        this.truncated = body.length > PREVIEW_BYTES;
+        this.preview = new String(body, 0, truncated ? previewEnd(body) : body.length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param response Response to keep a view of (may be null)
+     * @return View, or null for a null response
+     */
+    public static ResponseView of(Response response) {
+        return response == null ? null : new ResponseView(response);
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getStatusLine() {
+        return statusLine;
+    }
+
+    public Headers getHeaders() {
+        return headers;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return Response time as measured by RestAssured, in ms
+     */
+    public long getTime() {
+        return timeMs;
+    }
+
+    public long getBodySize() {
+        return bodySize;
+    }
+
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * @return Full body stream, from memory or from the spill file (caller closes it)
+     */
+    public InputStream openBody() {
+        if (spillFile == null) {
+            return new ByteArrayInputStream(inlineBody);
+        }
+        try {
+            return Files.newInputStream(spillFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spilled response body " + spillFile + " is gone", e);
+        }
+    }
+
+    /**
+     * Materialise the whole body as a String (not cached)
+     * @return Body text
+     */
+    public String asString() {
+        try (InputStream body = openBody()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return Start of the body (at most responseViewPreviewBytes), with the total size when it was cut
+     */
+    public String preview() {
+        return truncated ? preview + "... (" + bodySize + " bytes)" : preview;
+    }
+
+    /**
+     * @return JsonPath over the body; parsed on first use and kept until the GC needs the memory
+     */
+    public synchronized JsonPath jsonPath() {
+        JsonPath jsonPath = parsed.get();
+        if (jsonPath == null) {
+            try (Reader body = new InputStreamReader(openBody(), StandardCharsets.UTF_8)) {
+                jsonPath = JsonPath.from(body);
+                // JsonPath parses on the first query and keeps the tree; do it while the stream is open
+                jsonPath.get();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            parsed = new SoftReference<>(jsonPath);
+        }
+        return jsonPath;
+    }
+
+    /**
+     * Attach the full body to the current Allure step, streamed (no String is built)
+     * @param name Attachment name
+     */
+    public void attachBody(String name) {
+        try (InputStream body = openBody()) {
+            String type = contentType != null && contentType.contains("json") ? "application/json" : "text/plain";
+            Allure.addAttachment(name, type, body, type.equals("application/json") ? ".json" : ".txt");
+        } catch (IOException e) {
+            Log.warn("⚠️ Could not attach response body: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the spill file, if any; the view must not be used afterwards
+     */
+    public void discard() {
+        parsed = new SoftReference<>(null);
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                Log.warn("⚠️ Could not delete spilled response body {}: {}", spillFile, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return statusLine + " (" + bodySize + " bytes" + (spillFile != null ? ", spilled to " + spillFile : "") + ")";
+    }
+
+    /**
+     * @return End of the preview: PREVIEW_BYTES, moved back to the start of a UTF-8 character cut in two
+     */
+    private static int previewEnd(byte[] body) {
+        int end = PREVIEW_BYTES;
+        // Continuation bytes are 10xxxxxx
+        while (end > 0 && (body[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return end;
+    }
+
+    private static Path spill(byte[] body) {
+        try {
+            Path file = Files.createTempFile("petstore-response-", ".body");
+            Files.write(file, body);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill response body to disk", e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package petStore.common;
+
+import io.restassured.response.Response;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+import petStore.profiling.HttpWaitTracker;
+import petStore.logging.Log;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single Flight - Coalesces identical GET requests that are in flight at the same time
+ * The first caller (leader) sends the request; callers asking for the same method, URI, query
+ * and headers while it runs wait for it and get the same Response, whose body has already been
+ * read once. Backend load then follows the number of distinct queries, not the number of threads.
+ *
+ * Nothing is kept after the request completes (this is not a cache, see ResponseCache).
+ * Opt in with singleFlightEnabled=true; only use it for idempotent GETs.
+ */
+public class SingleFlight {
+
+    private static final boolean ENABLED = ConfigurationReader.getBoolean("singleFlightEnabled", false);
+
+    private static final Map<String, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+
+    private static final LongAdder requests = new LongAdder();
+    private static final LongAdder shared = new LongAdder();
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Execute a GET, joining an identical one that is already in flight
+     * @param requestSpecification Request specification the key is derived from
+     * @param call Sends the request; only invoked by the leader
+     * @return Response of the leader's request
+     */
+    public static Response execute(RequestSpecification requestSpecification, Supplier<Response> call) {
+        if (!ENABLED) {
+            return call.get();
+        }
+        requests.increment();
+
+        String key = keyOf(requestSpecification);
+        CompletableFuture<Response> flight = new CompletableFuture<>();
+        CompletableFuture<Response> existing = inFlight.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+
+        try {
+            Response response = call.get();
+            // Read the body once here so followers never race on the response stream
+            response.asByteArray();
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Log how many requests were coalesced (for debugging)
+     */
+    public static void printStats() {
+        if (!ENABLED) {
+            return;
+        }
+        Log.info("========== SINGLE FLIGHT ==========");
+        Log.info("GET requests: " + requests.sum());
+        Log.info("Sent: " + (requests.sum() - shared.sum()));
+        Log.info("Shared with an in-flight request: " + shared.sum());
+        Log.info("===================================");
+    }
+
+    /**
+     * Followers block on the leader: count it as HTTP wait, like the leader's own request
+     */
+    private static Response await(CompletableFuture<Response> flight) {
+        long start = System.nanoTime();
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        } finally {
+            HttpWaitTracker.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Method, full URI, sorted query/request parameters and headers: everything that changes the response
+     */
+    private static String keyOf(RequestSpecification requestSpecification) {
+        QueryableRequestSpecification queryable = SpecificationQuerier.query(requestSpecification);
+        return "GET " + queryable.getBaseUri() + queryable.getBasePath()
+                + " " + new TreeMap<>(queryable.getQueryParams())
+                + " " + new TreeMap<>(queryable.getRequestParams())
+                + " " + queryable.getHeaders();
+    }
+}
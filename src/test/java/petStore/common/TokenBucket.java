@@ -0,0 +1,54 @@
+package petStore.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token Bucket - Lock-free rate limiter state
+ * Keeps a single timestamp ("cursor") of the next free permit and advances it with CAS,
+ * so concurrent callers never block each other while reserving.
+ * Up to "burst" permits are handed out immediately after an idle period,
+ * sustained throughput is capped at "permitsPerSecond".
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong cursor;
+
+    /**
+     * @param permitsPerSecond Sustained rate
+     * @param burst Number of permits that may be taken at once after being idle (at least 1)
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.cursor = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    /**
+     * Reserve one permit
+     * @return Nanoseconds the caller has to wait before using the permit (0 if available now)
+     */
+    public long reserve() {
+        while (true) {
+            long current = cursor.get();
+            long now = System.nanoTime();
+            long next = Math.max(current, now - burstNanos) + intervalNanos;
+
+            if (cursor.compareAndSet(current, next)) {
+                return Math.max(0, next - now);
+            }
+        }
+    }
+
+    /**
+     * Get configured sustained rate
+     * @return Permits per second
+     */
+    public double getPermitsPerSecond() {
+        return 1_000_000_000.0 / intervalNanos;
+    }
+}
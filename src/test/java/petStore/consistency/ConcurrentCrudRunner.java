@@ -0,0 +1,160 @@
+package petStore.consistency;
+
+import io.restassured.response.Response;
+import petStore.logging.Log;
+import petStore.services.PetServices;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Concurrent CRUD Runner - Hammers a few pet IDs with concurrent PetServices reads, writes and deletes
+ * and records every operation in a History for the LinearizabilityChecker.
+ * Mix per operation: 50% read, 30% write (POST or PUT with a unique name), 20% delete, on a random key.
+ * Every key is first written once, sequentially, so the register starts from a recorded state.
+ * The random choices are seeded, so a run can be repeated with the same operation sequence per worker.
+ */
+public class ConcurrentCrudRunner {
+
+    private static final String EXISTED = "existed";
+
+    private final int workers;
+    private final int operationsPerWorker;
+    private final List<String> keys = new ArrayList<>();
+    private final long seed;
+
+    /**
+     * @param workers Concurrent workers (processes in the history)
+     * @param keyCount Number of pet IDs shared by all workers
+     * @param operationsPerWorker Operations each worker sends
+     * @param firstPetId First pet ID; keys are consecutive
+     * @param seed Seed of the operation mix
+     */
+    public ConcurrentCrudRunner(int workers, int keyCount, int operationsPerWorker, long firstPetId, long seed) {
+        this.workers = Math.max(1, workers);
+        this.operationsPerWorker = operationsPerWorker;
+        this.seed = seed;
+        for (int i = 0; i < Math.max(1, keyCount); i++) {
+            keys.add(String.valueOf(firstPetId + i));
+        }
+    }
+
+    /**
+     * Run the workers and wait for them; the keys are deleted afterwards
+     * @return Recorded history
+     */
+    public History run() {
+        Log.info("🔁 Recording concurrent CRUD history: {} worker(s) x {} operation(s) on {} pet(s), seed {}",
+                workers, operationsPerWorker, keys.size(), seed);
+
+        History history = new History();
+        PetServices petServices = new PetServices();
+        for (String key : keys) {
+            write(history, petServices, -1, key, "init-" + key, false);
+        }
+
+        String correlationId = Log.getCorrelationId();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            int process = worker;
+            futures.add(executor.submit(() -> {
+                Log.setCorrelationId(correlationId);
+                runWorker(history, process);
+            }));
+        }
+        executor.shutdown();
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while recording history", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("History worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            keys.forEach(key -> cleanup(petServices, key));
+        }
+
+        Log.info("✓ Recorded {} operations", history.operations().size());
+        return history;
+    }
+
+    private void runWorker(History history, int process) {
+        PetServices petServices = new PetServices();
+        Random random = new Random(seed * 31 + process);
+
+        for (int i = 0; i < operationsPerWorker; i++) {
+            String key = keys.get(random.nextInt(keys.size()));
+            int dice = random.nextInt(100);
+
+            if (dice < 50) {
+                read(history, petServices, process, key);
+            } else if (dice < 80) {
+                write(history, petServices, process, key, "p" + process + "-" + i, dice < 65);
+            } else {
+                delete(history, petServices, process, key);
+            }
+        }
+    }
+
+    private static void read(History history, PetServices petServices, int process, String key) {
+        Operation operation = history.invoke(process, key, Operation.Type.READ, null);
+        try {
+            Response response = petServices.getPetByIdWithoutValidation(key);
+            if (response.getStatusCode() == 200) {
+                history.ok(operation, response.jsonPath().getString("name"));
+            } else if (response.getStatusCode() == 404) {
+                history.ok(operation, null);
+            } else {
+                history.discard(operation);
+            }
+        } catch (RuntimeException | AssertionError e) {
+            history.discard(operation);
+        }
+    }
+
+    private static void write(History history, PetServices petServices, int process, String key, String name, boolean put) {
+        Operation operation = history.invoke(process, key, Operation.Type.WRITE, name);
+        try {
+            if (put) {
+                petServices.updatePetNoWait(key, name, "consistency", "available");
+            } else {
+                petServices.addNewPet(key, name);
+            }
+            history.ok(operation, null);
+        } catch (RuntimeException | AssertionError e) {
+            history.unknown(operation);
+        }
+    }
+
+    private static void delete(History history, PetServices petServices, int process, String key) {
+        Operation operation = history.invoke(process, key, Operation.Type.DELETE, null);
+        try {
+            int status = petServices.deleteByIdWithoutValidation(key).getStatusCode();
+            if (status == 200 || status == 404) {
+                history.ok(operation, status == 200 ? EXISTED : null);
+            } else {
+                history.unknown(operation);
+            }
+        } catch (RuntimeException | AssertionError e) {
+            history.unknown(operation);
+        }
+    }
+
+    private static void cleanup(PetServices petServices, String key) {
+        try {
+            petServices.deleteByIdForCleanup(key);
+        } catch (RuntimeException | AssertionError e) {
+            Log.warn("⚠️ Could not delete pet {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package petStore.consistency;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * History - Thread-safe recorder of timestamped invoke/complete operations
+ * Workers call invoke() right before sending a request and ok()/unknown()/discard() right after it returns.
+ * Histories are saved as JSON lines (one Operation per line) so they can be checked offline.
+ */
+public class History {
+
+    private static final Gson GSON = new Gson();
+
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Queue<Operation> operations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Record the invocation of an operation
+     * @param process Worker issuing the operation
+     * @param key Pet ID
+     * @param type Operation type
+     * @param value Name for WRITE, otherwise null
+     * @return Operation to complete once the response is in
+     */
+    public Operation invoke(int process, String key, Operation.Type type, String value) {
+        Operation operation = new Operation(nextId.getAndIncrement(), process, key, type, value, System.nanoTime());
+        operations.add(operation);
+        return operation;
+    }
+
+    /**
+     * The operation completed and its result is known
+     * @param operation Invoked operation
+     * @param result Observed name for READ, "existed" or null for DELETE, ignored for WRITE
+     */
+    public void ok(Operation operation, String result) {
+        operation.complete(result, System.nanoTime());
+    }
+
+    /**
+     * The operation failed without telling whether it took effect (writes and deletes)
+     * @param operation Invoked operation
+     */
+    public void unknown(Operation operation) {
+        operation.unknown();
+    }
+
+    /**
+     * Forget an operation that cannot have changed anything (a failed read)
+     * @param operation Invoked operation
+     */
+    public void discard(Operation operation) {
+        operations.remove(operation);
+    }
+
+    /**
+     * @return Recorded operations by invocation time; still pending ones count as UNKNOWN
+     */
+    public List<Operation> operations() {
+        List<Operation> snapshot = new ArrayList<>(operations);
+        snapshot.removeIf(operation -> operation.getOutcome() == Operation.Outcome.PENDING
+                && operation.getType() == Operation.Type.READ);
+        snapshot.forEach(operation -> {
+            if (operation.getOutcome() == Operation.Outcome.PENDING) {
+                operation.unknown();
+            }
+        });
+        snapshot.sort(Comparator.comparingLong(Operation::getInvokeNanos));
+        return snapshot;
+    }
+
+    /**
+     * Save the history as JSON lines
+     * @param file Output file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Operation operation : operations()) {
+                writer.write(GSON.toJson(operation));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Load a history saved by write()
+     * @param file JSON lines file
+     * @return Operations by invocation time
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Operation> read(Path file) throws IOException {
+        List<Operation> operations = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    operations.add(GSON.fromJson(line, Operation.class));
+                }
+            }
+        }
+        operations.sort(Comparator.comparingLong(Operation::getInvokeNanos));
+        return operations;
+    }
+}
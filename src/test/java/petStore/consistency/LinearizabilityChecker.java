@@ -0,0 +1,328 @@
+package petStore.consistency;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linearizability Checker - Checks a recorded CRUD history against a register model of a pet
+ * Linearizability is local, so every pet ID is checked on its own. Each key is searched with the
+ * Wing &amp; Gong algorithm as improved by Lowe: operations are linearized in real-time order with
+ * backtracking, and (linearized set, register state) pairs already explored are cached, which keeps
+ * histories of thousands of operations to milliseconds.
+ *
+ * Register model: WRITE stores the name, DELETE clears it (and must have answered 200 only if the pet existed),
+ * READ must return the current name or 404 when empty. Every key starts empty.
+ */
+public class LinearizabilityChecker {
+
+    private static final String EXISTED = "existed";
+
+    private final long maxStepsPerKey;
+
+    /**
+     * @param maxStepsPerKey Search budget per key; a key that needs more is reported as undecided
+     */
+    public LinearizabilityChecker(long maxStepsPerKey) {
+        this.maxStepsPerKey = maxStepsPerKey;
+    }
+
+    /**
+     * Check a history
+     * @param history Operations of any number of keys
+     * @return Result per key
+     */
+    public CheckResult check(List<Operation> history) {
+        long start = System.nanoTime();
+        Map<String, List<Operation>> byKey = new LinkedHashMap<>();
+        for (Operation operation : history) {
+            byKey.computeIfAbsent(operation.getKey(), key -> new ArrayList<>()).add(operation);
+        }
+
+        List<KeyResult> results = new ArrayList<>();
+        byKey.forEach((key, operations) -> results.add(checkKey(key, operations)));
+        return new CheckResult(history.size(), results, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private KeyResult checkKey(String key, List<Operation> operations) {
+        Entry head = buildEntries(operations);
+        BitSet linearized = new BitSet(operations.size());
+        Set<CacheKey> cache = new HashSet<>();
+        Deque<Frame> calls = new ArrayDeque<>();
+
+        String state = null;
+        Entry entry = head.next;
+        long steps = 0;
+        int deepest = 0;
+        Operation stuckAt = null;
+
+        while (head.next != null) {
+            if (++steps > maxStepsPerKey) {
+                return new KeyResult(key, operations.size(), Verdict.UNDECIDED, deepest, stuckAt);
+            }
+
+            if (entry.call) {
+                boolean applied = false;
+                if (legal(state, entry.operation)) {
+                    String next = apply(state, entry.operation);
+                    BitSet candidate = (BitSet) linearized.clone();
+                    candidate.set(entry.index);
+                    if (cache.add(new CacheKey(candidate, next))) {
+                        calls.push(new Frame(entry, state));
+                        state = next;
+                        linearized.set(entry.index);
+                        entry.lift();
+                        entry = head.next;
+                        applied = true;
+                    }
+                }
+                if (!applied) {
+                    entry = entry.next;
+                }
+            } else {
+                // An UNKNOWN operation returns at infinity, after every known one: all of those are linearized
+                if (entry.operation.getOutcome() == Operation.Outcome.UNKNOWN) {
+                    return new KeyResult(key, operations.size(), Verdict.LINEARIZABLE, operations.size(), null);
+                }
+                // Remember the return that blocked the longest linearizable prefix, for the report
+                if (linearized.cardinality() > deepest || stuckAt == null) {
+                    deepest = linearized.cardinality();
+                    stuckAt = entry.operation;
+                }
+                if (calls.isEmpty()) {
+                    return new KeyResult(key, operations.size(), Verdict.VIOLATION, deepest, stuckAt);
+                }
+                Frame frame = calls.pop();
+                state = frame.state;
+                linearized.clear(frame.entry.index);
+                frame.entry.unlift();
+                entry = frame.entry.next;
+            }
+        }
+        return new KeyResult(key, operations.size(), Verdict.LINEARIZABLE, operations.size(), null);
+    }
+
+    /**
+     * Whether the register model allows this operation (with its recorded result) in this state
+     */
+    private static boolean legal(String state, Operation operation) {
+        switch (operation.getType()) {
+            case READ:
+                return Objects.equals(state, operation.getValue());
+            case DELETE:
+                if (operation.getOutcome() == Operation.Outcome.UNKNOWN) {
+                    return true;
+                }
+                return EXISTED.equals(operation.getValue()) ? state != null : state == null;
+            case WRITE:
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Register state after the operation (null = no pet)
+     */
+    private static String apply(String state, Operation operation) {
+        switch (operation.getType()) {
+            case WRITE:
+                return operation.getValue();
+            case DELETE:
+                return null;
+            case READ:
+            default:
+                return state;
+        }
+    }
+
+    /**
+     * Doubly linked list of call and return entries in time order, behind a sentinel head
+     */
+    private static Entry buildEntries(List<Operation> operations) {
+        List<Entry> entries = new ArrayList<>(operations.size() * 2);
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            Entry call = new Entry(operation, i, true, operation.getInvokeNanos());
+            Entry ret = new Entry(operation, i, false, operation.getCompleteNanos());
+            call.match = ret;
+            entries.add(call);
+            entries.add(ret);
+        }
+        // On equal times calls go first: the operations are then treated as concurrent
+        entries.sort((a, b) -> a.time != b.time ? Long.compare(a.time, b.time) : Boolean.compare(b.call, a.call));
+
+        Entry head = new Entry(null, -1, false, Long.MIN_VALUE);
+        Entry previous = head;
+        for (Entry entry : entries) {
+            previous.next = entry;
+            entry.prev = previous;
+            previous = entry;
+        }
+        return head;
+    }
+
+    /**
+     * Verdict for one key
+     */
+    public enum Verdict { LINEARIZABLE, VIOLATION, UNDECIDED }
+
+    private static class Entry {
+        private final Operation operation;
+        private final int index;
+        private final boolean call;
+        private final long time;
+        private Entry match;
+        private Entry prev;
+        private Entry next;
+
+        Entry(Operation operation, int index, boolean call, long time) {
+            this.operation = operation;
+            this.index = index;
+            this.call = call;
+            this.time = time;
+        }
+
+        /**
+         * Unlink this call and its return; their own links are kept for unlift()
+         */
+        void lift() {
+            prev.next = next;
+            if (next != null) {
+                next.prev = prev;
+            }
+            match.prev.next = match.next;
+            if (match.next != null) {
+                match.next.prev = match.prev;
+            }
+        }
+
+        void unlift() {
+            match.prev.next = match;
+            if (match.next != null) {
+                match.next.prev = match;
+            }
+            prev.next = this;
+            if (next != null) {
+                next.prev = this;
+            }
+        }
+    }
+
+    private static class Frame {
+        private final Entry entry;
+        private final String state;
+
+        Frame(Entry entry, String state) {
+            this.entry = entry;
+            this.state = state;
+        }
+    }
+
+    private static class CacheKey {
+        private final BitSet linearized;
+        private final String state;
+
+        CacheKey(BitSet linearized, String state) {
+            this.linearized = linearized;
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) other;
+            return linearized.equals(that.linearized) && Objects.equals(state, that.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * linearized.hashCode() + Objects.hashCode(state);
+        }
+    }
+
+    /**
+     * Outcome for one pet ID
+     */
+    public static class KeyResult {
+        private final String key;
+        private final int operations;
+        private final Verdict verdict;
+        private final int longestLinearizedPrefix;
+        private final Operation unexplained;
+
+        KeyResult(String key, int operations, Verdict verdict, int longestLinearizedPrefix, Operation unexplained) {
+            this.key = key;
+            this.operations = operations;
+            this.verdict = verdict;
+            this.longestLinearizedPrefix = longestLinearizedPrefix;
+            this.unexplained = unexplained;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Verdict getVerdict() {
+            return verdict;
+        }
+
+        @Override
+        public String toString() {
+            String text = key + ": " + verdict + " (" + operations + " operations";
+            if (verdict != Verdict.LINEARIZABLE) {
+                text += ", longest linearizable prefix " + longestLinearizedPrefix
+                        + (unexplained != null ? ", could not explain " + unexplained : "");
+            }
+            return text + ")";
+        }
+    }
+
+    /**
+     * Outcome for a whole history
+     */
+    public static class CheckResult {
+        private final int operations;
+        private final List<KeyResult> keys;
+        private final long elapsedMs;
+
+        CheckResult(int operations, List<KeyResult> keys, long elapsedMs) {
+            this.operations = operations;
+            this.keys = keys;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public boolean isLinearizable() {
+            return keys.stream().allMatch(key -> key.verdict == Verdict.LINEARIZABLE);
+        }
+
+        public List<KeyResult> getKeys() {
+            return keys;
+        }
+
+        public int getOperations() {
+            return operations;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            long violations = keys.stream().filter(key -> key.verdict == Verdict.VIOLATION).count();
+            long undecided = keys.stream().filter(key -> key.verdict == Verdict.UNDECIDED).count();
+            return operations + " operations on " + keys.size() + " key(s) checked in " + elapsedMs + "ms: "
+                    + (isLinearizable() ? "linearizable" : violations + " key(s) with violations, " + undecided + " undecided");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package petStore.consistency;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Linearizability Checker Test - Known valid and invalid histories, plus a generated history of realistic size
+ */
+public class LinearizabilityCheckerTest {
+
+    private static final long MAX_STEPS = 1_000_000;
+
+    @Test
+    public void overlappingReadsAndDeleteAreLinearizable() {
+        List<Operation> history = new ArrayList<>();
+        history.add(ok(0, 0, Operation.Type.WRITE, "Rex", 0, 10));
+        // Overlaps the write, so it may see the pet either way
+        history.add(ok(1, 1, Operation.Type.READ, null, 5, 15));
+        history.add(ok(2, 1, Operation.Type.READ, "Rex", 20, 30));
+        history.add(ok(3, 0, Operation.Type.DELETE, "existed", 40, 50));
+        history.add(ok(4, 1, Operation.Type.READ, null, 60, 70));
+
+        LinearizabilityChecker.CheckResult result = new LinearizabilityChecker(MAX_STEPS).check(history);
+
+        Assert.assertTrue(result.toString(), result.isLinearizable());
+    }
+
+    @Test
+    public void staleReadAfterCompletedWriteIsAViolation() {
+        List<Operation> history = new ArrayList<>();
+        history.add(ok(0, 0, Operation.Type.WRITE, "Rex", 0, 10));
+        history.add(ok(1, 0, Operation.Type.WRITE, "Max", 20, 30));
+        // Starts after "Max" was acknowledged but still returns the old name
+        history.add(ok(2, 1, Operation.Type.READ, "Rex", 40, 50));
+
+        LinearizabilityChecker.CheckResult result = new LinearizabilityChecker(MAX_STEPS).check(history);
+
+        Assert.assertFalse(result.toString(), result.isLinearizable());
+        Assert.assertEquals(LinearizabilityChecker.Verdict.VIOLATION, result.getKeys().get(0).getVerdict());
+    }
+
+    /**
+     * 8 pets x 600 overlapping operations, linearizable by construction: every operation takes effect at a point
+     * inside its own [invoke, complete] interval and its result comes from that order
+     */
+    @Test
+    public void generatedHistoryOfFourThousandEightHundredOperations() {
+        Random random = new Random(39);
+        List<Operation> history = new ArrayList<>();
+        int id = 0;
+        for (int pet = 0; pet < 8; pet++) {
+            String key = String.valueOf(900_000 + pet);
+            String state = null;
+            for (int step = 0; step < 600; step++) {
+                long point = step * 10L;
+                long invoke = point - random.nextInt(25);
+                long complete = point + random.nextInt(25);
+                int kind = random.nextInt(10);
+                if (kind < 3) {
+                    String name = "pet-" + step;
+                    history.add(op(id++, step % 4, key, Operation.Type.WRITE, name, invoke, complete, null));
+                    state = name;
+                } else if (kind < 4) {
+                    history.add(op(id++, step % 4, key, Operation.Type.DELETE, null, invoke, complete,
+                            state != null ? "existed" : null));
+                    state = null;
+                } else {
+                    history.add(op(id++, step % 4, key, Operation.Type.READ, null, invoke, complete, state));
+                }
+            }
+        }
+        history.sort((a, b) -> Long.compare(a.getInvokeNanos(), b.getInvokeNanos()));
+
+        LinearizabilityChecker.CheckResult result = new LinearizabilityChecker(MAX_STEPS).check(history);
+
+        System.out.println("Checked " + result.getOperations() + " operations in " + result.getElapsedMs() + " ms");
+        Assert.assertEquals(4_800, result.getOperations());
+        Assert.assertTrue(result.toString(), result.isLinearizable());
+    }
+
+    private static Operation ok(int id, int process, Operation.Type type, String value, long invoke, long complete) {
+        return type == Operation.Type.WRITE
+                ? op(id, process, "1", type, value, invoke, complete, null)
+                : op(id, process, "1", type, null, invoke, complete, value);
+    }
+
+    private static Operation op(int id, int process, String key, Operation.Type type, String value,
+                                long invoke, long complete, String result) {
+        Operation operation = new Operation(id, process, key, type, value, invoke);
+        operation.complete(result, complete);
+        return operation;
+    }
+}
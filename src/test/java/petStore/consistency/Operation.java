@@ -0,0 +1,89 @@
+package petStore.consistency;
+
+/**
+ * Operation - One invoke/complete pair in a recorded CRUD history
+ * A pet is modelled as a register holding its name: WRITE (create or update) stores a name, DELETE clears it,
+ * READ observes the name or null (404). Times are System.nanoTime values of the recording JVM.
+ *
+ * Outcomes: OK (the response says what happened), or UNKNOWN for writes/deletes that failed in a way
+ * that does not tell whether they took effect (timeouts, 5xx); an UNKNOWN operation may take effect at
+ * any point after its invocation, or never.
+ */
+public class Operation {
+
+    public enum Type { WRITE, DELETE, READ }
+
+    public enum Outcome { PENDING, OK, UNKNOWN }
+
+    private final int id;
+    private final int process;
+    private final String key;
+    private final Type type;
+    private final long invokeNanos;
+
+    // WRITE: name written; READ: name observed (null = not found); DELETE: "existed" or null (404)
+    private String value;
+    private long completeNanos = Long.MAX_VALUE;
+    private Outcome outcome = Outcome.PENDING;
+
+    public Operation(int id, int process, String key, Type type, String value, long invokeNanos) {
+        this.id = id;
+        this.process = process;
+        this.key = key;
+        this.type = type;
+        this.value = value;
+        this.invokeNanos = invokeNanos;
+    }
+
+    void complete(String result, long nanos) {
+        if (type != Type.WRITE) {
+            value = result;
+        }
+        completeNanos = nanos;
+        outcome = Outcome.OK;
+    }
+
+    void unknown() {
+        completeNanos = Long.MAX_VALUE;
+        outcome = Outcome.UNKNOWN;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getProcess() {
+        return process;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getInvokeNanos() {
+        return invokeNanos;
+    }
+
+    public long getCompleteNanos() {
+        return completeNanos;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    @Override
+    public String toString() {
+        String result = outcome == Outcome.UNKNOWN ? "?" : String.valueOf(value);
+        return "#" + id + " p" + process + " " + type + "(" + key + ")" + (type == Type.WRITE ? " " + value : " -> " + result)
+                + " [" + invokeNanos + ", " + (completeNanos == Long.MAX_VALUE ? "∞" : completeNanos) + "]";
+    }
+}
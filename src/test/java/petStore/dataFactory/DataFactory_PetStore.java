@@ -1,5 +1,14 @@
 package petStore.dataFactory;
 
+import petStore.logging.Log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
 /**
  * Data Factory for PetStore API
  * Generates JSON request bodies for pet operations
@@ -11,6 +20,8 @@ public class DataFactory_PetStore {
     public static final String DEFAULT_STATUS = "available";
     public static final String DEFAULT_PHOTO_URL = "https://example.com/photo.jpg";
 
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
     /**
      * Create JSON body for adding a new pet
      * @param id Pet ID
@@ -225,23 +236,41 @@ public class DataFactory_PetStore {
         return String.valueOf(System.currentTimeMillis());
     }
 
+    /**
+     * Write a PNG-signed test image of the given size for upload tests
+     * Only the signature is written; the rest is left to the file system (sparse where supported)
+     * @param file Target file (parent folders are created)
+     * @param sizeBytes Total file size
+     * @return The file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path testImageFile(Path file, long sizeBytes) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(PNG_SIGNATURE));
+            if (sizeBytes > PNG_SIGNATURE.length) {
+                // Writing the last byte extends the file without touching the bytes in between
+                channel.write(ByteBuffer.wrap(new byte[1]), sizeBytes - 1);
+            }
+        }
+        return file;
+    }
+
     /**
      * Print sample JSON bodies for debugging
      */
     public static void printSampleBodies() {
-        System.out.println("========== SAMPLE JSON BODIES ==========");
-        System.out.println("\n1. Add New Pet:");
-        System.out.println(addNewPetBody("101", "Zeus"));
-
-        System.out.println("\n2. Update Pet:");
-        System.out.println(updatePetBody("101", "Leo", "owner"));
-
-        System.out.println("\n3. Minimal Pet:");
-        System.out.println(minimalPetBody("102", "Toby"));
-
-        System.out.println("\n4. Pet with Multiple Tags:");
-        System.out.println(petBodyWithMultipleTags("103", "Max", new String[]{"friendly", "trained", "vaccinated"}));
-
-        System.out.println("========================================");
+        Log.info(() -> String.join(System.lineSeparator(),
+                "========== SAMPLE JSON BODIES ==========",
+                "", "1. Add New Pet:",
+                addNewPetBody("101", "Zeus"),
+                "", "2. Update Pet:",
+                updatePetBody("101", "Leo", "owner"),
+                "", "3. Minimal Pet:",
+                minimalPetBody("102", "Toby"),
+                "", "4. Pet with Multiple Tags:",
+                petBodyWithMultipleTags("103", "Max", new String[]{"friendly", "trained", "vaccinated"}),
+                "========================================"));
     }
 }
\ No newline at end of file
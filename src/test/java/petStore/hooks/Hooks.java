@@ -1,10 +1,25 @@
 package petStore.hooks;
 
 import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
 import io.cucumber.java.Scenario;
 import io.restassured.response.Response;
+import petStore.baseline.RegressionGate;
+import petStore.baseline.RunSamples;
+import petStore.common.EnvironmentContext;
+import petStore.common.HedgedRequests;
+import petStore.common.Http2Transport;
+import petStore.common.LatencyTracker;
+import petStore.common.RateLimiter;
+import petStore.common.ResponseCache;
+import petStore.common.SingleFlight;
+import petStore.logging.Log;
+import petStore.profiling.NetworkPhases;
 import petStore.services.PetServices;
+import petStore.stub.StubServer;
+import petStore.validation.SchemaValidator;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,7 +30,8 @@ import java.util.List;
  */
 public class Hooks {
 
-    private static List<String> createdPetIds = new ArrayList<>();
+    // Per thread: scenarios of different environments (or parallel runners) must not clean up each other's pets
+    private static final ThreadLocal<List<String>> createdPetIds = ThreadLocal.withInitial(ArrayList::new);
     private PetServices petServices = new PetServices();
 
     /**
@@ -24,13 +40,21 @@ public class Hooks {
      */
     @Before
     public void setUp(Scenario scenario) {
-        System.out.println("==========================================");
-        System.out.println("▶️  Starting Scenario: " + scenario.getName());
-        System.out.println("🏷️  Tags: " + scenario.getSourceTagNames());
-        System.out.println("==========================================");
+        // Short correlation ID so log lines of parallel scenarios can be told apart
+        String environment = EnvironmentContext.currentName();
+        Log.setCorrelationId((environment != null ? environment + "/" : "") + "sc-"
+                + scenario.getId().substring(0, Math.min(8, scenario.getId().length())));
+
+        Log.info("==========================================");
+        Log.info("▶️  Starting Scenario: {}", scenario.getName());
+        Log.info("🏷️  Tags: {}", scenario.getSourceTagNames());
+        Log.info("==========================================");
 
         // Clear the list of created pets for this scenario
-        createdPetIds.clear();
+        createdPetIds.get().clear();
+        ResponseCache.startScenario();
+        // The latency baseline only compares runs that selected the same scenarios
+        RunSamples.recordScenario(scenario.getSourceTagNames());
     }
 
     /**
@@ -39,10 +63,10 @@ public class Hooks {
      */
     @After
     public void tearDown(Scenario scenario) {
-        System.out.println("==========================================");
-        System.out.println("⏹️  Finished Scenario: " + scenario.getName());
-        System.out.println("📊 Status: " + scenario.getStatus());
-        System.out.println("==========================================");
+        Log.info("==========================================");
+        Log.info("⏹️  Finished Scenario: {}", scenario.getName());
+        Log.info("📊 Status: {}", scenario.getStatus());
+        Log.info("==========================================");
 
         // Clean up test data - delete all pets created during this scenario
         cleanupTestPets();
@@ -55,8 +79,8 @@ public class Hooks {
     @After(order = 1)
     public void afterFailedScenario(Scenario scenario) {
         if (scenario.isFailed()) {
-            System.err.println("❌ SCENARIO FAILED: " + scenario.getName());
-            System.err.println("📍 URI: " + scenario.getUri());
+            Log.error("❌ SCENARIO FAILED: {}", scenario.getName());
+            Log.error("📍 URI: {}", scenario.getUri());
 
             // You could add screenshot logic here for UI tests
             // Or additional API debugging info
@@ -68,7 +92,7 @@ public class Hooks {
      */
     @Before("@smoke")
     public void beforeSmokeTests() {
-        System.out.println("🔥 Running SMOKE test - ensuring critical paths work");
+        Log.info("🔥 Running SMOKE test - ensuring critical paths work");
     }
 
     /**
@@ -76,7 +100,43 @@ public class Hooks {
      */
     @After("@deletePet")
     public void afterDeleteTests() {
-        System.out.println("🗑️  Delete test completed - verifying cleanup");
+        Log.info("🗑️  Delete test completed - verifying cleanup");
+    }
+
+    /**
+     * Runs once BEFORE the first scenario: starts the local stub Petstore when stubEnabled=true
+     */
+    @BeforeAll
+    public static void beforeAllScenarios() {
+        StubServer.startIfEnabled();
+    }
+
+    /**
+     * Runs once AFTER all scenarios
+     * Prints latency, hedging, rate limiter, schema validation, response cache, single-flight, HTTP/2 transport and network phase statistics collected during the run,
+     * then compares the run's latencies with the stored baseline (fails the run on a regression when baselineGate=fail)
+     * and stops the local stub Petstore if one was started
+     */
+    @AfterAll
+    public static void afterAllScenarios() {
+        Log.flush();
+        if (Log.droppedCount() > 0) {
+            // WARN is never dropped, so the count always gets through the queue that lost the messages
+            Log.warn("⚠️ {} log message(s) dropped because the log queue was full", Log.droppedCount());
+        }
+        LatencyTracker.printSummary();
+        HedgedRequests.printStats();
+        RateLimiter.printWaitStats();
+        SchemaValidator.printStats();
+        ResponseCache.printStats();
+        SingleFlight.printStats();
+        Http2Transport.printStats();
+        NetworkPhases.printStats();
+        try {
+            RegressionGate.evaluate();
+        } finally {
+            StubServer.stopIfStarted();
+        }
     }
 
     /**
@@ -84,9 +144,9 @@ public class Hooks {
      * Call this from your step definitions when creating pets
      */
     public static void registerPetForCleanup(String petId) {
-        if (petId != null && !createdPetIds.contains(petId)) {
-            createdPetIds.add(petId);
-            System.out.println("📝 Registered pet " + petId + " for cleanup");
+        if (petId != null && !createdPetIds.get().contains(petId)) {
+            createdPetIds.get().add(petId);
+            Log.info("📝 Registered pet {} for cleanup", petId);
         }
     }
 
@@ -95,44 +155,44 @@ public class Hooks {
      * FIXED: Now handles 404 gracefully without throwing exceptions
      */
     private void cleanupTestPets() {
-        if (createdPetIds.isEmpty()) {
-            System.out.println("✅ No test pets to clean up");
+        if (createdPetIds.get().isEmpty()) {
+            Log.info("✅ No test pets to clean up");
             return;
         }
 
-        System.out.println("🧹 Cleaning up " + createdPetIds.size() + " test pet(s)...");
+        Log.info("🧹 Cleaning up {} test pet(s)...", createdPetIds.get().size());
 
-        for (String petId : createdPetIds) {
+        for (String petId : createdPetIds.get()) {
             try {
-                // Use the method without validation to avoid exceptions
-                Response response = petServices.getPetByIdWithoutValidation(petId);
+                // Fixture lookup without validation: may be served from the response cache
+                Response response = petServices.getPetByIdCached(petId);
                 int statusCode = response.getStatusCode();
 
                 if (statusCode == 404) {
                     // Pet already deleted - this is OK
-                    System.out.println("✅ Pet " + petId + " already deleted");
+                    Log.info("✅ Pet {} already deleted", petId);
                     continue;
                 }
 
                 // Pet exists, try to delete it
-                response = petServices.deleteByIdWithoutValidation(petId);
+                response = petServices.deleteByIdForCleanup(petId);
                 statusCode = response.getStatusCode();
 
                 if (statusCode == 200) {
-                    System.out.println("✅ Deleted test pet: " + petId);
+                    Log.info("✅ Deleted test pet: {}", petId);
                 } else if (statusCode == 404) {
-                    System.out.println("✅ Pet " + petId + " was already deleted");
+                    Log.info("✅ Pet {} was already deleted", petId);
                 } else {
-                    System.out.println("⚠️  Unexpected status " + statusCode + " when deleting pet " + petId);
+                    Log.warn("⚠️  Unexpected status {} when deleting pet {}", statusCode, petId);
                 }
 
             } catch (Exception e) {
-                System.out.println("⚠️  Could not delete pet " + petId + ": " + e.getMessage());
+                Log.warn("⚠️  Could not delete pet {}: {}", petId, e.getMessage());
                 // Don't fail the test if cleanup fails - pet might already be deleted
             }
         }
 
-        createdPetIds.clear();
-        System.out.println("✅ Cleanup completed");
+        createdPetIds.get().clear();
+        Log.info("✅ Cleanup completed");
     }
 }
\ No newline at end of file
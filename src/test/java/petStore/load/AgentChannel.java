@@ -0,0 +1,77 @@
+package petStore.load;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Agent Channel - Controller/agent connection exchanging one JSON AgentMessage per line
+ */
+class AgentChannel implements Closeable {
+
+    private static final Gson GSON = new Gson();
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final BufferedWriter writer;
+
+    AgentChannel(Socket socket) throws IOException {
+        this.socket = socket;
+        socket.setTcpNoDelay(true);
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    synchronized void send(AgentMessage message) throws IOException {
+        writer.write(GSON.toJson(message));
+        writer.newLine();
+        writer.flush();
+    }
+
+    /**
+     * Wait for the next message, which must be of the expected type
+     * @param expectedType e.g. AgentMessage.READY
+     * @param timeoutMillis Longest wait (0 = forever)
+     * @return Message
+     * @throws IOException on timeout, a closed connection, an error message from the other side or an unexpected type
+     */
+    AgentMessage receive(String expectedType, long timeoutMillis) throws IOException {
+        socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, timeoutMillis));
+        String line;
+        try {
+            line = reader.readLine();
+        } catch (SocketTimeoutException e) {
+            throw new IOException("No '" + expectedType + "' message within " + timeoutMillis + " ms", e);
+        }
+        if (line == null) {
+            throw new IOException("Connection closed while waiting for '" + expectedType + "'");
+        }
+        AgentMessage message;
+        try {
+            message = GSON.fromJson(line, AgentMessage.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Malformed message: " + line, e);
+        }
+        if (AgentMessage.ERROR.equals(message.type)) {
+            throw new IOException("Agent " + message.agent + " failed: " + message.error);
+        }
+        if (!expectedType.equals(message.type)) {
+            throw new IOException("Expected '" + expectedType + "' but got '" + message.type + "'");
+        }
+        return message;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
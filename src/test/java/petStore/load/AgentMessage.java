@@ -0,0 +1,126 @@
+package petStore.load;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agent Message - One line of the controller/agent protocol (sent as JSON, see AgentChannel)
+ * hello (agent → controller), assignment (controller → agent), ready (agent, after seeding),
+ * start (controller, common start time), result (agent) and error (either side).
+ * Only the fields of the message type are set.
+ */
+class AgentMessage {
+
+    static final String HELLO = "hello";
+    static final String ASSIGNMENT = "assignment";
+    static final String READY = "ready";
+    static final String START = "start";
+    static final String RESULT = "result";
+    static final String ERROR = "error";
+
+    String type;
+    int agent;
+    String error;
+
+    // assignment
+    Map<String, String> config;
+    double ratePerSecond;
+    long durationMillis;
+    String arrivals;
+    int users;
+    long seed;
+    long firstPetId;
+    int poolSize;
+    Map<String, Double> mix;
+
+    // start
+    long startAtEpochMillis;
+
+    // result
+    long sent;
+    long unfinished;
+    long elapsedNanos;
+    double maxDispatchLagMs;
+    int maxBacklog;
+    Map<String, OperationSnapshot> operations;
+
+    static AgentMessage of(String type, int agent) {
+        AgentMessage message = new AgentMessage();
+        message.type = type;
+        message.agent = agent;
+        return message;
+    }
+
+    static AgentMessage error(int agent, String error) {
+        AgentMessage message = of(ERROR, agent);
+        message.error = error;
+        return message;
+    }
+
+    static AgentMessage result(int agent, OpenLoopScheduler.OpenLoopResult result) {
+        AgentMessage message = of(RESULT, agent);
+        message.sent = result.getSent();
+        message.unfinished = result.getUnfinished();
+        message.elapsedNanos = result.getElapsedNanos();
+        message.maxDispatchLagMs = result.getMaxDispatchLagMs();
+        message.maxBacklog = result.getMaxBacklog();
+        message.operations = new LinkedHashMap<>();
+        result.getOperations().forEach((name, stats) -> message.operations.put(name, OperationSnapshot.of(stats)));
+        return message;
+    }
+
+    /**
+     * Errors and both latency histograms of one operation
+     */
+    static class OperationSnapshot {
+        long errors;
+        HistogramSnapshot responseTime;
+        HistogramSnapshot serviceTime;
+
+        static OperationSnapshot of(OpenLoopScheduler.OperationStats stats) {
+            OperationSnapshot snapshot = new OperationSnapshot();
+            snapshot.errors = stats.getErrors();
+            snapshot.responseTime = HistogramSnapshot.of(stats.getResponseTime());
+            snapshot.serviceTime = HistogramSnapshot.of(stats.getServiceTime());
+            return snapshot;
+        }
+
+        void addTo(OpenLoopScheduler.OperationStats stats) {
+            stats.addErrors(errors);
+            responseTime.addTo(stats.getResponseTime());
+            serviceTime.addTo(stats.getServiceTime());
+        }
+    }
+
+    /**
+     * Non-empty buckets of a LatencyHistogram: bucket bounds are fixed, so adding the counts merges exactly
+     */
+    static class HistogramSnapshot {
+        List<Integer> buckets = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        long sumMicros;
+
+        static HistogramSnapshot of(LatencyHistogram histogram) {
+            HistogramSnapshot snapshot = new HistogramSnapshot();
+            long[] bucketCounts = histogram.bucketCounts();
+            for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+                if (bucketCounts[bucket] > 0) {
+                    snapshot.buckets.add(bucket);
+                    snapshot.counts.add(bucketCounts[bucket]);
+                }
+            }
+            snapshot.sumMicros = histogram.sumMicros();
+            return snapshot;
+        }
+
+        void addTo(LatencyHistogram histogram) {
+            long[] bucketCounts = new long[LatencyHistogram.BUCKETS];
+            for (int i = 0; i < buckets.size(); i++) {
+                bucketCounts[buckets.get(i)] = counts.get(i);
+            }
+            histogram.add(bucketCounts, sumMicros);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package petStore.load;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Arrival Process - Spacing of request send times in an open-loop run
+ * FIXED sends at exactly 1/rate intervals; POISSON draws exponential gaps with the same mean,
+ * which gives the bursts independent users produce.
+ */
+public enum ArrivalProcess {
+    FIXED,
+    POISSON;
+
+    /**
+     * @param meanGapNanos Mean time between two arrivals (1/rate)
+     * @param random Seeded random source
+     * @return Time until the next arrival, in nanoseconds
+     */
+    public double nextGapNanos(double meanGapNanos, Random random) {
+        if (this == FIXED) {
+            return meanGapNanos;
+        }
+        // 1 - nextDouble() is in (0, 1], so the log is finite
+        return -Math.log(1.0 - random.nextDouble()) * meanGapNanos;
+    }
+
+    /**
+     * @param name fixed, constant, poisson (any case)
+     * @return Matching arrival process
+     */
+    public static ArrivalProcess parse(String name) {
+        String normalized = name.trim().toUpperCase(Locale.ROOT);
+        if ("CONSTANT".equals(normalized)) {
+            return FIXED;
+        }
+        return valueOf(normalized);
+    }
+}
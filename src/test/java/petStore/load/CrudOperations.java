@@ -0,0 +1,136 @@
+package petStore.load;
+
+import petStore.logging.Log;
+import petStore.services.PetServices;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongConsumer;
+
+/**
+ * CRUD Operations - Single-request PetServices operations for arrival-driven load
+ * get and update work on a pool of pets seeded before the run, so they never depend on an earlier
+ * arrival; create adds a new pet per arrival and delete removes one of those again (or a pet that
+ * does not exist when nothing was created yet - a 404 is not an error for delete).
+ * Every operation except delete validates the status code, so a failed request throws.
+ */
+public class CrudOperations {
+
+    public static final String GET = "get";
+    public static final String UPDATE = "update";
+    public static final String CREATE = "create";
+    public static final String DELETE = "delete";
+    public static final String FIND_BY_STATUS = "findByStatus";
+
+    private final PetServices petServices = new PetServices();
+    private final long firstPetId;
+    private final int poolSize;
+    private final Queue<String> created = new ConcurrentLinkedQueue<>();
+    private final Map<String, LongConsumer> operations = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * @param firstPetId Start of the pet ID range (pool first, then created pets)
+     * @param poolSize Number of pets seeded for get and update
+     */
+    public CrudOperations(long firstPetId, int poolSize) {
+        this.firstPetId = firstPetId;
+        this.poolSize = Math.max(1, poolSize);
+
+        operations.put(GET, sequence -> petServices.getPetById(poolPet(sequence)));
+        operations.put(UPDATE, sequence -> petServices.updatePetNoWait(poolPet(sequence), "Load" + sequence, "load", "available"));
+        operations.put(CREATE, sequence -> {
+            String id = String.valueOf(this.firstPetId + this.poolSize + sequence);
+            petServices.addNewPet(id, "Load" + sequence);
+            created.add(id);
+        });
+        operations.put(DELETE, sequence -> {
+            String id = created.poll();
+            petServices.deleteByIdWithoutValidation(id != null ? id : String.valueOf(this.firstPetId + this.poolSize + sequence));
+        });
+        operations.put(FIND_BY_STATUS, sequence -> petServices.getPetStatus("available"));
+    }
+
+    /**
+     * Create the pool pets (closed loop, before the measured run)
+     */
+    public void seed() {
+        Log.info("🌱 Seeding {} pet(s) from ID {}", poolSize, firstPetId);
+        for (int i = 0; i < poolSize; i++) {
+            petServices.addNewPet(String.valueOf(firstPetId + i), "LoadPool" + i);
+        }
+    }
+
+    /**
+     * Delete the pool pets and every created pet that was not deleted during the run
+     */
+    public void cleanup() {
+        int leftovers = created.size();
+        for (int i = 0; i < poolSize; i++) {
+            deleteQuietly(String.valueOf(firstPetId + i));
+        }
+        String id;
+        while ((id = created.poll()) != null) {
+            deleteQuietly(id);
+        }
+        Log.info("🧹 Deleted {} pool pet(s) and {} created pet(s)", poolSize, leftovers);
+    }
+
+    /**
+     * @param name get, update, create, delete or findByStatus (any case)
+     * @return Operation sending one request per call
+     */
+    public LongConsumer operation(String name) {
+        LongConsumer operation = operations.get(name.trim());
+        if (operation == null) {
+            throw new IllegalArgumentException("Unknown operation '" + name + "', expected one of " + operations.keySet());
+        }
+        return operation;
+    }
+
+    /**
+     * Default read-heavy mix: 50% get, 20% update, 15% create, 10% delete, 5% findByStatus
+     * @return Operation mix
+     */
+    public OperationMix defaultMix() {
+        return mix(defaultWeights());
+    }
+
+    /**
+     * Weights of the default mix, e.g. for sending to load agents in other processes
+     * @return Operation name to weight, in mix order
+     */
+    public static Map<String, Double> defaultWeights() {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        weights.put(GET, 50.0);
+        weights.put(UPDATE, 20.0);
+        weights.put(CREATE, 15.0);
+        weights.put(DELETE, 10.0);
+        weights.put(FIND_BY_STATUS, 5.0);
+        return weights;
+    }
+
+    /**
+     * @param weights Operation name (see {@link #operation(String)}) to weight
+     * @return Mix of these operations
+     */
+    public OperationMix mix(Map<String, Double> weights) {
+        OperationMix mix = new OperationMix();
+        weights.forEach((name, weight) -> mix.add(name, weight, operation(name)));
+        return mix;
+    }
+
+    private String poolPet(long sequence) {
+        return String.valueOf(firstPetId + Math.floorMod(sequence, (long) poolSize));
+    }
+
+    private void deleteQuietly(String id) {
+        try {
+            petServices.deleteByIdWithoutValidation(id);
+        } catch (RuntimeException e) {
+            Log.warn("⚠️ Could not delete pet {}: {}", id, e.getMessage());
+        }
+    }
+}
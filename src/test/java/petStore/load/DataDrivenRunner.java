@@ -0,0 +1,293 @@
+package petStore.load;
+
+import io.restassured.response.Response;
+import petStore.logging.Log;
+import petStore.services.PetServices;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Data-Driven Runner - Streams pet rows from a dataset and runs their flows on a worker pool
+ * Rows are read lazily in chunks and only a bounded number of chunks is in flight,
+ * per-row results are appended to a CSV file as soon as a chunk finishes.
+ * Memory use therefore depends on workers and chunk size, never on dataset size.
+ * A malformed line fails only its own row, and a row that fails after creating its pet deletes it again.
+ * If the dataset cannot be read any further, the chunks already started still finish and write their results
+ * before the run fails.
+ */
+public class DataDrivenRunner {
+
+    private static final String RESULT_HEADER = "line,id,operations,outcome,latencyMs,message";
+
+    private final int workers;
+    private final int chunkSize;
+
+    /**
+     * @param workers Number of concurrent worker threads
+     * @param chunkSize Number of rows handed to a worker at once
+     */
+    public DataDrivenRunner(int workers, int chunkSize) {
+        this.workers = Math.max(1, workers);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Run every row of a dataset
+     * @param dataset CSV or JSONL file with pet rows
+     * @param results CSV file receiving one line per row
+     * @return Summary with row counts
+     * @throws IOException if the dataset or result file cannot be opened
+     * @throws IllegalStateException if the dataset could not be read to the end or a chunk could not record its results
+     */
+    public RunSummary run(Path dataset, Path results) throws IOException {
+        Log.info("📂 Running data-driven flows from {} with {} worker(s)", dataset, workers);
+
+        if (results.getParent() != null) {
+            Files.createDirectories(results.getParent());
+        }
+
+        RunSummary summary = new RunSummary();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        Semaphore inFlightChunks = new Semaphore(workers * 2);
+        long start = System.nanoTime();
+
+        List<Future<?>> chunks = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+
+        try (PetDataSource source = PetDataSource.open(dataset);
+             BufferedWriter writer = Files.newBufferedWriter(results, StandardCharsets.UTF_8)) {
+
+            writer.write(RESULT_HEADER);
+            writer.newLine();
+
+            try {
+                List<PetRow> chunk;
+                while (!(chunk = source.nextChunk(chunkSize)).isEmpty()) {
+                    inFlightChunks.acquireUninterruptibly();
+                    List<PetRow> rows = chunk;
+
+                    chunks.add(executor.submit(() -> {
+                        try {
+                            runChunk(rows, writer, summary);
+                        } finally {
+                            inFlightChunks.release();
+                        }
+                    }));
+                    collectFinished(chunks, problems);
+                }
+            } catch (RuntimeException e) {
+                problems.add("dataset read stopped: " + describe(e));
+            } finally {
+                // Running rows finish and write their results before the writer closes; none is interrupted
+                executor.shutdown();
+                awaitTermination(executor);
+            }
+            collectFinished(chunks, problems);
+        }
+
+        summary.elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Data-driven run incomplete (" + summary + "): " + String.join("; ", problems));
+        }
+        Log.info("✓ Data-driven run finished: {} - results in {}", summary, results);
+        return summary;
+    }
+
+    /**
+     * Drop finished chunks, remembering those that ended with an exception (e.g. results not written)
+     */
+    private static void collectFinished(List<Future<?>> chunks, List<String> problems) {
+        chunks.removeIf(chunk -> {
+            if (!chunk.isDone()) {
+                return false;
+            }
+            try {
+                chunk.get();
+            } catch (ExecutionException e) {
+                problems.add(describe(e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        });
+    }
+
+    private void runChunk(List<PetRow> rows, BufferedWriter writer, RunSummary summary) {
+        PetServices petServices = new PetServices();
+        StringBuilder lines = new StringBuilder();
+
+        for (PetRow row : rows) {
+            Log.setCorrelationId("row-" + row.getLineNumber());
+            long start = System.nanoTime();
+            String failure = runRow(petServices, row);
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            summary.rows.increment();
+            if (failure == null) {
+                summary.passed.increment();
+            } else {
+                summary.failed.increment();
+            }
+
+            lines.append(row.getLineNumber()).append(',')
+                    .append(csv(row.getId())).append(',')
+                    .append(csv(row.getOperations())).append(',')
+                    .append(failure == null ? "PASS" : "FAIL").append(',')
+                    .append(latencyMs).append(',')
+                    .append(csv(failure == null ? "" : failure))
+                    .append(System.lineSeparator());
+        }
+
+        Log.clearCorrelationId();
+
+        synchronized (writer) {
+            try {
+                writer.write(lines.toString());
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write data-driven results", e);
+            }
+        }
+    }
+
+    /**
+     * Run all steps of a row
+     * @return null if every step passed, otherwise the failure message
+     */
+    private String runRow(PetServices petServices, PetRow row) {
+        if (row.getParseError() != null) {
+            return "malformed row: " + row.getParseError();
+        }
+        boolean created = false;
+        String failure = null;
+        for (String step : row.getOperationSteps()) {
+            try {
+                failure = runStep(petServices, row, step);
+            } catch (Throwable e) {
+                failure = describe(e);
+            }
+            // A create that failed may still have reached the server
+            if ("create".equals(step)) {
+                created = true;
+            } else if ("delete".equals(step) && failure == null) {
+                created = false;
+            }
+            if (failure != null) {
+                break;
+            }
+        }
+        if (failure != null && created) {
+            deleteCreatedPet(petServices, row);
+        }
+        return failure;
+    }
+
+    /**
+     * Run one step of a row
+     * @return null if the step passed, otherwise the failure message
+     */
+    private String runStep(PetServices petServices, PetRow row, String step) {
+        switch (step) {
+            case "create":
+                petServices.addNewPet(row.getId(), row.getName(), row.getStatus());
+                return null;
+            case "update":
+                petServices.updatePetNoWait(row.getId(), row.getName(), row.getTag() != null ? row.getTag() : "", row.getStatus());
+                return null;
+            case "verify":
+                return petServices.verifyPetCreation(row.getId(), row.getName()) ? null : "verify failed for pet " + row.getId();
+            case "delete":
+                Response response = petServices.deleteByIdWithoutValidation(row.getId());
+                return response.getStatusCode() == 200 ? null : "delete returned " + response.getStatusCode();
+            default:
+                return "unknown operation '" + step + "'";
+        }
+    }
+
+    private static void deleteCreatedPet(PetServices petServices, PetRow row) {
+        try {
+            petServices.deleteByIdForCleanup(row.getId());
+        } catch (RuntimeException e) {
+            Log.warn("⚠️ Could not delete pet {} of failed row {}: {}", row.getId(), row.getLineNumber(), e.getMessage());
+        }
+    }
+
+    private static String describe(Throwable e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"").replace("\r", " ").replace("\n", " ") + '"';
+    }
+
+    /**
+     * Wait for every submitted chunk; an interrupt is kept for later instead of abandoning rows mid-flight
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+                Log.info("⏳ Data-driven run still in progress...");
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Row counters of a run
+     */
+    public static class RunSummary {
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private long elapsedMs;
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getPassed() {
+            return passed.sum();
+        }
+
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            return "rows=" + getRows() + " passed=" + getPassed() + " failed=" + getFailed() + " elapsed=" + elapsedMs + "ms";
+        }
+    }
+}
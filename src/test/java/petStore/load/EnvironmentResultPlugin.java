@@ -0,0 +1,55 @@
+package petStore.load;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import petStore.common.EnvironmentContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Environment Result Plugin - Counts scenario results per environment during a fan-out run
+ * Each environment runs Cucumber on its own thread, so events are attributed through EnvironmentContext.
+ */
+public class EnvironmentResultPlugin implements ConcurrentEventListener {
+
+    private static final Map<String, Counts> countsByEnvironment = new ConcurrentHashMap<>();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+    }
+
+    private void onTestCaseFinished(TestCaseFinished finished) {
+        String environment = EnvironmentContext.currentName();
+        Counts counts = countsByEnvironment.computeIfAbsent(environment == null ? "default" : environment, key -> new Counts());
+
+        counts.scenarios.increment();
+        Status status = finished.getResult().getStatus();
+        if (status == Status.PASSED) {
+            counts.passed.increment();
+        } else if (status == Status.FAILED || status == Status.UNDEFINED || status == Status.AMBIGUOUS) {
+            counts.failed.increment();
+        }
+    }
+
+    /**
+     * @param environment Environment name
+     * @return Counters of the environment (zero if nothing ran)
+     */
+    static Counts countsOf(String environment) {
+        return countsByEnvironment.computeIfAbsent(environment, key -> new Counts());
+    }
+
+    /**
+     * Scenario counters of one environment
+     */
+    static class Counts {
+        final LongAdder scenarios = new LongAdder();
+        final LongAdder passed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+    }
+}
@@ -0,0 +1,140 @@
+package petStore.load;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency Histogram - Fixed log-linear buckets from 1 µs to about 1 hour, relative error below 1%
+ * Every value is counted in a bucket whose bounds depend only on the value, so histograms recorded by
+ * different threads (or processes) merge exactly by adding counts. Recording is lock-free.
+ */
+public class LatencyHistogram {
+
+    // 2^7 linear sub-buckets per power of two: bucket width is at most 1/128 of the value
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAGNITUDES = 32;
+    static final int BUCKETS = (MAGNITUDES + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+
+    /**
+     * Record one latency
+     * @param nanos Latency in nanoseconds (negative values count as 0)
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts.incrementAndGet(bucketOf(micros));
+        total.increment();
+        sumMicros.add(micros);
+    }
+
+    /**
+     * Add all counts of another histogram to this one
+     * @param other Histogram to merge (not modified)
+     */
+    public void add(LatencyHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long count = other.counts.get(bucket);
+            if (count > 0) {
+                counts.addAndGet(bucket, count);
+            }
+        }
+        total.add(other.total.sum());
+        sumMicros.add(other.sumMicros.sum());
+    }
+
+    /**
+     * Add raw bucket counts, e.g. received from another process
+     * @param bucketCounts Counts indexed like {@link #bucketCounts()}
+     * @param sumMicros Sum of the recorded values in microseconds
+     */
+    public void add(long[] bucketCounts, long sumMicros) {
+        for (int bucket = 0; bucket < Math.min(BUCKETS, bucketCounts.length); bucket++) {
+            if (bucketCounts[bucket] > 0) {
+                counts.addAndGet(bucket, bucketCounts[bucket]);
+                total.add(bucketCounts[bucket]);
+            }
+        }
+        this.sumMicros.add(sumMicros);
+    }
+
+    /**
+     * @return Copy of the bucket counts, for sending to another process
+     */
+    public long[] bucketCounts() {
+        long[] copy = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            copy[bucket] = counts.get(bucket);
+        }
+        return copy;
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long sumMicros() {
+        return sumMicros.sum();
+    }
+
+    public double meanMs() {
+        long count = total.sum();
+        return count == 0 ? 0 : sumMicros.sum() / 1_000.0 / count;
+    }
+
+    /**
+     * @param percentile Percentile, 0-100
+     * @return Upper bound of the bucket holding that percentile, in ms (0 if empty)
+     */
+    public double percentileMs(double percentile) {
+        long count = total.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return upperBoundMicros(bucket) / 1_000.0;
+            }
+        }
+        return upperBoundMicros(BUCKETS - 1) / 1_000.0;
+    }
+
+    public double maxMs() {
+        for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+            if (counts.get(bucket) > 0) {
+                return upperBoundMicros(bucket) / 1_000.0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Values below SUB_BUCKETS map 1:1; above, the top SUB_BUCKET_BITS bits below the leading one select the sub-bucket
+     */
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS + 1;
+        if (magnitude > MAGNITUDES) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (micros >>> (magnitude - 1)) - SUB_BUCKETS;
+        return magnitude * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundMicros(int bucket) {
+        int magnitude = bucket / SUB_BUCKETS;
+        int subBucket = bucket % SUB_BUCKETS;
+        if (magnitude == 0) {
+            return subBucket;
+        }
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (magnitude - 1)) - 1;
+    }
+}
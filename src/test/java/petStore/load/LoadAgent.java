@@ -0,0 +1,74 @@
+package petStore.load;
+
+import petStore.logging.Log;
+
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * Load Agent - Runs one share of a distributed open-loop workload in its own JVM (see LoadController)
+ * Usage: java -cp <test classpath> petStore.load.LoadAgent <controller host> <controller port> <agent number>
+ * The agent connects to the controller, applies the configuration it receives, seeds its own pet pool,
+ * reports ready, starts at the common start time and sends back its per-operation latency histograms.
+ * The controller starts local agents itself; agents on other machines are started by hand with the
+ * same working directory layout (configuration file) and classpath.
+ */
+public class LoadAgent {
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: LoadAgent <controller host> <controller port> <agent number>");
+            System.exit(2);
+        }
+        int agent = Integer.parseInt(args[2]);
+        int exitCode = 0;
+        try (AgentChannel channel = new AgentChannel(new Socket(args[0], Integer.parseInt(args[1])))) {
+            try {
+                run(agent, channel);
+            } catch (RuntimeException e) {
+                Log.error("❌ Agent " + agent + " failed", e);
+                channel.send(AgentMessage.error(agent, String.valueOf(e.getMessage())));
+                exitCode = 1;
+            }
+        } catch (IOException e) {
+            Log.error("❌ Agent " + agent + " lost the controller connection", e);
+            exitCode = 1;
+        }
+        Log.flush();
+        // RestAssured and logging threads are not all daemons
+        System.exit(exitCode);
+    }
+
+    private static void run(int agent, AgentChannel channel) throws IOException {
+        channel.send(AgentMessage.of(AgentMessage.HELLO, agent));
+
+        AgentMessage assignment = channel.receive(AgentMessage.ASSIGNMENT, 0);
+        // Before the first Log or ConfigurationReader use: logging and static settings are applied when they load
+        assignment.config.forEach(System::setProperty);
+        Log.setCorrelationId("agent-" + agent);
+        Log.info("🛰️ Agent {}: {} req/s for {} ms with {} user(s), pet IDs from {}", agent, assignment.ratePerSecond,
+                assignment.durationMillis, assignment.users, assignment.firstPetId);
+
+        CrudOperations crud = new CrudOperations(assignment.firstPetId, assignment.poolSize);
+        OperationMix mix = crud.mix(assignment.mix);
+        try {
+            crud.seed();
+            channel.send(AgentMessage.of(AgentMessage.READY, agent));
+
+            AgentMessage start = channel.receive(AgentMessage.START, 0);
+            long wait = start.startAtEpochMillis - System.currentTimeMillis();
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+            OpenLoopScheduler.OpenLoopResult result = new OpenLoopScheduler(assignment.ratePerSecond,
+                    assignment.durationMillis, ArrivalProcess.parse(assignment.arrivals), assignment.users,
+                    assignment.seed).run(mix);
+            channel.send(AgentMessage.result(agent, result));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted before the start time", e);
+        } finally {
+            crud.cleanup();
+        }
+    }
+}
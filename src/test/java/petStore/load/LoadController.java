@@ -0,0 +1,242 @@
+package petStore.load;
+
+import petStore.common.ConfigurationReader;
+import petStore.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load Controller - Splits an open-loop workload across agent JVMs and merges their results exactly
+ * One JVM's network stack, GC and CPU cap the load it can generate; here each agent (LoadAgent) runs
+ * rate/N arrivals with its share of the users, its own seed and its own pet ID range. The controller
+ * talks to the agents over a local socket (one JSON message per line), waits until every agent has
+ * seeded its pool, sends a common start time and adds up the agents' histogram buckets, so merged
+ * percentiles are the same as if one process had recorded every request.
+ *
+ * With distributedSpawnAgents=true (default) the agents are started as child JVMs on this machine
+ * with the same classpath; otherwise the controller waits for agents started by hand
+ * (see LoadAgent) on distributedControllerHost:distributedControllerPort.
+ */
+public class LoadController {
+
+    // Pet IDs per agent: far more than one agent creates in a run
+    private static final long AGENT_ID_STRIDE = 10_000_000L;
+    private static final long START_DELAY_MILLIS = 500;
+    private static final long DRAIN_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private final int agents;
+    private final String host = ConfigurationReader.get("distributedControllerHost", "127.0.0.1");
+    private final int port = ConfigurationReader.getInt("distributedControllerPort", 0);
+    private final boolean spawnAgents = ConfigurationReader.getBoolean("distributedSpawnAgents", true);
+    private final String agentJvmArgs = ConfigurationReader.get("distributedAgentJvmArgs", "-Xmx256m");
+    private final long agentTimeoutMillis =
+            TimeUnit.SECONDS.toMillis(ConfigurationReader.getInt("distributedAgentTimeoutSeconds", 60));
+    private final Path logDirectory = Paths.get("target", "distributed");
+
+    /**
+     * @param agents Number of agent JVMs
+     */
+    public LoadController(int agents) {
+        if (agents < 1) {
+            throw new IllegalArgumentException("At least one agent is required, got " + agents);
+        }
+        this.agents = agents;
+    }
+
+    /**
+     * Run the workload on all agents and merge their results
+     * @param ratePerSecond Total arrival rate, split evenly across the agents
+     * @param durationMillis How long arrivals are generated
+     * @param arrivals Arrival spacing (fixed or Poisson)
+     * @param users Total worker threads, split across the agents (at least one per agent)
+     * @param seed Base seed; agent i uses seed + i
+     * @param firstPetId Start of the pet ID range; agent i uses its own range above it
+     * @param poolSize Pets each agent seeds for get and update
+     * @param mix Operation name (see CrudOperations) to weight
+     * @return Merged result, as if one scheduler had sent every request
+     */
+    public OpenLoopScheduler.OpenLoopResult run(double ratePerSecond, long durationMillis, ArrivalProcess arrivals,
+                                                int users, long seed, long firstPetId, int poolSize,
+                                                Map<String, Double> mix) {
+        List<Process> processes = new ArrayList<>();
+        AgentChannel[] channels = new AgentChannel[agents];
+
+        try (ServerSocket server = new ServerSocket(port, agents, InetAddress.getByName(host))) {
+            Log.info("🛰️ Load controller on {}:{} for {} agent(s)", host, server.getLocalPort(), agents);
+            if (spawnAgents) {
+                for (int agent = 0; agent < agents; agent++) {
+                    processes.add(spawn(agent, server.getLocalPort()));
+                }
+            }
+            connect(server, channels);
+
+            Map<String, String> config = effectiveConfiguration();
+            for (int agent = 0; agent < agents; agent++) {
+                AgentMessage assignment = AgentMessage.of(AgentMessage.ASSIGNMENT, agent);
+                assignment.config = config;
+                assignment.ratePerSecond = ratePerSecond / agents;
+                assignment.durationMillis = durationMillis;
+                assignment.arrivals = arrivals.name();
+                assignment.users = Math.max(1, users / agents + (agent < users % agents ? 1 : 0));
+                assignment.seed = seed + agent;
+                assignment.firstPetId = firstPetId + agent * AGENT_ID_STRIDE;
+                assignment.poolSize = poolSize;
+                assignment.mix = mix;
+                channels[agent].send(assignment);
+            }
+            for (AgentChannel channel : channels) {
+                channel.receive(AgentMessage.READY, agentTimeoutMillis);
+            }
+
+            AgentMessage start = AgentMessage.of(AgentMessage.START, -1);
+            start.startAtEpochMillis = System.currentTimeMillis() + START_DELAY_MILLIS;
+            for (AgentChannel channel : channels) {
+                channel.send(start);
+            }
+            Log.info("🚦 All {} agent(s) ready, starting in {} ms", agents, START_DELAY_MILLIS);
+
+            List<AgentMessage> results = new ArrayList<>();
+            long resultTimeout = START_DELAY_MILLIS + durationMillis + DRAIN_MILLIS + agentTimeoutMillis;
+            for (AgentChannel channel : channels) {
+                AgentMessage result = channel.receive(AgentMessage.RESULT, resultTimeout);
+                Log.info("✓ Agent {}: sent={} unfinished={} maxBacklog={} maxDispatchLag={}ms", result.agent,
+                        result.sent, result.unfinished, result.maxBacklog, String.format("%.2f", result.maxDispatchLagMs));
+                results.add(result);
+            }
+            return merge(ratePerSecond, arrivals, users, mix, results);
+        } catch (IOException e) {
+            throw new IllegalStateException("Distributed run failed: " + e.getMessage()
+                    + (spawnAgents ? " (agent logs in " + logDirectory + ")" : ""), e);
+        } finally {
+            for (AgentChannel channel : channels) {
+                closeQuietly(channel);
+            }
+            stop(processes);
+        }
+    }
+
+    /**
+     * Accept one connection per agent; agents may connect in any order
+     */
+    private void connect(ServerSocket server, AgentChannel[] channels) throws IOException {
+        server.setSoTimeout((int) agentTimeoutMillis);
+        for (int connected = 0; connected < agents; connected++) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (SocketTimeoutException e) {
+                throw new IOException("Only " + connected + " of " + agents + " agent(s) connected within "
+                        + agentTimeoutMillis + " ms", e);
+            }
+            AgentChannel channel = new AgentChannel(socket);
+            int agent = channel.receive(AgentMessage.HELLO, agentTimeoutMillis).agent;
+            if (agent < 0 || agent >= agents || channels[agent] != null) {
+                channel.close();
+                throw new IOException("Unexpected or duplicate agent number " + agent);
+            }
+            channels[agent] = channel;
+        }
+    }
+
+    /**
+     * Start an agent JVM with this JVM's java binary and classpath; output goes to target/distributed/agent-N.log
+     */
+    private Process spawn(int agent, int controllerPort) throws IOException {
+        Files.createDirectories(logDirectory);
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (!agentJvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(agentJvmArgs.trim().split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoadAgent.class.getName());
+        command.add(host);
+        command.add(String.valueOf(controllerPort));
+        command.add(String.valueOf(agent));
+
+        File log = logDirectory.resolve("agent-" + agent + ".log").toFile();
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    /**
+     * Every configuration key with its value as seen here (environment, -D overrides, file), so agents
+     * run against the same backend with the same settings
+     */
+    private static Map<String, String> effectiveConfiguration() {
+        Map<String, String> config = new HashMap<>();
+        for (String key : ConfigurationReader.getAllProperties().stringPropertyNames()) {
+            if (ConfigurationReader.hasProperty(key)) {
+                config.put(key, ConfigurationReader.get(key));
+            }
+        }
+        return config;
+    }
+
+    private static OpenLoopScheduler.OpenLoopResult merge(double ratePerSecond, ArrivalProcess arrivals, int users,
+                                                          Map<String, Double> mix, List<AgentMessage> results) {
+        Map<String, OpenLoopScheduler.OperationStats> operations = new LinkedHashMap<>();
+        mix.keySet().forEach(name -> operations.put(name, new OpenLoopScheduler.OperationStats(name)));
+        long sent = 0;
+        long unfinished = 0;
+        long elapsedNanos = 0;
+        double maxDispatchLagMs = 0;
+        int maxBacklog = 0;
+
+        for (AgentMessage result : results) {
+            result.operations.forEach((name, snapshot) ->
+                    snapshot.addTo(operations.computeIfAbsent(name, OpenLoopScheduler.OperationStats::new)));
+            sent += result.sent;
+            unfinished += result.unfinished;
+            // Agents start together, so the longest agent run spans the whole distributed run
+            elapsedNanos = Math.max(elapsedNanos, result.elapsedNanos);
+            maxDispatchLagMs = Math.max(maxDispatchLagMs, result.maxDispatchLagMs);
+            maxBacklog = Math.max(maxBacklog, result.maxBacklog);
+        }
+        return new OpenLoopScheduler.OpenLoopResult(ratePerSecond, arrivals, users, sent, unfinished, elapsedNanos,
+                maxDispatchLagMs, maxBacklog, operations);
+    }
+
+    private void stop(List<Process> processes) {
+        for (Process process : processes) {
+            try {
+                // Agents clean up their pets after sending the result
+                if (!process.waitFor(agentTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    Log.warn("⚠️ Agent process {} did not exit, killing it", process.pid());
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void closeQuietly(AgentChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.warn("⚠️ Could not close agent connection: {}", e.getMessage());
+            }
+        }
+    }
+}
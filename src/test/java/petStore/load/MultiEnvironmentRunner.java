@@ -0,0 +1,183 @@
+package petStore.load;
+
+import io.cucumber.core.cli.Main;
+import petStore.common.ConfigurationReader;
+import petStore.common.EnvironmentContext;
+import petStore.common.LatencyTracker;
+import petStore.logging.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-Environment Runner - Runs the Cucumber suite against several environments at once
+ * Every environment gets its own thread with its EnvironmentContext bound, so base URI and any
+ * other env.<name>.* override apply to everything that thread does. Scenario results and latency
+ * percentiles are tagged by environment and written side by side:
+ * summary.csv (scenario counts per environment) and latency.csv (percentiles per environment and endpoint).
+ */
+public class MultiEnvironmentRunner {
+
+    private static final String FEATURES = "classpath:features";
+
+    private final List<EnvironmentContext> environments;
+    private final String tags;
+    private final Path outputFolder;
+
+    /**
+     * @param environments Environments to run against
+     * @param tags Cucumber tag expression selecting the scenarios
+     * @param outputFolder Folder receiving per-environment Cucumber JSON and the summary files
+     */
+    public MultiEnvironmentRunner(List<EnvironmentContext> environments, String tags, Path outputFolder) {
+        this.environments = new ArrayList<>(environments);
+        this.tags = tags;
+        this.outputFolder = outputFolder;
+    }
+
+    /**
+     * Run the suite against all environments concurrently and wait for all of them
+     * @return One result per environment, in configuration order
+     * @throws IOException if the summary files cannot be written
+     */
+    public List<EnvironmentResult> run() throws IOException {
+        if (environments.isEmpty()) {
+            throw new IllegalStateException("No environments configured - set 'environments' and env.<name>.baseUri");
+        }
+        Log.info("🌐 Running suite against {} environment(s): {}", environments.size(), environments);
+
+        ExecutorService executor = Executors.newFixedThreadPool(environments.size());
+        List<Future<EnvironmentResult>> futures = new ArrayList<>();
+        for (EnvironmentContext environment : environments) {
+            futures.add(executor.submit(() -> runEnvironment(environment)));
+        }
+        executor.shutdown();
+
+        List<EnvironmentResult> results = new ArrayList<>();
+        try {
+            for (Future<EnvironmentResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for environment runs", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Environment run failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        writeSummary(results);
+        LatencyTracker.writeCsv(outputFolder.resolve("latency.csv"));
+
+        Log.flush();
+        System.out.println("========== ENVIRONMENT RESULTS ==========");
+        results.forEach(result -> System.out.println(result));
+        System.out.println("Details: " + outputFolder.toAbsolutePath());
+        System.out.println("=========================================");
+        LatencyTracker.printSummary();
+
+        return results;
+    }
+
+    private EnvironmentResult runEnvironment(EnvironmentContext environment) {
+        String name = environment.getName();
+        Thread.currentThread().setName("env-" + name);
+        environment.bind();
+        Log.setCorrelationId(name);
+
+        String[] arguments = {
+                "--glue", "petStore.stepDef",
+                "--glue", "petStore.hooks",
+                "--plugin", EnvironmentResultPlugin.class.getName(),
+                "--plugin", "json:" + outputFolder.resolve(name).resolve("cucumber.json"),
+                "--tags", tags,
+                "--monochrome",
+                FEATURES
+        };
+
+        long start = System.nanoTime();
+        try {
+            byte exitStatus = Main.run(arguments, Thread.currentThread().getContextClassLoader());
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            EnvironmentResultPlugin.Counts counts = EnvironmentResultPlugin.countsOf(name);
+            EnvironmentResult result = new EnvironmentResult(name, ConfigurationReader.get("baseUri"), counts.scenarios.sum(),
+                    counts.passed.sum(), counts.failed.sum(), elapsedMs, exitStatus);
+            Log.info("✓ Environment {} finished: {}", name, result);
+            return result;
+        } finally {
+            Log.clearCorrelationId();
+            EnvironmentContext.unbind();
+        }
+    }
+
+    private void writeSummary(List<EnvironmentResult> results) throws IOException {
+        Files.createDirectories(outputFolder);
+        try (BufferedWriter writer = Files.newBufferedWriter(outputFolder.resolve("summary.csv"), StandardCharsets.UTF_8)) {
+            writer.write("environment,baseUri,scenarios,passed,failed,elapsedMs,exitStatus");
+            writer.newLine();
+            for (EnvironmentResult result : results) {
+                writer.write(result.environment + "," + result.baseUri + "," + result.scenarios + "," + result.passed + ","
+                        + result.failed + "," + result.elapsedMs + "," + result.exitStatus);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Outcome of the suite in one environment
+     */
+    public static class EnvironmentResult {
+        private final String environment;
+        private final String baseUri;
+        private final long scenarios;
+        private final long passed;
+        private final long failed;
+        private final long elapsedMs;
+        private final int exitStatus;
+
+        EnvironmentResult(String environment, String baseUri, long scenarios, long passed, long failed, long elapsedMs,
+                          int exitStatus) {
+            this.environment = environment;
+            this.baseUri = baseUri;
+            this.scenarios = scenarios;
+            this.passed = passed;
+            this.failed = failed;
+            this.elapsedMs = elapsedMs;
+            this.exitStatus = exitStatus;
+        }
+
+        public String getEnvironment() {
+            return environment;
+        }
+
+        public long getScenarios() {
+            return scenarios;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public boolean isSuccessful() {
+            return exitStatus == 0 && failed == 0;
+        }
+
+        @Override
+        public String toString() {
+            return environment + " (" + baseUri + "): scenarios=" + scenarios + " passed=" + passed + " failed=" + failed
+                    + " elapsed=" + elapsedMs + "ms exit=" + exitStatus;
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package petStore.load;
+
+import petStore.common.EnvironmentContext;
+import petStore.logging.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-Loop Scheduler - Sends requests on a fixed or Poisson arrival schedule, whatever the responses do
+ * A closed loop (N threads, next request when the previous one returned) sends less when the server slows
+ * down and so never measures the wait its own missing requests would have had (coordinated omission).
+ * Here the send time of every arrival is fixed in advance from the rate; arrivals are queued for the
+ * users (worker threads) and their response time is measured from that intended send time, so time spent
+ * waiting for a free user counts as latency, exactly as a real client would see it.
+ * Service time (from the actual send) is reported next to it; the gap between the two is the queueing.
+ * Arrivals still queued when the drain timeout expires are recorded as errors with the time they waited so far,
+ * so an overloaded run cannot drop its worst latencies from the tail.
+ */
+public class OpenLoopScheduler {
+
+    private static final long START_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final double ratePerSecond;
+    private final long durationNanos;
+    private final ArrivalProcess arrivals;
+    private final int users;
+    private final long seed;
+
+    /**
+     * @param ratePerSecond Target arrival rate (requests per second)
+     * @param durationMillis How long arrivals are generated
+     * @param arrivals Arrival spacing (fixed or Poisson)
+     * @param users Worker threads sending the requests (upper bound on concurrency)
+     * @param seed Seed for arrival gaps and operation choice
+     */
+    public OpenLoopScheduler(double ratePerSecond, long durationMillis, ArrivalProcess arrivals, int users, long seed) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be > 0, got " + ratePerSecond);
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        this.arrivals = arrivals;
+        this.users = Math.max(1, users);
+        this.seed = seed;
+    }
+
+    /**
+     * Generate arrivals for the configured duration, then wait for the outstanding requests
+     * @param mix Operations to pick from for each arrival
+     * @return Response and service time percentiles per operation
+     */
+    public OpenLoopResult run(OperationMix mix) {
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty");
+        }
+        Log.info("🚦 Open-loop run: {} req/s ({} arrivals) for {} ms with {} user(s), mix: {}", ratePerSecond,
+                arrivals, TimeUnit.NANOSECONDS.toMillis(durationNanos), users, mix);
+
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        List<OperationStats> statsByIndex = new ArrayList<>();
+        for (String name : mix.names()) {
+            OperationStats operationStats = new OperationStats(name);
+            stats.put(name, operationStats);
+            statsByIndex.add(operationStats);
+        }
+
+        ThreadPoolExecutor executor = newExecutor();
+        Random random = new Random(seed);
+        double meanGapNanos = 1_000_000_000.0 / ratePerSecond;
+        AtomicLong lastCompletion = new AtomicLong();
+        long maxDispatchLag = 0;
+        int maxBacklog = 0;
+        long sent = 0;
+
+        long start = System.nanoTime() + START_DELAY_NANOS;
+        long end = start + durationNanos;
+        double intended = start;
+
+        while ((long) intended < end) {
+            long intendedNanos = (long) intended;
+            waitUntil(intendedNanos);
+            maxDispatchLag = Math.max(maxDispatchLag, System.nanoTime() - intendedNanos);
+
+            int index = mix.pick(random.nextDouble());
+            long sequence = sent++;
+            executor.execute(new Arrival(intendedNanos, sequence, statsByIndex.get(index), mix, index, lastCompletion));
+            maxBacklog = Math.max(maxBacklog, executor.getQueue().size());
+            intended += arrivals.nextGapNanos(meanGapNanos, random);
+        }
+
+        executor.shutdown();
+        long unfinished = 0;
+        try {
+            if (!executor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                unfinished = abandon(executor) + executor.getActiveCount();
+                Log.warn("⚠️ {} request(s) still outstanding {}s after the last arrival", unfinished, DRAIN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unfinished = abandon(executor) + executor.getActiveCount();
+        }
+
+        long elapsedNanos = Math.max(lastCompletion.get(), end) - start;
+        OpenLoopResult result = new OpenLoopResult(ratePerSecond, arrivals, users, sent, unfinished, elapsedNanos,
+                TimeUnit.NANOSECONDS.toMicros(maxDispatchLag) / 1_000.0, maxBacklog, stats);
+        Log.info("✓ Open-loop run finished: {}", result);
+        return result;
+    }
+
+    /**
+     * Drop the queued arrivals, recording each as an error that waited from its intended send time until now
+     * @return Number of arrivals dropped
+     */
+    private static int abandon(ThreadPoolExecutor executor) {
+        List<Runnable> queued = executor.shutdownNow();
+        long now = System.nanoTime();
+        for (Runnable arrival : queued) {
+            ((Arrival) arrival).abandon(now);
+        }
+        return queued.size();
+    }
+
+    /**
+     * Users bind the caller's environment and correlation ID; arrivals beyond the users wait in an unbounded queue
+     */
+    private ThreadPoolExecutor newExecutor() {
+        EnvironmentContext context = EnvironmentContext.current();
+        String correlationId = Log.getCorrelationId();
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(users, users, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(() -> {
+                if (context != null) {
+                    context.bind();
+                }
+                Log.setCorrelationId(correlationId);
+                runnable.run();
+            }, "open-loop-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Park for the bulk of the wait, spin the last stretch: parkNanos alone overshoots by tens of microseconds
+     */
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            if (remaining > 200_000) {
+                LockSupport.parkNanos(remaining - 100_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * One scheduled request: sent by a user when it is dequeued, timed from its intended send time
+     */
+    private static class Arrival implements Runnable {
+        private final long intendedNanos;
+        private final long sequence;
+        private final OperationStats operationStats;
+        private final OperationMix mix;
+        private final int index;
+        private final AtomicLong lastCompletion;
+
+        Arrival(long intendedNanos, long sequence, OperationStats operationStats, OperationMix mix, int index,
+                AtomicLong lastCompletion) {
+            this.intendedNanos = intendedNanos;
+            this.sequence = sequence;
+            this.operationStats = operationStats;
+            this.mix = mix;
+            this.index = index;
+            this.lastCompletion = lastCompletion;
+        }
+
+        @Override
+        public void run() {
+            long sendNanos = System.nanoTime();
+            try {
+                mix.operation(index).accept(sequence);
+            } catch (RuntimeException | AssertionError e) {
+                operationStats.errors.increment();
+                Log.warn("⚠️ {} #{} failed: {}", operationStats.name, sequence, e.getMessage());
+            } finally {
+                long completion = System.nanoTime();
+                operationStats.responseTime.recordNanos(completion - intendedNanos);
+                operationStats.serviceTime.recordNanos(completion - sendNanos);
+                lastCompletion.accumulateAndGet(completion, Math::max);
+            }
+        }
+
+        /**
+         * Never sent: its wait so far is a lower bound of the latency it would have had
+         */
+        void abandon(long nowNanos) {
+            operationStats.errors.increment();
+            operationStats.responseTime.recordNanos(nowNanos - intendedNanos);
+        }
+    }
+
+    /**
+     * Latencies and errors of one operation of the mix
+     */
+    public static class OperationStats {
+        private final String name;
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        OperationStats(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Latency from the intended send time (coordinated-omission corrected)
+         */
+        public LatencyHistogram getResponseTime() {
+            return responseTime;
+        }
+
+        /**
+         * @return Latency from the actual send time (what a closed loop would report)
+         */
+        public LatencyHistogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /**
+         * @param count Errors reported for this operation by another process (see LoadController)
+         */
+        void addErrors(long count) {
+            errors.add(count);
+        }
+    }
+
+    /**
+     * Outcome of an open-loop run
+     */
+    public static class OpenLoopResult {
+        private final double targetRate;
+        private final ArrivalProcess arrivals;
+        private final int users;
+        private final long sent;
+        private final long unfinished;
+        private final long elapsedNanos;
+        private final double maxDispatchLagMs;
+        private final int maxBacklog;
+        private final Map<String, OperationStats> operations;
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+        OpenLoopResult(double targetRate, ArrivalProcess arrivals, int users, long sent, long unfinished, long elapsedNanos,
+                       double maxDispatchLagMs, int maxBacklog, Map<String, OperationStats> operations) {
+            this.targetRate = targetRate;
+            this.arrivals = arrivals;
+            this.users = users;
+            this.sent = sent;
+            this.unfinished = unfinished;
+            this.elapsedNanos = elapsedNanos;
+            this.maxDispatchLagMs = maxDispatchLagMs;
+            this.maxBacklog = maxBacklog;
+            this.operations = operations;
+            operations.values().forEach(operation -> {
+                responseTime.add(operation.responseTime);
+                serviceTime.add(operation.serviceTime);
+            });
+        }
+
+        public double getTargetRate() {
+            return targetRate;
+        }
+
+        /**
+         * @return Completed requests per second, from the first intended send to the last response
+         */
+        public double getAchievedRate() {
+            return elapsedNanos == 0 ? 0 : responseTime.count() * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public long getSent() {
+            return sent;
+        }
+
+        public long getCompleted() {
+            return responseTime.count();
+        }
+
+        public long getUnfinished() {
+            return unfinished;
+        }
+
+        public long getErrors() {
+            return operations.values().stream().mapToLong(OperationStats::getErrors).sum();
+        }
+
+        public int getMaxBacklog() {
+            return maxBacklog;
+        }
+
+        public double getMaxDispatchLagMs() {
+            return maxDispatchLagMs;
+        }
+
+        long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public LatencyHistogram getResponseTime() {
+            return responseTime;
+        }
+
+        public LatencyHistogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public Map<String, OperationStats> getOperations() {
+            return operations;
+        }
+
+        /**
+         * Print per-operation response and service time percentiles
+         */
+        public void print() {
+            Log.flush();
+            System.out.println("========== OPEN-LOOP LOAD ==========");
+            System.out.println(this);
+            System.out.println(String.format("%-14s %8s %7s | %-34s | %-34s", "operation", "count", "errors",
+                    "response time p50/p90/p99/max (ms)", "service time p50/p90/p99/max (ms)"));
+            operations.values().forEach(operation -> System.out.println(row(operation.name, operation.responseTime,
+                    operation.serviceTime, operation.getErrors())));
+            System.out.println(row("all", responseTime, serviceTime, getErrors()));
+            System.out.println("====================================");
+        }
+
+        /**
+         * Write one CSV line per operation (and one for all operations)
+         * @param file CSV file
+         * @throws IOException if the file cannot be written
+         */
+        public void writeCsv(Path file) throws IOException {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("operation,count,errors,responseP50Ms,responseP90Ms,responseP99Ms,responseMaxMs,"
+                        + "serviceP50Ms,serviceP90Ms,serviceP99Ms,serviceMaxMs");
+                writer.newLine();
+                for (OperationStats operation : operations.values()) {
+                    writer.write(csvLine(operation.name, operation.responseTime, operation.serviceTime, operation.getErrors()));
+                    writer.newLine();
+                }
+                writer.write(csvLine("all", responseTime, serviceTime, getErrors()));
+                writer.newLine();
+            }
+        }
+
+        private static String row(String name, LatencyHistogram response, LatencyHistogram service, long errors) {
+            return String.format("%-14s %8d %7d | %-34s | %-34s", name, response.count(), errors, percentiles(response),
+                    percentiles(service));
+        }
+
+        private static String percentiles(LatencyHistogram histogram) {
+            return String.format("%.1f / %.1f / %.1f / %.1f", histogram.percentileMs(50), histogram.percentileMs(90),
+                    histogram.percentileMs(99), histogram.maxMs());
+        }
+
+        private static String csvLine(String name, LatencyHistogram response, LatencyHistogram service, long errors) {
+            return String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f", name,
+                    response.count(), errors, response.percentileMs(50), response.percentileMs(90),
+                    response.percentileMs(99), response.maxMs(), service.percentileMs(50), service.percentileMs(90),
+                    service.percentileMs(99), service.maxMs());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("target=%.1f req/s (%s, %d users) achieved=%.1f req/s sent=%d completed=%d errors=%d "
+                            + "unfinished=%d maxBacklog=%d maxDispatchLag=%.2fms", targetRate, arrivals, users,
+                    getAchievedRate(), sent, getCompleted(), getErrors(), unfinished, maxBacklog, maxDispatchLagMs);
+        }
+    }
+}
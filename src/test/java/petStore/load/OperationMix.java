@@ -0,0 +1,87 @@
+package petStore.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Operation Mix - Named operations with relative weights, picked at random for each arrival
+ * Weights do not need to add up to 100; each one is taken relative to their sum.
+ */
+public class OperationMix {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<LongConsumer> operations = new ArrayList<>();
+    private final List<Double> cumulativeWeights = new ArrayList<>();
+    private double totalWeight;
+
+    /**
+     * Add an operation to the mix
+     * @param name Operation name used in the report (e.g. get, update)
+     * @param weight Relative weight, greater than 0
+     * @param operation Sends the request; receives the arrival's sequence number
+     * @return this
+     */
+    public OperationMix add(String name, double weight, LongConsumer operation) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight of operation '" + name + "' must be > 0, got " + weight);
+        }
+        totalWeight += weight;
+        names.add(name);
+        operations.add(operation);
+        cumulativeWeights.add(totalWeight);
+        return this;
+    }
+
+    /**
+     * @param uniform Uniform random number in [0, 1)
+     * @return Index of the operation it selects
+     */
+    int pick(double uniform) {
+        double target = uniform * totalWeight;
+        for (int i = 0; i < cumulativeWeights.size(); i++) {
+            if (target < cumulativeWeights.get(i)) {
+                return i;
+            }
+        }
+        return cumulativeWeights.size() - 1;
+    }
+
+    String name(int index) {
+        return names.get(index);
+    }
+
+    LongConsumer operation(int index) {
+        return operations.get(index);
+    }
+
+    public List<String> names() {
+        return new ArrayList<>(names);
+    }
+
+    public boolean isEmpty() {
+        return names.isEmpty();
+    }
+
+    /**
+     * @param name Operation name
+     * @return Share of the mix in percent
+     */
+    public double sharePercent(String name) {
+        int index = names.indexOf(name);
+        if (index < 0) {
+            return 0;
+        }
+        double previous = index == 0 ? 0 : cumulativeWeights.get(index - 1);
+        return (cumulativeWeights.get(index) - previous) * 100 / totalWeight;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (String name : names) {
+            text.append(text.length() == 0 ? "" : ", ").append(String.format("%.0f%% %s", sharePercent(name), name));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,196 @@
+package petStore.load;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import petStore.dataFactory.DataFactory_PetStore;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Pet Data Source - Lazily reads pet rows from a CSV or JSONL file
+ * Only the current line is held in memory, so file size does not matter.
+ *
+ * CSV: first line is a header with any of id,name,status,tag,operations (quoted fields allowed)
+ * JSONL: one object per line, e.g. {"id": 1, "name": "Zeus", "operations": "create+verify+delete"}
+ */
+public class PetDataSource implements Iterator<PetRow>, Closeable {
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private long lineNumber;
+    private PetRow next;
+
+    /**
+     * Open a dataset; format is chosen from the file extension (.csv, .jsonl or .ndjson)
+     * @param dataset Path to the dataset
+     * @return Data source positioned on the first row
+     * @throws IOException if the file cannot be opened
+     */
+    public static PetDataSource open(Path dataset) throws IOException {
+        String fileName = dataset.getFileName().toString().toLowerCase();
+
+        if (!fileName.endsWith(".csv") && !fileName.endsWith(".jsonl") && !fileName.endsWith(".ndjson")) {
+            throw new IllegalArgumentException("Unsupported dataset format (expected .csv, .jsonl or .ndjson): " + dataset);
+        }
+
+        return new PetDataSource(Files.newBufferedReader(dataset, StandardCharsets.UTF_8), fileName.endsWith(".csv"));
+    }
+
+    private PetDataSource(BufferedReader reader, boolean csv) throws IOException {
+        this.reader = reader;
+        this.csv = csv;
+
+        if (csv) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                throw new IllegalArgumentException("CSV dataset is empty (header expected)");
+            }
+            List<String> names = splitCsvLine(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(), i);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public PetRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        PetRow row = next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * Read up to chunkSize rows
+     * @param chunkSize Maximum number of rows
+     * @return Next chunk, empty when the dataset is exhausted
+     */
+    public List<PetRow> nextChunk(int chunkSize) {
+        List<PetRow> chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && hasNext()) {
+            chunk.add(next());
+        }
+        return chunk;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private PetRow readRow() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+                if (line == null) {
+                    return null;
+                }
+            } while (line.trim().isEmpty());
+
+            try {
+                return csv ? parseCsv(line) : parseJson(line);
+            } catch (RuntimeException e) {
+                // JsonSyntaxException, IllegalStateException (not an object), UnsupportedOperationException (not a value)
+                return PetRow.malformed(lineNumber, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read dataset at line " + lineNumber, e);
+        }
+    }
+
+    private PetRow parseCsv(String line) {
+        List<String> values = splitCsvLine(line);
+        return new PetRow(lineNumber,
+                column(values, "id"),
+                column(values, "name"),
+                orDefault(column(values, "status"), DataFactory_PetStore.DEFAULT_STATUS),
+                column(values, "tag"),
+                orDefault(column(values, "operations"), PetRow.DEFAULT_OPERATIONS));
+    }
+
+    private PetRow parseJson(String line) {
+        JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+        return new PetRow(lineNumber,
+                field(json, "id"),
+                field(json, "name"),
+                orDefault(field(json, "status"), DataFactory_PetStore.DEFAULT_STATUS),
+                field(json, "tag"),
+                orDefault(field(json, "operations"), PetRow.DEFAULT_OPERATIONS));
+    }
+
+    private String column(List<String> values, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= values.size() ? null : values.get(index);
+    }
+
+    private static String field(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private static String orDefault(String value, String defaultValue) {
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields and "" escapes
+     */
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+
+        return values;
+    }
+}
@@ -0,0 +1,91 @@
+package petStore.load;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pet Row - One line of an external pet dataset (CSV or JSONL)
+ * Columns: id, name, status, tag, operations (e.g. "create+verify+delete")
+ * A line that could not be parsed becomes a malformed row carrying the parse error, so it fails on its own.
+ */
+public class PetRow {
+
+    public static final String DEFAULT_OPERATIONS = "create+verify";
+
+    private final long lineNumber;
+    private final String id;
+    private final String name;
+    private final String status;
+    private final String tag;
+    private final String operations;
+    private final String parseError;
+
+    public PetRow(long lineNumber, String id, String name, String status, String tag, String operations) {
+        this.lineNumber = lineNumber;
+        this.id = id;
+        this.name = name;
+        this.status = status;
+        this.tag = tag;
+        this.operations = operations;
+        this.parseError = null;
+    }
+
+    private PetRow(long lineNumber, String parseError) {
+        this.lineNumber = lineNumber;
+        this.id = null;
+        this.name = null;
+        this.status = null;
+        this.tag = null;
+        this.operations = "";
+        this.parseError = parseError;
+    }
+
+    /**
+     * Row for a line that could not be parsed
+     * @param lineNumber Line in the dataset
+     * @param parseError Why the line was rejected
+     * @return Malformed row
+     */
+    public static PetRow malformed(long lineNumber, String parseError) {
+        return new PetRow(lineNumber, parseError);
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public String getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return Parse error of a malformed row, null for a valid row
+     */
+    public String getParseError() {
+        return parseError;
+    }
+
+    /**
+     * Split operations column into individual steps
+     * @return Steps in execution order (create, update, verify, delete)
+     */
+    public List<String> getOperationSteps() {
+        return Arrays.asList(operations.toLowerCase().split("\\+"));
+    }
+}
@@ -0,0 +1,147 @@
+package petStore.load;
+
+/**
+ * Scalability Model - Amdahl's law and Universal Scalability Law fitted to a throughput-vs-workers curve
+ * USL: X(N) = λN / (1 + σ(N-1) + κN(N-1)), where σ is contention (the serialised share of the work) and κ is
+ * coherency (cross-talk that makes throughput fall again past a peak). Amdahl's law is the κ = 0 case.
+ * With λ = X(1), N·X(1)/X(N) - 1 = σ(N-1) + κN(N-1) is linear in σ and κ, so both are fitted by least squares.
+ */
+public class ScalabilityModel {
+
+    private final double lambda;
+    private final double sigma;
+    private final double kappa;
+    private final double amdahlSigma;
+    private final double rSquared;
+
+    private ScalabilityModel(double lambda, double sigma, double kappa, double amdahlSigma, double rSquared) {
+        this.lambda = lambda;
+        this.sigma = sigma;
+        this.kappa = kappa;
+        this.amdahlSigma = amdahlSigma;
+        this.rSquared = rSquared;
+    }
+
+    /**
+     * Fit both models
+     * @param workers Worker counts, must include 1
+     * @param throughput Measured throughput at each worker count
+     * @return Fitted coefficients (σ and κ are never negative)
+     */
+    public static ScalabilityModel fit(int[] workers, double[] throughput) {
+        double lambda = 0;
+        for (int i = 0; i < workers.length; i++) {
+            if (workers[i] == 1) {
+                lambda = throughput[i];
+            }
+        }
+        if (lambda <= 0) {
+            throw new IllegalArgumentException("Throughput at 1 worker is required to fit the scalability model");
+        }
+
+        double saa = 0, sab = 0, sbb = 0, say = 0, sby = 0;
+        for (int i = 0; i < workers.length; i++) {
+            if (workers[i] <= 1 || throughput[i] <= 0) {
+                continue;
+            }
+            double n = workers[i];
+            double y = n * lambda / throughput[i] - 1;
+            double a = n - 1;
+            double b = n * (n - 1);
+            saa += a * a;
+            sab += a * b;
+            sbb += b * b;
+            say += a * y;
+            sby += b * y;
+        }
+
+        double amdahlSigma = saa == 0 ? 0 : Math.max(0, say / saa);
+        double sigma;
+        double kappa;
+        double determinant = saa * sbb - sab * sab;
+        if (Math.abs(determinant) < 1e-12) {
+            // Fewer than two levels above one worker: only σ can be told apart
+            sigma = amdahlSigma;
+            kappa = 0;
+        } else {
+            sigma = (say * sbb - sby * sab) / determinant;
+            kappa = (saa * sby - sab * say) / determinant;
+            if (kappa < 0) {
+                kappa = 0;
+                sigma = amdahlSigma;
+            } else if (sigma < 0) {
+                sigma = 0;
+                kappa = Math.max(0, sby / sbb);
+            }
+        }
+
+        ScalabilityModel unscored = new ScalabilityModel(lambda, sigma, kappa, amdahlSigma, 0);
+        return new ScalabilityModel(lambda, sigma, kappa, amdahlSigma, unscored.rSquared(workers, throughput));
+    }
+
+    /**
+     * @param workers Worker count
+     * @return Throughput the USL fit predicts
+     */
+    public double predict(double workers) {
+        return lambda * workers / (1 + sigma * (workers - 1) + kappa * workers * (workers - 1));
+    }
+
+    /**
+     * @return Worker count with the highest predicted throughput (infinite without coherency cost)
+     */
+    public double peakWorkers() {
+        return kappa <= 0 ? Double.POSITIVE_INFINITY : Math.sqrt((1 - sigma) / kappa);
+    }
+
+    /**
+     * @return Amdahl's upper bound on speed-up, 1/σ (infinite when nothing is serialised)
+     */
+    public double amdahlMaxSpeedup() {
+        return amdahlSigma <= 0 ? Double.POSITIVE_INFINITY : 1 / amdahlSigma;
+    }
+
+    public double getLambda() {
+        return lambda;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+
+    public double getKappa() {
+        return kappa;
+    }
+
+    public double getAmdahlSigma() {
+        return amdahlSigma;
+    }
+
+    /**
+     * @return Coefficient of determination of the USL fit on the measured throughput
+     */
+    public double getRSquared() {
+        return rSquared;
+    }
+
+    private double rSquared(int[] workers, double[] throughput) {
+        double mean = 0;
+        for (double value : throughput) {
+            mean += value;
+        }
+        mean /= throughput.length;
+        double residual = 0, total = 0;
+        for (int i = 0; i < workers.length; i++) {
+            residual += Math.pow(throughput[i] - predict(workers[i]), 2);
+            total += Math.pow(throughput[i] - mean, 2);
+        }
+        return total == 0 ? 1 : 1 - residual / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("USL σ=%.4f κ=%.5f λ=%.1f req/s R²=%.3f peak≈%s workers | Amdahl σ=%.4f max speed-up %s",
+                sigma, kappa, lambda, rSquared, Double.isInfinite(peakWorkers()) ? "∞" : String.format("%.1f", peakWorkers()),
+                amdahlSigma, Double.isInfinite(amdahlMaxSpeedup()) ? "∞" : String.format("%.1fx", amdahlMaxSpeedup()));
+    }
+}
@@ -0,0 +1,370 @@
+package petStore.load;
+
+import petStore.common.EnvironmentContext;
+import petStore.logging.Log;
+import petStore.profiling.ContentionSampler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scalability Runner - Runs the same closed-loop CRUD mix at 1, 2, 4 ... N workers and fits a scalability model
+ * Each level runs for a fixed time after a short warm-up; every worker sends the next request as soon as the
+ * previous one returned, so throughput is the capacity of the client stack at that concurrency.
+ * Reported per level: throughput, p50/p95/p99, client CPU (process CPU time over wall time, in cores) and the
+ * share of worker time spent waiting for a lock per framework component (see ContentionSampler).
+ * Amdahl and USL coefficients are fitted to the curve; scaling "stops" at the first level whose efficiency
+ * (throughput / (workers x single-worker throughput)) falls below the configured minimum or whose throughput
+ * does not grow, and the most contended component at that level is named.
+ */
+public class ScalabilityRunner {
+
+    private final int maxWorkers;
+    private final long levelNanos;
+    private final long warmupNanos;
+    private final long sampleIntervalMillis;
+    private final double minEfficiency;
+    private final long seed;
+
+    /**
+     * @param maxWorkers Highest worker count (levels double from 1 up to it; it is always included)
+     * @param levelSeconds Measured time per level
+     * @param warmupSeconds Unmeasured time before each level
+     * @param sampleIntervalMillis Interval of the contention sampler
+     * @param minEfficiency Efficiency (0-1) below which a level no longer counts as scaling
+     * @param seed Seed of the operation choice (worker i uses seed + i)
+     */
+    public ScalabilityRunner(int maxWorkers, int levelSeconds, int warmupSeconds, long sampleIntervalMillis,
+                             double minEfficiency, long seed) {
+        this.maxWorkers = Math.max(1, maxWorkers);
+        this.levelNanos = TimeUnit.SECONDS.toNanos(Math.max(1, levelSeconds));
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Math.max(0, warmupSeconds));
+        this.sampleIntervalMillis = sampleIntervalMillis;
+        this.minEfficiency = minEfficiency;
+        this.seed = seed;
+    }
+
+    /**
+     * @return Worker counts of the levels: 1, 2, 4 ... and maxWorkers
+     */
+    public List<Integer> levels() {
+        List<Integer> levels = new ArrayList<>();
+        for (int workers = 1; workers < maxWorkers; workers *= 2) {
+            levels.add(workers);
+        }
+        levels.add(maxWorkers);
+        return levels;
+    }
+
+    /**
+     * Run every level, one after the other
+     * @param mix Operations to pick from for each request
+     * @return Per-level measurements and the fitted model
+     */
+    public ScalingReport run(OperationMix mix) {
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty");
+        }
+        AtomicLong sequence = new AtomicLong();
+        List<LevelResult> results = new ArrayList<>();
+        for (int workers : levels()) {
+            results.add(runLevel(workers, mix, sequence));
+        }
+        return new ScalingReport(results, minEfficiency);
+    }
+
+    private LevelResult runLevel(int workers, OperationMix mix, AtomicLong sequence) {
+        Log.info("📈 Scaling level: {} worker(s), {}s warm-up + {}s measured", workers,
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(levelNanos));
+        EnvironmentContext context = EnvironmentContext.current();
+        String correlationId = Log.getCorrelationId();
+        ContentionSampler sampler = new ContentionSampler(sampleIntervalMillis);
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(workers);
+        CountDownLatch done = new CountDownLatch(workers);
+
+        long start = System.nanoTime() + warmupNanos;
+        long end = start + levelNanos;
+        List<Thread> threads = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            Random random = new Random(seed + worker);
+            Thread thread = new Thread(() -> {
+                if (context != null) {
+                    context.bind();
+                }
+                Log.setCorrelationId(correlationId);
+                sampler.register();
+                ready.countDown();
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        int index = mix.pick(random.nextDouble());
+                        boolean failed = false;
+                        try {
+                            mix.operation(index).accept(sequence.getAndIncrement());
+                        } catch (RuntimeException | AssertionError e) {
+                            failed = true;
+                        }
+                        long completion = System.nanoTime();
+                        if (now >= start && completion <= end) {
+                            latency.recordNanos(completion - now);
+                            if (failed) {
+                                errors.increment();
+                            }
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "scaling-" + workers + "-" + worker);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        long cpuStart = 0;
+        try {
+            ready.await();
+            sleepUntil(start);
+            cpuStart = processCpuNanos();
+            sampler.start();
+            sleepUntil(end);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during scaling level " + workers, e);
+        } finally {
+            sampler.stop();
+        }
+        long cpuNanos = processCpuNanos() - cpuStart;
+        try {
+            // Requests still running at the end are not counted; let them finish before the next level
+            if (!done.await(60, TimeUnit.SECONDS)) {
+                Log.warn("⚠️ {} worker(s) of level {} still busy after 60s", done.getCount(), workers);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        LevelResult result = new LevelResult(workers, latency, errors.sum(), levelNanos, cpuNanos, sampler);
+        Log.info("✓ {}", result);
+        return result;
+    }
+
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    /**
+     * @return CPU time of the whole process (all threads), or -1 if the JVM does not report it
+     */
+    private static long processCpuNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * Measurements at one worker count
+     */
+    public static class LevelResult {
+        private final int workers;
+        private final LatencyHistogram latency;
+        private final long errors;
+        private final double throughput;
+        private final double cpuCores;
+        private final Map<String, Long> contended;
+        private final long samples;
+
+        LevelResult(int workers, LatencyHistogram latency, long errors, long elapsedNanos, long cpuNanos,
+                    ContentionSampler sampler) {
+            this.workers = workers;
+            this.latency = latency;
+            this.errors = errors;
+            this.throughput = latency.count() * 1_000_000_000.0 / elapsedNanos;
+            this.cpuCores = cpuNanos < 0 ? -1 : (double) cpuNanos / elapsedNanos;
+            this.contended = sampler.getContended();
+            this.samples = sampler.getSamples();
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public double getThroughput() {
+            return throughput;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return Process CPU used during the level, in cores (-1 if unknown)
+         */
+        public double getCpuCores() {
+            return cpuCores;
+        }
+
+        /**
+         * @param component Component name (see ContentionSampler)
+         * @return Share of worker time spent waiting for a lock in that component, in percent
+         */
+        public double contendedPercent(String component) {
+            return samples == 0 ? 0 : contended.getOrDefault(component, 0L) * 100.0 / samples;
+        }
+
+        /**
+         * @return Most contended component, or null if no worker was seen waiting for a lock
+         */
+        public String topContention() {
+            return contended.isEmpty() ? null : contended.keySet().iterator().next();
+        }
+
+        @Override
+        public String toString() {
+            String top = topContention();
+            return String.format("%d worker(s): %.1f req/s, p50/p95/p99 %.1f/%.1f/%.1f ms, errors %d, CPU %.2f cores%s",
+                    workers, throughput, latency.percentileMs(50), latency.percentileMs(95), latency.percentileMs(99),
+                    errors, cpuCores, top == null ? "" : String.format(", most contended: %s (%.1f%%)", top, contendedPercent(top)));
+        }
+    }
+
+    /**
+     * Scaling curve with the fitted model
+     */
+    public static class ScalingReport {
+        private final List<LevelResult> levels;
+        private final double minEfficiency;
+        private final ScalabilityModel model;
+
+        ScalingReport(List<LevelResult> levels, double minEfficiency) {
+            this.levels = levels;
+            this.minEfficiency = minEfficiency;
+            int[] workers = levels.stream().mapToInt(LevelResult::getWorkers).toArray();
+            double[] throughput = levels.stream().mapToDouble(LevelResult::getThroughput).toArray();
+            this.model = throughput[0] > 0 ? ScalabilityModel.fit(workers, throughput) : null;
+        }
+
+        public List<LevelResult> getLevels() {
+            return levels;
+        }
+
+        /**
+         * @return Fitted model, or null if nothing completed at one worker
+         */
+        public ScalabilityModel getModel() {
+            return model;
+        }
+
+        /**
+         * @param level Level
+         * @return Throughput relative to linear scaling of the single-worker throughput (1.0 = linear)
+         */
+        public double efficiency(LevelResult level) {
+            double single = levels.get(0).getThroughput();
+            return single == 0 ? 0 : level.getThroughput() / (level.getWorkers() * single);
+        }
+
+        /**
+         * @param workers Worker count of a measured level
+         * @return That level
+         */
+        public LevelResult level(int workers) {
+            return levels.stream().filter(level -> level.getWorkers() == workers).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("No level with " + workers + " workers was measured"));
+        }
+
+        /**
+         * @return First level that no longer scales (efficiency below the minimum, or no throughput gain), or null
+         */
+        public LevelResult stopsScalingAt() {
+            for (int i = 1; i < levels.size(); i++) {
+                LevelResult level = levels.get(i);
+                if (efficiency(level) < minEfficiency || level.getThroughput() <= levels.get(i - 1).getThroughput()) {
+                    return level;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Print the curve, the fit and where scaling stops
+         */
+        public void print() {
+            Log.flush();
+            System.out.println("========== CONCURRENCY SCALING ==========");
+            System.out.println(String.format("%7s %10s %6s %9s %9s %9s %7s %6s  %s", "workers", "req/s", "eff",
+                    "p50 ms", "p95 ms", "p99 ms", "errors", "cpu", "most contended"));
+            for (LevelResult level : levels) {
+                String top = level.topContention();
+                System.out.println(String.format("%7d %10.1f %5.0f%% %9.1f %9.1f %9.1f %7d %6.2f  %s", level.workers,
+                        level.throughput, efficiency(level) * 100, level.latency.percentileMs(50),
+                        level.latency.percentileMs(95), level.latency.percentileMs(99), level.errors, level.cpuCores,
+                        top == null ? "-" : String.format("%s %.1f%%", top, level.contendedPercent(top))));
+            }
+            System.out.println(model == null ? "No model: nothing completed at 1 worker" : model.toString());
+            LevelResult stop = stopsScalingAt();
+            if (stop == null) {
+                System.out.println(String.format("Scales up to %d workers (efficiency >= %.0f%%)",
+                        levels.get(levels.size() - 1).workers, minEfficiency * 100));
+            } else {
+                String top = stop.topContention();
+                System.out.println(String.format("Stops scaling at %d workers (efficiency %.0f%%)%s", stop.workers,
+                        efficiency(stop) * 100, top == null ? ", no lock contention seen (CPU or server bound)"
+                                : String.format(", most contended: %s (%.1f%% of worker time)", top, stop.contendedPercent(top))));
+            }
+            System.out.println("=========================================");
+        }
+
+        /**
+         * Write one CSV line per level, with the USL prediction and per-component contention
+         * @param file CSV file
+         * @throws IOException if the file cannot be written
+         */
+        public void writeCsv(Path file) throws IOException {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            List<String> components = new ArrayList<>(ContentionSampler.components());
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                StringBuilder header = new StringBuilder("workers,requestsPerSecond,uslPredicted,efficiency,p50Ms,p95Ms,p99Ms,errors,cpuCores");
+                components.forEach(component -> header.append(",contended_").append(component.replace(' ', '_').replace('/', '_')));
+                writer.write(header.toString());
+                writer.newLine();
+                for (LevelResult level : levels) {
+                    StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%d,%.2f,%.2f,%.3f,%.2f,%.2f,%.2f,%d,%.3f",
+                            level.workers, level.throughput, model == null ? 0 : model.predict(level.workers),
+                            efficiency(level), level.latency.percentileMs(50), level.latency.percentileMs(95),
+                            level.latency.percentileMs(99), level.errors, level.cpuCores));
+                    components.forEach(component -> line.append(String.format(Locale.ROOT, ",%.2f", level.contendedPercent(component))));
+                    writer.write(line.toString());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
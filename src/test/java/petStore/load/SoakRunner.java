@@ -0,0 +1,152 @@
+package petStore.load;
+
+import petStore.logging.Log;
+import petStore.services.PetServices;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Soak Runner - Runs the PetServices CRUD mix for a long time while SoakTelemetry samples the JVM
+ * Each worker loops create -> get -> update -> delete on its own ID range
+ * (plus a findByStatus every 10th iteration) until the duration is over.
+ */
+public class SoakRunner {
+
+    private static final long ID_RANGE_PER_WORKER = 10_000_000L;
+
+    private final int workers;
+    private final long durationSeconds;
+    private final long sampleIntervalSeconds;
+    private final long firstPetId;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * @param workers Number of concurrent workers
+     * @param durationSeconds How long to run
+     * @param sampleIntervalSeconds Telemetry sampling interval
+     * @param firstPetId Start of the pet ID range used by the workers
+     */
+    public SoakRunner(int workers, long durationSeconds, long sampleIntervalSeconds, long firstPetId) {
+        this.workers = Math.max(1, workers);
+        this.durationSeconds = durationSeconds;
+        this.sampleIntervalSeconds = sampleIntervalSeconds;
+        this.firstPetId = firstPetId;
+    }
+
+    /**
+     * Run the soak test
+     * @param telemetryFile CSV file receiving the telemetry time series
+     * @return Result with request counts and series that kept growing
+     * @throws IOException if the telemetry file cannot be written
+     */
+    public SoakResult run(Path telemetryFile) throws IOException {
+        Log.info("🕒 Starting soak test: {} worker(s) for {}s, telemetry every {}s -> {}",
+                workers, durationSeconds, sampleIntervalSeconds, telemetryFile);
+
+        SoakTelemetry telemetry = new SoakTelemetry(telemetryFile, sampleIntervalSeconds, requests::sum);
+        telemetry.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+
+        for (int worker = 0; worker < workers; worker++) {
+            long idBase = firstPetId + worker * ID_RANGE_PER_WORKER;
+            String correlationId = "soak-w" + worker;
+            executor.execute(() -> {
+                Log.setCorrelationId(correlationId);
+                runWorker(idBase, deadline);
+            });
+        }
+
+        executor.shutdown();
+        try {
+            executor.awaitTermination(durationSeconds + 300, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<String> growingSeries = telemetry.stop();
+        SoakResult result = new SoakResult(requests.sum(), errors.sum(), growingSeries, telemetryFile);
+        Log.info("✓ Soak test finished: {}", result);
+        return result;
+    }
+
+    private void runWorker(long idBase, long deadline) {
+        PetServices petServices = new PetServices();
+        long iteration = 0;
+
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            String id = String.valueOf(idBase + (iteration % ID_RANGE_PER_WORKER));
+            String name = "Soak" + iteration;
+
+            call(() -> petServices.addNewPet(id, name));
+            call(() -> petServices.getPetById(id));
+            call(() -> petServices.updatePetNoWait(id, name + "_updated", "soak", "available"));
+            if (iteration % 10 == 0) {
+                call(() -> petServices.getPetStatus("available"));
+            }
+            call(() -> petServices.deleteByIdWithoutValidation(id));
+
+            iteration++;
+        }
+    }
+
+    private void call(Runnable request) {
+        try {
+            request.run();
+        } catch (RuntimeException | AssertionError e) {
+            errors.increment();
+        } finally {
+            requests.increment();
+        }
+    }
+
+    /**
+     * Outcome of a soak run
+     */
+    public static class SoakResult {
+        private final long requests;
+        private final long errors;
+        private final List<String> growingSeries;
+        private final Path telemetryFile;
+
+        SoakResult(long requests, long errors, List<String> growingSeries, Path telemetryFile) {
+            this.requests = requests;
+            this.errors = errors;
+            this.growingSeries = new ArrayList<>(growingSeries);
+            this.telemetryFile = telemetryFile;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public List<String> getGrowingSeries() {
+            return growingSeries;
+        }
+
+        public Path getTelemetryFile() {
+            return telemetryFile;
+        }
+
+        @Override
+        public String toString() {
+            return "requests=" + requests + " errors=" + errors + " growing=" + growingSeries;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package petStore.load;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import petStore.logging.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Soak Telemetry - Samples JVM health from the platform MXBeans on a fixed interval
+ * Writes heap, GC pause time, thread count, open file descriptors (sockets included)
+ * and request throughput as a CSV time series, and flags series that keep growing.
+ */
+public class SoakTelemetry {
+
+    private static final String HEADER = "elapsedSec,requests,requestsPerSec,heapUsedMb,heapAfterGcMb,gcCount,gcPauseMs,threads,openFds";
+
+    private static final double GROWTH_TREND_THRESHOLD = 0.7;
+    private static final double GROWTH_MIN_RATIO = 1.10;
+    private static final int MIN_SAMPLES_FOR_TREND = 6;
+
+    private final Path output;
+    private final long intervalSeconds;
+    private final LongSupplier requestCounter;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "soak-telemetry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, List<Double>> series = new LinkedHashMap<>();
+    private BufferedWriter writer;
+    private long startNanos;
+    private long lastSampleNanos;
+    private long lastRequests;
+    private long lastGcCount;
+    private long lastGcTimeMs;
+
+    /**
+     * @param output CSV file for the time series
+     * @param intervalSeconds Sampling interval
+     * @param requestCounter Supplies the number of completed requests so far
+     */
+    public SoakTelemetry(Path output, long intervalSeconds, LongSupplier requestCounter) {
+        this.output = output;
+        this.intervalSeconds = Math.max(1, intervalSeconds);
+        this.requestCounter = requestCounter;
+        series.put("heapAfterGcMb", new ArrayList<>());
+        series.put("threads", new ArrayList<>());
+        series.put("openFds", new ArrayList<>());
+    }
+
+    /**
+     * Start sampling (first sample is taken immediately)
+     * @throws IOException if the output file cannot be created
+     */
+    public void start() throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+        writer.write(HEADER);
+        writer.newLine();
+
+        startNanos = System.nanoTime();
+        lastSampleNanos = startNanos;
+        lastGcCount = gcCount();
+        lastGcTimeMs = gcTimeMs();
+
+        scheduler.scheduleAtFixedRate(this::sample, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop sampling, take a final sample and close the output file
+     * @return Names of series that grew monotonically during the run (empty if healthy)
+     */
+    public List<String> stop() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(intervalSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        sample();
+
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close soak telemetry file " + output, e);
+        }
+
+        List<String> growing = new ArrayList<>();
+        series.forEach((name, samples) -> {
+            // First 10% of the run is warm-up (JIT, connection pools, caches filling up)
+            List<Double> values = samples.subList(samples.size() / 10, samples.size());
+            if (isMonotonicGrowth(values)) {
+                growing.add(name);
+                Log.warn("⚠️ Soak: {} grew steadily from {} to {} over {} samples",
+                        name, values.get(0), values.get(values.size() - 1), values.size());
+            }
+        });
+        return growing;
+    }
+
+    private synchronized void sample() {
+        long now = System.nanoTime();
+        long elapsedSec = TimeUnit.NANOSECONDS.toSeconds(now - startNanos);
+
+        long requests = requestCounter.getAsLong();
+        double sinceLastSampleSec = Math.max(1, now - lastSampleNanos) / 1_000_000_000.0;
+        double requestsPerSec = (requests - lastRequests) / sinceLastSampleSec;
+        lastRequests = requests;
+        lastSampleNanos = now;
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        double heapUsedMb = heap.getUsed() / (1024.0 * 1024.0);
+        double heapAfterGcMb = heapAfterLastGc() / (1024.0 * 1024.0);
+
+        long gcCount = gcCount();
+        long gcTimeMs = gcTimeMs();
+        long gcCountDelta = gcCount - lastGcCount;
+        long gcPauseMs = gcTimeMs - lastGcTimeMs;
+        lastGcCount = gcCount;
+        lastGcTimeMs = gcTimeMs;
+
+        int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+        long openFds = openFileDescriptors();
+
+        if (heapAfterGcMb > 0) {
+            series.get("heapAfterGcMb").add(heapAfterGcMb);
+        }
+        series.get("threads").add((double) threads);
+        if (openFds >= 0) {
+            series.get("openFds").add((double) openFds);
+        }
+
+        try {
+            writer.write(String.format(Locale.ROOT, "%d,%d,%.1f,%.1f,%.1f,%d,%d,%d,%d",
+                    elapsedSec, requests, requestsPerSec, heapUsedMb, heapAfterGcMb, gcCountDelta, gcPauseMs, threads, openFds));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            Log.warn("Could not write soak telemetry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Heap occupied right after the last collection, the best leak indicator
+     * (plain heap usage is a sawtooth that says little about retention)
+     */
+    private static long heapAfterLastGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null) {
+                used += pool.getCollectionUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTimeMs() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    /**
+     * Open file descriptors (sockets included) on Unix JVMs, -1 elsewhere
+     */
+    private static long openFileDescriptors() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof UnixOperatingSystemMXBean) {
+            return ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount();
+        }
+        return -1;
+    }
+
+    /**
+     * Kendall-style trend test: share of sample pairs (i < j) where the later value is higher,
+     * minus the share where it is lower. Flags steady growth of at least 10% overall.
+     * @param values Samples in time order
+     * @return true if the series grows monotonically
+     */
+    static boolean isMonotonicGrowth(List<Double> values) {
+        int n = values.size();
+        if (n < MIN_SAMPLES_FOR_TREND) {
+            return false;
+        }
+
+        long concordant = 0;
+        long discordant = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int compare = Double.compare(values.get(j), values.get(i));
+                if (compare > 0) {
+                    concordant++;
+                } else if (compare < 0) {
+                    discordant++;
+                }
+            }
+        }
+
+        double tau = (concordant - discordant) / (n * (n - 1) / 2.0);
+        double first = Math.max(values.get(0), 1e-9);
+        return tau >= GROWTH_TREND_THRESHOLD && values.get(n - 1) / first >= GROWTH_MIN_RATIO;
+    }
+}
@@ -0,0 +1,69 @@
+package petStore.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * TCP Connections - Counts this host's client connections to a remote port, from /proc/net/tcp and tcp6
+ * Established connections show how many sockets are open right now; TIME_WAIT connections are ones
+ * recently closed by this side, so their growth over a run approximates the connections opened and torn down.
+ * Only available on Linux: elsewhere every count is -1.
+ */
+class TcpConnections {
+
+    private static final List<Path> TABLES = List.of(Paths.get("/proc/net/tcp"), Paths.get("/proc/net/tcp6"));
+    private static final String ESTABLISHED = "01";
+    private static final String TIME_WAIT = "06";
+
+    private final long established;
+    private final long timeWait;
+
+    private TcpConnections(long established, long timeWait) {
+        this.established = established;
+        this.timeWait = timeWait;
+    }
+
+    /**
+     * @param remotePort Server port the connections go to
+     * @return Current counts, or -1 counts if the tables cannot be read
+     */
+    static TcpConnections sample(int remotePort) {
+        String port = String.format(":%04X", remotePort);
+        long established = 0;
+        long timeWait = 0;
+
+        for (Path table : TABLES) {
+            if (!Files.isReadable(table)) {
+                continue;
+            }
+            try {
+                for (String line : Files.readAllLines(table)) {
+                    // sl local_address rem_address st ...
+                    String[] fields = line.trim().split("\\s+");
+                    if (fields.length < 4 || !fields[2].endsWith(port)) {
+                        continue;
+                    }
+                    if (ESTABLISHED.equals(fields[3])) {
+                        established++;
+                    } else if (TIME_WAIT.equals(fields[3])) {
+                        timeWait++;
+                    }
+                }
+            } catch (IOException e) {
+                return new TcpConnections(-1, -1);
+            }
+        }
+        return Files.isReadable(TABLES.get(0)) ? new TcpConnections(established, timeWait) : new TcpConnections(-1, -1);
+    }
+
+    long getEstablished() {
+        return established;
+    }
+
+    long getTimeWait() {
+        return timeWait;
+    }
+}
@@ -0,0 +1,286 @@
+package petStore.load;
+
+import petStore.common.ConfigurationReader;
+import petStore.common.EnvironmentContext;
+import petStore.common.Http2Transport;
+import petStore.logging.Log;
+import petStore.services.PetServices;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Transport Comparison Runner - Runs the same CRUD workload over HTTP/1.1 (RestAssured) and HTTP/2 (JDK HttpClient)
+ * Each transport gets the same number of workers and iterations; each iteration is
+ * create -> get -> findByStatus -> update -> delete on the worker's own pet ID.
+ * Reported per transport: throughput, p50/p95/p99 latency, peak connections opened to the server,
+ * TIME_WAIT growth (connections opened and closed) and the negotiated protocol versions.
+ */
+public class TransportComparisonRunner {
+
+    private static final List<String> TRANSPORTS = List.of("http1", "http2");
+    private static final String TRANSPORT_KEY = "httpTransport";
+    private static final long ID_RANGE_PER_WORKER = 1_000_000L;
+    private static final long CONNECTION_SAMPLE_INTERVAL_MS = 50;
+
+    private final int workers;
+    private final int iterations;
+    private final long firstPetId;
+
+    /**
+     * @param workers Concurrent workers per transport
+     * @param iterations CRUD iterations per worker
+     * @param firstPetId Start of the pet ID range used by the workers
+     */
+    public TransportComparisonRunner(int workers, int iterations, long firstPetId) {
+        this.workers = Math.max(1, workers);
+        this.iterations = Math.max(1, iterations);
+        this.firstPetId = firstPetId;
+    }
+
+    /**
+     * Run the workload once per transport, one transport after the other
+     * @param csvFile CSV file receiving one line per transport
+     * @return One result per transport (http1, http2)
+     * @throws IOException if the CSV file cannot be written
+     */
+    public List<TransportResult> run(Path csvFile) throws IOException {
+        int port = serverPort();
+        List<TransportResult> results = new ArrayList<>();
+
+        for (String transport : TRANSPORTS) {
+            results.add(runTransport(transport, port));
+        }
+
+        writeCsv(csvFile, results);
+
+        Log.flush();
+        System.out.println("========== TRANSPORT COMPARISON ==========");
+        results.forEach(result -> System.out.println(result));
+        System.out.println("Details: " + csvFile.toAbsolutePath());
+        System.out.println("==========================================");
+        return results;
+    }
+
+    private TransportResult runTransport(String transport, int port) {
+        EnvironmentContext current = EnvironmentContext.current();
+        EnvironmentContext context;
+        if (current != null) {
+            context = current.withOverride(TRANSPORT_KEY, transport);
+        } else {
+            Properties overrides = new Properties();
+            overrides.setProperty(TRANSPORT_KEY, transport);
+            context = new EnvironmentContext(transport, overrides);
+        }
+        Log.info("🔀 Running transport {}: {} worker(s) x {} iteration(s)", transport, workers, iterations);
+
+        Map<String, Long> versionsBefore = Http2Transport.responsesByVersion();
+        TcpConnections before = TcpConnections.sample(port);
+        AtomicLong peakEstablished = new AtomicLong(before.getEstablished());
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakEstablished.accumulateAndGet(TcpConnections.sample(port).getEstablished(), Math::max),
+                0, CONNECTION_SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        String correlationId = Log.getCorrelationId();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        List<Future<WorkerResult>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (int worker = 0; worker < workers; worker++) {
+            long idBase = firstPetId + worker * ID_RANGE_PER_WORKER;
+            futures.add(executor.submit(() -> {
+                context.bind();
+                Log.setCorrelationId(correlationId);
+                try {
+                    return runWorker(idBase);
+                } finally {
+                    EnvironmentContext.unbind();
+                }
+            }));
+        }
+        executor.shutdown();
+
+        List<WorkerResult> workerResults = new ArrayList<>();
+        try {
+            for (Future<WorkerResult> future : futures) {
+                workerResults.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for transport " + transport, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Transport worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            sampler.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        TcpConnections after = TcpConnections.sample(port);
+        long timeWaitGrowth = before.getTimeWait() < 0 ? -1 : Math.max(0, after.getTimeWait() - before.getTimeWait());
+
+        // Connections left open by an earlier run are not this transport's
+        TransportResult result = new TransportResult(transport, workerResults, elapsedNanos,
+                before.getEstablished() < 0 ? -1 : peakEstablished.get() - before.getEstablished(), timeWaitGrowth,
+                versionDelta(versionsBefore, Http2Transport.responsesByVersion()));
+        Log.info("✓ Transport {} finished: {}", transport, result);
+        return result;
+    }
+
+    private WorkerResult runWorker(long idBase) {
+        PetServices petServices = new PetServices();
+        WorkerResult result = new WorkerResult(iterations * 5);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            String id = String.valueOf(idBase + iteration);
+            String name = "Transport" + iteration;
+
+            result.call(() -> petServices.addNewPet(id, name));
+            result.call(() -> petServices.getPetById(id));
+            result.call(() -> petServices.getPetStatus("available"));
+            result.call(() -> petServices.updatePetNoWait(id, name + "_updated", "transport", "available"));
+            result.call(() -> petServices.deleteByIdWithoutValidation(id));
+        }
+        return result;
+    }
+
+    private static int serverPort() {
+        URI baseUri = URI.create(ConfigurationReader.get("baseUri").trim());
+        if (baseUri.getPort() > 0) {
+            return baseUri.getPort();
+        }
+        return "https".equalsIgnoreCase(baseUri.getScheme()) ? 443 : 80;
+    }
+
+    private static Map<String, Long> versionDelta(Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Long> delta = new TreeMap<>();
+        after.forEach((version, count) -> {
+            long added = count - before.getOrDefault(version, 0L);
+            if (added > 0) {
+                delta.put(version, added);
+            }
+        });
+        return delta;
+    }
+
+    private static void writeCsv(Path file, List<TransportResult> results) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("transport,requests,errors,elapsedMs,requestsPerSecond,p50Ms,p95Ms,p99Ms,"
+                    + "peakEstablishedConnections,timeWaitGrowth,protocols");
+            writer.newLine();
+            for (TransportResult result : results) {
+                writer.write(String.format("%s,%d,%d,%d,%.1f,%.1f,%.1f,%.1f,%d,%d,%s", result.transport, result.requests,
+                        result.errors, result.elapsedMs, result.requestsPerSecond, result.p50Ms, result.p95Ms, result.p99Ms,
+                        result.peakEstablishedConnections, result.timeWaitGrowth,
+                        result.protocols.toString().replace(",", ";")));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Latencies and errors of one worker
+     */
+    private static class WorkerResult {
+        private long[] latencyNanos;
+        private int count;
+        private long errors;
+
+        WorkerResult(int expectedCalls) {
+            latencyNanos = new long[expectedCalls];
+        }
+
+        void call(Supplier<?> request) {
+            long start = System.nanoTime();
+            try {
+                request.get();
+            } catch (RuntimeException | AssertionError e) {
+                errors++;
+                Log.warn("⚠️ Request failed: {}", e.getMessage());
+            } finally {
+                if (count == latencyNanos.length) {
+                    latencyNanos = Arrays.copyOf(latencyNanos, count * 2);
+                }
+                latencyNanos[count++] = System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * Outcome of the workload over one transport
+     */
+    public static class TransportResult {
+        private final String transport;
+        private final long requests;
+        private final long errors;
+        private final long elapsedMs;
+        private final double requestsPerSecond;
+        private final double p50Ms;
+        private final double p95Ms;
+        private final double p99Ms;
+        private final long peakEstablishedConnections;
+        private final long timeWaitGrowth;
+        private final Map<String, Long> protocols;
+
+        TransportResult(String transport, List<WorkerResult> workers, long elapsedNanos, long peakEstablishedConnections,
+                        long timeWaitGrowth, Map<String, Long> protocols) {
+            long[] all = workers.stream().flatMapToLong(worker -> Arrays.stream(worker.latencyNanos, 0, worker.count)).sorted().toArray();
+
+            this.transport = transport;
+            this.requests = all.length;
+            this.errors = workers.stream().mapToLong(worker -> worker.errors).sum();
+            this.elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            this.requestsPerSecond = elapsedNanos == 0 ? 0 : all.length / (elapsedNanos / 1_000_000_000.0);
+            this.p50Ms = percentileMs(all, 50);
+            this.p95Ms = percentileMs(all, 95);
+            this.p99Ms = percentileMs(all, 99);
+            this.peakEstablishedConnections = peakEstablishedConnections;
+            this.timeWaitGrowth = timeWaitGrowth;
+            this.protocols = protocols;
+        }
+
+        private static double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        public String getTransport() {
+            return transport;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: requests=%d errors=%d elapsed=%dms throughput=%.1f req/s p50=%.1fms p95=%.1fms p99=%.1fms "
+                            + "peak connections=%d time-wait growth=%d protocols=%s", transport, requests, errors, elapsedMs,
+                    requestsPerSecond, p50Ms, p95Ms, p99Ms, peakEstablishedConnections, timeWaitGrowth, protocols);
+        }
+    }
+}
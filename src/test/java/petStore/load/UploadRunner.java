@@ -0,0 +1,154 @@
+package petStore.load;
+
+import io.restassured.response.Response;
+import petStore.logging.Log;
+import petStore.services.PetServices;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload Runner - Uploads a set of image files for one pet with several concurrent workers
+ * Every upload streams its file (see PetServices.uploadImage), so the number of workers and the
+ * file sizes do not change heap use. Reports aggregate MB/s plus the per-upload median.
+ */
+public class UploadRunner {
+
+    private final int workers;
+
+    /**
+     * @param workers Number of concurrent uploads
+     */
+    public UploadRunner(int workers) {
+        this.workers = Math.max(1, workers);
+    }
+
+    /**
+     * Upload all files and wait for them
+     * @param petId Pet receiving the images
+     * @param files Image files
+     * @return Result with byte counts, failures and throughput
+     */
+    public UploadResult run(String petId, List<Path> files) {
+        Log.info("📤 Uploading {} file(s) for pet {} with {} worker(s)", files.size(), petId, workers);
+
+        String correlationId = Log.getCorrelationId();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (Path file : files) {
+            futures.add(executor.submit(() -> {
+                Log.setCorrelationId(correlationId);
+                return upload(petId, file);
+            }));
+        }
+        executor.shutdown();
+
+        long bytes = 0;
+        int failures = 0;
+        double[] perUploadMbPerSecond = new double[files.size()];
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                long[] outcome = futures.get(i).get();
+                if (outcome == null) {
+                    failures++;
+                    continue;
+                }
+                bytes += outcome[0];
+                perUploadMbPerSecond[i - failures] = PetServices.megabytesPerSecond(outcome[0], outcome[1]);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for uploads", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Upload worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        UploadResult result = new UploadResult(files.size(), failures, bytes, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                PetServices.megabytesPerSecond(bytes, elapsedNanos),
+                median(Arrays.copyOf(perUploadMbPerSecond, files.size() - failures)));
+        Log.info("✓ Uploads finished: {}", result);
+        return result;
+    }
+
+    /**
+     * @return {bytes, elapsed nanos}, or null if the upload failed
+     */
+    private static long[] upload(String petId, Path file) throws IOException {
+        long bytes = Files.size(file);
+        long start = System.nanoTime();
+        try {
+            Response response = new PetServices().uploadImage(petId, file, "upload-runner");
+            return response.getStatusCode() == 200 ? new long[]{bytes, System.nanoTime() - start} : null;
+        } catch (RuntimeException | AssertionError e) {
+            Log.warn("⚠️ Upload of {} failed: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static double median(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    /**
+     * Outcome of an upload run
+     */
+    public static class UploadResult {
+        private final int files;
+        private final int failures;
+        private final long bytes;
+        private final long elapsedMs;
+        private final double megabytesPerSecond;
+        private final double medianUploadMegabytesPerSecond;
+
+        UploadResult(int files, int failures, long bytes, long elapsedMs, double megabytesPerSecond,
+                     double medianUploadMegabytesPerSecond) {
+            this.files = files;
+            this.failures = failures;
+            this.bytes = bytes;
+            this.elapsedMs = elapsedMs;
+            this.megabytesPerSecond = megabytesPerSecond;
+            this.medianUploadMegabytesPerSecond = medianUploadMegabytesPerSecond;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double getMegabytesPerSecond() {
+            return megabytesPerSecond;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("files=%d failures=%d bytes=%d elapsed=%dms throughput=%.2f MB/s median upload=%.2f MB/s",
+                    files, failures, bytes, elapsedMs, megabytesPerSecond, medianUploadMegabytesPerSecond);
+        }
+    }
+}
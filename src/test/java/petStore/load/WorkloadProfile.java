@@ -0,0 +1,147 @@
+package petStore.load;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Workload Profile - A load test written as one sentence, compiled into an operation mix and an open-loop schedule
+ * Grammar (the text after "a workload of" in the Gherkin step):
+ * <pre>
+ *   70% get, 20% update, 10% create at 300 requests per second for 2 minutes with 64 users [and fixed arrivals]
+ * </pre>
+ * Shares are percentages of the arrivals and must add up to 100; operations are those of CrudOperations.
+ * Durations are in seconds, minutes or hours. Arrivals default to the given process (poisson or fixed).
+ *
+ * The sentence is parsed once: each arrival then costs a weighted pick and a hand-off to a user thread,
+ * nothing is looked up by name or re-parsed while the load runs.
+ */
+public class WorkloadProfile {
+
+    private static final Pattern WORKLOAD = Pattern.compile(
+            "(?<mix>.+?)\\s+at\\s+(?<rate>\\d+(?:\\.\\d+)?)\\s+requests? per second"
+                    + "\\s+for\\s+(?<duration>\\d+)\\s+(?<unit>seconds?|minutes?|hours?)"
+                    + "\\s+with\\s+(?<users>\\d+)\\s+users?"
+                    + "(?:\\s+and\\s+(?<arrivals>\\w+)\\s+arrivals)?\\s*",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern SHARE = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*%\\s*(\\w+)");
+    private static final Pattern SEPARATOR = Pattern.compile("\\s*,\\s*(?:and\\s+)?|\\s+and\\s+");
+
+    private final Map<String, Double> shares;
+    private final double ratePerSecond;
+    private final long durationMillis;
+    private final int users;
+    private final ArrivalProcess arrivals;
+
+    private WorkloadProfile(Map<String, Double> shares, double ratePerSecond, long durationMillis, int users,
+                            ArrivalProcess arrivals) {
+        this.shares = Collections.unmodifiableMap(shares);
+        this.ratePerSecond = ratePerSecond;
+        this.durationMillis = durationMillis;
+        this.users = users;
+        this.arrivals = arrivals;
+    }
+
+    /**
+     * @param text Workload sentence (see class comment)
+     * @param defaultArrivals Arrival process when the sentence names none
+     * @return Parsed profile
+     * @throws IllegalArgumentException with the offending part if the sentence does not follow the grammar
+     */
+    public static WorkloadProfile parse(String text, ArrivalProcess defaultArrivals) {
+        Matcher workload = WORKLOAD.matcher(text.trim());
+        if (!workload.matches()) {
+            throw new IllegalArgumentException("Cannot read workload '" + text + "', expected e.g. "
+                    + "'70% get, 20% update, 10% create at 300 requests per second for 2 minutes with 64 users'");
+        }
+
+        Map<String, Double> shares = new LinkedHashMap<>();
+        double total = 0;
+        for (String part : SEPARATOR.split(workload.group("mix").trim())) {
+            Matcher share = SHARE.matcher(part);
+            if (!share.matches()) {
+                throw new IllegalArgumentException("Cannot read '" + part + "' in workload '" + text + "', expected e.g. '70% get'");
+            }
+            double percent = Double.parseDouble(share.group(1));
+            String operation = share.group(2);
+            if (percent <= 0) {
+                throw new IllegalArgumentException("Share of '" + operation + "' must be > 0% in workload '" + text + "'");
+            }
+            if (shares.put(operation, percent) != null) {
+                throw new IllegalArgumentException("Operation '" + operation + "' appears twice in workload '" + text + "'");
+            }
+            total += percent;
+        }
+        if (Math.abs(total - 100) > 0.01) {
+            throw new IllegalArgumentException(String.format(Locale.ROOT,
+                    "Shares in workload '%s' add up to %.2f%%, not 100%%", text, total));
+        }
+
+        long amount = Long.parseLong(workload.group("duration"));
+        String unit = workload.group("unit").toLowerCase(Locale.ROOT);
+        long durationMillis = unit.startsWith("hour") ? TimeUnit.HOURS.toMillis(amount)
+                : unit.startsWith("minute") ? TimeUnit.MINUTES.toMillis(amount)
+                : TimeUnit.SECONDS.toMillis(amount);
+        String arrivals = workload.group("arrivals");
+
+        return new WorkloadProfile(shares, Double.parseDouble(workload.group("rate")), durationMillis,
+                Integer.parseInt(workload.group("users")),
+                arrivals == null ? defaultArrivals : ArrivalProcess.parse(arrivals));
+    }
+
+    /**
+     * Bind the operation names to their requests
+     * @param crud Operations on the seeded pet pool
+     * @return Operation mix with the profile's shares
+     * @throws IllegalArgumentException for an operation CrudOperations does not know
+     */
+    public OperationMix compile(CrudOperations crud) {
+        return crud.mix(shares);
+    }
+
+    /**
+     * @param seed Seed for arrival gaps and operation choice
+     * @return Scheduler sending the profile's rate for its duration
+     */
+    public OpenLoopScheduler scheduler(long seed) {
+        return new OpenLoopScheduler(ratePerSecond, durationMillis, arrivals, users, seed);
+    }
+
+    /**
+     * @return Operation name to share in percent, in the order written
+     */
+    public Map<String, Double> getShares() {
+        return shares;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public ArrivalProcess getArrivals() {
+        return arrivals;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        shares.forEach((operation, percent) -> text.append(text.length() == 0 ? "" : ", ")
+                .append(String.format(Locale.ROOT, "%.0f%% %s", percent, operation)));
+        String rate = ratePerSecond == Math.rint(ratePerSecond) ? String.valueOf((long) ratePerSecond) : String.valueOf(ratePerSecond);
+        return text + String.format(Locale.ROOT, " at %s requests per second for %d seconds with %d user%s and %s arrivals",
+                rate, TimeUnit.MILLISECONDS.toSeconds(durationMillis), users, users == 1 ? "" : "s",
+                arrivals.name().toLowerCase(Locale.ROOT));
+    }
+}
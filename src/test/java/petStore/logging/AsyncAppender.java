@@ -0,0 +1,209 @@
+package petStore.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Async Appender - Writes log events to System.out from a single background thread
+ * Callers only enqueue; the writer drains the queue in batches, so stdout is locked once per batch
+ * instead of once per line. The queue is bounded: when it is full DEBUG/INFO events are dropped
+ * (and counted), WARN/ERROR events wait for space so they are never lost.
+ */
+class AsyncAppender {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final int MAX_BATCH = 512;
+
+    private final BlockingQueue<LogEvent> queue;
+    private final boolean json;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final Object drainedLock = new Object();
+    private final Thread writer;
+
+    /**
+     * @param capacity Maximum number of queued events
+     * @param json Write one JSON object per line instead of plain text
+     */
+    AsyncAppender(int capacity, boolean json) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(16, capacity));
+        this.json = json;
+
+        writer = new Thread(this::drainLoop, "async-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "async-log-flush"));
+    }
+
+    void append(LogEvent event) {
+        if (event.level.compareTo(LogLevel.WARN) >= 0) {
+            try {
+                queue.put(event);
+                accepted.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (queue.offer(event)) {
+            accepted.incrementAndGet();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Block until every event queued so far has been written (bounded wait of 5 seconds)
+     */
+    void flush() {
+        long target = accepted.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        synchronized (drainedLock) {
+            while (written.get() < target && System.nanoTime() < deadline) {
+                try {
+                    drainedLock.wait(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        System.out.flush();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    private void drainLoop() {
+        List<LogEvent> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder text = new StringBuilder(8192);
+
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+
+            for (LogEvent event : batch) {
+                format(event, text);
+            }
+            System.out.print(text);
+            written.addAndGet(batch.size());
+            batch.clear();
+            text.setLength(0);
+
+            if (queue.isEmpty()) {
+                System.out.flush();
+                synchronized (drainedLock) {
+                    drainedLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void format(LogEvent event, StringBuilder out) {
+        String time = TIME_FORMAT.format(Instant.ofEpochMilli(event.timestamp));
+
+        if (json) {
+            out.append("{\"time\":\"").append(time)
+                    .append("\",\"level\":\"").append(event.level)
+                    .append("\",\"thread\":");
+            quote(event.thread, out);
+            out.append(",\"correlationId\":");
+            quote(event.correlationId, out);
+            out.append(",\"message\":");
+            quote(event.message, out);
+            if (event.error != null) {
+                out.append(",\"error\":");
+                quote(stackTrace(event.error), out);
+            }
+            out.append('}').append(System.lineSeparator());
+            return;
+        }
+
+        out.append(time).append(' ')
+                .append(String.format("%-5s", event.level))
+                .append(" [").append(event.thread).append(']')
+                .append(" [").append(event.correlationId == null ? "-" : event.correlationId).append("] ")
+                .append(event.message)
+                .append(System.lineSeparator());
+        if (event.error != null) {
+            out.append(stackTrace(event.error));
+        }
+    }
+
+    private static void quote(String value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private static String stackTrace(Throwable error) {
+        StringWriter writer = new StringWriter();
+        error.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+
+    /**
+     * One log message, captured on the calling thread
+     */
+    static class LogEvent {
+        final long timestamp;
+        final LogLevel level;
+        final String thread;
+        final String correlationId;
+        final String message;
+        final Throwable error;
+
+        LogEvent(LogLevel level, String correlationId, String message, Throwable error) {
+            this.timestamp = System.currentTimeMillis();
+            this.level = level;
+            this.thread = Thread.currentThread().getName();
+            this.correlationId = correlationId;
+            this.message = message;
+            this.error = error;
+        }
+    }
+}
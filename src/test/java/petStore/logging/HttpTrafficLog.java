@@ -0,0 +1,38 @@
+package petStore.logging;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+
+/**
+ * HTTP Traffic Log - RestAssured request/response logging routed through Log
+ * Skipped entirely (no request or response printing) while INFO is disabled, e.g. in quiet mode.
+ */
+public class HttpTrafficLog {
+
+    private static final Filter REQUEST_LOGGING = new RequestLoggingFilter(LogDetail.ALL, Log.printStream(LogLevel.INFO));
+    private static final Filter RESPONSE_LOGGING = new ResponseLoggingFilter(LogDetail.ALL, Log.printStream(LogLevel.INFO));
+
+    private static final Filter REQUEST_FILTER = (requestSpec, responseSpec, context) -> Log.isEnabled(LogLevel.INFO)
+            ? REQUEST_LOGGING.filter(requestSpec, responseSpec, context)
+            : context.next(requestSpec, responseSpec);
+
+    private static final Filter RESPONSE_FILTER = (requestSpec, responseSpec, context) -> Log.isEnabled(LogLevel.INFO)
+            ? RESPONSE_LOGGING.filter(requestSpec, responseSpec, context)
+            : context.next(requestSpec, responseSpec);
+
+    /**
+     * @return Shared filter logging full request details
+     */
+    public static Filter requestFilter() {
+        return REQUEST_FILTER;
+    }
+
+    /**
+     * @return Shared filter logging full response details
+     */
+    public static Filter responseFilter() {
+        return RESPONSE_FILTER;
+    }
+}
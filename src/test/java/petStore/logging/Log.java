@@ -0,0 +1,235 @@
+package petStore.logging;
+
+import petStore.common.ConfigurationReader;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.function.Supplier;
+
+/**
+ * Log - Small logging facade used instead of System.out.println
+ * Messages below the configured level are never built: pass a Supplier or a "{}" template
+ * for anything that concatenates. Output goes through an AsyncAppender, so callers never
+ * block on stdout. Each line carries the thread and a correlation ID (set per scenario by Hooks,
+ * per row/worker by the load runners) so output of parallel workers can be told apart.
+ *
+ * Configuration (applied by ConfigurationReader once the configuration file is loaded):
+ * logLevel=DEBUG|INFO|WARN|ERROR, logQuiet=true (WARN and above only, no HTTP traffic),
+ * logFormat=text|json, logQueueCapacity=8192
+ */
+public class Log {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+    private static final ThreadLocal<String> correlationId = new ThreadLocal<>();
+
+    private static volatile LogLevel threshold = LogLevel.INFO;
+    private static volatile boolean json;
+    private static volatile int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private static volatile AsyncAppender appender;
+
+    static {
+        // Settings live in the configuration file: load it (it calls configure) before the first message is filtered
+        ConfigurationReader.hasProperty("logLevel");
+    }
+
+    /**
+     * Apply logging settings
+     * @param level Minimum level that is written
+     * @param quiet Quiet mode for load runs: raises the level to at least WARN
+     * @param jsonFormat Write JSON lines instead of plain text
+     * @param capacity Size of the async queue (only used before the first message is logged)
+     */
+    public static void configure(LogLevel level, boolean quiet, boolean jsonFormat, int capacity) {
+        threshold = quiet && level.compareTo(LogLevel.WARN) < 0 ? LogLevel.WARN : level;
+        json = jsonFormat;
+        queueCapacity = capacity;
+    }
+
+    /**
+     * @param level Level to check
+     * @return true if messages of this level are written
+     */
+    public static boolean isEnabled(LogLevel level) {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    public static LogLevel getLevel() {
+        return threshold;
+    }
+
+    public static void debug(String message) {
+        log(LogLevel.DEBUG, message, null);
+    }
+
+    public static void debug(Supplier<String> message) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, message.get(), null);
+        }
+    }
+
+    public static void debug(String template, Object... args) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, format(template, args), null);
+        }
+    }
+
+    public static void info(String message) {
+        log(LogLevel.INFO, message, null);
+    }
+
+    public static void info(Supplier<String> message) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, message.get(), null);
+        }
+    }
+
+    public static void info(String template, Object... args) {
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, format(template, args), null);
+        }
+    }
+
+    public static void warn(String message) {
+        log(LogLevel.WARN, message, null);
+    }
+
+    public static void warn(String template, Object... args) {
+        if (isEnabled(LogLevel.WARN)) {
+            log(LogLevel.WARN, format(template, args), null);
+        }
+    }
+
+    public static void error(String message) {
+        log(LogLevel.ERROR, message, null);
+    }
+
+    public static void error(String template, Object... args) {
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, format(template, args), null);
+        }
+    }
+
+    /**
+     * Log an error together with its stack trace
+     * @param message Message
+     * @param error Exception
+     */
+    public static void error(String message, Throwable error) {
+        log(LogLevel.ERROR, message, error);
+    }
+
+    /**
+     * Set the correlation ID of the current thread
+     * @param id Correlation ID, e.g. a short scenario ID
+     */
+    public static void setCorrelationId(String id) {
+        correlationId.set(id);
+    }
+
+    /**
+     * @return Correlation ID of the current thread, or null
+     */
+    public static String getCorrelationId() {
+        return correlationId.get();
+    }
+
+    public static void clearCorrelationId() {
+        correlationId.remove();
+    }
+
+    /**
+     * Wrap a task so it runs with the caller's correlation ID on another thread
+     * @param task Task to run on a pool thread
+     * @return Wrapped task
+     */
+    public static <T> Supplier<T> withCorrelationId(Supplier<T> task) {
+        String id = correlationId.get();
+        if (id == null) {
+            return task;
+        }
+        return () -> {
+            String previous = correlationId.get();
+            correlationId.set(id);
+            try {
+                return task.get();
+            } finally {
+                correlationId.set(previous);
+            }
+        };
+    }
+
+    /**
+     * PrintStream whose println calls become log messages, for libraries that log to a stream
+     * (e.g. RestAssured request/response logging filters)
+     * @param level Level of the forwarded messages
+     * @return PrintStream forwarding to the log
+     */
+    public static PrintStream printStream(LogLevel level) {
+        return new PrintStream(OutputStream.nullOutputStream()) {
+            @Override
+            public void println(String message) {
+                log(level, message, null);
+            }
+
+            @Override
+            public void println(Object message) {
+                log(level, String.valueOf(message), null);
+            }
+        };
+    }
+
+    /**
+     * Wait until queued messages are written, e.g. before printing end-of-run reports
+     */
+    public static void flush() {
+        AsyncAppender current = appender;
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    /**
+     * @return Number of DEBUG/INFO messages dropped because the queue was full
+     */
+    public static long droppedCount() {
+        AsyncAppender current = appender;
+        return current == null ? 0 : current.droppedCount();
+    }
+
+    private static void log(LogLevel level, String message, Throwable error) {
+        if (isEnabled(level)) {
+            appender().append(new AsyncAppender.LogEvent(level, correlationId.get(), message, error));
+        }
+    }
+
+    private static AsyncAppender appender() {
+        AsyncAppender current = appender;
+        if (current == null) {
+            synchronized (Log.class) {
+                current = appender;
+                if (current == null) {
+                    current = new AsyncAppender(queueCapacity, json);
+                    appender = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Replace each "{}" in the template with the next argument
+     */
+    private static String format(String template, Object... args) {
+        StringBuilder message = new StringBuilder(template.length() + 16 * args.length);
+        int argument = 0;
+        int from = 0;
+        int placeholder;
+
+        while ((placeholder = template.indexOf("{}", from)) >= 0 && argument < args.length) {
+            message.append(template, from, placeholder).append(args[argument++]);
+            from = placeholder + 2;
+        }
+        return message.append(template, from, template.length()).toString();
+    }
+}
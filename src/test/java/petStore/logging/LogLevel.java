@@ -0,0 +1,28 @@
+package petStore.logging;
+
+/**
+ * Log Level - Severity of a log message, in increasing order
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    /**
+     * Parse a level name, case-insensitive
+     * @param name Level name, e.g. "info"
+     * @param defaultLevel Level returned if name is null or unknown
+     * @return Parsed level or default
+     */
+    public static LogLevel parse(String name, LogLevel defaultLevel) {
+        if (name == null) {
+            return defaultLevel;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
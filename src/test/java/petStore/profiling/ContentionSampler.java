@@ -0,0 +1,163 @@
+package petStore.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention Sampler - Samples the stacks of a set of worker threads and counts where they wait for a lock
+ * A worker counts as contended when it is BLOCKED on a monitor or parked on a lock/condition; waits for a
+ * response (socket reads are RUNNABLE, futures of the JDK HttpClient) and sleeps are not contention.
+ * Each contended sample is charged to the framework component of the first non-JDK frame of the stack,
+ * so e.g. a worker blocked inside Log.info is charged to "logging".
+ */
+public class ContentionSampler {
+
+    // First matching prefix wins; order from most to least specific
+    private static final Map<String, String> COMPONENTS = new LinkedHashMap<>();
+
+    static {
+        COMPONENTS.put("petStore.common.ConfigurationReader", "ConfigurationReader");
+        COMPONENTS.put("petStore.common.EnvironmentContext", "ConfigurationReader");
+        COMPONENTS.put("petStore.logging.", "logging");
+        COMPONENTS.put("io.qameta.allure.", "Allure lifecycle");
+        COMPONENTS.put("io.restassured.", "RestAssured");
+        COMPONENTS.put("groovy.", "RestAssured");
+        COMPONENTS.put("org.codehaus.groovy.", "RestAssured");
+        COMPONENTS.put("org.apache.http.", "HTTP client");
+        COMPONENTS.put("petStore.", "other framework");
+    }
+
+    private static final int STACK_DEPTH = 48;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Set<Long> threadIds = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> contended = new TreeMap<>();
+    private final long intervalMillis;
+    private long samples;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param intervalMillis Time between two samples of all registered threads
+     */
+    public ContentionSampler(long intervalMillis) {
+        this.intervalMillis = Math.max(1, intervalMillis);
+    }
+
+    /**
+     * Sample this thread from now on (call from the worker thread itself)
+     */
+    public void register() {
+        threadIds.add(Thread.currentThread().getId());
+    }
+
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "contention-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running != null) {
+            running.shutdownNow();
+            try {
+                running.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return Thread samples taken (one per registered live thread per interval)
+     */
+    public synchronized long getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return Contended samples per component, most contended first
+     */
+    public synchronized Map<String, Long> getContended() {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        contended.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private void sample() {
+        long[] ids = threadIds.stream().mapToLong(Long::longValue).toArray();
+        if (ids.length == 0) {
+            return;
+        }
+        ThreadInfo[] infos = threads.getThreadInfo(ids, STACK_DEPTH);
+        synchronized (this) {
+            for (ThreadInfo info : infos) {
+                if (info == null) {
+                    continue;
+                }
+                samples++;
+                if (isContended(info)) {
+                    contended.merge(componentOf(info.getStackTrace()), 1L, Long::sum);
+                }
+            }
+        }
+    }
+
+    private static boolean isContended(ThreadInfo info) {
+        switch (info.getThreadState()) {
+            case BLOCKED:
+                return true;
+            case WAITING:
+            case TIMED_WAITING:
+                List<StackTraceElement> stack = List.of(info.getStackTrace());
+                boolean onLock = stack.stream().anyMatch(frame -> frame.getClassName().startsWith("java.util.concurrent.locks.")
+                        || (frame.getClassName().equals("java.lang.Object") && frame.getMethodName().equals("wait")));
+                boolean onResponse = stack.stream().anyMatch(frame -> frame.getClassName().startsWith("java.util.concurrent.CompletableFuture")
+                        || frame.getClassName().startsWith("jdk.internal.net.http."));
+                return onLock && !onResponse;
+            default:
+                return false;
+        }
+    }
+
+    private static String componentOf(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            for (Map.Entry<String, String> component : COMPONENTS.entrySet()) {
+                if (frame.getClassName().startsWith(component.getKey())) {
+                    return component.getValue();
+                }
+            }
+        }
+        return "JDK/other";
+    }
+
+    /**
+     * @return Component names samples can be charged to
+     */
+    public static Set<String> components() {
+        Set<String> names = new LinkedHashSet<>(COMPONENTS.values());
+        names.add("JDK/other");
+        return Collections.unmodifiableSet(names);
+    }
+}
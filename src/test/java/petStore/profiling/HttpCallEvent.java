@@ -0,0 +1,67 @@
+package petStore.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one HTTP call made through CommonRestCRUD
+ * Duration of the event is the call latency
+ */
+@Name("petstore.HttpCall")
+@Label("HTTP Call")
+@Category({"PetStore", "HTTP"})
+@Description("HTTP request sent by the PetStore test client")
+@StackTrace(false)
+public class HttpCallEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Endpoint template, e.g. GET pet/{id}")
+    String endpoint;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Status")
+    int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Scenario")
+    String scenario;
+
+    @Label("DNS")
+    @Timespan
+    long dns;
+
+    @Label("Connect")
+    @Description("TCP connect, 0 on a reused connection")
+    @Timespan
+    long connect;
+
+    @Label("TLS Handshake")
+    @Timespan
+    long tls;
+
+    @Label("Time To First Byte")
+    @Timespan
+    long ttfb;
+
+    @Label("Transfer")
+    @Description("Response body transfer")
+    @Timespan
+    long transfer;
+}
@@ -0,0 +1,45 @@
+package petStore.profiling;
+
+import io.restassured.filter.Filter;
+
+/**
+ * HTTP Wait Tracker - Accumulates, per thread, the time spent waiting on HTTP responses
+ * Step profilers read the counter before and after a step to split network time from the rest.
+ */
+public class HttpWaitTracker {
+
+    private static final ThreadLocal<long[]> waitNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    private static final Filter FILTER = (requestSpec, responseSpec, context) -> {
+        long start = System.nanoTime();
+        try {
+            return context.next(requestSpec, responseSpec);
+        } finally {
+            add(System.nanoTime() - start);
+        }
+    };
+
+    /**
+     * RestAssured filter measuring the time until the response is received
+     * @return Shared filter instance
+     */
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    /**
+     * Add wait time to the current thread, for calls whose HTTP work runs on another thread
+     * (e.g. hedged requests, where the caller blocks on a pool thread)
+     * @param nanos Time waited in nanoseconds
+     */
+    public static void add(long nanos) {
+        waitNanos.get()[0] += nanos;
+    }
+
+    /**
+     * @return Total HTTP wait of the current thread so far, in nanoseconds
+     */
+    public static long currentThreadNanos() {
+        return waitNanos.get()[0];
+    }
+}
@@ -0,0 +1,161 @@
+package petStore.profiling;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import petStore.logging.Log;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JFR Cucumber Plugin - Emits ScenarioEvent and StepEvent for the Cucumber run
+ * so scenarios and steps line up with HTTP calls, GC and thread activity in JDK Mission Control.
+ *
+ * Run with -Dpetstore.jfr=on (or mvn test -Pjfr) to start a recording automatically,
+ * it is written to target/jfr/petstore-<timestamp>.jfr when the run finishes.
+ * Without it, events are only recorded if a recording was started externally (-XX:StartFlightRecording).
+ */
+public class JfrCucumberPlugin implements ConcurrentEventListener {
+
+    private static final String JFR_PROPERTY = "petstore.jfr";
+    private static final Path JFR_FOLDER = Paths.get("target", "jfr");
+
+    private static final ThreadLocal<String> currentScenario = new ThreadLocal<>();
+
+    private final Map<UUID, ScenarioEvent> runningScenarios = new ConcurrentHashMap<>();
+    private final Map<UUID, StepEvent> runningSteps = new ConcurrentHashMap<>();
+
+    private Recording recording;
+
+    /**
+     * Scenario running on the current thread
+     * @return Scenario name, or null outside a scenario (e.g. on worker pools)
+     */
+    public static String currentScenario() {
+        return currentScenario.get();
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if ("on".equalsIgnoreCase(System.getProperty(JFR_PROPERTY))) {
+            startRecording();
+        }
+
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestStepStarted.class, this::onTestStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> stopRecording());
+    }
+
+    private void onTestCaseStarted(TestCaseStarted started) {
+        TestCase testCase = started.getTestCase();
+        currentScenario.set(testCase.getName());
+
+        ScenarioEvent event = new ScenarioEvent();
+        if (event.isEnabled()) {
+            event.scenario = testCase.getName();
+            event.location = testCase.getUri() + ":" + testCase.getLocation().getLine();
+            event.tags = String.join(" ", testCase.getTags());
+            event.begin();
+            runningScenarios.put(testCase.getId(), event);
+        }
+    }
+
+    private void onTestCaseFinished(TestCaseFinished finished) {
+        ScenarioEvent event = runningScenarios.remove(finished.getTestCase().getId());
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.status = finished.getResult().getStatus().name();
+                event.commit();
+            }
+        }
+        currentScenario.remove();
+    }
+
+    private void onTestStepStarted(TestStepStarted started) {
+        StepEvent event = new StepEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+
+        TestStep testStep = started.getTestStep();
+        if (testStep instanceof PickleStepTestStep) {
+            PickleStepTestStep step = (PickleStepTestStep) testStep;
+            event.step = step.getStep().getKeyword() + step.getStep().getText();
+            event.pattern = step.getPattern();
+        } else if (testStep instanceof HookTestStep) {
+            event.step = ((HookTestStep) testStep).getHookType().name();
+            event.pattern = testStep.getCodeLocation();
+        }
+        event.scenario = started.getTestCase().getName();
+        event.begin();
+        runningSteps.put(testStep.getId(), event);
+    }
+
+    private void onTestStepFinished(TestStepFinished finished) {
+        StepEvent event = runningSteps.remove(finished.getTestStep().getId());
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.status = finished.getResult().getStatus().name();
+                event.commit();
+            }
+        }
+    }
+
+    private synchronized void startRecording() {
+        try {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("petstore");
+            recording.enable(HttpCallEvent.class);
+            recording.enable(StepEvent.class);
+            recording.enable(ScenarioEvent.class);
+            recording.start();
+            Log.info("🎥 JFR recording started ({}=on)", JFR_PROPERTY);
+        } catch (IOException | ParseException e) {
+            Log.warn("⚠️ Could not start JFR recording: {}", e.getMessage());
+            recording = null;
+        }
+    }
+
+    private synchronized void stopRecording() {
+        if (recording == null) {
+            return;
+        }
+
+        Path file = JFR_FOLDER.resolve("petstore-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+        try {
+            Files.createDirectories(JFR_FOLDER);
+            recording.stop();
+            recording.dump(file);
+            Log.info("✓ JFR recording written to {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            Log.warn("⚠️ Could not write JFR recording: {}", e.getMessage());
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package petStore.profiling;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import petStore.common.EndpointTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JFR HTTP Filter - Emits an HttpCallEvent for every request sent through CommonRestCRUD
+ * Costs next to nothing while no recording is running (the event is never committed).
+ */
+public class JfrHttpFilter implements Filter {
+
+    private static final JfrHttpFilter INSTANCE = new JfrHttpFilter();
+
+    /**
+     * @return Shared filter instance
+     */
+    public static Filter filter() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext context) {
+        HttpCallEvent event = new HttpCallEvent();
+        if (!event.isEnabled()) {
+            return context.next(requestSpec, responseSpec);
+        }
+
+        event.begin();
+        Response response = context.next(requestSpec, responseSpec);
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.method = requestSpec.getMethod();
+            event.endpoint = EndpointTemplate.of(requestSpec.getMethod(), requestSpec.getURI());
+            event.uri = requestSpec.getURI();
+            event.status = response.getStatusCode();
+            event.requestBytes = bodySize(requestSpec.getBody());
+            event.responseBytes = response.asByteArray().length;
+            event.scenario = JfrCucumberPlugin.currentScenario();
+            RequestPhases phases = NetworkPhases.last();
+            if (phases != null && phases.isRecorded()) {
+                event.dns = nanos(phases.dnsMs());
+                event.connect = nanos(phases.connectMs());
+                event.tls = nanos(phases.tlsMs());
+                event.ttfb = nanos(phases.ttfbMs());
+                event.transfer = nanos(phases.transferMs());
+            }
+            event.commit();
+        }
+
+        return response;
+    }
+
+    private static long nanos(double millis) {
+        return (long) (millis * 1_000_000);
+    }
+
+    private static long bodySize(Object body) {
+        if (body == null) {
+            return 0;
+        }
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+}
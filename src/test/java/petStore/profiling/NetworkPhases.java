@@ -0,0 +1,167 @@
+package petStore.profiling;
+
+import io.qameta.allure.Allure;
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import petStore.common.ConfigurationReader;
+import petStore.common.EndpointTemplate;
+import petStore.load.LatencyHistogram;
+import petStore.logging.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Network Phases - DNS / connect / TLS / TTFB / transfer breakdown of every request sent through CommonRestCRUD
+ * install() wraps RestAssured's HTTP client factory so its clients are instrumented (see PhaseTimingHttpClient);
+ * a factory configured before install() is kept. The filter opens a
+ * RequestPhases for the calling thread, which the client fills in while it sends. Phases are aggregated per
+ * endpoint (printed at the end of the run and written to target/network-phases/phases.csv), added to the JFR
+ * HttpCallEvent, and attached to the Allure step for requests slower than networkPhasesSlowMs.
+ *
+ * Requests sent by the HTTP/2 transport bypass the Apache client and have no breakdown.
+ */
+public class NetworkPhases {
+
+    private static final boolean ENABLED = ConfigurationReader.getBoolean("networkPhasesEnabled", false);
+    private static final double SLOW_MS = ConfigurationReader.getDouble("networkPhasesSlowMs", 1000);
+    private static final Path CSV_FILE = Path.of("target", "network-phases", "phases.csv");
+    private static final List<String> PHASES = List.of(RequestPhases.DNS, RequestPhases.CONNECT, RequestPhases.TLS,
+            RequestPhases.TTFB, RequestPhases.TRANSFER, RequestPhases.TOTAL);
+
+    private static final ThreadLocal<RequestPhases> current = new ThreadLocal<>();
+    private static final ThreadLocal<RequestPhases> last = new ThreadLocal<>();
+    private static final Map<String, Map<String, LatencyHistogram>> phasesByEndpoint = new ConcurrentHashMap<>();
+
+    private static boolean installed;
+
+    private static final Filter FILTER = (requestSpec, responseSpec, context) -> {
+        if (!ENABLED) {
+            return context.next(requestSpec, responseSpec);
+        }
+        RequestPhases phases = new RequestPhases(System.nanoTime());
+        current.set(phases);
+        try {
+            Response response = context.next(requestSpec, responseSpec);
+            // RestAssured reads the body lazily; read it here so the transfer ends inside this request
+            response.asByteArray();
+            return response;
+        } finally {
+            phases.end(System.nanoTime());
+            current.remove();
+            last.set(phases);
+            if (phases.isRecorded()) {
+                record(EndpointTemplate.of(requestSpec.getMethod(), requestSpec.getURI()), phases);
+            }
+        }
+    };
+
+    /**
+     * Wrap the configured RestAssured client factory so every client it creates is timed
+     * (no-op unless networkPhasesEnabled=true). Must run before the first given(): the client factory is taken
+     * from RestAssured.config at that point. A factory set later replaces the wrapper.
+     */
+    public static synchronized void install() {
+        if (!ENABLED || installed) {
+            return;
+        }
+        HttpClientConfig configured = RestAssured.config().getHttpClientConfig();
+        RestAssured.config = RestAssured.config().httpClient(
+                configured.httpClientFactory(() -> PhaseTimingHttpClient.instrument(configured.httpClientInstance())));
+        installed = true;
+    }
+
+    /**
+     * RestAssured filter collecting the phases of each request
+     * @return Shared filter instance
+     */
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    /**
+     * @return Phases of the request the current thread is sending, or null outside the filter
+     */
+    static RequestPhases current() {
+        return current.get();
+    }
+
+    /**
+     * @return Phases of the last request the current thread completed, or null
+     */
+    public static RequestPhases last() {
+        return last.get();
+    }
+
+    /**
+     * Print p50 / p95 of every phase per endpoint and write them to target/network-phases/phases.csv
+     */
+    public static void printStats() {
+        if (phasesByEndpoint.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, LatencyHistogram>> sorted = new TreeMap<>(phasesByEndpoint);
+        Log.info("========== NETWORK PHASES (p50 / p95 ms) ==========");
+        Log.info(String.format("%-28s %7s  %-15s %-15s %-15s %-15s %-15s %-15s", "endpoint", "count",
+                "dns", "connect", "tls", "ttfb", "transfer", "total"));
+        sorted.forEach((endpoint, phases) -> {
+            StringBuilder row = new StringBuilder(String.format("%-28s %7d ", endpoint, phases.get(RequestPhases.TOTAL).count()));
+            for (String phase : PHASES) {
+                LatencyHistogram histogram = phases.get(phase);
+                row.append(String.format(" %-15s", String.format(Locale.ROOT, "%.2f / %.2f",
+                        histogram.percentileMs(50), histogram.percentileMs(95))));
+            }
+            Log.info(row.toString());
+        });
+        Log.info("Details: " + CSV_FILE.toAbsolutePath());
+        Log.info("===================================================");
+
+        try {
+            writeCsv(sorted);
+        } catch (IOException e) {
+            Log.warn("⚠️ Cannot write {}: {}", CSV_FILE, e.getMessage());
+        }
+    }
+
+    private static void record(String endpoint, RequestPhases phases) {
+        Map<String, LatencyHistogram> histograms = phasesByEndpoint.computeIfAbsent(endpoint, key -> {
+            Map<String, LatencyHistogram> byPhase = new LinkedHashMap<>();
+            PHASES.forEach(phase -> byPhase.put(phase, new LatencyHistogram()));
+            return byPhase;
+        });
+        phases.asMap().forEach((phase, millis) -> histograms.get(phase).recordNanos((long) (millis * 1_000_000)));
+
+        if (phases.totalMs() >= SLOW_MS && Allure.getLifecycle().getCurrentTestCase().isPresent()) {
+            Allure.addAttachment("Slow request network phases - " + endpoint, "text/plain", phases.toString(), ".txt");
+            Log.warn("🐢 Slow request {}: {}", endpoint, phases);
+        }
+    }
+
+    private static void writeCsv(Map<String, Map<String, LatencyHistogram>> sorted) throws IOException {
+        Files.createDirectories(CSV_FILE.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(CSV_FILE, StandardCharsets.UTF_8)) {
+            writer.write("endpoint,phase,count,meanMs,p50Ms,p95Ms,p99Ms,maxMs");
+            writer.newLine();
+            for (Map.Entry<String, Map<String, LatencyHistogram>> endpoint : sorted.entrySet()) {
+                for (String phase : PHASES) {
+                    LatencyHistogram histogram = endpoint.getValue().get(phase);
+                    writer.write(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f", endpoint.getKey(), phase,
+                            histogram.count(), histogram.meanMs(), histogram.percentileMs(50), histogram.percentileMs(95),
+                            histogram.percentileMs(99), histogram.maxMs()));
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
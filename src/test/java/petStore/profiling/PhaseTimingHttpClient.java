@@ -0,0 +1,260 @@
+package petStore.profiling;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.conn.BasicClientConnectionManager;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.impl.client.AbstractHttpClient;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.http.ssl.SSLContexts;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Phase Timing HTTP Client - RestAssured's default Apache HttpClient with timing hooks for every network phase
+ * Same client, connection manager and socket factories RestAssured creates by default, each wrapped so the
+ * time it spends goes into the RequestPhases of the calling thread (see NetworkPhases):
+ * DNS resolver, socket connect, TLS layering, request write / response head (request executor)
+ * and the end of the body stream (response interceptor). Without a current RequestPhases nothing is recorded.
+ *
+ * An SSLConfig on the request replaces the https socket factory; TLS time is then counted as connect.
+ * A client from a user-configured factory is kept and only gets interceptors (see instrument()).
+ */
+@SuppressWarnings("deprecation")
+class PhaseTimingHttpClient extends DefaultHttpClient {
+
+    private static final DnsResolver TIMING_DNS_RESOLVER = new DnsResolver() {
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            long start = System.nanoTime();
+            try {
+                return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+            } finally {
+                RequestPhases phases = NetworkPhases.current();
+                if (phases != null) {
+                    phases.addDns(System.nanoTime() - start);
+                }
+            }
+        }
+    };
+
+    // RestAssured creates a client per request; the socket factories (and their SSLContext) are shared
+    private static final TimingPlainSocketFactory PLAIN_SOCKET_FACTORY = new TimingPlainSocketFactory();
+    private static final TimingSslSocketFactory SSL_SOCKET_FACTORY = new TimingSslSocketFactory();
+
+    private static final HttpResponseInterceptor BODY_TIMING = (response, context) -> {
+        HttpEntity entity = response.getEntity();
+        RequestPhases phases = NetworkPhases.current();
+        if (entity != null && phases != null) {
+            response.setEntity(new BodyTimingEntity(entity, phases));
+        }
+    };
+
+    // Custom clients may be reused across requests; they must get the interceptors only once
+    private static final Set<HttpClient> instrumentedClients = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    PhaseTimingHttpClient() {
+        addResponseInterceptor(BODY_TIMING);
+    }
+
+    /**
+     * Add phase timing to a client created by the configured factory
+     * RestAssured's default client is swapped for this class (the same client with every hook). Another
+     * AbstractHttpClient is kept as it is and only gets interceptors: TTFB (counted from the start of the
+     * request write) and transfer are recorded, DNS / connect / TLS are not. Any other client is returned untouched.
+     * @param client Client the factory created
+     * @return Client to use for the request
+     */
+    static HttpClient instrument(HttpClient client) {
+        if (client.getClass() == DefaultHttpClient.class) {
+            return new PhaseTimingHttpClient();
+        }
+        if (client instanceof AbstractHttpClient && instrumentedClients.add(client)) {
+            AbstractHttpClient custom = (AbstractHttpClient) client;
+            custom.addRequestInterceptor((request, context) -> {
+                RequestPhases phases = NetworkPhases.current();
+                if (phases != null) {
+                    phases.requestSent(System.nanoTime());
+                }
+            });
+            custom.addResponseInterceptor((response, context) -> {
+                RequestPhases phases = NetworkPhases.current();
+                if (phases != null) {
+                    phases.headersReceived(System.nanoTime());
+                }
+            });
+            custom.addResponseInterceptor(BODY_TIMING);
+        }
+        return client;
+    }
+
+    @Override
+    protected ClientConnectionManager createClientConnectionManager() {
+        SchemeRegistry registry = new SchemeRegistry();
+        registry.register(new Scheme("http", 80, PLAIN_SOCKET_FACTORY));
+        registry.register(new Scheme("https", 443, SSL_SOCKET_FACTORY));
+        return new BasicClientConnectionManager(registry) {
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemes) {
+                return new DefaultClientConnectionOperator(schemes, TIMING_DNS_RESOLVER);
+            }
+        };
+    }
+
+    @Override
+    protected HttpRequestExecutor createRequestExecutor() {
+        return new HttpRequestExecutor() {
+            @Override
+            protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection connection, HttpContext context)
+                    throws IOException, HttpException {
+                HttpResponse response = super.doSendRequest(request, connection, context);
+                RequestPhases phases = NetworkPhases.current();
+                if (phases != null) {
+                    phases.requestSent(System.nanoTime());
+                }
+                return response;
+            }
+
+            @Override
+            protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection connection, HttpContext context)
+                    throws HttpException, IOException {
+                HttpResponse response = super.doReceiveResponse(request, connection, context);
+                RequestPhases phases = NetworkPhases.current();
+                if (phases != null) {
+                    phases.headersReceived(System.nanoTime());
+                }
+                return response;
+            }
+        };
+    }
+
+    private static void recordConnect(long startNanos) {
+        RequestPhases phases = NetworkPhases.current();
+        if (phases != null) {
+            phases.addConnect(System.nanoTime() - startNanos);
+        }
+    }
+
+    private static class TimingPlainSocketFactory extends PlainSocketFactory {
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.connectSocket(socket, remoteAddress, localAddress, params);
+            } finally {
+                recordConnect(start);
+            }
+        }
+    }
+
+    /**
+     * connectSocket opens a plain socket and layers TLS on it with createLayeredSocket, timed separately
+     */
+    private static class TimingSslSocketFactory extends SSLSocketFactory {
+        TimingSslSocketFactory() {
+            super(SSLContexts.createDefault(), SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER);
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.connectSocket(socket, remoteAddress, localAddress, params);
+            } finally {
+                recordConnect(start);
+            }
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.createLayeredSocket(socket, target, port, context);
+            } finally {
+                RequestPhases phases = NetworkPhases.current();
+                if (phases != null) {
+                    phases.addTls(System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the start of the transfer at the first read and its end when the body stream reaches EOF or is closed
+     */
+    private static class BodyTimingEntity extends HttpEntityWrapper {
+        private final RequestPhases phases;
+
+        BodyTimingEntity(HttpEntity entity, RequestPhases phases) {
+            super(entity);
+            this.phases = phases;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    phases.bodyReadStarted(System.nanoTime());
+                    int value = super.read();
+                    if (value < 0) {
+                        phases.bodyReceived(System.nanoTime());
+                    }
+                    return value;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    phases.bodyReadStarted(System.nanoTime());
+                    int count = super.read(buffer, offset, length);
+                    if (count < 0) {
+                        phases.bodyReceived(System.nanoTime());
+                    }
+                    return count;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    phases.bodyReceived(System.nanoTime());
+                    super.close();
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            phases.bodyReadStarted(System.nanoTime());
+            super.writeTo(outStream);
+            phases.bodyReceived(System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package petStore.profiling;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request Phases - Network timings of one HTTP request, filled in by PhaseTimingHttpClient
+ * DNS, connect and TLS are only non-zero when the request opened a new connection. Connect
+ * covers the TCP handshake only; TTFB is from the request being written to the response headers,
+ * transfer from the first read of the body to its end.
+ */
+public class RequestPhases {
+
+    public static final String DNS = "dns";
+    public static final String CONNECT = "connect";
+    public static final String TLS = "tls";
+    public static final String TTFB = "ttfb";
+    public static final String TRANSFER = "transfer";
+    public static final String TOTAL = "total";
+
+    private final long startNanos;
+    private long dnsNanos;
+    private long connectNanos;
+    private long tlsNanos;
+    private long requestSentNanos;
+    private long headersReceivedNanos;
+    private long bodyReadStartNanos;
+    private long bodyReceivedNanos;
+    private long endNanos;
+
+    RequestPhases(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    void addDns(long nanos) {
+        dnsNanos += nanos;
+    }
+
+    /**
+     * @param nanos Time spent in the socket factory, including the TLS handshake for https
+     */
+    void addConnect(long nanos) {
+        connectNanos += nanos;
+    }
+
+    void addTls(long nanos) {
+        tlsNanos += nanos;
+    }
+
+    void requestSent(long nanos) {
+        requestSentNanos = nanos;
+    }
+
+    void headersReceived(long nanos) {
+        headersReceivedNanos = nanos;
+    }
+
+    /**
+     * @param nanos First read of the body; time between the headers and this is client work, not transfer
+     */
+    void bodyReadStarted(long nanos) {
+        if (bodyReadStartNanos == 0) {
+            bodyReadStartNanos = nanos;
+        }
+    }
+
+    void bodyReceived(long nanos) {
+        if (bodyReceivedNanos == 0) {
+            bodyReceivedNanos = nanos;
+        }
+    }
+
+    void end(long nanos) {
+        endNanos = nanos;
+    }
+
+    /**
+     * @return true if the request went through the instrumented client (not e.g. the HTTP/2 transport)
+     */
+    public boolean isRecorded() {
+        return headersReceivedNanos != 0;
+    }
+
+    public double dnsMs() {
+        return dnsNanos / 1_000_000.0;
+    }
+
+    public double connectMs() {
+        return Math.max(0, connectNanos - tlsNanos) / 1_000_000.0;
+    }
+
+    public double tlsMs() {
+        return tlsNanos / 1_000_000.0;
+    }
+
+    public double ttfbMs() {
+        return requestSentNanos == 0 ? 0 : Math.max(0, headersReceivedNanos - requestSentNanos) / 1_000_000.0;
+    }
+
+    /**
+     * @return Body transfer time; 0 for responses without a body
+     */
+    public double transferMs() {
+        if (bodyReceivedNanos == 0) {
+            return 0;
+        }
+        long transferStart = Math.max(headersReceivedNanos, bodyReadStartNanos);
+        return Math.max(0, bodyReceivedNanos - transferStart) / 1_000_000.0;
+    }
+
+    public double totalMs() {
+        return Math.max(0, endNanos - startNanos) / 1_000_000.0;
+    }
+
+    /**
+     * @return Phase name to milliseconds, in request order
+     */
+    public Map<String, Double> asMap() {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        phases.put(DNS, dnsMs());
+        phases.put(CONNECT, connectMs());
+        phases.put(TLS, tlsMs());
+        phases.put(TTFB, ttfbMs());
+        phases.put(TRANSFER, transferMs());
+        phases.put(TOTAL, totalMs());
+        return phases;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("dns=%.2fms connect=%.2fms tls=%.2fms ttfb=%.2fms transfer=%.2fms total=%.2fms",
+                dnsMs(), connectMs(), tlsMs(), ttfbMs(), transferMs(), totalMs());
+    }
+}
@@ -0,0 +1,30 @@
+package petStore.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one Cucumber scenario
+ */
+@Name("petstore.Scenario")
+@Label("Cucumber Scenario")
+@Category({"PetStore", "Cucumber"})
+@Description("Execution of a scenario including hooks")
+@StackTrace(false)
+public class ScenarioEvent extends jdk.jfr.Event {
+
+    @Label("Scenario")
+    String scenario;
+
+    @Label("Location")
+    String location;
+
+    @Label("Tags")
+    String tags;
+
+    @Label("Status")
+    String status;
+}
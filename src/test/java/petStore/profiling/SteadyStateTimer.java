@@ -0,0 +1,177 @@
+package petStore.profiling;
+
+import io.restassured.response.Response;
+import petStore.common.ConfigurationReader;
+import petStore.logging.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Steady-State Timer - Times a request only after JIT, connection pool and DNS/TLS caches are warm
+ * The first call is reported on its own. It is the JVM cold start only for the first request of a run; later
+ * scenarios reuse the JIT and connection pool, so it is labelled "first call". Warm-up then repeats the call until the
+ * coefficient of variation (stddev / mean) of the last timingSteadyWindow calls drops below
+ * timingSteadyCv, with at least timingWarmupMinIterations and at most timingWarmupMaxIterations calls.
+ * Only the timingMeasureIterations calls after that count as warm figures (at least 20, so the nearest-rank
+ * p95 is not simply the slowest call). If no steady state is reached the warm figures are still measured but flagged.
+ *
+ * Times are taken with System.nanoTime() around the whole call, so they include client-side work
+ * (spec building, filters, logging) - what a caller of PetServices waits for.
+ */
+public class SteadyStateTimer {
+
+    private final int minWarmup = ConfigurationReader.getInt("timingWarmupMinIterations", 3);
+    private final int maxWarmup = ConfigurationReader.getInt("timingWarmupMaxIterations", 10);
+    private final int window = Math.max(2, ConfigurationReader.getInt("timingSteadyWindow", 5));
+    private final double cvThreshold = ConfigurationReader.getDouble("timingSteadyCv", 0.20);
+    // Nearest-rank p95 of fewer than 20 samples is the maximum
+    private static final int MIN_MEASURE_ITERATIONS = 20;
+
+    private final int measureIterations =
+            Math.max(MIN_MEASURE_ITERATIONS, ConfigurationReader.getInt("timingMeasureIterations", MIN_MEASURE_ITERATIONS));
+
+    /**
+     * Time the first call, warm up to steady state and measure warm response times
+     * @param name Label for logs and the result
+     * @param setup Untimed preparation before every call (e.g. create the pet a delete removes); may be null
+     * @param call Request to time; must be repeatable
+     * @return First-call and warm figures; the last response is kept for status/body checks
+     */
+    public TimingResult measure(String name, Runnable setup, Supplier<Response> call) {
+        Log.info("⏱️ Timing '{}': warm-up until CV < {} over {} calls ({}-{} calls), then {} measured calls",
+                name, cvThreshold, window, minWarmup, maxWarmup, measureIterations);
+
+        Timed first = time(setup, call);
+
+        List<Double> warmup = new ArrayList<>();
+        double cv = Double.NaN;
+        boolean steady = false;
+        while (warmup.size() < Math.max(minWarmup, window) || (!steady && warmup.size() < maxWarmup)) {
+            warmup.add(time(setup, call).millis);
+            if (warmup.size() >= window) {
+                cv = coefficientOfVariation(warmup.subList(warmup.size() - window, warmup.size()));
+                steady = cv < cvThreshold;
+            }
+        }
+        if (!steady) {
+            Log.warn("⚠️ '{}' did not reach steady state after {} warm-up calls (CV {})", name, warmup.size(),
+                    String.format("%.3f", cv));
+        }
+
+        double[] warm = new double[measureIterations];
+        Response last = first.response;
+        for (int i = 0; i < measureIterations; i++) {
+            Timed timed = time(setup, call);
+            warm[i] = timed.millis;
+            last = timed.response;
+        }
+
+        TimingResult result = new TimingResult(name, first.millis, warmup.size(), steady, cv, warm, last);
+        Log.info("✓ Timing '{}': {}", name, result);
+        return result;
+    }
+
+    private static Timed time(Runnable setup, Supplier<Response> call) {
+        if (setup != null) {
+            setup.run();
+        }
+        long start = System.nanoTime();
+        Response response = call.get();
+        return new Timed((System.nanoTime() - start) / 1_000_000.0, response);
+    }
+
+    static double coefficientOfVariation(List<Double> samples) {
+        double mean = samples.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        if (mean == 0) {
+            return 0;
+        }
+        double variance = samples.stream().mapToDouble(sample -> (sample - mean) * (sample - mean)).sum() / (samples.size() - 1);
+        return Math.sqrt(variance) / mean;
+    }
+
+    private static class Timed {
+        private final double millis;
+        private final Response response;
+
+        Timed(double millis, Response response) {
+            this.millis = millis;
+            this.response = response;
+        }
+    }
+
+    /**
+     * First-call and warm response times of one request
+     */
+    public static class TimingResult {
+        private final String name;
+        private final double firstCallMs;
+        private final int warmupIterations;
+        private final boolean steadyState;
+        private final double steadyCv;
+        private final double[] warmMs;
+        private final Response lastResponse;
+
+        TimingResult(String name, double firstCallMs, int warmupIterations, boolean steadyState, double steadyCv, double[] warmMs,
+                     Response lastResponse) {
+            this.name = name;
+            this.firstCallMs = firstCallMs;
+            this.warmupIterations = warmupIterations;
+            this.steadyState = steadyState;
+            this.steadyCv = steadyCv;
+            this.warmMs = warmMs.clone();
+            Arrays.sort(this.warmMs);
+            this.lastResponse = lastResponse;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Time of the first call, before any warm-up; it includes JIT, connection, DNS and TLS set-up only
+         * when it is also the first request of the run
+         */
+        public double getFirstCallMs() {
+            return firstCallMs;
+        }
+
+        public int getWarmupIterations() {
+            return warmupIterations;
+        }
+
+        public boolean isSteadyState() {
+            return steadyState;
+        }
+
+        public double getSteadyCv() {
+            return steadyCv;
+        }
+
+        /**
+         * @param percentile Percentile, 0-100
+         * @return Warm response time at that percentile (nearest rank), in ms
+         */
+        public double warmPercentileMs(double percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * warmMs.length);
+            return warmMs[Math.min(warmMs.length - 1, Math.max(0, rank - 1))];
+        }
+
+        public double getWarmMeanMs() {
+            return Arrays.stream(warmMs).average().orElse(0);
+        }
+
+        public Response getLastResponse() {
+            return lastResponse;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("first call=%.1fms warm p50=%.1fms p95=%.1fms max=%.1fms (n=%d) after %d warm-up call(s), "
+                            + "steady=%s (CV %.3f)", firstCallMs, warmPercentileMs(50), warmPercentileMs(95), warmPercentileMs(100),
+                    warmMs.length, warmupIterations, steadyState, steadyCv);
+        }
+    }
+}
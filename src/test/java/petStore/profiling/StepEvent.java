@@ -0,0 +1,32 @@
+package petStore.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one Cucumber test step (Gherkin step or hook)
+ */
+@Name("petstore.Step")
+@Label("Cucumber Step")
+@Category({"PetStore", "Cucumber"})
+@Description("Execution of a step definition or hook")
+@StackTrace(false)
+public class StepEvent extends jdk.jfr.Event {
+
+    @Label("Step")
+    @Description("Step text, or hook type for hooks")
+    String step;
+
+    @Label("Pattern")
+    @Description("Step definition pattern, or code location for hooks")
+    String pattern;
+
+    @Label("Scenario")
+    String scenario;
+
+    @Label("Status")
+    String status;
+}
@@ -0,0 +1,253 @@
+package petStore.profiling;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import petStore.logging.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Step Timing Plugin - Profiles wall time and HTTP wait time of every step and hook
+ * Aggregates per step pattern (count, total, mean, p99, network vs framework/test code time)
+ * and writes target/step-profile/step-timings.json plus step-timings.folded, a folded-stack file
+ * (feature;scenario;step;network|other microseconds) for flamegraph.pl or speedscope.
+ *
+ * Output folder can be changed with "petStore.profiling.StepTimingPlugin:some/folder".
+ */
+public class StepTimingPlugin implements ConcurrentEventListener {
+
+    private static final String DEFAULT_FOLDER = "target/step-profile";
+    private static final int TOP_STEPS_PRINTED = 10;
+
+    private final Path outputFolder;
+    private final Map<UUID, long[]> runningSteps = new ConcurrentHashMap<>();
+    private final Map<String, StepStats> statsByPattern = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> foldedStacks = new ConcurrentHashMap<>();
+
+    private long runStartNanos;
+
+    public StepTimingPlugin() {
+        this(DEFAULT_FOLDER);
+    }
+
+    /**
+     * @param outputFolder Folder receiving the JSON and folded-stack reports
+     */
+    public StepTimingPlugin(String outputFolder) {
+        this.outputFolder = Paths.get(outputFolder);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> runStartNanos = System.nanoTime());
+        publisher.registerHandlerFor(TestStepStarted.class, this::onTestStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> writeReports());
+    }
+
+    private void onTestStepStarted(TestStepStarted started) {
+        // Events of a ConcurrentEventListener arrive on the thread running the step
+        runningSteps.put(started.getTestStep().getId(), new long[]{System.nanoTime(), HttpWaitTracker.currentThreadNanos()});
+    }
+
+    private void onTestStepFinished(TestStepFinished finished) {
+        long[] start = runningSteps.remove(finished.getTestStep().getId());
+        if (start == null) {
+            return;
+        }
+
+        long wallNanos = System.nanoTime() - start[0];
+        long httpNanos = Math.min(wallNanos, HttpWaitTracker.currentThreadNanos() - start[1]);
+        String pattern = describe(finished.getTestStep());
+
+        statsByPattern.computeIfAbsent(pattern, StepStats::new).record(wallNanos, httpNanos);
+
+        String stack = frame(featureName(finished.getTestCase())) + ";" + frame(finished.getTestCase().getName())
+                + ";" + frame(pattern);
+        foldedStacks.computeIfAbsent(stack + ";network", key -> new LongAdder()).add(TimeUnit.NANOSECONDS.toMicros(httpNanos));
+        foldedStacks.computeIfAbsent(stack + ";other", key -> new LongAdder()).add(TimeUnit.NANOSECONDS.toMicros(wallNanos - httpNanos));
+    }
+
+    /**
+     * Key a step is aggregated under: the step definition pattern, or hook type and method for hooks
+     */
+    private static String describe(TestStep testStep) {
+        if (testStep instanceof PickleStepTestStep) {
+            return ((PickleStepTestStep) testStep).getPattern();
+        }
+        if (testStep instanceof HookTestStep) {
+            return "@" + ((HookTestStep) testStep).getHookType().name() + " " + testStep.getCodeLocation();
+        }
+        return testStep.getCodeLocation();
+    }
+
+    private static String featureName(TestCase testCase) {
+        String path = testCase.getUri().getPath();
+        return path == null ? testCase.getUri().toString() : path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Folded stacks use ';' between frames and a space before the value
+     */
+    private static String frame(String name) {
+        return name.replace(';', ',').replace(' ', '_');
+    }
+
+    private void writeReports() {
+        List<StepStats> steps = new ArrayList<>(statsByPattern.values());
+        steps.sort(Comparator.comparingLong(StepStats::totalNanos).reversed());
+
+        long stepWallNanos = steps.stream().mapToLong(StepStats::totalNanos).sum();
+        long stepHttpNanos = steps.stream().mapToLong(StepStats::httpNanos).sum();
+        long runWallNanos = runStartNanos == 0 ? stepWallNanos : System.nanoTime() - runStartNanos;
+
+        try {
+            Files.createDirectories(outputFolder);
+            writeJson(outputFolder.resolve("step-timings.json"), steps, runWallNanos, stepWallNanos, stepHttpNanos);
+            writeFolded(outputFolder.resolve("step-timings.folded"));
+        } catch (IOException e) {
+            Log.warn("⚠️ Could not write step timing report: {}", e.getMessage());
+            return;
+        }
+
+        Log.flush();
+        System.out.println("========== HOT STEPS (by total time) ==========");
+        steps.stream().limit(TOP_STEPS_PRINTED).forEach(step -> System.out.println(String.format(
+                "%8.1f ms total | %6d x | mean %7.1f ms | p99 %7.1f ms | network %3.0f%% | %s",
+                millis(step.totalNanos()), step.count(), millis(step.meanNanos()), millis(step.p99Nanos()),
+                step.networkShare() * 100, step.pattern)));
+        System.out.println("Run: " + Math.round(millis(runWallNanos)) + " ms, in steps: " + Math.round(millis(stepWallNanos))
+                + " ms, waiting on network: " + Math.round(millis(stepHttpNanos)) + " ms");
+        System.out.println("Reports: " + outputFolder.toAbsolutePath());
+        System.out.println("===============================================");
+    }
+
+    private static void writeJson(Path file, List<StepStats> steps, long runWallNanos, long stepWallNanos,
+                                  long stepHttpNanos) throws IOException {
+        JsonObject report = new JsonObject();
+        report.addProperty("runWallMs", millis(runWallNanos));
+        report.addProperty("stepWallMs", millis(stepWallNanos));
+        report.addProperty("networkMs", millis(stepHttpNanos));
+        report.addProperty("frameworkAndTestCodeMs", millis(stepWallNanos - stepHttpNanos));
+        // Time outside any step: Cucumber itself, plugins, glue lookup (only meaningful for serial runs)
+        report.addProperty("outsideStepsMs", millis(Math.max(0, runWallNanos - stepWallNanos)));
+
+        JsonArray stepArray = new JsonArray();
+        for (StepStats step : steps) {
+            JsonObject json = new JsonObject();
+            json.addProperty("pattern", step.pattern);
+            json.addProperty("count", step.count());
+            json.addProperty("totalMs", millis(step.totalNanos()));
+            json.addProperty("meanMs", millis(step.meanNanos()));
+            json.addProperty("p99Ms", millis(step.p99Nanos()));
+            json.addProperty("maxMs", millis(step.maxNanos()));
+            json.addProperty("networkMs", millis(step.httpNanos()));
+            json.addProperty("otherMs", millis(step.totalNanos() - step.httpNanos()));
+            json.addProperty("networkShare", step.networkShare());
+            stepArray.add(json);
+        }
+        report.add("steps", stepArray);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(report, writer);
+        }
+    }
+
+    private void writeFolded(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, LongAdder> entry : foldedStacks.entrySet()) {
+                long micros = entry.getValue().sum();
+                if (micros > 0) {
+                    writer.write(entry.getKey() + " " + micros);
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /**
+     * Durations of one step pattern; every sample is kept so p99 is exact
+     */
+    private static class StepStats {
+        private final String pattern;
+        private long[] wallNanos = new long[16];
+        private int count;
+        private long totalNanos;
+        private long httpNanos;
+
+        StepStats(String pattern) {
+            this.pattern = pattern;
+        }
+
+        synchronized void record(long wall, long http) {
+            if (count == wallNanos.length) {
+                wallNanos = Arrays.copyOf(wallNanos, count * 2);
+            }
+            wallNanos[count++] = wall;
+            totalNanos += wall;
+            httpNanos += http;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized long totalNanos() {
+            return totalNanos;
+        }
+
+        synchronized long httpNanos() {
+            return httpNanos;
+        }
+
+        synchronized long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        synchronized long maxNanos() {
+            return count == 0 ? 0 : Arrays.stream(wallNanos, 0, count).max().getAsLong();
+        }
+
+        synchronized long p99Nanos() {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(wallNanos, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(count * 0.99) - 1];
+        }
+
+        synchronized double networkShare() {
+            return totalNanos == 0 ? 0 : Math.round(httpNanos * 1000.0 / totalNanos) / 1000.0;
+        }
+    }
+}
@@ -10,10 +10,13 @@ import org.junit.runner.RunWith;
         glue = {"petStore.stepDef", "petStore.hooks"},
         plugin = {
                 "pretty",
-                "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm"
+                "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm",
+                "petStore.profiling.JfrCucumberPlugin",
+                "petStore.profiling.StepTimingPlugin"
         },
         monochrome = true,
-        dryRun = false
+        dryRun = false,
+        tags = "not @soak and not @load and not @stub" // Long-running and stub-only modes run on demand, e.g. mvn test -Psoak
         // tags = "@smoke" // Uncomment to run specific tags
 )
 public class CukesRunner {
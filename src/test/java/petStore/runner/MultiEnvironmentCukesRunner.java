@@ -0,0 +1,32 @@
+package petStore.runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+import petStore.common.ConfigurationReader;
+import petStore.common.EnvironmentContext;
+import petStore.load.MultiEnvironmentRunner;
+import petStore.load.MultiEnvironmentRunner.EnvironmentResult;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Multi-Environment Runner entry point - mvn test -Pmulti-env
+ * Runs the suite against every environment listed in "environments" at the same time,
+ * results go to target/multi-env
+ */
+public class MultiEnvironmentCukesRunner {
+
+    @Test
+    public void runSuiteAgainstAllEnvironments() throws Exception {
+        String tags = System.getProperty("cucumber.filter.tags", ConfigurationReader.get("multiEnvironmentTags",
+                "not @soak and not @dataDriven and not @stub and not @load"));
+
+        List<EnvironmentResult> results = new MultiEnvironmentRunner(EnvironmentContext.configured(), tags,
+                Paths.get("target", "multi-env")).run();
+
+        for (EnvironmentResult result : results) {
+            Assert.assertTrue("Suite failed in environment " + result, result.isSuccessful());
+        }
+    }
+}
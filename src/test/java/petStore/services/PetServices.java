@@ -4,9 +4,21 @@ import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import petStore.common.ApiGenericFunctions;
 import petStore.common.CommonRestCRUD;
+import petStore.common.ResponseCache;
+import petStore.logging.Log;
 import petStore.specs.PetReqSpec;
-
-import static io.restassured.RestAssured.given;
+import petStore.validation.SchemaValidator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Pet Services - Handles all pet-related API operations
@@ -20,12 +32,12 @@ public class PetServices extends CommonRestCRUD {
      * @return Response object
      */
     public Response getPetStatus(String status) {
-        System.out.println("🔍 Fetching pets with status: " + status);
+        Log.info("🔍 Fetching pets with status: {}", status);
 
         RequestSpecification requestSpec = PetReqSpec.getPetStatusReqSpec(status);
         Response response = get(requestSpec, 200);
 
-        System.out.println("✓ Retrieved " + response.jsonPath().getList("$").size() + " pets");
+        Log.info(() -> "✓ Retrieved " + response.jsonPath().getList("$").size() + " pets");
         return response;
     }
 
@@ -36,12 +48,29 @@ public class PetServices extends CommonRestCRUD {
      * @return Response object
      */
     public Response addNewPet(String id, String name) {
-        System.out.println("➕ Adding new pet: " + name + " (ID: " + id + ")");
+        Log.info("➕ Adding new pet: {} (ID: {})", name, id);
 
         RequestSpecification requestSpec = PetReqSpec.addNewPetReqSpec(id, name);
-        Response response = post(requestSpec, 200);
+        Response response = invalidating(id, () -> post(requestSpec, 200));
+
+        Log.info("✓ Pet created successfully");
+        return response;
+    }
+
+    /**
+     * Add a new pet to the store with custom status
+     * @param id Pet ID
+     * @param name Pet name
+     * @param status Pet status (available, pending, sold)
+     * @return Response object
+     */
+    public Response addNewPet(String id, String name, String status) {
+        Log.info("➕ Adding new pet: {} (ID: {}, status: {})", name, id, status);
+
+        RequestSpecification requestSpec = PetReqSpec.addNewPetReqSpec(id, name, status);
+        Response response = invalidating(id, () -> post(requestSpec, 200));
 
-        System.out.println("✓ Pet created successfully");
+        Log.info("✓ Pet created successfully");
         return response;
     }
 
@@ -51,12 +80,12 @@ public class PetServices extends CommonRestCRUD {
      * @return Response object
      */
     public Response getPetById(String id) {
-        System.out.println("🔍 Fetching pet with ID: " + id);
+        Log.info("🔍 Fetching pet with ID: {}", id);
 
         RequestSpecification requestSpec = PetReqSpec.getPetIdReqSpec(id);
-        Response response = get(requestSpec, 200);
+        Response response = getHedged(requestSpec, 200);
 
-        System.out.println("✓ Pet retrieved: " + response.jsonPath().getString("name"));
+        Log.info(() -> "✓ Pet retrieved: " + response.jsonPath().getString("name"));
         return response;
     }
 
@@ -66,27 +95,38 @@ public class PetServices extends CommonRestCRUD {
      * @return Response object
      */
     public Response getPetByIdWithoutValidation(String id) {
-        System.out.println("🔍 Attempting to fetch pet with ID: " + id);
+        Log.info("🔍 Attempting to fetch pet with ID: {}", id);
 
         RequestSpecification requestSpec = PetReqSpec.getPetIdReqSpec(id);
-        Response response = get(requestSpec); // No status code validation
+        Response response = getHedged(requestSpec); // No status code validation
 
-        System.out.println("Response status: " + response.getStatusCode());
+        Log.info("Response status: {}", response.getStatusCode());
         return response;
     }
 
+    /**
+     * Get pet by ID through the response cache (no status code validation)
+     * Only right after a write this class sent, which invalidated the pet, or for fixture lookups: see ResponseCache
+     * @param id Pet ID
+     * @return Response object, possibly cached
+     */
+    public Response getPetByIdCached(String id) {
+        Log.info("🔍 Looking up pet with ID: {}", id);
+        return ResponseCache.pet(id, () -> get(PetReqSpec.getPetIdReqSpec(id)));
+    }
+
     /**
      * Get pet by invalid ID (expects 404)
      * @param id Invalid pet ID
      * @return Response object
      */
     public Response getPetByIdInvalid(String id) {
-        System.out.println("🔍 Fetching pet with invalid ID: " + id + " (expecting 404)");
+        Log.info("🔍 Fetching pet with invalid ID: {} (expecting 404)", id);
 
         RequestSpecification requestSpec = PetReqSpec.getPetIdReqSpec(id);
         Response response = get(requestSpec, 404);
 
-        System.out.println("✓ Received expected 404 response");
+        Log.info("✓ Received expected 404 response");
         return response;
     }
 
@@ -98,16 +138,35 @@ public class PetServices extends CommonRestCRUD {
      * @return Response object
      */
     public Response updatePet(String id, String updateName, String tagName) {
-        System.out.println("✏️ Updating pet ID " + id + " with name: " + updateName + ", tag: " + tagName);
+        Log.info("✏️ Updating pet ID {} with name: {}, tag: {}", id, updateName, tagName);
 
         RequestSpecification requestSpec = PetReqSpec.updatePetReqSpec(id, updateName, tagName);
-        Response response = put(requestSpec, 200);
+        Response response = invalidating(id, () -> put(requestSpec, 200));
 
         // Small wait to ensure data propagation (API may need time)
-        System.out.println("⏳ Waiting 2 seconds for data propagation...");
+        Log.info("⏳ Waiting 2 seconds for data propagation...");
         ApiGenericFunctions.waitForSec(2);
 
-        System.out.println("✓ Pet updated successfully");
+        Log.info("✓ Pet updated successfully");
+        return response;
+    }
+
+    /**
+     * Update existing pet with custom status, without waiting for data propagation
+     * Used by bulk runners where a fixed wait per row is not affordable
+     * @param id Pet ID
+     * @param updateName New pet name
+     * @param tagName Tag name
+     * @param status Pet status
+     * @return Response object
+     */
+    public Response updatePetNoWait(String id, String updateName, String tagName, String status) {
+        Log.info("✏️ Updating pet ID {} with name: {}, tag: {}, status: {}", id, updateName, tagName, status);
+
+        RequestSpecification requestSpec = PetReqSpec.updatePetReqSpec(id, updateName, tagName, status);
+        Response response = invalidating(id, () -> put(requestSpec, 200));
+
+        Log.info("✓ Pet updated successfully");
         return response;
     }
 
@@ -117,16 +176,16 @@ public class PetServices extends CommonRestCRUD {
      * @return Response object
      */
     public Response deleteById(String id) {
-        System.out.println("🗑️ Deleting pet with ID: " + id);
+        Log.info("🗑️ Deleting pet with ID: {}", id);
 
         RequestSpecification requestSpec = PetReqSpec.deletePetReqSpec(id);
-        Response response = delete(requestSpec, 200);
+        Response response = invalidating(id, () -> delete(requestSpec, 200));
 
         // Small wait to ensure deletion is processed
-        System.out.println("⏳ Waiting 2 seconds for deletion to complete...");
+        Log.info("⏳ Waiting 2 seconds for deletion to complete...");
         ApiGenericFunctions.waitForSec(2);
 
-        System.out.println("✓ Pet deleted successfully");
+        Log.info("✓ Pet deleted successfully");
         return response;
     }
 
@@ -137,41 +196,109 @@ public class PetServices extends CommonRestCRUD {
      * @return Response object
      */
     public Response deleteByIdWithoutValidation(String id) {
-        System.out.println("🗑️ Attempting to delete pet: " + id + " (no validation)");
+        Log.info("🗑️ Attempting to delete pet: {} (no validation)", id);
 
         try {
             RequestSpecification requestSpec = PetReqSpec.deletePetReqSpec(id);
 
-            Response response = given()
-                    .spec(requestSpec)
+            Response response = invalidating(id, () -> request(requestSpec)
                     .when()
                     .delete()
                     .then()
                     .extract()
-                    .response();
+                    .response());
 
-            System.out.println("Delete response status: " + response.getStatusCode());
+            Log.info("Delete response status: {}", response.getStatusCode());
             return response;
 
         } catch (Exception e) {
-            System.out.println("⚠️ Error deleting pet without validation: " + e.getMessage());
+            Log.warn("⚠️ Error deleting pet without validation: {}", e.getMessage());
             throw e;
         }
     }
 
+    /**
+     * Delete pet by ID for cleanup (hedged, no status code validation)
+     * Not for delete scenarios: a hedged attempt can answer 404 for a pet the first attempt just deleted
+     * @param id Pet ID
+     * @return Response object
+     */
+    public Response deleteByIdForCleanup(String id) {
+        Log.info("🗑️ Cleaning up pet: {}", id);
+
+        RequestSpecification requestSpec = PetReqSpec.deletePetReqSpec(id);
+        Response response = invalidating(id, () -> deleteHedged(requestSpec));
+
+        Log.info("Cleanup delete status: {}", response.getStatusCode());
+        return response;
+    }
+
+    /**
+     * Upload an image for a pet (multipart POST pet/{petId}/uploadImage)
+     * The file is streamed from a FileChannel while the request is written, so heap use does not
+     * depend on the file size and several uploads can run at once
+     * @param id Pet ID
+     * @param image Image file to upload
+     * @param additionalMetadata Optional metadata sent with the image (null to omit)
+     * @return Response object
+     */
+    public Response uploadImage(String id, Path image, String additionalMetadata) {
+        try (FileChannel channel = FileChannel.open(image, StandardOpenOption.READ);
+             InputStream content = Channels.newInputStream(channel)) {
+            long bytes = channel.size();
+            Log.info("🖼️ Uploading image {} ({} bytes) for pet ID: {}", image.getFileName(), bytes, id);
+
+            RequestSpecification requestSpec = PetReqSpec.uploadImageReqSpec(id, content,
+                    image.getFileName().toString(), mimeTypeOf(image), additionalMetadata);
+            long start = System.nanoTime();
+            Response response = invalidating(id, () -> post(requestSpec, 200));
+            long elapsedNanos = System.nanoTime() - start;
+
+            Log.info(() -> String.format("✓ Image uploaded: %d bytes in %d ms (%.2f MB/s)", bytes,
+                    elapsedNanos / 1_000_000, megabytesPerSecond(bytes, elapsedNanos)));
+            return response;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read image " + image, e);
+        }
+    }
+
+    /**
+     * @param bytes Bytes transferred
+     * @param elapsedNanos Transfer time
+     * @return Throughput in MB/s (1 MB = 1024 * 1024 bytes)
+     */
+    public static double megabytesPerSecond(long bytes, long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0 : (bytes / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Send a write and drop cached responses it may have made stale, also when it fails
+     */
+    private static Response invalidating(String id, Supplier<Response> write) {
+        try {
+            return write.get();
+        } finally {
+            ResponseCache.invalidatePet(id);
+        }
+    }
+
+    private static String mimeTypeOf(Path image) throws IOException {
+        String mimeType = Files.probeContentType(image);
+        return mimeType != null ? mimeType : "application/octet-stream";
+    }
+
     /**
      * Check if pet exists by ID
      * @param id Pet ID
      * @return true if pet exists (200), false if not found (404)
      */
     public boolean petExists(String id) {
-        System.out.println("🔍 Checking if pet exists: " + id);
+        Log.info("🔍 Checking if pet exists: {}", id);
 
-        RequestSpecification requestSpec = PetReqSpec.getPetIdReqSpec(id);
-        Response response = get(requestSpec);
+        Response response = getPetByIdCached(id);
 
         boolean exists = response.getStatusCode() == 200;
-        System.out.println(exists ? "✓ Pet exists" : "✗ Pet not found");
+        Log.info(exists ? "✓ Pet exists" : "✗ Pet not found");
         return exists;
     }
 
@@ -179,26 +306,34 @@ public class PetServices extends CommonRestCRUD {
      * Verify pet was created successfully
      * @param id Pet ID to verify
      * @param expectedName Expected pet name
-     * @return true if pet exists with correct name
+     * @return true if pet exists with correct name and matches the Pet schema
      */
     public boolean verifyPetCreation(String id, String expectedName) {
-        System.out.println("✓ Verifying pet creation: ID=" + id + ", Name=" + expectedName);
+        Log.info("✓ Verifying pet creation: ID={}, Name={}", id, expectedName);
 
         try {
-            Response response = getPetById(id);
+            // The create invalidated this pet, so the read reaches the API; the response it caches serves the cleanup lookup
+            Response response = getPetByIdCached(id);
+            if (response.getStatusCode() != 200) {
+                Log.info("✗ Pet verification failed: status {}", response.getStatusCode());
+                return false;
+            }
             String actualName = response.jsonPath().getString("name");
+            List<String> violations = SchemaValidator.validate(SchemaValidator.PET, response);
 
-            boolean isValid = actualName != null && actualName.equals(expectedName);
+            boolean isValid = actualName != null && actualName.equals(expectedName) && violations.isEmpty();
 
             if (isValid) {
-                System.out.println("✓ Pet verification successful");
+                Log.info("✓ Pet verification successful");
+            } else if (!violations.isEmpty()) {
+                Log.info("✗ Pet verification failed: schema violations {}", violations);
             } else {
-                System.out.println("✗ Pet verification failed: Expected name '" + expectedName + "' but got '" + actualName + "'");
+                Log.info("✗ Pet verification failed: Expected name '{}' but got '{}'", expectedName, actualName);
             }
 
             return isValid;
         } catch (Exception e) {
-            System.err.println("✗ Pet verification failed: " + e.getMessage());
+            Log.warn("✗ Pet verification failed: {}", e.getMessage());
             return false;
         }
     }
@@ -209,21 +344,21 @@ public class PetServices extends CommonRestCRUD {
      * @return true if pet returns 404
      */
     public boolean verifyPetDeletion(String id) {
-        System.out.println("✓ Verifying pet deletion: ID=" + id);
+        Log.info("✓ Verifying pet deletion: ID={}", id);
 
         try {
             Response response = getPetByIdWithoutValidation(id);
             boolean isDeleted = response.getStatusCode() == 404;
 
             if (isDeleted) {
-                System.out.println("✓ Pet deletion verified (404 received)");
+                Log.info("✓ Pet deletion verified (404 received)");
             } else {
-                System.out.println("✗ Pet still exists (status: " + response.getStatusCode() + ")");
+                Log.info("✗ Pet still exists (status: {})", response.getStatusCode());
             }
 
             return isDeleted;
         } catch (Exception e) {
-            System.err.println("✗ Pet deletion verification failed: " + e.getMessage());
+            Log.warn("✗ Pet deletion verification failed: {}", e.getMessage());
             return false;
         }
     }
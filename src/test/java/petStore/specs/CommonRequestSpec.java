@@ -1,11 +1,10 @@
 package petStore.specs;
 
 import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.filter.log.RequestLoggingFilter;
-import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import petStore.common.ConfigurationReader;
+import petStore.logging.HttpTrafficLog;
 
 import java.util.Collections;
 import java.util.Map;
@@ -24,8 +23,8 @@ public class CommonRequestSpec {
     protected static RequestSpecification buildBaseSpec(String uri) {
         return new RequestSpecBuilder()
                 .setBaseUri(uri)
-                .addFilter(new RequestLoggingFilter())   // Log request details
-                .addFilter(new ResponseLoggingFilter())  // Log response details
+                .addFilter(HttpTrafficLog.requestFilter())   // Log request details
+                .addFilter(HttpTrafficLog.responseFilter())  // Log response details
                 .build();
     }
 
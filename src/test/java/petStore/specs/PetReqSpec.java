@@ -1,11 +1,14 @@
 package petStore.specs;
 
 import java.util.HashMap;
+import io.restassured.builder.MultiPartSpecBuilder;
+import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.specification.RequestSpecification;
 import petStore.common.ConfigurationReader;
 import petStore.dataFactory.DataFactory_PetStore;
 
 
+import java.io.InputStream;
 import java.util.Map;
 
 /**
@@ -173,4 +176,33 @@ public class PetReqSpec extends CommonRequestSpec {
 
         return petStoreRequestSpec(endpoint, null, queryParams, null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Build multipart request spec for uploading a pet image
+     * The file part is sent from the given stream as it is read (chunked), never loaded into memory
+     * @param id Pet ID
+     * @param content Image content; the caller opens and closes it
+     * @param fileName File name sent with the part
+     * @param mimeType Image MIME type
+     * @param additionalMetadata Optional metadata form field (null to omit)
+     * @return RequestSpecification
+     */
+    public static RequestSpecification uploadImageReqSpec(String id, InputStream content, String fileName,
+                                                          String mimeType, String additionalMetadata) {
+        String endpoint = ConfigurationReader.get("uploadImageEndPoint").replace("{petId}", id);
+
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .addRequestSpecification(petStoreRequestSpecMultipart(endpoint))
+                .addMultiPart(new MultiPartSpecBuilder(content)
+                        .controlName("file")
+                        .fileName(fileName)
+                        .mimeType(mimeType)
+                        .build());
+
+        if (additionalMetadata != null) {
+            builder.addMultiPart("additionalMetadata", additionalMetadata);
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,70 @@
+package petStore.stepDef;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Step;
+import petStore.common.ConfigurationReader;
+import petStore.consistency.ConcurrentCrudRunner;
+import petStore.consistency.History;
+import petStore.consistency.LinearizabilityChecker;
+import petStore.logging.Log;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Consistency Step Definitions
+ * Records concurrent CRUD histories and checks them for linearizability
+ */
+@Epic("Pet Store API")
+@Feature("Consistency")
+public class ConsistencyStepDef {
+
+    private Path historyFile;
+
+    @Step("Record concurrent CRUD history: {workers} workers on {pets} pets, {operations} operations each")
+    @Given("Record concurrent CRUD history with {int} workers on {int} pets for {int} operations each")
+    public void recordHistory(int workers, int pets, int operations) {
+        long firstPetId = Long.parseLong(ConfigurationReader.get("consistencyFirstPetId", "500000000"));
+        long seed = Long.parseLong(ConfigurationReader.get("consistencySeed", "42"));
+        historyFile = Paths.get("target", "consistency", "history.jsonl");
+
+        try {
+            History history = new ConcurrentCrudRunner(workers, pets, operations, firstPetId, seed).run();
+            history.write(historyFile);
+
+            Allure.parameter("Workers", workers);
+            Allure.parameter("Pets", pets);
+            Allure.parameter("Operations per worker", operations);
+            Allure.parameter("Seed", seed);
+        } catch (IOException e) {
+            Allure.addAttachment("Error", e.getMessage());
+            throw new RuntimeException("Failed to record history: " + e.getMessage(), e);
+        }
+    }
+
+    @Step("Verify the recorded history is linearizable")
+    @Then("Verify the recorded history is linearizable")
+    public void verifyLinearizable() {
+        assert historyFile != null : "No history was recorded";
+
+        try {
+            // Checked from the saved file, exactly as an offline check of an older run would be
+            long maxSteps = Long.parseLong(ConfigurationReader.get("linearizabilityMaxStepsPerKey", "10000000"));
+            LinearizabilityChecker.CheckResult result = new LinearizabilityChecker(maxSteps).check(History.read(historyFile));
+
+            StringBuilder report = new StringBuilder(result.toString());
+            result.getKeys().forEach(key -> report.append(System.lineSeparator()).append(key));
+            Allure.addAttachment("Linearizability Check", report.toString());
+            Log.info("🔎 {}", report);
+
+            assert result.isLinearizable() : "History is not linearizable: " + report + " (history: " + historyFile + ")";
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read history " + historyFile + ": " + e.getMessage(), e);
+        }
+    }
+}
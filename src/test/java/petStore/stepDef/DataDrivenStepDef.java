@@ -0,0 +1,59 @@
+package petStore.stepDef;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Step;
+import petStore.common.ConfigurationReader;
+import petStore.load.DataDrivenRunner;
+import petStore.logging.Log;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Data-Driven Step Definitions
+ * Streams pet rows from external CSV/JSONL files through PetServices
+ */
+@Epic("Pet Store API")
+@Feature("Data-Driven Flows")
+public class DataDrivenStepDef {
+
+    private DataDrivenRunner.RunSummary summary;
+    private Path resultsFile;
+
+    @Step("Run pet flows from {dataFile} with {workers} workers")
+    @Given("Run pet flows from data file {string} with {int} workers")
+    public void runPetFlowsFromDataFile(String dataFile, int workers) {
+        Path dataset = Paths.get(dataFile);
+        String fileName = dataset.getFileName().toString();
+        resultsFile = Paths.get("target", "data-driven", fileName.substring(0, fileName.lastIndexOf('.')) + "-results.csv");
+
+        try {
+            int chunkSize = ConfigurationReader.getInt("dataDrivenChunkSize", 100);
+            summary = new DataDrivenRunner(workers, chunkSize).run(dataset, resultsFile);
+
+            Allure.parameter("Data File", dataFile);
+            Allure.parameter("Workers", workers);
+            Allure.parameter("Rows", summary.getRows());
+            Allure.parameter("Failed Rows", summary.getFailed());
+        } catch (IOException e) {
+            Allure.addAttachment("Error", e.getMessage());
+            throw new RuntimeException("Failed to run data-driven flows: " + e.getMessage(), e);
+        }
+    }
+
+    @Step("Verify data-driven run has no failed rows")
+    @Then("Verify data-driven run has no failed rows")
+    public void verifyNoFailedRows() {
+        assert summary != null : "No data-driven run was executed";
+        assert summary.getRows() > 0 : "Data file contained no rows";
+        assert summary.getFailed() == 0 :
+                summary.getFailed() + " of " + summary.getRows() + " rows failed, see " + resultsFile;
+
+        Log.info("✓ All {} data-driven rows passed", summary.getRows());
+    }
+}
@@ -0,0 +1,320 @@
+package petStore.stepDef;
+
+import io.cucumber.java.After;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Step;
+import petStore.common.ConfigurationReader;
+import petStore.common.EnvironmentContext;
+import petStore.dataFactory.DataFactory_PetStore;
+import petStore.load.ArrivalProcess;
+import petStore.load.CrudOperations;
+import petStore.load.LoadController;
+import petStore.load.OpenLoopScheduler;
+import petStore.load.ScalabilityRunner;
+import petStore.load.SoakRunner;
+import petStore.load.TransportComparisonRunner;
+import petStore.load.UploadRunner;
+import petStore.logging.Log;
+import petStore.stub.StubPetStore;
+import petStore.stub.StubServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Load Step Definitions
+ * Long-running and concurrent modes built on PetServices
+ */
+@Epic("Pet Store API")
+@Feature("Load & Soak")
+public class LoadStepDef {
+
+    private SoakRunner.SoakResult soakResult;
+    private UploadRunner.UploadResult uploadResult;
+    private List<TransportComparisonRunner.TransportResult> transportResults;
+    private OpenLoopScheduler.OpenLoopResult openLoopResult;
+    private ScalabilityRunner.ScalingReport scalingReport;
+    private StubServer stub;
+    private EnvironmentContext environmentBeforeStub;
+
+    @Step("Start a local stub Petstore for this scenario")
+    @Given("Start a local stub Petstore for this scenario")
+    public void startLocalStub() {
+        try {
+            stub = StubServer.start(0, "/v2/", ConfigurationReader.getInt("stubThreads", 64),
+                    StubPetStore.inMemory(ConfigurationReader.getInt("stubStripes", 64)));
+        } catch (IOException e) {
+            Allure.addAttachment("Error", e.getMessage());
+            throw new RuntimeException("Failed to start the stub Petstore: " + e.getMessage(), e);
+        }
+        // baseUri is read per request through the environment, so this scenario (and agents it configures) use the stub
+        String baseUri = "http://localhost:" + stub.getPort() + "/v2/";
+        environmentBeforeStub = EnvironmentContext.current();
+        EnvironmentContext stubEnvironment = environmentBeforeStub != null
+                ? environmentBeforeStub.withOverride("baseUri", baseUri)
+                : new EnvironmentContext("stub", overrides("baseUri", baseUri));
+        stubEnvironment.bind();
+
+        Allure.parameter("Base URI", baseUri);
+        Log.info("✓ Scenario runs against the stub Petstore at {}", baseUri);
+    }
+
+    /**
+     * Runs after the other @After hooks (lower order runs later), so their cleanup still reaches the stub
+     */
+    @After(order = 0)
+    public void stopLocalStub() {
+        if (stub == null) {
+            return;
+        }
+        if (environmentBeforeStub != null) {
+            environmentBeforeStub.bind();
+        } else {
+            EnvironmentContext.unbind();
+        }
+        stub.stop();
+        stub = null;
+    }
+
+    @Step("Run soak test with configured duration")
+    @Given("Run soak test with configured duration")
+    public void runSoakTest() {
+        int minutes = ConfigurationReader.getInt("soakDurationMinutes", 60);
+        int workers = ConfigurationReader.getInt("soakWorkers", 4);
+        int intervalSeconds = ConfigurationReader.getInt("soakSampleIntervalSeconds", 10);
+        long firstPetId = Long.parseLong(ConfigurationReader.get("soakFirstPetId", "300000000"));
+
+        Path telemetryFile = Paths.get("target", "soak", "telemetry.csv");
+
+        try {
+            soakResult = new SoakRunner(workers, minutes * 60L, intervalSeconds, firstPetId).run(telemetryFile);
+
+            Allure.parameter("Duration (min)", minutes);
+            Allure.parameter("Workers", workers);
+            Allure.parameter("Requests", soakResult.getRequests());
+            Allure.parameter("Errors", soakResult.getErrors());
+            try (InputStream telemetry = Files.newInputStream(telemetryFile)) {
+                Allure.addAttachment("Soak Telemetry", "text/csv", telemetry, ".csv");
+            }
+        } catch (IOException e) {
+            Allure.addAttachment("Error", e.getMessage());
+            throw new RuntimeException("Failed to run soak test: " + e.getMessage(), e);
+        }
+    }
+
+    @Step("Verify soak telemetry shows no steady growth")
+    @Then("Verify soak telemetry shows no steady growth")
+    public void verifyNoSteadyGrowth() {
+        assert soakResult != null : "No soak test was executed";
+        assert soakResult.getGrowingSeries().isEmpty() :
+                "Steady growth during soak in " + soakResult.getGrowingSeries() + ", see " + soakResult.getTelemetryFile();
+
+        Log.info("✓ No steady growth in heap, threads or open file descriptors");
+    }
+
+    @Step("Upload {count} images of {sizeMb} MB for pet {petId} with {workers} workers")
+    @Given("Upload {int} images of {int} MB for pet {string} with {int} workers")
+    public void uploadImagesConcurrently(int count, int sizeMb, String petId, int workers) {
+        try {
+            List<Path> images = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                images.add(DataFactory_PetStore.testImageFile(
+                        Paths.get("target", "upload", "pet-" + petId + "-" + i + ".png"), sizeMb * 1024L * 1024L));
+            }
+
+            uploadResult = new UploadRunner(workers).run(petId, images);
+
+            Allure.parameter("Images", count);
+            Allure.parameter("Image Size (MB)", sizeMb);
+            Allure.parameter("Workers", workers);
+            Allure.addAttachment("Upload Result", uploadResult.toString());
+        } catch (IOException e) {
+            Allure.addAttachment("Error", e.getMessage());
+            throw new RuntimeException("Failed to prepare upload images: " + e.getMessage(), e);
+        }
+    }
+
+    @Step("Verify all uploads succeeded")
+    @Then("Verify all uploads succeeded")
+    public void verifyAllUploadsSucceeded() {
+        assert uploadResult != null : "No uploads were executed";
+        assert uploadResult.getFailures() == 0 :
+                uploadResult.getFailures() + " of " + uploadResult.getFiles() + " uploads failed";
+
+        Log.info("✓ All {} uploads succeeded at {} MB/s", uploadResult.getFiles(),
+                String.format("%.2f", uploadResult.getMegabytesPerSecond()));
+    }
+
+    @Step("Compare HTTP/1.1 and HTTP/2 transports with {workers} workers and {iterations} iterations each")
+    @Given("Compare HTTP transports with {int} workers and {int} iterations each")
+    public void compareTransports(int workers, int iterations) {
+        long firstPetId = Long.parseLong(ConfigurationReader.get("transportFirstPetId", "400000000"));
+        Path csvFile = Paths.get("target", "transport", "comparison.csv");
+
+        try {
+            transportResults = new TransportComparisonRunner(workers, iterations, firstPetId).run(csvFile);
+
+            Allure.parameter("Workers", workers);
+            Allure.parameter("Iterations", iterations);
+            try (InputStream comparison = Files.newInputStream(csvFile)) {
+                Allure.addAttachment("Transport Comparison", "text/csv", comparison, ".csv");
+            }
+        } catch (IOException e) {
+            Allure.addAttachment("Error", e.getMessage());
+            throw new RuntimeException("Failed to compare transports: " + e.getMessage(), e);
+        }
+    }
+
+    @Step("Verify both transports completed without errors")
+    @Then("Verify both transports completed without errors")
+    public void verifyTransportsWithoutErrors() {
+        assert transportResults != null : "No transport comparison was executed";
+        for (TransportComparisonRunner.TransportResult result : transportResults) {
+            assert result.getErrors() == 0 : "Transport " + result.getTransport() + " had " + result.getErrors() + " error(s)";
+        }
+
+        Log.info("✓ Both transports completed without errors");
+    }
+
+    @Step("Run open-loop CRUD mix at {rate} requests per second for {seconds} seconds with {users} users and {arrivals} arrivals")
+    @Given("Run open-loop CRUD mix at {int} requests per second for {int} seconds with {int} users and {word} arrivals")
+    public void runOpenLoopCrudMix(int rate, int seconds, int users, String arrivals) {
+        long firstPetId = Long.parseLong(ConfigurationReader.get("openLoopFirstPetId", "600000000"));
+        int poolSize = ConfigurationReader.getInt("openLoopPoolSize", 50);
+        long seed = Long.parseLong(ConfigurationReader.get("openLoopSeed", "42"));
+        Path csvFile = Paths.get("target", "openloop", "latency.csv");
+
+        CrudOperations crud = new CrudOperations(firstPetId, poolSize);
+        try {
+            crud.seed();
+            openLoopResult = new OpenLoopScheduler(rate, seconds * 1000L, ArrivalProcess.parse(arrivals), users, seed)
+                    .run(crud.defaultMix());
+            openLoopResult.print();
+            openLoopResult.writeCsv(csvFile);
+
+            Allure.parameter("Target Rate (req/s)", rate);
+            Allure.parameter("Achieved Rate (req/s)", String.format("%.1f", openLoopResult.getAchievedRate()));
+            Allure.parameter("Users", users);
+            Allure.parameter("Arrivals", arrivals);
+            try (InputStream latency = Files.newInputStream(csvFile)) {
+                Allure.addAttachment("Open-Loop Latency", "text/csv", latency, ".csv");
+            }
+        } catch (IOException e) {
+            Allure.addAttachment("Error", e.getMessage());
+            throw new RuntimeException("Failed to write open-loop report: " + e.getMessage(), e);
+        } finally {
+            crud.cleanup();
+        }
+    }
+
+    @Step("Run distributed open-loop CRUD mix at {rate} requests per second for {seconds} seconds with {users} users on {agents} agents")
+    @Given("Run distributed open-loop CRUD mix at {int} requests per second for {int} seconds with {int} users on {int} agents")
+    public void runDistributedOpenLoopCrudMix(int rate, int seconds, int users, int agents) {
+        long firstPetId = Long.parseLong(ConfigurationReader.get("distributedFirstPetId", "700000000"));
+        int poolSize = ConfigurationReader.getInt("openLoopPoolSize", 50);
+        long seed = Long.parseLong(ConfigurationReader.get("openLoopSeed", "42"));
+        ArrivalProcess arrivals = ArrivalProcess.parse(ConfigurationReader.get("distributedArrivals", "poisson"));
+        Path csvFile = Paths.get("target", "distributed", "latency.csv");
+
+        try {
+            openLoopResult = new LoadController(agents).run(rate, seconds * 1000L, arrivals, users, seed, firstPetId,
+                    poolSize, CrudOperations.defaultWeights());
+            openLoopResult.print();
+            openLoopResult.writeCsv(csvFile);
+
+            Allure.parameter("Agents", agents);
+            Allure.parameter("Target Rate (req/s)", rate);
+            Allure.parameter("Achieved Rate (req/s)", String.format("%.1f", openLoopResult.getAchievedRate()));
+            Allure.parameter("Users", users);
+            try (InputStream latency = Files.newInputStream(csvFile)) {
+                Allure.addAttachment("Distributed Latency", "text/csv", latency, ".csv");
+            }
+        } catch (IOException e) {
+            Allure.addAttachment("Error", e.getMessage());
+            throw new RuntimeException("Failed to write distributed load report: " + e.getMessage(), e);
+        }
+    }
+
+    @Step("Verify open-loop p99 response time is below {maxMs} ms")
+    @Then("Verify open-loop p99 response time is below {int} ms")
+    public void verifyOpenLoopP99(int maxMs) {
+        assert openLoopResult != null : "No open-loop run was executed";
+        double p99 = openLoopResult.getResponseTime().percentileMs(99);
+        assert p99 < maxMs : String.format("p99 response time %.1f ms (measured from intended send time) is not below %d ms",
+                p99, maxMs);
+
+        Log.info("✓ Open-loop p99 response time {} ms is below {} ms", String.format("%.1f", p99), maxMs);
+    }
+
+    @Step("Verify open-loop load completed without errors")
+    @Then("Verify open-loop load completed without errors")
+    public void verifyOpenLoopWithoutErrors() {
+        assert openLoopResult != null : "No open-loop run was executed";
+        assert openLoopResult.getErrors() == 0 && openLoopResult.getUnfinished() == 0 :
+                openLoopResult.getErrors() + " error(s) and " + openLoopResult.getUnfinished() + " unfinished request(s)";
+
+        Log.info("✓ All {} open-loop requests completed without errors", openLoopResult.getCompleted());
+    }
+
+    @Step("Run concurrency scaling of the CRUD mix up to {maxWorkers} workers with {seconds} seconds per level")
+    @Given("Run concurrency scaling of the CRUD mix up to {int} workers with {int} seconds per level")
+    public void runConcurrencyScaling(int maxWorkers, int seconds) {
+        long firstPetId = Long.parseLong(ConfigurationReader.get("scalingFirstPetId", "800000000"));
+        int poolSize = ConfigurationReader.getInt("openLoopPoolSize", 50);
+        long seed = Long.parseLong(ConfigurationReader.get("openLoopSeed", "42"));
+        Path csvFile = Paths.get("target", "scaling", "scaling.csv");
+
+        CrudOperations crud = new CrudOperations(firstPetId, poolSize);
+        try {
+            crud.seed();
+            scalingReport = new ScalabilityRunner(maxWorkers, seconds,
+                    ConfigurationReader.getInt("scalingWarmupSeconds", 2),
+                    ConfigurationReader.getInt("scalingSampleIntervalMs", 20),
+                    ConfigurationReader.getInt("scalingMinEfficiencyPercent", 50) / 100.0, seed)
+                    .run(crud.defaultMix());
+            scalingReport.print();
+            scalingReport.writeCsv(csvFile);
+
+            Allure.parameter("Levels", scalingReport.getLevels().size());
+            if (scalingReport.getModel() != null) {
+                Allure.parameter("USL Fit", scalingReport.getModel().toString());
+            }
+            try (InputStream curve = Files.newInputStream(csvFile)) {
+                Allure.addAttachment("Scaling Curve", "text/csv", curve, ".csv");
+            }
+        } catch (IOException e) {
+            Allure.addAttachment("Error", e.getMessage());
+            throw new RuntimeException("Failed to write scaling report: " + e.getMessage(), e);
+        } finally {
+            crud.cleanup();
+        }
+    }
+
+    @Step("Verify throughput with {workers} workers is at least {percent} percent of linear scaling")
+    @Then("Verify throughput with {int} workers is at least {int} percent of linear scaling")
+    public void verifyScalingEfficiency(int workers, int percent) {
+        assert scalingReport != null : "No scaling run was executed";
+        ScalabilityRunner.LevelResult level = scalingReport.level(workers);
+        double efficiency = scalingReport.efficiency(level) * 100;
+        assert efficiency >= percent : String.format("Throughput with %d workers is %.0f%% of linear scaling (%s)",
+                workers, efficiency, level);
+
+        Log.info("✓ {} workers reach {}% of linear scaling", workers, String.format("%.0f", efficiency));
+    }
+
+    private static Properties overrides(String key, String value) {
+        Properties properties = new Properties();
+        properties.setProperty(key, value);
+        return properties;
+    }
+}
@@ -0,0 +1,117 @@
+package petStore.stepDef;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Step;
+import petStore.common.ConfigurationReader;
+import petStore.load.ArrivalProcess;
+import petStore.load.CrudOperations;
+import petStore.load.LatencyHistogram;
+import petStore.load.OpenLoopScheduler;
+import petStore.load.OperationMix;
+import petStore.load.WorkloadProfile;
+import petStore.logging.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Workload Step Definitions
+ * Load tests written as a workload sentence (see WorkloadProfile) and checked against throughput,
+ * percentile and error-rate SLAs
+ */
+@Epic("Pet Store API")
+@Feature("Load & Soak")
+public class WorkloadStepDef {
+
+    private WorkloadProfile workload;
+    private OpenLoopScheduler.OpenLoopResult result;
+
+    @Step("Run a workload of {text}")
+    @Given("^a workload of (.+)$")
+    public void runWorkload(String text) {
+        long firstPetId = Long.parseLong(ConfigurationReader.get("workloadFirstPetId", "900000000"));
+        int poolSize = ConfigurationReader.getInt("openLoopPoolSize", 50);
+        long seed = Long.parseLong(ConfigurationReader.get("openLoopSeed", "42"));
+        ArrivalProcess defaultArrivals = ArrivalProcess.parse(ConfigurationReader.get("workloadArrivals", "poisson"));
+        Path csvFile = Paths.get("target", "workload", "latency.csv");
+
+        workload = WorkloadProfile.parse(text, defaultArrivals);
+        CrudOperations crud = new CrudOperations(firstPetId, poolSize);
+        // Compiled before seeding, so an unknown operation fails without touching the API
+        OperationMix mix = workload.compile(crud);
+        OpenLoopScheduler scheduler = workload.scheduler(seed);
+
+        try {
+            crud.seed();
+            result = scheduler.run(mix);
+            result.print();
+            result.writeCsv(csvFile);
+
+            Allure.parameter("Workload", workload.toString());
+            Allure.parameter("Achieved Rate (req/s)", String.format("%.1f", result.getAchievedRate()));
+            try (InputStream latency = Files.newInputStream(csvFile)) {
+                Allure.addAttachment("Workload Latency", "text/csv", latency, ".csv");
+            }
+        } catch (IOException e) {
+            Allure.addAttachment("Error", e.getMessage());
+            throw new RuntimeException("Failed to write workload report: " + e.getMessage(), e);
+        } finally {
+            crud.cleanup();
+        }
+    }
+
+    @Step("Verify workload throughput is at least {minRate} requests per second")
+    @Then("^the workload throughput is at least (\\d+(?:\\.\\d+)?) requests per second$")
+    public void verifyThroughput(double minRate) {
+        assert result != null : "No workload was run";
+        double achieved = result.getAchievedRate();
+        assert achieved >= minRate : String.format("Throughput %.1f req/s is below %.1f req/s (target %.1f req/s, %d unfinished)",
+                achieved, minRate, result.getTargetRate(), result.getUnfinished());
+
+        Log.info("✓ Workload throughput {} req/s is at least {} req/s", String.format("%.1f", achieved), minRate);
+    }
+
+    @Step("Verify workload p{percentile} {operation} response time is below {maxMs} ms")
+    @Then("^the workload p(\\d+(?:\\.\\d+)?)(?: (\\w+))? response time is below (\\d+) ms$")
+    public void verifyPercentile(double percentile, String operation, int maxMs) {
+        assert result != null : "No workload was run";
+        LatencyHistogram responseTime;
+        if (operation == null) {
+            responseTime = result.getResponseTime();
+        } else {
+            OpenLoopScheduler.OperationStats stats = result.getOperations().get(operation);
+            assert stats != null : "Operation '" + operation + "' is not part of the workload " + workload.getShares().keySet();
+            responseTime = stats.getResponseTime();
+        }
+        String subject = operation == null ? "" : operation + " ";
+        double measured = responseTime.percentileMs(percentile);
+        assert measured < maxMs : String.format("p%s %sresponse time %.1f ms (measured from intended send time) is not below %d ms",
+                format(percentile), subject, measured, maxMs);
+
+        Log.info("✓ Workload p{} {}response time {} ms is below {} ms", format(percentile), subject,
+                String.format("%.1f", measured), maxMs);
+    }
+
+    @Step("Verify workload error rate is below {maxPercent}%")
+    @Then("^the workload error rate is below (\\d+(?:\\.\\d+)?)%$")
+    public void verifyErrorRate(double maxPercent) {
+        assert result != null : "No workload was run";
+        long failed = result.getErrors() + result.getUnfinished();
+        double percent = result.getSent() == 0 ? 0 : failed * 100.0 / result.getSent();
+        assert percent < maxPercent : String.format("Error rate %.2f%% (%d error(s), %d unfinished of %d) is not below %s%%",
+                percent, result.getErrors(), result.getUnfinished(), result.getSent(), format(maxPercent));
+
+        Log.info("✓ Workload error rate {}% is below {}%", String.format("%.2f", percent), format(maxPercent));
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
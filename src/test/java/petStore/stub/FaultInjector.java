@@ -0,0 +1,398 @@
+package petStore.stub;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import petStore.common.ConfigurationReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fault Injector - Applies a FaultProfile per stub endpoint and keeps the history behind stale reads
+ * Every request draws its faults from a random source derived from (seed, endpoint, request number on that
+ * endpoint), so a run with the same seed and the same requests per endpoint gets the same faults, whatever
+ * the thread interleaving. Profiles come from configuration and can be replaced at runtime through the
+ * control endpoint (see StubServer).
+ *
+ * Stale reads: with consistencyLagMs on getPetById, GET pet/{id} returns the pet as it was consistencyLagMs
+ * ago (still there after a DELETE, 404 right after the POST that created it, previous version after a PUT).
+ */
+class FaultInjector {
+
+    static final List<String> ENDPOINTS =
+            List.of("addPet", "updatePet", "getPetById", "deletePet", "findByStatus", "uploadImage");
+
+    private static final String STALE_READ_ENDPOINT = "getPetById";
+
+    // Sweep expired write history every this many writes, for pets that are never read again
+    private static final int SWEEP_INTERVAL = 4096;
+
+    // Writes to one pet are serialized on one of these (power of two), outside the history map
+    private static final int WRITE_LOCKS = 64;
+
+    private final Map<String, FaultProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final Map<Long, List<Version>> history = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+    private final Object[] writeLocks = new Object[WRITE_LOCKS];
+    private volatile long seed;
+
+    private FaultInjector(long seed) {
+        this.seed = seed;
+        for (String endpoint : ENDPOINTS) {
+            profiles.put(endpoint, FaultProfile.NONE);
+            sequences.put(endpoint, new AtomicLong());
+            counters.put(endpoint, new Counters());
+        }
+        for (int i = 0; i < WRITE_LOCKS; i++) {
+            writeLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * @return Injector with the stubFault.* profiles and stubFaultSeed from configuration
+     */
+    static FaultInjector fromConfiguration() {
+        FaultInjector injector = new FaultInjector(Long.parseLong(ConfigurationReader.get("stubFaultSeed", "1").trim()));
+        injector.loadConfiguration();
+        return injector;
+    }
+
+    /**
+     * Draw the faults of the next request on an endpoint
+     * @param endpoint Endpoint name
+     * @return Faults to apply (Fault.NONE when the endpoint has no active profile)
+     */
+    Fault next(String endpoint) {
+        FaultProfile profile = profiles.getOrDefault(endpoint, FaultProfile.NONE);
+        if (!profile.isActive()) {
+            return Fault.NONE;
+        }
+        long sequence = sequences.get(endpoint).getAndIncrement();
+        SplittableRandom random = new SplittableRandom(mix(mix(seed ^ endpoint.hashCode()) + sequence));
+
+        // One draw picks at most one outcome, so each configured rate is the share of requests it gets
+        long latencyMs = profile.sampleLatencyMs(random);
+        double draw = random.nextDouble();
+
+        int status = 0;
+        boolean reset = false;
+        if (draw < profile.getResetRate()) {
+            reset = true;
+        } else if (draw < profile.getResetRate() + profile.getError429Rate()) {
+            status = 429;
+        } else if (draw < profile.getResetRate() + profile.getError429Rate() + profile.getError500Rate()) {
+            status = 500;
+        }
+
+        Counters count = counters.get(endpoint);
+        count.requests.increment();
+        if (latencyMs > 0) {
+            count.delayed.increment();
+            count.delayMs.add(latencyMs);
+        }
+        if (reset) {
+            count.resets.increment();
+        } else if (status == 429) {
+            count.errors429.increment();
+        } else if (status == 500) {
+            count.errors500.increment();
+        } else if (profile.getSlowBodyBytesPerSecond() > 0) {
+            count.slowBodies.increment();
+        }
+        return new Fault(latencyMs, reset, status, profile.getRetryAfterSeconds(), profile.getSlowBodyBytesPerSecond());
+    }
+
+    /**
+     * Run a write to a pet, remembering its previous state while stale reads are configured
+     * The write runs under a per-ID lock of the injector, never inside the history map, so a slow write does not
+     * block unrelated pets of the same map bin. It should not compact the store while that lock is held.
+     * @param id Pet ID
+     * @param before Reads the pet as it is before the write (null if absent)
+     * @param write Performs the write
+     * @return Result of the write
+     */
+    <T> T write(long id, Supplier<byte[]> before, Supplier<T> write) {
+        long lagNanos = lagNanos();
+        if (lagNanos == 0) {
+            return write.get();
+        }
+        T result;
+        // The lock serializes writes to one pet, so the captured state is exactly the one replaced
+        synchronized (writeLocks[(int) (mix(id) & (WRITE_LOCKS - 1))]) {
+            Version replaced = new Version(System.nanoTime(), before.get());
+            // Recorded before the write, so a read never sees the new state without the version it replaces
+            history.compute(id, (key, versions) -> {
+                List<Version> kept = new ArrayList<>();
+                if (versions != null) {
+                    for (Version version : versions) {
+                        if (replaced.writtenAtNanos - version.writtenAtNanos < lagNanos) {
+                            kept.add(version);
+                        }
+                    }
+                }
+                kept.add(replaced);
+                return Collections.unmodifiableList(kept);
+            });
+            result = write.get();
+        }
+        if (writes.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            sweep(lagNanos);
+        }
+        return result;
+    }
+
+    /**
+     * @param id Pet ID
+     * @return The state a lagging replica would serve: null if the current state is visible, otherwise a
+     * Version whose json is the older state (null json = not found)
+     */
+    Version staleRead(long id) {
+        long lagNanos = lagNanos();
+        List<Version> versions = history.get(id);
+        if (lagNanos == 0 || versions == null) {
+            return null;
+        }
+        long visibleAt = System.nanoTime() - lagNanos;
+        for (Version version : versions) {
+            // The first write the replica has not seen yet: it still serves the state before it
+            if (version.writtenAtNanos > visibleAt) {
+                counters.get(STALE_READ_ENDPOINT).staleReads.increment();
+                return version;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replace profiles (and optionally the seed) from a control request, e.g.
+     * {"seed": 7, "endpoints": {"getPetById": {"latency": "lognormal:50,0.5", "error500Rate": 0.1}}}
+     * Endpoints not listed keep their profile; listed ones get exactly the given settings.
+     * A new seed restarts the request numbering, so the same requests replay the same faults.
+     * @param control Control request body
+     * @throws IllegalArgumentException for unknown endpoints or invalid settings (nothing is changed then)
+     */
+    void apply(JsonObject control) {
+        Map<String, FaultProfile> updated = new LinkedHashMap<>();
+        JsonElement endpoints = control.get("endpoints");
+        if (endpoints != null && endpoints.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> endpoint : endpoints.getAsJsonObject().entrySet()) {
+                if (!ENDPOINTS.contains(endpoint.getKey())) {
+                    throw new IllegalArgumentException("Unknown endpoint '" + endpoint.getKey() + "', expected one of " + ENDPOINTS);
+                }
+                if (!endpoint.getValue().isJsonObject()) {
+                    throw new IllegalArgumentException("Settings of '" + endpoint.getKey() + "' must be an object");
+                }
+                Map<String, String> settings = new LinkedHashMap<>();
+                for (Map.Entry<String, JsonElement> setting : endpoint.getValue().getAsJsonObject().entrySet()) {
+                    if (!Arrays.asList(FaultProfile.SETTINGS).contains(setting.getKey())) {
+                        throw new IllegalArgumentException("Unknown setting '" + setting.getKey() + "', expected one of "
+                                + Arrays.toString(FaultProfile.SETTINGS));
+                    }
+                    settings.put(setting.getKey(), setting.getValue().getAsString());
+                }
+                updated.put(endpoint.getKey(), FaultProfile.parse(settings));
+            }
+        }
+        Long newSeed = control.has("seed") ? control.get("seed").getAsLong() : null;
+
+        profiles.putAll(updated);
+        if (newSeed != null) {
+            seed = newSeed;
+            sequences.values().forEach(sequence -> sequence.set(0));
+        }
+    }
+
+    /**
+     * Back to the configured profiles and seed, with request numbering and counters restarted
+     */
+    void reset() {
+        seed = Long.parseLong(ConfigurationReader.get("stubFaultSeed", "1").trim());
+        loadConfiguration();
+        sequences.values().forEach(sequence -> sequence.set(0));
+        counters.replaceAll((endpoint, count) -> new Counters());
+        history.clear();
+    }
+
+    /**
+     * @return Seed, profiles and injected fault counts, as served by the control endpoint
+     */
+    JsonObject describe() {
+        JsonObject state = new JsonObject();
+        state.addProperty("seed", seed);
+        JsonObject endpoints = new JsonObject();
+        for (String endpoint : ENDPOINTS) {
+            JsonObject settings = new JsonObject();
+            profiles.get(endpoint).asMap().forEach((name, value) -> {
+                if (value instanceof Number) {
+                    settings.addProperty(name, (Number) value);
+                } else {
+                    settings.addProperty(name, String.valueOf(value));
+                }
+            });
+            settings.add("injected", counters.get(endpoint).describe());
+            endpoints.add(endpoint, settings);
+        }
+        state.add("endpoints", endpoints);
+        return state;
+    }
+
+    /**
+     * @return Endpoints that inject something, with their profile
+     */
+    Map<String, FaultProfile> activeProfiles() {
+        Map<String, FaultProfile> active = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            if (profiles.get(endpoint).isActive()) {
+                active.put(endpoint, profiles.get(endpoint));
+            }
+        }
+        return active;
+    }
+
+    private void loadConfiguration() {
+        for (String endpoint : ENDPOINTS) {
+            profiles.put(endpoint, FaultProfile.fromConfiguration(endpoint));
+        }
+    }
+
+    private long lagNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(profiles.get(STALE_READ_ENDPOINT).getConsistencyLagMs());
+    }
+
+    /**
+     * SplitMix64 finalizer: neighbouring request numbers get unrelated random streams
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private void sweep(long lagNanos) {
+        long now = System.nanoTime();
+        for (Long id : history.keySet()) {
+            history.computeIfPresent(id, (key, versions) ->
+                    now - versions.get(versions.size() - 1).writtenAtNanos < lagNanos ? versions : null);
+        }
+    }
+
+    /**
+     * State of a pet before one write
+     */
+    static class Version {
+        private final long writtenAtNanos;
+        private final byte[] json;
+
+        Version(long writtenAtNanos, byte[] json) {
+            this.writtenAtNanos = writtenAtNanos;
+            this.json = json;
+        }
+
+        /**
+         * @return Pet JSON before the write, or null if the pet did not exist
+         */
+        byte[] getJson() {
+            return json;
+        }
+    }
+
+    /**
+     * Faults drawn for one request
+     */
+    static class Fault {
+        static final Fault NONE = new Fault(0, false, 0, 0, 0);
+
+        private final long latencyMs;
+        private final boolean reset;
+        private final int status;
+        private final int retryAfterSeconds;
+        private final long bytesPerSecond;
+
+        Fault(long latencyMs, boolean reset, int status, int retryAfterSeconds, long bytesPerSecond) {
+            this.latencyMs = latencyMs;
+            this.reset = reset;
+            this.status = status;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        /**
+         * Wait for the injected latency
+         */
+        void delay() {
+            if (latencyMs <= 0) {
+                return;
+            }
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long getLatencyMs() {
+            return latencyMs;
+        }
+
+        /**
+         * @return true if the connection is to be dropped without a response
+         */
+        boolean isReset() {
+            return reset;
+        }
+
+        /**
+         * @return Injected error status (429 or 500), or 0 to serve the request
+         */
+        int getStatus() {
+            return status;
+        }
+
+        int getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        /**
+         * @return Response body write rate, 0 = unthrottled
+         */
+        long getBytesPerSecond() {
+            return bytesPerSecond;
+        }
+    }
+
+    private static class Counters {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder delayed = new LongAdder();
+        private final LongAdder delayMs = new LongAdder();
+        private final LongAdder resets = new LongAdder();
+        private final LongAdder errors429 = new LongAdder();
+        private final LongAdder errors500 = new LongAdder();
+        private final LongAdder slowBodies = new LongAdder();
+        private final LongAdder staleReads = new LongAdder();
+
+        JsonObject describe() {
+            JsonObject counts = new JsonObject();
+            counts.addProperty("requests", requests.sum());
+            counts.addProperty("delayed", delayed.sum());
+            counts.addProperty("delayMs", delayMs.sum());
+            counts.addProperty("resets", resets.sum());
+            counts.addProperty("errors429", errors429.sum());
+            counts.addProperty("errors500", errors500.sum());
+            counts.addProperty("slowBodies", slowBodies.sum());
+            counts.addProperty("staleReads", staleReads.sum());
+            return counts;
+        }
+    }
+}
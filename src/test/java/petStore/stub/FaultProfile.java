@@ -0,0 +1,203 @@
+package petStore.stub;
+
+import petStore.common.ConfigurationReader;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fault Profile - How one stub endpoint misbehaves: added latency, error rates, resets, slow bodies, stale reads
+ * Settings (all optional, as stubFault.&lt;endpoint&gt;.&lt;setting&gt; with stubFault.all.&lt;setting&gt; as fallback,
+ * or as fields of a JSON object sent to the control endpoint):
+ * <ul>
+ *   <li>latency: none, fixed:MS, uniform:MIN-MAX, normal:MEAN,SD, lognormal:MEDIAN,SIGMA or exponential:MEAN</li>
+ *   <li>error500Rate, error429Rate, resetRate: share (0-1) of requests, at most 1 together; retryAfterSeconds for 429</li>
+ *   <li>slowBodyBytesPerSecond: response body write rate (0 = unthrottled)</li>
+ *   <li>consistencyLagMs (getPetById only): GET by ID sees the pet as it was this long ago</li>
+ * </ul>
+ */
+public class FaultProfile {
+
+    static final String[] SETTINGS = {"latency", "error500Rate", "error429Rate", "retryAfterSeconds", "resetRate",
+            "slowBodyBytesPerSecond", "consistencyLagMs"};
+
+    static final FaultProfile NONE = parse(Map.of());
+
+    private final String latency;
+    private final double error500Rate;
+    private final double error429Rate;
+    private final int retryAfterSeconds;
+    private final double resetRate;
+    private final long slowBodyBytesPerSecond;
+    private final long consistencyLagMs;
+
+    // Parsed latency distribution: kind and up to two parameters in ms
+    private final String kind;
+    private final double first;
+    private final double second;
+
+    private FaultProfile(Map<String, String> settings) {
+        this.latency = settings.getOrDefault("latency", "none").trim().toLowerCase(Locale.ROOT);
+        this.error500Rate = rate(settings, "error500Rate");
+        this.error429Rate = rate(settings, "error429Rate");
+        this.retryAfterSeconds = (int) number(settings, "retryAfterSeconds", 1);
+        this.resetRate = rate(settings, "resetRate");
+        this.slowBodyBytesPerSecond = (long) number(settings, "slowBodyBytesPerSecond", 0);
+        this.consistencyLagMs = (long) number(settings, "consistencyLagMs", 0);
+        if (error500Rate + error429Rate + resetRate > 1) {
+            throw new IllegalArgumentException("error500Rate + error429Rate + resetRate must not exceed 1");
+        }
+
+        String[] spec = latency.split(":", 2);
+        this.kind = spec[0];
+        String[] parameters = spec.length > 1 ? spec[1].split("[,-]") : new String[0];
+        try {
+            this.first = parameters.length > 0 ? Double.parseDouble(parameters[0].trim()) : 0;
+            this.second = parameters.length > 1 ? Double.parseDouble(parameters[1].trim()) : 0;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency '" + latency + "'", e);
+        }
+        switch (kind) {
+            case "none":
+            case "fixed":
+            case "exponential":
+                break;
+            case "uniform":
+            case "normal":
+            case "lognormal":
+                if (parameters.length < 2) {
+                    throw new IllegalArgumentException("Latency '" + latency + "' needs two parameters");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown latency distribution '" + latency
+                        + "', expected none, fixed, uniform, normal, lognormal or exponential");
+        }
+    }
+
+    /**
+     * @param settings Setting name to value (see class comment); missing settings mean no fault
+     * @return Profile
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static FaultProfile parse(Map<String, String> settings) {
+        return new FaultProfile(settings);
+    }
+
+    /**
+     * @param endpoint Endpoint name (see StubServer)
+     * @return Profile from stubFault.&lt;endpoint&gt;.* and stubFault.all.* configuration keys
+     */
+    public static FaultProfile fromConfiguration(String endpoint) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        for (String setting : SETTINGS) {
+            String key = "stubFault." + endpoint + "." + setting;
+            String fallback = "stubFault.all." + setting;
+            if (ConfigurationReader.hasProperty(key)) {
+                settings.put(setting, ConfigurationReader.get(key));
+            } else if (ConfigurationReader.hasProperty(fallback)) {
+                settings.put(setting, ConfigurationReader.get(fallback));
+            }
+        }
+        return parse(settings);
+    }
+
+    /**
+     * @param random Random source of the request
+     * @return Latency to add, in ms
+     */
+    long sampleLatencyMs(SplittableRandom random) {
+        double ms;
+        switch (kind) {
+            case "fixed":
+                ms = first;
+                break;
+            case "uniform":
+                ms = first + random.nextDouble() * (second - first);
+                break;
+            case "normal":
+                ms = first + random.nextGaussian() * second;
+                break;
+            case "lognormal":
+                ms = first * Math.exp(random.nextGaussian() * second);
+                break;
+            case "exponential":
+                ms = -first * Math.log(1 - random.nextDouble());
+                break;
+            default:
+                ms = 0;
+        }
+        return Math.max(0, Math.round(ms));
+    }
+
+    boolean isActive() {
+        return !kind.equals("none") || error500Rate > 0 || error429Rate > 0 || resetRate > 0
+                || slowBodyBytesPerSecond > 0 || consistencyLagMs > 0;
+    }
+
+    public double getError500Rate() {
+        return error500Rate;
+    }
+
+    public double getError429Rate() {
+        return error429Rate;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public double getResetRate() {
+        return resetRate;
+    }
+
+    public long getSlowBodyBytesPerSecond() {
+        return slowBodyBytesPerSecond;
+    }
+
+    public long getConsistencyLagMs() {
+        return consistencyLagMs;
+    }
+
+    /**
+     * @return Settings as they would be configured
+     */
+    Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("latency", latency);
+        map.put("error500Rate", error500Rate);
+        map.put("error429Rate", error429Rate);
+        map.put("retryAfterSeconds", retryAfterSeconds);
+        map.put("resetRate", resetRate);
+        map.put("slowBodyBytesPerSecond", slowBodyBytesPerSecond);
+        map.put("consistencyLagMs", consistencyLagMs);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private static double rate(Map<String, String> settings, String name) {
+        double rate = number(settings, name, 0);
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1, got " + rate);
+        }
+        return rate;
+    }
+
+    private static double number(Map<String, String> settings, String name, double defaultValue) {
+        String value = settings.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number, got '" + value + "'", e);
+        }
+    }
+}
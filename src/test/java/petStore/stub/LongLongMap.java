@@ -0,0 +1,167 @@
+package petStore.stub;
+
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Long Long Map - Open-addressing hash map from primitive long keys to primitive long values
+ * No boxing and two flat arrays instead of one entry object per pet: a few million entries cost
+ * tens of megabytes and no GC pressure. Linear probing with backward-shift deletion (no tombstones).
+ * Not thread-safe: StubPetStore guards each map with its stripe lock.
+ */
+final class LongLongMap {
+
+    static final long NO_VALUE = Long.MIN_VALUE;
+
+    // Marks a free slot; never a valid pet ID
+    private static final long FREE = Long.MIN_VALUE;
+    private static final double MAX_LOAD = 0.6;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    LongLongMap() {
+        allocate(16);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Value for the key, or NO_VALUE
+     */
+    long get(long key) {
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * @return Previous value for the key, or NO_VALUE
+     */
+    long put(long key, long value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * @return Removed value, or NO_VALUE if the key was not present
+     */
+    long remove(long key) {
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                long previous = values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Copy all values into a new array
+     */
+    long[] values() {
+        long[] copy = new long[size];
+        int next = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                copy[next++] = values[slot];
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Replace every value in place (keys and slots stay where they are)
+     * @param update Receives key and current value, returns the new value
+     */
+    void updateValues(LongBinaryOperator update) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                values[slot] = update.applyAsLong(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Close the gap left at a removed slot by moving later entries of the same probe run back
+     */
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = keys[slot];
+            if (key == FREE) {
+                break;
+            }
+            int home = slot(key);
+            // Entry may move to the gap only if its home is not cyclically within (gap, slot]
+            boolean movable = gap <= slot ? (home <= gap || home > slot) : (home <= gap && home > slot);
+            if (movable) {
+                keys[gap] = key;
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = FREE;
+    }
+
+    private int slot(long key) {
+        // Pet IDs are often sequential; mix the bits so they spread over the table
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != FREE) {
+                int target = slot(oldKeys[slot]);
+                while (keys[target] != FREE) {
+                    target = (target + 1) & mask;
+                }
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+}
@@ -0,0 +1,89 @@
+package petStore.stub;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Long Long Map Test - Removal with backward shift keeps every other key reachable, checked against a HashMap
+ */
+public class LongLongMapTest {
+
+    @Test
+    public void removingEveryOtherKeyKeepsTheRest() {
+        LongLongMap map = new LongLongMap();
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key, key * 10);
+        }
+        for (long key = 2; key <= 10_000; key += 2) {
+            Assert.assertEquals(key * 10, map.remove(key));
+        }
+
+        Assert.assertEquals(5_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            Assert.assertEquals("Key " + key, key % 2 == 0 ? LongLongMap.NO_VALUE : key * 10, map.get(key));
+        }
+        Assert.assertEquals(LongLongMap.NO_VALUE, map.remove(2));
+    }
+
+    /**
+     * Few distinct keys in small tables, so probe runs are long and wrap around the end of the table
+     */
+    @Test
+    public void randomPutsAndRemovesMatchAHashMap() {
+        for (int seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            LongLongMap map = new LongLongMap();
+            Map<Long, Long> expected = new HashMap<>();
+            int keyRange = 4 + random.nextInt(60);
+
+            for (int step = 0; step < 2_000; step++) {
+                long key = random.nextInt(keyRange) - keyRange / 2;
+                if (random.nextInt(3) == 0) {
+                    Long previous = expected.remove(key);
+                    Assert.assertEquals(previous == null ? LongLongMap.NO_VALUE : previous, map.remove(key));
+                } else {
+                    long value = random.nextLong() & Long.MAX_VALUE;
+                    Long previous = expected.put(key, value);
+                    Assert.assertEquals(previous == null ? LongLongMap.NO_VALUE : previous, map.put(key, value));
+                }
+                assertSame("seed " + seed + " step " + step, expected, map, keyRange);
+            }
+        }
+    }
+
+    @Test
+    public void updateValuesAndValuesSeeOnlyLiveEntries() {
+        LongLongMap map = new LongLongMap();
+        for (long key = 0; key < 100; key++) {
+            map.put(key, key);
+        }
+        for (long key = 0; key < 100; key += 3) {
+            map.remove(key);
+        }
+        map.updateValues((key, value) -> value + 1_000);
+
+        List<Long> values = new ArrayList<>();
+        for (long value : map.values()) {
+            values.add(value);
+        }
+        Assert.assertEquals(map.size(), values.size());
+        for (long key = 0; key < 100; key++) {
+            Assert.assertEquals(key % 3 == 0 ? LongLongMap.NO_VALUE : key + 1_000, map.get(key));
+            Assert.assertEquals(key % 3 != 0, values.contains(key + 1_000));
+        }
+    }
+
+    private static void assertSame(String message, Map<Long, Long> expected, LongLongMap map, int keyRange) {
+        Assert.assertEquals(message, expected.size(), map.size());
+        for (long key = -keyRange; key <= keyRange; key++) {
+            Long value = expected.get(key);
+            Assert.assertEquals(message + " key " + key, value == null ? LongLongMap.NO_VALUE : value, map.get(key));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package petStore.stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Multipart Scanner - Streams a multipart/form-data body once, without buffering file contents
+ * Part boundaries are found with a KMP matcher on the delimiter (CRLF "--" boundary). For every part the
+ * headers and the first FIELD_CAPTURE_BYTES of the content are kept (enough for form fields), and the full
+ * content size is counted, so multi-hundred-megabyte uploads cost constant memory.
+ */
+final class MultipartScanner {
+
+    private static final int HEADER_LIMIT = 16 * 1024;
+    private static final int FIELD_CAPTURE_BYTES = 8 * 1024;
+    private static final Pattern NAME = Pattern.compile("(?i)\\bname=\"([^\"]*)\"");
+    private static final Pattern FILE_NAME = Pattern.compile("(?i)\\bfilename=\"([^\"]*)\"");
+
+    private MultipartScanner() {
+    }
+
+    /**
+     * @param contentType Content-Type header of the request (carries the boundary)
+     * @param body Request body
+     * @return Parts by control name, in body order
+     * @throws IOException if the body cannot be read or the content type has no boundary
+     */
+    static Map<String, Part> scan(String contentType, InputStream body) throws IOException {
+        int start = contentType == null ? -1 : contentType.indexOf("boundary=");
+        if (start < 0) {
+            throw new IOException("Not a multipart body: " + contentType);
+        }
+        String boundary = contentType.substring(start + "boundary=".length()).split(";")[0].trim().replace("\"", "");
+        byte[] delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        int[] fallback = failureTable(delimiter);
+
+        Map<String, Part> parts = new LinkedHashMap<>();
+        Part part = new Part();
+        int matched = 0;
+        byte[] buffer = new byte[64 * 1024];
+        // The first delimiter has no CRLF before it; feed one so the same matcher finds it
+        boolean first = true;
+        int read;
+        while ((read = first ? 2 : body.read(buffer)) >= 0) {
+            if (first) {
+                buffer[0] = '\r';
+                buffer[1] = '\n';
+                first = false;
+            }
+            for (int i = 0; i < read; i++) {
+                byte value = buffer[i];
+                while (matched > 0 && delimiter[matched] != value) {
+                    int keep = fallback[matched - 1];
+                    // Bytes that fell out of the partial match were content
+                    part.write(delimiter, 0, matched - keep);
+                    matched = keep;
+                }
+                if (delimiter[matched] == value) {
+                    matched++;
+                    if (matched == delimiter.length) {
+                        part.finish(parts);
+                        part = new Part();
+                        matched = 0;
+                    }
+                } else {
+                    part.write(value);
+                }
+            }
+        }
+        return parts;
+    }
+
+    private static int[] failureTable(byte[] pattern) {
+        int[] table = new int[pattern.length];
+        int length = 0;
+        for (int i = 1; i < pattern.length; i++) {
+            while (length > 0 && pattern[i] != pattern[length]) {
+                length = table[length - 1];
+            }
+            if (pattern[i] == pattern[length]) {
+                length++;
+            }
+            table[i] = length;
+        }
+        return table;
+    }
+
+    /**
+     * One part: its headers, the start of its content and the content size
+     */
+    static final class Part {
+        private static final int END_OF_HEADERS = 0x0D0A0D0A;
+
+        private final ByteArrayOutputStream headers = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        private boolean inContent;
+        private int lastFour;
+        private long size;
+        private String name;
+        private String fileName;
+
+        String getFileName() {
+            return fileName;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        /**
+         * @return Content as text (only the first FIELD_CAPTURE_BYTES are kept)
+         */
+        String text() {
+            return new String(captured.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        private void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+
+        private void write(byte value) {
+            if (inContent) {
+                size++;
+                if (captured.size() < FIELD_CAPTURE_BYTES) {
+                    captured.write(value);
+                }
+                return;
+            }
+            if (headers.size() < HEADER_LIMIT) {
+                headers.write(value);
+            }
+            // Headers end at the first empty line (the part starts with the CRLF after the delimiter)
+            lastFour = (lastFour << 8) | (value & 0xFF);
+            if (lastFour == END_OF_HEADERS && headers.size() >= 6) {
+                inContent = true;
+                String text = new String(headers.toByteArray(), StandardCharsets.UTF_8);
+                name = group(NAME, text);
+                fileName = group(FILE_NAME, text);
+            }
+        }
+
+        private void finish(Map<String, Part> parts) {
+            if (inContent && name != null) {
+                parts.put(name, this);
+            }
+        }
+
+        private static String group(Pattern pattern, String text) {
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package petStore.stub;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Pet Arena - Append-only log of pet records in large buffers, addressed by a long handle
+ * Each PUT/POST appends one record (id, status, JSON body); the maps of StubPetStore only hold handles, so
+ * millions of pets live in a few big buffers instead of millions of objects. Records are never modified,
+ * so readers copy them without a lock once they got a handle from the store.
+ *
+ * In memory the buffers are heap chunks. Backed by a file they are memory-mapped chunks of the file:
+ * deletes are appended as tombstones, the end of the log is written to the header on close, and reopening
+ * the file replays only the record headers (not the JSON) to rebuild the maps, so a seeded dataset of
+ * millions of pets is back in seconds. Space of replaced and deleted records is reclaimed by StubPetStore,
+ * which copies the live records into a fresh arena (see {@link #copy(PetArena, long)}) and drops this one.
+ */
+final class PetArena implements Closeable {
+
+    static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private static final long MAGIC = 0x5045544152454E41L; // "PETARENA"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 64;
+    private static final int RECORD_HEADER_BYTES = 16;
+    private static final int TOMBSTONE = -1;
+    private static final int SKIP_TO_NEXT_CHUNK = -2;
+
+    private final int chunkBits;
+    private final int chunkSize;
+    private final FileChannel file;
+    // Replaced (never modified) when a chunk is added, so readers need no lock
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private long end;
+
+    private PetArena(int chunkBits, FileChannel file) {
+        this.chunkBits = chunkBits;
+        this.chunkSize = 1 << chunkBits;
+        this.file = file;
+    }
+
+    /**
+     * @return Arena in heap buffers of 16 MB
+     */
+    static PetArena inMemory() {
+        PetArena arena = new PetArena(24, null);
+        arena.end = FILE_HEADER_BYTES;
+        return arena;
+    }
+
+    /**
+     * Open (or create) a file-backed arena mapped in chunks of 256 MB
+     * @param path Arena file
+     * @return Arena; call {@link #replay(RecordVisitor)} to rebuild the index of an existing file
+     * @throws IOException if the file cannot be opened or is not an arena file
+     */
+    static PetArena mapped(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PetArena arena = new PetArena(28, channel);
+        if (channel.size() == 0) {
+            arena.end = FILE_HEADER_BYTES;
+            arena.writeHeader();
+            return arena;
+        }
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getLong() != MAGIC || header.getInt() != VERSION || header.getInt() != arena.chunkBits) {
+            channel.close();
+            throw new IOException(path + " is not a pet arena file (version " + VERSION + ")");
+        }
+        arena.end = header.getLong();
+        return arena;
+    }
+
+    boolean isPersistent() {
+        return file != null;
+    }
+
+    /**
+     * Append a pet record
+     * @return Handle of the record
+     */
+    long append(long id, String status, byte[] json) {
+        byte[] statusBytes = status.getBytes(StandardCharsets.UTF_8);
+        int size = align(RECORD_HEADER_BYTES + statusBytes.length + json.length);
+        if (size > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Pet record of " + size + " bytes exceeds " + MAX_RECORD_BYTES);
+        }
+        long handle = reserve(size);
+        ByteBuffer chunk = chunk(handle);
+        int offset = offset(handle);
+        chunk.putLong(offset, id);
+        chunk.putInt(offset + 8, json.length);
+        chunk.putShort(offset + 12, (short) statusBytes.length);
+        chunk.put(offset + RECORD_HEADER_BYTES, statusBytes);
+        chunk.put(offset + RECORD_HEADER_BYTES + statusBytes.length, json);
+        return handle;
+    }
+
+    /**
+     * Record a delete (file-backed arenas only; in memory there is nothing to replay)
+     */
+    void appendTombstone(long id) {
+        if (file == null) {
+            return;
+        }
+        long handle = reserve(RECORD_HEADER_BYTES);
+        ByteBuffer chunk = chunk(handle);
+        chunk.putLong(offset(handle), id);
+        chunk.putInt(offset(handle) + 8, TOMBSTONE);
+        chunk.putShort(offset(handle) + 12, (short) 0);
+    }
+
+    /**
+     * Append a copy of a record of another arena
+     * @return Handle of the copy in this arena
+     */
+    long copy(PetArena source, long handle) {
+        return append(source.chunk(handle).getLong(source.offset(handle)), source.status(handle), source.json(handle));
+    }
+
+    /**
+     * @return Bytes the record takes in the log, including header and padding
+     */
+    int recordBytes(long handle) {
+        ByteBuffer chunk = chunk(handle);
+        int offset = offset(handle);
+        return align(RECORD_HEADER_BYTES + chunk.getShort(offset + 12) + chunk.getInt(offset + 8));
+    }
+
+    /**
+     * @return Bytes one tombstone takes in the log (0 in memory, where deletes append nothing)
+     */
+    int tombstoneBytes() {
+        return file == null ? 0 : RECORD_HEADER_BYTES;
+    }
+
+    String status(long handle) {
+        ByteBuffer chunk = chunk(handle);
+        int offset = offset(handle);
+        byte[] status = new byte[chunk.getShort(offset + 12)];
+        chunk.get(offset + RECORD_HEADER_BYTES, status);
+        return new String(status, StandardCharsets.UTF_8);
+    }
+
+    byte[] json(long handle) {
+        ByteBuffer chunk = chunk(handle);
+        int offset = offset(handle);
+        byte[] json = new byte[chunk.getInt(offset + 8)];
+        chunk.get(offset + RECORD_HEADER_BYTES + chunk.getShort(offset + 12), json);
+        return json;
+    }
+
+    /**
+     * Copy a record's JSON to a stream through a caller-owned buffer (no allocation per pet)
+     */
+    void writeJson(long handle, OutputStream out, byte[] scratch) throws IOException {
+        ByteBuffer chunk = chunk(handle);
+        int offset = offset(handle);
+        int remaining = chunk.getInt(offset + 8);
+        int position = offset + RECORD_HEADER_BYTES + chunk.getShort(offset + 12);
+        while (remaining > 0) {
+            int length = Math.min(remaining, scratch.length);
+            chunk.get(position, scratch, 0, length);
+            out.write(scratch, 0, length);
+            position += length;
+            remaining -= length;
+        }
+    }
+
+    /**
+     * Visit every record in append order (file-backed arenas, before serving requests)
+     */
+    void replay(RecordVisitor visitor) {
+        long position = FILE_HEADER_BYTES;
+        while (position < end) {
+            int offset = (int) (position & (chunkSize - 1));
+            if (chunkSize - offset < RECORD_HEADER_BYTES) {
+                position = nextChunk(position);
+                continue;
+            }
+            ByteBuffer chunk = chunk(position);
+            long id = chunk.getLong(offset);
+            int jsonLength = chunk.getInt(offset + 8);
+            if (jsonLength == SKIP_TO_NEXT_CHUNK) {
+                position = nextChunk(position);
+            } else if (jsonLength == TOMBSTONE) {
+                visitor.deleted(id);
+                position += RECORD_HEADER_BYTES;
+            } else {
+                int statusLength = chunk.getShort(offset + 12);
+                byte[] status = new byte[statusLength];
+                chunk.get(offset + RECORD_HEADER_BYTES, status);
+                visitor.stored(id, new String(status, StandardCharsets.UTF_8), position);
+                position += align(RECORD_HEADER_BYTES + statusLength + jsonLength);
+            }
+        }
+    }
+
+    /**
+     * @return Bytes used by records so far
+     */
+    synchronized long usedBytes() {
+        return end - FILE_HEADER_BYTES;
+    }
+
+    /**
+     * Write the end of the log to the header and flush mapped chunks to disk
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (file == null || !file.isOpen()) {
+            return;
+        }
+        writeHeader();
+        for (ByteBuffer chunk : chunks) {
+            ((MappedByteBuffer) chunk).force();
+        }
+        file.force(true);
+        file.close();
+    }
+
+    /**
+     * Write the end of the log to the header and flush, keeping the arena open
+     */
+    synchronized void sync() throws IOException {
+        if (file == null) {
+            return;
+        }
+        writeHeader();
+        for (ByteBuffer chunk : chunks) {
+            ((MappedByteBuffer) chunk).force();
+        }
+        file.force(true);
+    }
+
+    /**
+     * Give up an arena replaced by a compacted copy: the file is closed without writing its header
+     * Readers still holding a handle keep reading the buffers; they are freed once unreachable.
+     */
+    synchronized void release() throws IOException {
+        if (file != null && file.isOpen()) {
+            file.close();
+        }
+    }
+
+    private synchronized long reserve(int size) {
+        long position = end;
+        int offset = (int) (position & (chunkSize - 1));
+        if (offset + size > chunkSize) {
+            if (chunkSize - offset >= RECORD_HEADER_BYTES) {
+                chunk(position).putInt(offset + 8, SKIP_TO_NEXT_CHUNK);
+            }
+            position = nextChunk(position);
+        }
+        end = position + size;
+        chunk(position);
+        return position;
+    }
+
+    private long nextChunk(long position) {
+        return ((position >>> chunkBits) + 1) << chunkBits;
+    }
+
+    private ByteBuffer chunk(long handle) {
+        int index = (int) (handle >>> chunkBits);
+        ByteBuffer[] current = chunks;
+        if (index < current.length) {
+            return current[index];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (index >= current.length) {
+                ByteBuffer[] grown = Arrays.copyOf(current, index + 1);
+                for (int i = current.length; i <= index; i++) {
+                    grown[i] = newChunk(i);
+                }
+                chunks = grown;
+                current = grown;
+            }
+            return current[index];
+        }
+    }
+
+    private ByteBuffer newChunk(int index) {
+        if (file == null) {
+            return ByteBuffer.allocate(chunkSize);
+        }
+        try {
+            return file.map(FileChannel.MapMode.READ_WRITE, (long) index << chunkBits, chunkSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not map chunk " + index + " of the pet arena", e);
+        }
+    }
+
+    private int offset(long handle) {
+        return (int) (handle & (chunkSize - 1));
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        header.putLong(MAGIC).putInt(VERSION).putInt(chunkBits).putLong(end);
+        header.rewind();
+        file.write(header, 0);
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * Receives the records of a file-backed arena in append order
+     */
+    interface RecordVisitor {
+        void stored(long id, String status, long handle);
+
+        void deleted(long id);
+    }
+}
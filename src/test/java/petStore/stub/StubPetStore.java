@@ -0,0 +1,427 @@
+package petStore.stub;
+
+import petStore.common.ConfigurationReader;
+import petStore.logging.Log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stub Pet Store - Data layer of the local stub backend, sized for millions of pets
+ * Pets are spread over lock stripes by ID; each stripe holds a primitive long map from pet ID to the
+ * handle of its record in the PetArena, plus one such map per status as secondary index. Pet map and
+ * index of an ID live in the same stripe and change under the same lock, so findByStatus never sees a
+ * pet under its old and new status at once, and reads the index instead of scanning every pet.
+ * Concurrent requests only contend when their IDs fall into the same stripe.
+ *
+ * Replaced and deleted records stay in the arena until they make up stubCompactGarbagePercent of it (and the
+ * arena holds at least stubCompactMinMb): then the live records are copied into a fresh arena while every
+ * stripe is locked, so the arena tracks the live data instead of growing with every write. Readers take the
+ * arena and the handle under the same stripe lock, so a read racing a compaction finishes on the old arena.
+ * A mapped store compacts into a side file that then replaces the original.
+ */
+public class StubPetStore implements Closeable {
+
+    private static final long COMPACT_MIN_BYTES = ConfigurationReader.getInt("stubCompactMinMb", 64) * 1024L * 1024L;
+    private static final int COMPACT_GARBAGE_PERCENT = ConfigurationReader.getInt("stubCompactGarbagePercent", 50);
+
+    // Replaced only by compact(), while every stripe lock is held
+    private volatile PetArena arena;
+    private final Path file;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    // Bytes of the records the maps point to; the rest of the arena is garbage
+    private final AtomicLong liveBytes = new AtomicLong();
+    private final Object compactionLock = new Object();
+    private final long compactMinBytes;
+    private final int compactGarbagePercent;
+    private long compactions;
+
+    private StubPetStore(PetArena arena, Path file, int stripes, long compactMinBytes, int compactGarbagePercent) {
+        this.arena = arena;
+        this.file = file;
+        this.compactMinBytes = compactMinBytes;
+        this.compactGarbagePercent = compactGarbagePercent;
+        int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * @param stripes Number of lock stripes (rounded up to a power of two)
+     * @return Empty store kept in memory
+     */
+    public static StubPetStore inMemory(int stripes) {
+        return inMemory(stripes, COMPACT_MIN_BYTES, COMPACT_GARBAGE_PERCENT);
+    }
+
+    /**
+     * @param stripes Number of lock stripes (rounded up to a power of two)
+     * @param compactMinBytes Arena size below which writes never compact
+     * @param compactGarbagePercent Share of garbage in the arena that makes a write compact
+     * @return Empty store kept in memory, compacting at the given thresholds instead of the configured ones
+     */
+    static StubPetStore inMemory(int stripes, long compactMinBytes, int compactGarbagePercent) {
+        return new StubPetStore(PetArena.inMemory(), null, stripes, compactMinBytes, compactGarbagePercent);
+    }
+
+    /**
+     * Open a store persisted in a memory-mapped file, replaying the pets already in it
+     * @param file Arena file (created if missing)
+     * @param stripes Number of lock stripes (rounded up to a power of two)
+     * @return Store with the pets of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static StubPetStore mapped(Path file, int stripes) throws IOException {
+        long start = System.nanoTime();
+        StubPetStore store = new StubPetStore(PetArena.mapped(file), file, stripes, COMPACT_MIN_BYTES,
+                COMPACT_GARBAGE_PERCENT);
+        store.arena.replay(new PetArena.RecordVisitor() {
+            @Override
+            public void stored(long id, String status, long handle) {
+                store.index(id, status, handle);
+            }
+
+            @Override
+            public void deleted(long id) {
+                store.unindex(id);
+            }
+        });
+        Log.info("✓ Stub pet store {} opened: {} pet(s) in {} ms", file, store.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return store;
+    }
+
+    /**
+     * Add or replace a pet
+     * @param id Pet ID
+     * @param status Pet status ("" if the pet has none; such pets are not indexed)
+     * @param json Pet JSON as returned by GET
+     * @return true if the pet existed before
+     */
+    public boolean put(long id, String status, byte[] json) {
+        boolean existed = putWithoutCompaction(id, status, json);
+        compactIfWasteful();
+        return existed;
+    }
+
+    /**
+     * Add or replace a pet without compacting, for callers that hold a lock of their own during the write
+     * and run compactIfWasteful() once they released it
+     * @return true if the pet existed before
+     */
+    boolean putWithoutCompaction(long id, String status, byte[] json) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            // Appended under the stripe lock, so the log order of one ID is the order the store applied
+            return index(stripe, id, status, arena.append(id, status, json));
+        }
+    }
+
+    /**
+     * @param id Pet ID
+     * @return Pet JSON, or null if there is no such pet
+     */
+    public byte[] get(long id) {
+        long handle;
+        PetArena current;
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            handle = stripe.pets.get(id);
+            current = arena;
+        }
+        return handle == LongLongMap.NO_VALUE ? null : current.json(handle);
+    }
+
+    /**
+     * @param id Pet ID
+     * @return true if the pet existed
+     */
+    public boolean delete(long id) {
+        boolean existed = deleteWithoutCompaction(id);
+        if (existed) {
+            compactIfWasteful();
+        }
+        return existed;
+    }
+
+    /**
+     * Delete a pet without compacting (see putWithoutCompaction)
+     * @return true if the pet existed
+     */
+    boolean deleteWithoutCompaction(long id) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            if (!unindex(stripe, id)) {
+                return false;
+            }
+            arena.appendTombstone(id);
+        }
+        return true;
+    }
+
+    /**
+     * Write the JSON of every pet with the status to the stream, separated by commas (no brackets)
+     * Handles are copied per stripe under its lock; the records are written without holding it.
+     * @param status Pet status
+     * @param out Stream receiving the pets
+     * @param first true if no element precedes these in the JSON array being written
+     * @return Number of pets written
+     * @throws IOException if the stream fails
+     */
+    public long writeByStatus(String status, OutputStream out, boolean first) throws IOException {
+        byte[] scratch = new byte[8192];
+        long written = 0;
+        for (Stripe stripe : stripes) {
+            long[] handles;
+            PetArena current;
+            synchronized (stripe) {
+                LongLongMap index = stripe.byStatus.get(status);
+                if (index == null || index.size() == 0) {
+                    continue;
+                }
+                handles = index.values();
+                current = arena;
+            }
+            for (long handle : handles) {
+                if (!first || written > 0) {
+                    out.write(',');
+                }
+                current.writeJson(handle, out, scratch);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * @param status Pet status
+     * @return Number of pets with the status (from the index, no scan)
+     */
+    public long countByStatus(String status) {
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                LongLongMap index = stripe.byStatus.get(status);
+                count += index == null ? 0 : index.size();
+            }
+        }
+        return count;
+    }
+
+    public long size() {
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.pets.size();
+            }
+        }
+        return count;
+    }
+
+    public boolean isPersistent() {
+        return arena.isPersistent();
+    }
+
+    /**
+     * @return Bytes of pet records in the arena (including replaced and deleted ones not compacted yet)
+     */
+    public long arenaBytes() {
+        return arena.usedBytes();
+    }
+
+    /**
+     * @return Bytes of the current version of every pet
+     */
+    public long liveBytes() {
+        return liveBytes.get();
+    }
+
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * Copy the live records into a fresh arena and drop the old one
+     * Every stripe stays locked while the records are copied, so requests wait for the copy of the live data.
+     * @throws IOException if a mapped store cannot write or swap its compacted file
+     */
+    public void compact() throws IOException {
+        synchronized (compactionLock) {
+            long start = System.nanoTime();
+            long before = arena.usedBytes();
+            PetArena[] replaced = new PetArena[1];
+            lockStripes(0, () -> replaced[0] = copyLiveRecords());
+            replaced[0].release();
+            synchronized (this) {
+                compactions++;
+            }
+            Log.info("🧹 Stub pet store compacted from {} to {} MB in {} ms", before / (1024 * 1024),
+                    arena.usedBytes() / (1024 * 1024), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Flush a mapped store to its file
+     */
+    @Override
+    public void close() throws IOException {
+        arena.close();
+    }
+
+    private void index(long id, String status, long handle) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            index(stripe, id, status, handle);
+        }
+    }
+
+    private void unindex(long id) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            unindex(stripe, id);
+        }
+    }
+
+    /**
+     * @return true if the pet existed; caller holds the stripe lock
+     */
+    private boolean index(Stripe stripe, long id, String status, long handle) {
+        long previous = stripe.index(id, status, handle, arena);
+        long delta = arena.recordBytes(handle);
+        if (previous != LongLongMap.NO_VALUE) {
+            delta -= arena.recordBytes(previous);
+        }
+        liveBytes.addAndGet(delta);
+        return previous != LongLongMap.NO_VALUE;
+    }
+
+    /**
+     * @return true if the pet existed; caller holds the stripe lock
+     */
+    private boolean unindex(Stripe stripe, long id) {
+        long previous = stripe.unindex(id, arena);
+        if (previous == LongLongMap.NO_VALUE) {
+            return false;
+        }
+        liveBytes.addAndGet(-arena.recordBytes(previous));
+        return true;
+    }
+
+    /**
+     * Compact once garbage (replaced records and tombstones) reaches the configured share of a large enough arena
+     */
+    void compactIfWasteful() {
+        long used = arena.usedBytes();
+        if (used < compactMinBytes || (used - liveBytes.get()) * 100 < used * compactGarbagePercent) {
+            return;
+        }
+        try {
+            synchronized (compactionLock) {
+                // Another writer may have compacted while this one waited
+                used = arena.usedBytes();
+                if ((used - liveBytes.get()) * 100 >= used * compactGarbagePercent) {
+                    compact();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not compact the stub pet store: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Nest the monitors of stripes[from..] (always in index order, so two callers cannot deadlock), then run
+     */
+    private void lockStripes(int from, IoAction action) throws IOException {
+        if (from == stripes.length) {
+            action.run();
+            return;
+        }
+        synchronized (stripes[from]) {
+            lockStripes(from + 1, action);
+        }
+    }
+
+    /**
+     * Copy what the maps point to into a new arena and swap it in; every stripe lock is held
+     * @return The replaced arena
+     */
+    private PetArena copyLiveRecords() throws IOException {
+        PetArena source = arena;
+        Path compacting = file == null ? null : file.resolveSibling(file.getFileName() + ".compacting");
+        if (compacting != null) {
+            Files.deleteIfExists(compacting);
+        }
+        PetArena target = compacting == null ? PetArena.inMemory() : PetArena.mapped(compacting);
+        for (Stripe stripe : stripes) {
+            stripe.pets.updateValues((id, handle) -> {
+                long moved = target.copy(source, handle);
+                String status = source.status(handle);
+                if (!status.isEmpty()) {
+                    stripe.byStatus.get(status).put(id, moved);
+                }
+                return moved;
+            });
+        }
+        if (compacting != null) {
+            target.sync();
+            Files.move(compacting, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        arena = target;
+        return source;
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    private Stripe stripe(long id) {
+        long hash = id * 0xC2B2AE3D27D4EB4FL;
+        return stripes[(int) (hash >>> 40) & stripeMask];
+    }
+
+    /**
+     * Pets of one stripe and their status index; guarded by the stripe's monitor
+     */
+    private static final class Stripe {
+        private final LongLongMap pets = new LongLongMap();
+        private final Map<String, LongLongMap> byStatus = new HashMap<>();
+
+        long index(long id, String status, long handle, PetArena arena) {
+            long previous = pets.put(id, handle);
+            if (previous != LongLongMap.NO_VALUE) {
+                removeFromIndex(id, arena.status(previous));
+            }
+            if (!status.isEmpty()) {
+                byStatus.computeIfAbsent(status, key -> new LongLongMap()).put(id, handle);
+            }
+            return previous;
+        }
+
+        long unindex(long id, PetArena arena) {
+            long previous = pets.remove(id);
+            if (previous != LongLongMap.NO_VALUE) {
+                removeFromIndex(id, arena.status(previous));
+            }
+            return previous;
+        }
+
+        private void removeFromIndex(long id, String status) {
+            LongLongMap index = byStatus.get(status);
+            if (index != null) {
+                index.remove(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package petStore.stub;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Stub Pet Store Test - Compaction (explicit and triggered by writes) keeps every live pet and drops the garbage
+ */
+public class StubPetStoreTest {
+
+    private static final String[] STATUSES = {"available", "pending", "sold"};
+
+    @Test
+    public void compactKeepsEveryLivePetAndItsStatus() throws IOException {
+        StubPetStore store = StubPetStore.inMemory(4, Long.MAX_VALUE, 50);
+        Map<Long, String> expected = churn(store, new Random(47), 2_000, 10_000);
+
+        store.compact();
+
+        Assert.assertEquals(1, store.getCompactions());
+        Assert.assertEquals(store.liveBytes(), store.arenaBytes());
+        assertHolds(store, expected, 2_000);
+    }
+
+    @Test
+    public void writesCompactOnceGarbageReachesTheThreshold() throws IOException {
+        StubPetStore store = StubPetStore.inMemory(4, 64 * 1024, 50);
+        Map<Long, String> expected = churn(store, new Random(48), 300, 20_000);
+
+        Assert.assertTrue("Expected compactions, got " + store.getCompactions(), store.getCompactions() > 0);
+        // Compacted whenever garbage reached half the arena, so it never holds much more than twice the live data
+        Assert.assertTrue(store.arenaBytes() + " bytes in the arena for " + store.liveBytes() + " live",
+                store.arenaBytes() <= 2 * store.liveBytes() + 64 * 1024);
+        assertHolds(store, expected, 300);
+    }
+
+    @Test
+    public void mappedStoreReopensWithEveryLivePetAfterCompaction() throws IOException {
+        Path file = Files.createTempFile("stub-pets-", ".arena");
+        try {
+            Map<Long, String> expected;
+            try (StubPetStore store = StubPetStore.mapped(file, 4)) {
+                expected = churn(store, new Random(49), 500, 3_000);
+                store.compact();
+                assertHolds(store, expected, 500);
+            }
+            try (StubPetStore reopened = StubPetStore.mapped(file, 4)) {
+                assertHolds(reopened, expected, 500);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".compacting"));
+        }
+    }
+
+    /**
+     * Random puts (new and replaced pets, changing status) and deletes over IDs 1..pets
+     * @return JSON each live pet must have
+     */
+    private static Map<Long, String> churn(StubPetStore store, Random random, int pets, int writes) {
+        Map<Long, String> expected = new HashMap<>();
+        for (int write = 0; write < writes; write++) {
+            long id = 1 + random.nextInt(pets);
+            if (random.nextInt(5) == 0) {
+                Assert.assertEquals(expected.remove(id) != null, store.delete(id));
+            } else {
+                String status = STATUSES[random.nextInt(STATUSES.length)];
+                String json = "{\"id\":" + id + ",\"name\":\"pet-" + write + "\",\"status\":\"" + status + "\"}";
+                Assert.assertEquals(expected.put(id, json) != null,
+                        store.put(id, status, json.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        return expected;
+    }
+
+    private static void assertHolds(StubPetStore store, Map<Long, String> expected, int pets) throws IOException {
+        Assert.assertEquals(expected.size(), store.size());
+        for (long id = 1; id <= pets; id++) {
+            byte[] json = store.get(id);
+            Assert.assertEquals("Pet " + id, expected.get(id), json == null ? null : new String(json, StandardCharsets.UTF_8));
+        }
+        for (String status : STATUSES) {
+            long count = expected.values().stream().filter(json -> json.contains("\"status\":\"" + status + "\"")).count();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assert.assertEquals(status, count, store.writeByStatus(status, out, true));
+            Assert.assertEquals(status, count, store.countByStatus(status));
+        }
+    }
+}
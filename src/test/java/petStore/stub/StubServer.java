@@ -0,0 +1,445 @@
+package petStore.stub;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import petStore.common.ConfigurationReader;
+import petStore.logging.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stub Server - Local stand-in for the Petstore pet endpoints used by PetReqSpec, for offline load tests
+ * Serves POST/PUT pet, GET/DELETE pet/{id}, GET pet/findByStatus and POST pet/{id}/uploadImage with the
+ * status codes and error bodies of petstore.swagger.io, backed by a StubPetStore (in memory, or
+ * memory-mapped with stubDataFile so a seeded dataset survives restarts).
+ *
+ * Started by Hooks before the first scenario when stubEnabled=true (point baseUri or env.local.baseUri
+ * at it), or standalone: java -cp <test classpath> petStore.stub.StubServer
+ *
+ * Latency, 500/429 errors, connection resets, slow bodies and stale reads can be injected per endpoint
+ * (addPet, updatePet, getPetById, deletePet, findByStatus, uploadImage) with stubFault.* settings, or at
+ * runtime through /stub/faults (see FaultProfile and FaultInjector). Faults are reproducible from stubFaultSeed.
+ */
+public class StubServer {
+
+    private static final String[] SEED_STATUSES = {"available", "pending", "sold"};
+    private static final byte[] NO_BODY = new byte[0];
+    private static final String CONTROL_PATH = "/stub/faults";
+
+    private static StubServer running;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final StubPetStore store;
+    private final String basePath;
+    private final FaultInjector faults;
+    private final AtomicLong generatedIds = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private StubServer(HttpServer server, ExecutorService executor, StubPetStore store, String basePath, FaultInjector faults) {
+        this.server = server;
+        this.executor = executor;
+        this.store = store;
+        this.basePath = basePath;
+        this.faults = faults;
+    }
+
+    /**
+     * Start a stub server
+     * @param port Port to listen on (0 = any free port)
+     * @param basePath Path prefix of the API, e.g. /v2/
+     * @param threads Request handler threads
+     * @param store Data layer
+     * @return Running server, with the fault profiles from configuration
+     * @throws IOException if the port cannot be bound
+     */
+    public static StubServer start(int port, String basePath, int threads, StubPetStore store) throws IOException {
+        String prefix = (basePath.startsWith("/") ? "" : "/") + basePath + (basePath.endsWith("/") ? "" : "/");
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "stub-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(executor);
+        FaultInjector faults = FaultInjector.fromConfiguration();
+        StubServer stub = new StubServer(server, executor, store, prefix, faults);
+        server.createContext(prefix + "pet", stub::handle);
+        server.createContext(CONTROL_PATH, stub::control);
+        server.start();
+        Log.info("🧪 Stub Petstore listening on http://localhost:{}{} ({} pet(s), {})", stub.getPort(), prefix,
+                store.size(), store.isPersistent() ? "memory-mapped" : "in memory");
+        if (!faults.activeProfiles().isEmpty()) {
+            Log.info("🧪 Stub fault injection active (seed {}): {}", ConfigurationReader.get("stubFaultSeed", "1"), faults.activeProfiles());
+        }
+        return stub;
+    }
+
+    /**
+     * Start the configured stub once per JVM when stubEnabled=true (called by Hooks before the first scenario)
+     */
+    public static synchronized void startIfEnabled() {
+        if (running != null || !ConfigurationReader.getBoolean("stubEnabled", false)) {
+            return;
+        }
+        try {
+            running = startConfigured();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the stub Petstore: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stop the stub started by {@link #startIfEnabled()}, flushing a memory-mapped store
+     */
+    public static synchronized void stopIfStarted() {
+        if (running != null) {
+            running.stop();
+            running = null;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        StubServer stub = startConfigured();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::stop, "stub-shutdown"));
+        Log.info("Press Ctrl+C to stop");
+        Log.flush();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public StubPetStore getStore() {
+        return store;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            store.close();
+        } catch (IOException e) {
+            Log.warn("⚠️ Could not flush the stub pet store: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Add pets straight into the store (no HTTP), unless a persisted store already holds the seeded range
+     * @param store Store to fill
+     * @param count Pets to add
+     * @param firstId ID of the first pet; statuses cycle through available, pending, sold
+     */
+    public static void seed(StubPetStore store, long count, long firstId) {
+        if (count <= 0 || (store.get(firstId) != null && store.get(firstId + count - 1) != null)) {
+            return;
+        }
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            long id = firstId + i;
+            String status = SEED_STATUSES[(int) (i % SEED_STATUSES.length)];
+            String json = "{\"id\":" + id + ",\"category\":{\"id\":1,\"name\":\"seed\"},\"name\":\"Seed" + i
+                    + "\",\"photoUrls\":[\"string\"],\"tags\":[{\"id\":1,\"name\":\"seed\"}],\"status\":\"" + status + "\"}";
+            store.put(id, status, json.getBytes(StandardCharsets.UTF_8));
+        }
+        Log.info("🌱 Seeded {} stub pet(s) from ID {} in {} ms", count, firstId,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static StubServer startConfigured() throws IOException {
+        int stripes = ConfigurationReader.getInt("stubStripes", 64);
+        String dataFile = ConfigurationReader.get("stubDataFile", "").trim();
+        StubPetStore store = dataFile.isEmpty() ? StubPetStore.inMemory(stripes) : StubPetStore.mapped(Paths.get(dataFile), stripes);
+        seed(store, Long.parseLong(ConfigurationReader.get("stubSeedPets", "0").trim()),
+                Long.parseLong(ConfigurationReader.get("stubSeedFirstId", "1000000000").trim()));
+        return start(ConfigurationReader.getInt("stubPort", 8080), ConfigurationReader.get("stubBasePath", "/v2/"),
+                ConfigurationReader.getInt("stubThreads", 64), store);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().substring((basePath + "pet").length());
+            String[] segments = path.replaceAll("^/+|/+$", "").split("/");
+
+            String endpoint;
+            if (path.replace("/", "").isEmpty()) {
+                endpoint = method.equals("POST") ? "addPet" : method.equals("PUT") ? "updatePet" : null;
+            } else if (segments.length == 1 && segments[0].equals("findByStatus") && method.equals("GET")) {
+                endpoint = "findByStatus";
+            } else if (segments.length == 1 && method.equals("GET")) {
+                endpoint = "getPetById";
+            } else if (segments.length == 1 && method.equals("DELETE")) {
+                endpoint = "deletePet";
+            } else if (segments.length == 2 && segments[1].equals("uploadImage") && method.equals("POST")) {
+                endpoint = "uploadImage";
+            } else {
+                endpoint = null;
+            }
+            if (endpoint == null) {
+                send(exchange, 405, NO_BODY);
+                return;
+            }
+            if (!injectFaults(exchange, faults.next(endpoint))) {
+                return;
+            }
+
+            switch (endpoint) {
+                case "addPet":
+                case "updatePet":
+                    savePet(exchange);
+                    break;
+                case "findByStatus":
+                    findByStatus(exchange);
+                    break;
+                case "getPetById":
+                    getPet(exchange, segments[0]);
+                    break;
+                case "deletePet":
+                    deletePet(exchange, segments[0]);
+                    break;
+                default:
+                    uploadImage(exchange);
+            }
+        } catch (RuntimeException e) {
+            Log.warn("⚠️ Stub failed on {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.toString());
+            send(exchange, 500, apiResponse(500, "unknown", "something bad happened"));
+        }
+    }
+
+    /**
+     * Apply the faults drawn for a request before it is served
+     * @return false if the request was already answered (error status) or dropped (reset)
+     */
+    private static boolean injectFaults(HttpExchange exchange, FaultInjector.Fault fault) throws IOException {
+        if (fault == FaultInjector.Fault.NONE) {
+            return true;
+        }
+        fault.delay();
+        if (fault.isReset()) {
+            // Closing an exchange that sent no headers closes the connection: the client gets no response at all
+            return false;
+        }
+        if (fault.getStatus() == 429) {
+            exchange.getResponseHeaders().add("Retry-After", String.valueOf(fault.getRetryAfterSeconds()));
+            send(exchange, 429, apiResponse(429, "unknown", "too many requests"));
+            return false;
+        }
+        if (fault.getStatus() == 500) {
+            send(exchange, 500, apiResponse(500, "unknown", "something bad happened"));
+            return false;
+        }
+        if (fault.getBytesPerSecond() > 0) {
+            exchange.setStreams(null, new ThrottledOutputStream(exchange.getResponseBody(), fault.getBytesPerSecond()));
+        }
+        return true;
+    }
+
+    /**
+     * Control endpoint: GET shows the fault profiles and counts, PUT/POST replaces profiles (see
+     * FaultInjector#apply), DELETE goes back to the configured profiles
+     */
+    private void control(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            switch (exchange.getRequestMethod()) {
+                case "GET":
+                    break;
+                case "PUT":
+                case "POST":
+                    try {
+                        JsonElement body = JsonParser.parseString(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                        if (!body.isJsonObject()) {
+                            throw new IllegalArgumentException("Expected a JSON object");
+                        }
+                        faults.apply(body.getAsJsonObject());
+                    } catch (JsonParseException | IllegalArgumentException | UnsupportedOperationException | IllegalStateException e) {
+                        send(exchange, 400, apiResponse(400, "unknown", e.getMessage()));
+                        return;
+                    }
+                    Log.info("🧪 Stub fault profiles changed: {}", faults.activeProfiles());
+                    break;
+                case "DELETE":
+                    faults.reset();
+                    break;
+                default:
+                    send(exchange, 405, NO_BODY);
+                    return;
+            }
+            send(exchange, 200, faults.describe().toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void savePet(HttpExchange exchange) throws IOException {
+        JsonObject pet;
+        try {
+            JsonElement body = JsonParser.parseString(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            if (!body.isJsonObject()) {
+                send(exchange, 400, apiResponse(400, "unknown", "bad input"));
+                return;
+            }
+            pet = body.getAsJsonObject();
+        } catch (JsonParseException e) {
+            send(exchange, 400, apiResponse(400, "unknown", "bad input"));
+            return;
+        }
+
+        long id;
+        JsonElement idElement = pet.get("id");
+        if (idElement == null || idElement.isJsonNull()) {
+            id = generatedIds.incrementAndGet();
+        } else {
+            try {
+                id = idElement.getAsLong();
+            } catch (NumberFormatException | UnsupportedOperationException | IllegalStateException e) {
+                // The real Petstore fails to map a non-numeric id with a 500
+                send(exchange, 500, apiResponse(500, "unknown", "something bad happened"));
+                return;
+            }
+        }
+        pet.add("id", new JsonPrimitive(id));
+        JsonElement status = pet.get("status");
+        byte[] json = pet.toString().getBytes(StandardCharsets.UTF_8);
+        long petId = id;
+        String statusValue = status == null || status.isJsonNull() ? "" : status.getAsString();
+        faults.write(petId, () -> store.get(petId), () -> store.putWithoutCompaction(petId, statusValue, json));
+        store.compactIfWasteful();
+        send(exchange, 200, json);
+    }
+
+    private void getPet(HttpExchange exchange, String rawId) throws IOException {
+        Long id = parseId(exchange, rawId);
+        if (id == null) {
+            return;
+        }
+        FaultInjector.Version stale = faults.staleRead(id);
+        byte[] json = stale != null ? stale.getJson() : store.get(id);
+        if (json == null) {
+            send(exchange, 404, apiResponse(1, "error", "Pet not found"));
+        } else {
+            send(exchange, 200, json);
+        }
+    }
+
+    private void deletePet(HttpExchange exchange, String rawId) throws IOException {
+        Long id = parseId(exchange, rawId);
+        if (id == null) {
+            return;
+        }
+        boolean existed = faults.write(id, () -> store.get(id), () -> store.deleteWithoutCompaction(id));
+        store.compactIfWasteful();
+        if (existed) {
+            send(exchange, 200, apiResponse(200, "unknown", String.valueOf(id)));
+        } else {
+            send(exchange, 404, NO_BODY);
+        }
+    }
+
+    /**
+     * Streams the matching pets (chunked) instead of building the whole array
+     */
+    private void findByStatus(HttpExchange exchange) throws IOException {
+        Set<String> statuses = new LinkedHashSet<>();
+        for (String value : queryValues(exchange.getRequestURI().getRawQuery(), "status")) {
+            for (String status : value.split(",")) {
+                if (!status.isBlank()) {
+                    statuses.add(status.trim());
+                }
+            }
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = new BufferedOutputStream(exchange.getResponseBody(), 64 * 1024)) {
+            out.write('[');
+            long written = 0;
+            for (String status : statuses) {
+                written += store.writeByStatus(status, out, written == 0);
+            }
+            out.write(']');
+        }
+    }
+
+    private void uploadImage(HttpExchange exchange) throws IOException {
+        Map<String, MultipartScanner.Part> parts =
+                MultipartScanner.scan(exchange.getRequestHeaders().getFirst("Content-Type"), exchange.getRequestBody());
+        MultipartScanner.Part file = parts.get("file");
+        if (file == null) {
+            send(exchange, 415, apiResponse(415, "unknown", "No file part in the request"));
+            return;
+        }
+        MultipartScanner.Part metadata = parts.get("additionalMetadata");
+        String message = "additionalMetadata: " + (metadata == null ? "null" : metadata.text())
+                + "\nFile uploaded to ./" + file.getFileName() + ", " + file.getSize() + " bytes";
+        send(exchange, 200, apiResponse(200, "unknown", message));
+    }
+
+    /**
+     * @return Numeric pet ID, or null after answering 404 like the real Petstore does for non-numeric IDs
+     */
+    private static Long parseId(HttpExchange exchange, String rawId) throws IOException {
+        try {
+            long id = Long.parseLong(rawId);
+            if (id == Long.MIN_VALUE) {
+                throw new NumberFormatException("For input string: \"" + rawId + "\"");
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            send(exchange, 404, apiResponse(404, "unknown", "java.lang.NumberFormatException: For input string: \"" + rawId + "\""));
+            return null;
+        }
+    }
+
+    private static List<String> queryValues(String rawQuery, String name) {
+        List<String> values = new ArrayList<>();
+        if (rawQuery == null) {
+            return values;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8).equals(name)) {
+                values.add(URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    private static byte[] apiResponse(int code, String type, String message) {
+        JsonObject response = new JsonObject();
+        response.addProperty("code", code);
+        response.addProperty("type", type);
+        response.addProperty("message", message);
+        return response.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        // Drain what the handler did not read, so the connection can be reused
+        exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+        if (body.length > 0) {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+        }
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            exchange.getResponseBody().write(body);
+        }
+    }
+}
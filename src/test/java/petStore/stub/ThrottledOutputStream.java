@@ -0,0 +1,65 @@
+package petStore.stub;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttled Output Stream - Writes a response body at a fixed rate, for slow-body faults
+ * Data goes out in slices of about 50 ms worth of bytes, each flushed and followed by a pause, so the
+ * client sees a trickling body rather than one late burst.
+ */
+class ThrottledOutputStream extends FilterOutputStream {
+
+    private final long bytesPerSecond;
+    private final int sliceBytes;
+    private final long startNanos = System.nanoTime();
+    private long written;
+
+    /**
+     * @param out Stream to write to
+     * @param bytesPerSecond Target rate (at least 1)
+     */
+    ThrottledOutputStream(OutputStream out, long bytesPerSecond) {
+        super(out);
+        this.bytesPerSecond = Math.max(1, bytesPerSecond);
+        this.sliceBytes = (int) Math.max(1, Math.min(64 * 1024, this.bytesPerSecond / 20));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int slice = Math.min(len, sliceBytes);
+            out.write(b, off, slice);
+            out.flush();
+            written += slice;
+            off += slice;
+            len -= slice;
+            pace();
+        }
+    }
+
+    /**
+     * Sleep until the bytes written so far are due at the target rate
+     */
+    private void pace() throws InterruptedIOException {
+        long dueNanos = startNanos + TimeUnit.SECONDS.toNanos(1) * written / bytesPerSecond;
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while throttling the response body");
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package petStore.validation;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Compiled Schema - JSON schema turned into a tree of validation nodes
+ * Compiled once, then validated while streaming over a response body with Gson's JsonReader,
+ * so no intermediate String or object tree is built for the body.
+ *
+ * Supported keywords: type, properties, required, additionalProperties (boolean),
+ * items, enum, format (int32/int64), minimum, maximum, minLength, maxLength, minItems, maxItems,
+ * and $ref to another schema file in the same folder.
+ */
+public class CompiledSchema {
+
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 1 << 1;
+    private static final int STRING = 1 << 2;
+    private static final int INTEGER = 1 << 3;
+    private static final int NUMBER = 1 << 4;
+    private static final int BOOLEAN = 1 << 5;
+    private static final int NULL = 1 << 6;
+    private static final int ANY = OBJECT | ARRAY | STRING | INTEGER | NUMBER | BOOLEAN | NULL;
+
+    private final String name;
+    private final Node root;
+
+    /**
+     * Compile a parsed schema
+     * @param name Schema name used in messages
+     * @param schema Parsed schema JSON
+     * @param refResolver Resolves "$ref" values to compiled schemas
+     */
+    CompiledSchema(String name, JsonObject schema, Function<String, CompiledSchema> refResolver) {
+        this.name = name;
+        this.root = compile(schema, refResolver);
+    }
+
+    /**
+     * Get schema name
+     * @return Schema name (resource file name)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Validate a JSON document, collecting every violation
+     * @param json JSON body as a stream (UTF-8)
+     * @return List of violations, empty if the document is valid
+     */
+    public List<String> validate(InputStream json) {
+        return validate(new InputStreamReader(json, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Validate a JSON document, collecting every violation
+     * @param json JSON body
+     * @return List of violations, empty if the document is valid
+     */
+    public List<String> validate(Reader json) {
+        List<String> violations = new ArrayList<>();
+
+        try (JsonReader reader = new JsonReader(json)) {
+            reader.setStrictness(Strictness.STRICT);
+            validate(reader, root, new JsonPointer(), violations);
+            // A valid root followed by anything but whitespace is still not one JSON document
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                violations.add("$: unexpected content after the JSON document");
+            }
+        } catch (IOException | IllegalStateException e) {
+            violations.add("$: body is not valid JSON (" + e.getMessage() + ")");
+        }
+
+        return violations;
+    }
+
+    private void validate(JsonReader reader, Node node, JsonPointer path, List<String> violations) throws IOException {
+        JsonToken token = reader.peek();
+
+        switch (token) {
+            case BEGIN_OBJECT:
+                if (!node.allows(OBJECT, path, "object", violations)) {
+                    reader.skipValue();
+                    return;
+                }
+                validateObject(reader, node, path, violations);
+                break;
+
+            case BEGIN_ARRAY:
+                if (!node.allows(ARRAY, path, "array", violations)) {
+                    reader.skipValue();
+                    return;
+                }
+                validateArray(reader, node, path, violations);
+                break;
+
+            case STRING:
+                String text = reader.nextString();
+                if (node.allows(STRING, path, "string", violations)) {
+                    node.checkString(text, path, violations);
+                }
+                break;
+
+            case NUMBER:
+                String number = reader.nextString();
+                boolean integral = isIntegral(number);
+                if (node.allows(integral ? INTEGER | NUMBER : NUMBER, path, integral ? "integer" : "number", violations)) {
+                    node.checkNumber(number, integral, path, violations);
+                }
+                break;
+
+            case BOOLEAN:
+                reader.nextBoolean();
+                node.allows(BOOLEAN, path, "boolean", violations);
+                break;
+
+            case NULL:
+                reader.nextNull();
+                node.allows(NULL, path, "null", violations);
+                break;
+
+            default:
+                reader.skipValue();
+                violations.add(path + ": unexpected token " + token);
+        }
+    }
+
+    private void validateObject(JsonReader reader, Node node, JsonPointer path, List<String> violations) throws IOException {
+        boolean[] seen = new boolean[node.required.length];
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String property = reader.nextName();
+
+            for (int i = 0; i < node.required.length; i++) {
+                if (node.required[i].equals(property)) {
+                    seen[i] = true;
+                }
+            }
+
+            Node child = node.properties.get(property);
+            if (child != null) {
+                path.push(property);
+                validate(reader, child.resolve(), path, violations);
+                path.pop();
+            } else {
+                if (!node.additionalProperties) {
+                    violations.add(path + ": unexpected property '" + property + "'");
+                }
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        for (int i = 0; i < seen.length; i++) {
+            if (!seen[i]) {
+                violations.add(path + ": missing required property '" + node.required[i] + "'");
+            }
+        }
+    }
+
+    private void validateArray(JsonReader reader, Node node, JsonPointer path, List<String> violations) throws IOException {
+        int count = 0;
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (node.items != null) {
+                path.push(count);
+                validate(reader, node.items.resolve(), path, violations);
+                path.pop();
+            } else {
+                reader.skipValue();
+            }
+            count++;
+        }
+        reader.endArray();
+
+        if (node.minItems >= 0 && count < node.minItems) {
+            violations.add(path + ": expected at least " + node.minItems + " items but got " + count);
+        }
+        if (node.maxItems >= 0 && count > node.maxItems) {
+            violations.add(path + ": expected at most " + node.maxItems + " items but got " + count);
+        }
+    }
+
+    private static boolean isIntegral(String number) {
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Node compile(JsonObject schema, Function<String, CompiledSchema> refResolver) {
+        Node node = new Node();
+
+        if (schema.has("$ref")) {
+            String ref = schema.get("$ref").getAsString();
+            node.ref = () -> refResolver.apply(ref).root;
+            return node;
+        }
+
+        node.types = schema.has("type") ? types(schema.get("type")) : ANY;
+
+        if (schema.has("properties")) {
+            for (Map.Entry<String, JsonElement> property : schema.getAsJsonObject("properties").entrySet()) {
+                node.properties.put(property.getKey(), compile(property.getValue().getAsJsonObject(), refResolver));
+            }
+        }
+
+        if (schema.has("required")) {
+            JsonArray required = schema.getAsJsonArray("required");
+            node.required = new String[required.size()];
+            for (int i = 0; i < required.size(); i++) {
+                node.required[i] = required.get(i).getAsString();
+            }
+        }
+
+        if (schema.has("additionalProperties")) {
+            node.additionalProperties = schema.get("additionalProperties").getAsBoolean();
+        }
+
+        if (schema.has("items")) {
+            node.items = compile(schema.getAsJsonObject("items"), refResolver);
+        }
+
+        if (schema.has("enum")) {
+            node.enumValues = new LinkedHashSet<>();
+            for (JsonElement value : schema.getAsJsonArray("enum")) {
+                node.enumValues.add(value.getAsString());
+            }
+        }
+
+        if (schema.has("format")) {
+            node.format = schema.get("format").getAsString();
+        }
+
+        node.minimum = schema.has("minimum") ? schema.get("minimum").getAsDouble() : Double.NaN;
+        node.maximum = schema.has("maximum") ? schema.get("maximum").getAsDouble() : Double.NaN;
+        node.minLength = schema.has("minLength") ? schema.get("minLength").getAsInt() : -1;
+        node.maxLength = schema.has("maxLength") ? schema.get("maxLength").getAsInt() : -1;
+        node.minItems = schema.has("minItems") ? schema.get("minItems").getAsInt() : -1;
+        node.maxItems = schema.has("maxItems") ? schema.get("maxItems").getAsInt() : -1;
+
+        return node;
+    }
+
+    private static int types(JsonElement type) {
+        if (type.isJsonArray()) {
+            int mask = 0;
+            for (JsonElement element : type.getAsJsonArray()) {
+                mask |= types(element);
+            }
+            return mask;
+        }
+
+        switch (type.getAsString()) {
+            case "object":
+                return OBJECT;
+            case "array":
+                return ARRAY;
+            case "string":
+                return STRING;
+            case "integer":
+                return INTEGER;
+            case "number":
+                return NUMBER | INTEGER;
+            case "boolean":
+                return BOOLEAN;
+            case "null":
+                return NULL;
+            default:
+                throw new IllegalArgumentException("Unsupported schema type: " + type);
+        }
+    }
+
+    /**
+     * Single compiled schema node
+     */
+    private static class Node {
+        private int types = ANY;
+        private final Map<String, Node> properties = new HashMap<>();
+        private String[] required = new String[0];
+        private boolean additionalProperties = true;
+        private Node items;
+        private Set<String> enumValues;
+        private String format;
+        private double minimum = Double.NaN;
+        private double maximum = Double.NaN;
+        private int minLength = -1;
+        private int maxLength = -1;
+        private int minItems = -1;
+        private int maxItems = -1;
+        private Supplier<Node> ref;
+        private Node resolved;
+
+        /**
+         * Follow "$ref" (resolved on first use, so schemas may reference each other)
+         */
+        Node resolve() {
+            if (ref == null) {
+                return this;
+            }
+            if (resolved == null) {
+                resolved = ref.get();
+            }
+            return resolved;
+        }
+
+        boolean allows(int actualType, JsonPointer path, String actualName, List<String> violations) {
+            if ((types & actualType) != 0) {
+                return true;
+            }
+            violations.add(path + ": expected " + describe(types) + " but got " + actualName);
+            return false;
+        }
+
+        void checkString(String value, JsonPointer path, List<String> violations) {
+            if (enumValues != null && !enumValues.contains(value)) {
+                violations.add(path + ": value '" + value + "' is not one of " + enumValues);
+            }
+            if (minLength >= 0 && value.length() < minLength) {
+                violations.add(path + ": length " + value.length() + " is below minLength " + minLength);
+            }
+            if (maxLength >= 0 && value.length() > maxLength) {
+                violations.add(path + ": length " + value.length() + " is above maxLength " + maxLength);
+            }
+        }
+
+        void checkNumber(String value, boolean integral, JsonPointer path, List<String> violations) {
+            if (integral && format != null) {
+                try {
+                    long parsed = Long.parseLong(value);
+                    if ("int32".equals(format) && (parsed < Integer.MIN_VALUE || parsed > Integer.MAX_VALUE)) {
+                        violations.add(path + ": value " + value + " does not fit int32");
+                    }
+                } catch (NumberFormatException e) {
+                    violations.add(path + ": value " + value + " does not fit " + format);
+                }
+            }
+
+            if (!Double.isNaN(minimum) || !Double.isNaN(maximum)) {
+                double parsed = Double.parseDouble(value);
+                if (!Double.isNaN(minimum) && parsed < minimum) {
+                    violations.add(path + ": value " + value + " is below minimum " + minimum);
+                }
+                if (!Double.isNaN(maximum) && parsed > maximum) {
+                    violations.add(path + ": value " + value + " is above maximum " + maximum);
+                }
+            }
+        }
+
+        private static String describe(int types) {
+            List<String> names = new ArrayList<>();
+            if ((types & OBJECT) != 0) names.add("object");
+            if ((types & ARRAY) != 0) names.add("array");
+            if ((types & STRING) != 0) names.add("string");
+            if ((types & NUMBER) != 0) names.add("number");
+            else if ((types & INTEGER) != 0) names.add("integer");
+            if ((types & BOOLEAN) != 0) names.add("boolean");
+            if ((types & NULL) != 0) names.add("null");
+            return String.join("|", names);
+        }
+    }
+
+    /**
+     * Current location in the document, rendered only when a violation is reported
+     */
+    private static class JsonPointer {
+        private final List<Object> segments = new ArrayList<>();
+
+        void push(Object segment) {
+            segments.add(segment);
+        }
+
+        void pop() {
+            segments.remove(segments.size() - 1);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder path = new StringBuilder("$");
+            for (Object segment : segments) {
+                if (segment instanceof Integer) {
+                    path.append('[').append(segment).append(']');
+                } else {
+                    path.append('.').append(segment);
+                }
+            }
+            return path.toString();
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package petStore.validation;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import petStore.common.ConfigurationReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Pet List Verifier - Checks every pet of a findByStatus result and reports all violations at once
+ * The body is streamed into a compact columnar form (ID, status code and a field-presence bit set per pet,
+ * 13 bytes a pet instead of a parsed JSON tree), then checked in parallel with fork/join:
+ * status is one of the queried statuses, id, name and photoUrls are present, and no ID occurs twice
+ * (the IDs are sorted in parallel, then adjacent duplicates are counted per range).
+ * Checks can be limited to some violation kinds (e.g. only the status, for shared data nobody controls).
+ * Up to petListMaxExamples examples are kept per violation kind, in response order.
+ */
+public class PetListVerifier {
+
+    private static final int MAX_EXAMPLES = ConfigurationReader.getInt("petListMaxExamples", 10);
+
+    // Pets (or sorted IDs) per fork/join leaf task: large enough that splitting costs less than checking
+    private static final int LEAF_SIZE = 4096;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_PHOTO_URLS = 1 << 2;
+    private static final int INVALID_ID = 1 << 3;
+    private static final int NO_STATUS = -1;
+
+    /**
+     * Kinds of violation, with the check that finds them
+     */
+    public enum Violation {
+        STATUS_MISMATCH("status is not one of the queried statuses"),
+        MISSING_ID("id is missing or not an integer"),
+        MISSING_NAME("name is missing"),
+        MISSING_PHOTO_URLS("photoUrls is missing"),
+        DUPLICATE_ID("id occurs more than once");
+
+        private final String description;
+
+        Violation(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * Parse and verify a findByStatus body against every check
+     * @param body JSON array of pets (closed by the caller)
+     * @param statuses Queried statuses
+     * @return Aggregated violations of all pets
+     * @throws IOException if the body cannot be read or is not a JSON array of objects
+     */
+    public static Report verify(InputStream body, Collection<String> statuses) throws IOException {
+        return verify(body, statuses, EnumSet.allOf(Violation.class));
+    }
+
+    /**
+     * Parse and verify a findByStatus body
+     * @param body JSON array of pets (closed by the caller)
+     * @param statuses Queried statuses
+     * @param checks Violation kinds to look for
+     * @return Aggregated violations of all pets
+     * @throws IOException if the body cannot be read or is not a JSON array of objects
+     */
+    public static Report verify(InputStream body, Collection<String> statuses, Set<Violation> checks) throws IOException {
+        return verify(PetColumns.parse(body), statuses, checks);
+    }
+
+    static Report verify(PetColumns pets, Collection<String> statuses, Set<Violation> checks) {
+        boolean[] expected = new boolean[pets.statusNames.size()];
+        for (int code = 0; code < expected.length; code++) {
+            expected[code] = statuses.contains(pets.statusNames.get(code));
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        Report report = pool.invoke(new FieldCheck(pets, expected, EnumSet.copyOf(checks), 0, pets.size));
+
+        if (checks.contains(Violation.DUPLICATE_ID)) {
+            long[] sortedIds = pets.presentIds();
+            Arrays.parallelSort(sortedIds);
+            report.merge(pool.invoke(new DuplicateCheck(sortedIds, 1, sortedIds.length)));
+        }
+        report.pets = pets.size;
+        report.statuses = new LinkedHashSet<>(statuses);
+        return report;
+    }
+
+    /**
+     * Per-pet checks on [from, to), split in halves down to LEAF_SIZE
+     */
+    private static class FieldCheck extends RecursiveTask<Report> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient PetColumns pets;
+        private final boolean[] expectedStatus;
+        private final EnumSet<Violation> checks;
+        private final int from;
+        private final int to;
+
+        FieldCheck(PetColumns pets, boolean[] expectedStatus, EnumSet<Violation> checks, int from, int to) {
+            this.pets = pets;
+            this.expectedStatus = expectedStatus;
+            this.checks = checks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Report compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                FieldCheck right = new FieldCheck(pets, expectedStatus, checks, middle, to);
+                right.fork();
+                Report left = new FieldCheck(pets, expectedStatus, checks, from, middle).compute();
+                left.merge(right.join());
+                return left;
+            }
+            Report report = new Report();
+            for (int i = from; i < to; i++) {
+                int flags = pets.flags[i];
+                int status = pets.statusCodes[i];
+                if (checks.contains(Violation.STATUS_MISMATCH) && (status == NO_STATUS || !expectedStatus[status])) {
+                    report.count(Violation.STATUS_MISMATCH, describe(i) + " has status "
+                            + (status == NO_STATUS ? "(none)" : "'" + pets.statusNames.get(status) + "'"));
+                }
+                if (checks.contains(Violation.MISSING_ID) && (flags & HAS_ID) == 0) {
+                    report.count(Violation.MISSING_ID, describe(i) + ((flags & INVALID_ID) != 0 ? " has a non-integer id" : " has no id"));
+                }
+                if (checks.contains(Violation.MISSING_NAME) && (flags & HAS_NAME) == 0) {
+                    report.count(Violation.MISSING_NAME, describe(i) + " has no name");
+                }
+                if (checks.contains(Violation.MISSING_PHOTO_URLS) && (flags & HAS_PHOTO_URLS) == 0) {
+                    report.count(Violation.MISSING_PHOTO_URLS, describe(i) + " has no photoUrls");
+                }
+            }
+            return report;
+        }
+
+        private String describe(int index) {
+            return "pet #" + index + ((pets.flags[index] & HAS_ID) != 0 ? " (id " + pets.ids[index] + ")" : "");
+        }
+    }
+
+    /**
+     * Counts IDs equal to their predecessor in sorted[from, to): every extra occurrence is one violation
+     */
+    private static class DuplicateCheck extends RecursiveTask<Report> {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] sorted;
+        private final int from;
+        private final int to;
+
+        DuplicateCheck(long[] sorted, int from, int to) {
+            this.sorted = sorted;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Report compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                DuplicateCheck right = new DuplicateCheck(sorted, middle, to);
+                right.fork();
+                Report left = new DuplicateCheck(sorted, from, middle).compute();
+                left.merge(right.join());
+                return left;
+            }
+            Report report = new Report();
+            for (int i = from; i < to; i++) {
+                if (sorted[i] == sorted[i - 1]) {
+                    // Example only for the second occurrence, the count covers every extra one
+                    boolean first = i < 2 || sorted[i - 2] != sorted[i];
+                    report.count(Violation.DUPLICATE_ID, first ? "id " + sorted[i] + " occurs more than once" : null);
+                }
+            }
+            return report;
+        }
+    }
+
+    /**
+     * Columnar form of a pet list: one entry per pet in response order
+     */
+    static class PetColumns {
+        private long[] ids = new long[1024];
+        private int[] statusCodes = new int[1024];
+        private byte[] flags = new byte[1024];
+        private int size;
+        private final List<String> statusNames = new ArrayList<>();
+        private final Map<String, Integer> statusIndex = new HashMap<>();
+
+        /**
+         * Stream a JSON array of pets, keeping only what the checks need
+         */
+        static PetColumns parse(InputStream body) throws IOException {
+            PetColumns pets = new PetColumns();
+            JsonReader reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            try {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    pets.read(reader);
+                }
+                reader.endArray();
+            } catch (IllegalStateException | NumberFormatException e) {
+                throw new IOException("findByStatus body is not a JSON array of pets: " + e.getMessage(), e);
+            }
+            return pets;
+        }
+
+        private void read(JsonReader reader) throws IOException {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                statusCodes = Arrays.copyOf(statusCodes, size * 2);
+                flags = Arrays.copyOf(flags, size * 2);
+            }
+            long id = 0;
+            int flag = 0;
+            int status = NO_STATUS;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                JsonToken token = reader.peek();
+                if (field.equals("id") && token == JsonToken.NUMBER) {
+                    String number = reader.nextString();
+                    try {
+                        id = Long.parseLong(number);
+                        flag |= HAS_ID;
+                    } catch (NumberFormatException e) {
+                        flag |= INVALID_ID;
+                    }
+                } else if (field.equals("id") && token != JsonToken.NULL) {
+                    flag |= INVALID_ID;
+                    reader.skipValue();
+                } else if (field.equals("name") && token == JsonToken.STRING) {
+                    flag |= HAS_NAME;
+                    reader.skipValue();
+                } else if (field.equals("photoUrls") && token == JsonToken.BEGIN_ARRAY) {
+                    flag |= HAS_PHOTO_URLS;
+                    reader.skipValue();
+                } else if (field.equals("status") && token == JsonToken.STRING) {
+                    status = statusCode(reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            ids[size] = id;
+            statusCodes[size] = status;
+            flags[size] = (byte) flag;
+            size++;
+        }
+
+        private int statusCode(String status) {
+            Integer code = statusIndex.get(status);
+            if (code == null) {
+                code = statusNames.size();
+                statusNames.add(status);
+                statusIndex.put(status, code);
+            }
+            return code;
+        }
+
+        private long[] presentIds() {
+            long[] present = new long[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if ((flags[i] & HAS_ID) != 0) {
+                    present[count++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(present, count);
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Violations of a pet list: counts per kind and the first examples of each
+     */
+    public static class Report {
+        private final Map<Violation, Long> counts = new EnumMap<>(Violation.class);
+        private final Map<Violation, List<String>> examples = new EnumMap<>(Violation.class);
+        private int pets;
+        private Set<String> statuses;
+
+        private void count(Violation violation, String example) {
+            counts.merge(violation, 1L, Long::sum);
+            if (example != null) {
+                List<String> kept = examples.computeIfAbsent(violation, kind -> new ArrayList<>());
+                if (kept.size() < MAX_EXAMPLES) {
+                    kept.add(example);
+                }
+            }
+        }
+
+        /**
+         * Append the violations of the following range (keeps examples in response order)
+         */
+        private void merge(Report next) {
+            next.counts.forEach((violation, count) -> counts.merge(violation, count, Long::sum));
+            next.examples.forEach((violation, more) -> {
+                List<String> kept = examples.computeIfAbsent(violation, kind -> new ArrayList<>());
+                kept.addAll(more.subList(0, Math.min(more.size(), MAX_EXAMPLES - kept.size())));
+            });
+        }
+
+        public int getPets() {
+            return pets;
+        }
+
+        public boolean isClean() {
+            return counts.isEmpty();
+        }
+
+        public long getTotal() {
+            return counts.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /**
+         * @param violation Violation kind
+         * @return Number of violations of this kind
+         */
+        public long count(Violation violation) {
+            return counts.getOrDefault(violation, 0L);
+        }
+
+        /**
+         * @return One line per violation kind with its count and examples
+         */
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format("%d violation(s) in %d pet(s) for status %s",
+                    getTotal(), pets, statuses));
+            counts.forEach((violation, count) -> {
+                text.append(String.format("%n  %s (%s): %d", violation, violation.getDescription(), count));
+                List<String> kept = examples.getOrDefault(violation, List.of());
+                if (!kept.isEmpty()) {
+                    text.append(" - e.g. ").append(String.join("; ", kept));
+                    if (count > kept.size()) {
+                        text.append("; ...");
+                    }
+                }
+            });
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package petStore.validation;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import petStore.common.ConfigurationReader;
+import petStore.common.EndpointTemplate;
+import petStore.logging.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Schema Validator - Loads and compiles JSON schemas from src/test/resources/schemas once
+ * and validates response bodies against them.
+ * With schemaValidationEnabled=true every 200 response of a known endpoint is validated
+ * (violations are counted and logged, not thrown), which is cheap enough for load runs.
+ */
+public class SchemaValidator {
+
+    public static final String PET = "pet.json";
+    public static final String PET_LIST = "pet-list.json";
+
+    private static final String SCHEMA_FOLDER = "schemas/";
+    private static final boolean VALIDATE_ALL_RESPONSES = ConfigurationReader.getBoolean("schemaValidationEnabled", false);
+
+    private static final Map<String, CompiledSchema> schemas = new ConcurrentHashMap<>();
+    private static final Map<String, String> schemaByEndpoint = new HashMap<>();
+
+    private static final LongAdder validatedResponses = new LongAdder();
+    private static final LongAdder invalidResponses = new LongAdder();
+
+    static {
+        schemaByEndpoint.put("GET pet/{id}", PET);
+        schemaByEndpoint.put("POST pet", PET);
+        schemaByEndpoint.put("PUT pet", PET);
+        schemaByEndpoint.put("GET pet/findByStatus", PET_LIST);
+    }
+
+    private static final Filter FILTER = (requestSpec, responseSpec, context) -> {
+        Response response = context.next(requestSpec, responseSpec);
+
+        if (VALIDATE_ALL_RESPONSES && response.getStatusCode() == 200) {
+            String schemaName = schemaByEndpoint.get(EndpointTemplate.of(requestSpec.getMethod(), requestSpec.getURI()));
+            if (schemaName != null) {
+                List<String> violations = validate(schemaName, response);
+                if (!violations.isEmpty()) {
+                    Log.warn("⚠️ {} schema violation(s) in {} - first: {}",
+                            violations.size(), requestSpec.getURI(), violations.get(0));
+                }
+            }
+        }
+
+        return response;
+    };
+
+    /**
+     * Get compiled schema (compiled on first use, cached afterwards)
+     * @param schemaName Schema file name in src/test/resources/schemas
+     * @return Compiled schema
+     */
+    public static CompiledSchema get(String schemaName) {
+        CompiledSchema schema = schemas.get(schemaName);
+        if (schema == null) {
+            schema = load(schemaName);
+            CompiledSchema existing = schemas.putIfAbsent(schemaName, schema);
+            schema = existing != null ? existing : schema;
+        }
+        return schema;
+    }
+
+    /**
+     * Validate a response body against a schema
+     * Walks the body bytes RestAssured already holds, without building a String or a tree. It does not stream
+     * from the connection: the filter and the callers read the body afterwards, and asInputStream() would consume it.
+     * @param schemaName Schema file name (e.g. SchemaValidator.PET)
+     * @param response REST Assured Response object
+     * @return List of all violations, empty if valid
+     */
+    public static List<String> validate(String schemaName, Response response) {
+        return validate(schemaName, new ByteArrayInputStream(response.asByteArray()));
+    }
+
+    /**
+     * Validate a body read from a stream (e.g. a spilled ResponseView body), without building a String
+     * @param schemaName Schema file name (e.g. SchemaValidator.PET)
+     * @param body Response body; not closed
+     * @return List of all violations, empty if valid
+     */
+    public static List<String> validate(String schemaName, InputStream body) {
+        List<String> violations = get(schemaName).validate(body);
+
+        validatedResponses.increment();
+        if (!violations.isEmpty()) {
+            invalidResponses.increment();
+        }
+
+        return violations;
+    }
+
+    /**
+     * RestAssured filter validating every known response when schemaValidationEnabled=true
+     * @return Shared filter instance
+     */
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    /**
+     * Log number of validated and invalid responses (for debugging)
+     */
+    public static void printStats() {
+        Log.info("========== SCHEMA VALIDATION ==========");
+        Log.info("Validated responses: " + validatedResponses.sum());
+        Log.info("Invalid responses: " + invalidResponses.sum());
+        Log.info("=======================================");
+    }
+
+    private static CompiledSchema load(String schemaName) {
+        try (InputStream input = SchemaValidator.class.getClassLoader().getResourceAsStream(SCHEMA_FOLDER + schemaName)) {
+            if (input == null) {
+                throw new IllegalArgumentException("Schema not found on classpath: " + SCHEMA_FOLDER + schemaName);
+            }
+
+            JsonObject schema = JsonParser.parseReader(new InputStreamReader(input, StandardCharsets.UTF_8)).getAsJsonObject();
+            return new CompiledSchema(schemaName, schema, SchemaValidator::get);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load schema: " + schemaName, e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+Feature: Pet Store API - Consistency
+
+  # On demand (see CukesRunner): mvn test -Dcucumber.filter.tags=@consistency
+  # The history is saved to target/consistency/history.jsonl and checked from that file
+
+  @load @consistency
+  Scenario: Concurrent CRUD on shared pets is linearizable
+    Given Record concurrent CRUD history with 8 workers on 4 pets for 100 operations each
+    Then Verify the recorded history is linearizable
@@ -0,0 +1,14 @@
+@dataDriven
+Feature: Pet Store API - Data-Driven Flows
+
+  # Rows are streamed from the file and run concurrently, results go to target/data-driven/
+
+  @dataDriven @csv
+  Scenario: Run pet flows from a CSV dataset
+    Given Run pet flows from data file "src/test/resources/data/pets-sample.csv" with 2 workers
+    Then Verify data-driven run has no failed rows
+
+  @dataDriven @jsonl
+  Scenario: Run pet flows from a JSONL dataset
+    Given Run pet flows from data file "src/test/resources/data/pets-sample.jsonl" with 2 workers
+    Then Verify data-driven run has no failed rows
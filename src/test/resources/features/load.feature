@@ -0,0 +1,54 @@
+Feature: Pet Store API - Load & Soak
+
+  # Excluded from the default run (see CukesRunner), start with: mvn test -Psoak
+  # Duration and workers come from Configuration.properties (soak* keys) or -D overrides
+
+  @soak
+  Scenario: Soak CRUD mix and watch for client-side leaks
+    Given Run soak test with configured duration
+    Then Verify soak telemetry shows no steady growth
+
+  # @load scenarios are on demand as well, e.g. mvn test -Dcucumber.filter.tags=@upload
+  @load @upload
+  Scenario: Upload large images concurrently
+    Given Create a new pet with id "20002251" and name "Gallery"
+    When Upload 8 images of 32 MB for pet "20002251" with 4 workers
+    Then Verify all uploads succeeded
+
+  @load @transport
+  Scenario: Compare HTTP/1.1 and HTTP/2 transports on the CRUD mix
+    Given Compare HTTP transports with 16 workers and 20 iterations each
+    Then Verify both transports completed without errors
+
+  # Requests are sent on schedule whatever the responses do; latency is measured from the intended send time
+  @load @openLoop
+  Scenario: Open-loop CRUD mix at a fixed arrival rate
+    Given Run open-loop CRUD mix at 40 requests per second for 20 seconds with 16 users and poisson arrivals
+    Then Verify open-loop load completed without errors
+    And Verify open-loop p99 response time is below 2000 ms
+
+  # Agents are separate JVMs started by the controller; their latency histograms are merged exactly
+  # They receive the controller's configuration, so they load the scenario's local stub, not the public Petstore
+  # Agent JVMs start cold (no JIT warm-up), hence the wider p99 bound
+  @load @distributed
+  Scenario: Distributed open-loop CRUD mix across agent JVMs
+    Given Start a local stub Petstore for this scenario
+    And Run distributed open-loop CRUD mix at 20 requests per second for 20 seconds with 8 users on 2 agents
+    Then Verify open-loop load completed without errors
+    And Verify open-loop p99 response time is below 5000 ms
+
+  # Closed-loop throughput at 1, 2, 4 and 8 workers with an Amdahl/USL fit, see target/scaling/scaling.csv
+  @load @scaling
+  Scenario: Concurrency scaling of the CRUD mix
+    Given Run concurrency scaling of the CRUD mix up to 8 workers with 10 seconds per level
+    Then Verify throughput with 2 workers is at least 50 percent of linear scaling
+
+  # Workload sentence: shares of get/update/create/delete/findByStatus, rate, duration and users, compiled into
+  # an open-loop schedule; the Then steps are the SLAs (response times measured from the intended send time)
+  @load @workload
+  Scenario: Mixed CRUD workload meets its SLAs
+    Given a workload of 70% get, 20% update, 10% create at 30 requests per second for 20 seconds with 16 users
+    Then the workload throughput is at least 27 requests per second
+    And the workload p95 response time is below 2000 ms
+    And the workload p99 get response time is below 3000 ms
+    And the workload error rate is below 1%
@@ -47,6 +47,21 @@ Feature: Pet Store API - CRUD Operations
       | 20001201 | Zeus    |
       | 20001202 | Toby    |
 
+  @regression @uploadImage
+  Scenario: Upload image for pet
+    Given Create a new pet with id "20001251" and name "Picasso"
+    And Upload a 64 KB image for pet "20001251"
+    Then Verify status code is 200
+    And Verify upload response reports the uploaded size
+
+  # Streams a multi-megabyte body; runs on demand (@load is excluded by default)
+  @load @uploadImage
+  Scenario: Upload large image for pet
+    Given Create a new pet with id "20001252" and name "Monet"
+    And Upload a 2 MB image for pet "20001252"
+    Then Verify status code is 200
+    And Verify upload response reports the uploaded size
+
   # ==================== NEGATIVE SCENARIOS ====================
 
   @negative @invalidData
@@ -99,31 +114,35 @@ Feature: Pet Store API - CRUD Operations
 
   # ==================== PERFORMANCE SCENARIOS ====================
 
+  # First call (cold only for the first request of a run) and warm figures (after warm-up reached steady state) are checked separately
   @performance @responseTime
   Scenario: Verify API response time for get request
-    Given Send get request for status "available"
+    Given Measure response time of get request for status "available"
     Then Verify status code is 200
-    And Verify response time is less than 2000 milliseconds
+    And Verify first call response time is less than 5000 milliseconds
+    And Verify warm p95 response time is less than 2000 milliseconds
 
   @performance @responseTime
   Scenario: Verify API response time for create pet
-    Given Create a new pet with id "20001401" and name "SpeedTest"
+    Given Measure response time of creating pet "20001401" named "SpeedTest"
     Then Verify status code is 200
-    And Verify response time is less than 3000 milliseconds
+    And Verify first call response time is less than 5000 milliseconds
+    And Verify warm p95 response time is less than 3000 milliseconds
 
   @performance @responseTime
   Scenario: Verify API response time for update pet
     Given Create a new pet with id "20001402" and name "UpdateSpeedTest"
-    And Update pet "20001402" with name "UpdatedSpeed" and tag "fast"
+    And Measure response time of updating pet "20001402" with name "UpdatedSpeed" and tag "fast"
     Then Verify status code is 200
-    And Verify response time is less than 3000 milliseconds
+    And Verify first call response time is less than 5000 milliseconds
+    And Verify warm p95 response time is less than 3000 milliseconds
 
   @performance @responseTime
   Scenario: Verify API response time for delete pet
-    Given Create a new pet with id "20001403" and name "DeleteSpeedTest"
-    And Delete pet with id "20001403"
+    Given Measure response time of deleting pet "20001403"
     Then Verify status code is 200
-    And Verify response time is less than 2000 milliseconds
+    And Verify first call response time is less than 5000 milliseconds
+    And Verify warm p95 response time is less than 2000 milliseconds
 
   # ==================== EDGE CASES ====================
 
@@ -251,13 +270,25 @@ Feature: Pet Store API - CRUD Operations
     Given Send get request for status "available"
     Then Verify status code is 200
     And Verify response contains pets
+    And Verify every pet in the response has status "available"
 
   @statusVariation @pendingStatus
   Scenario: Get pets with pending status
     Given Send get request for status "pending"
     Then Verify status code is 200
+    And Verify every pet in the response has status "pending"
 
   @statusVariation @soldStatus
   Scenario: Get pets with sold status
     Given Send get request for status "sold"
-    Then Verify status code is 200
\ No newline at end of file
+    Then Verify status code is 200
+    And Verify every pet in the response has status "sold"
+
+  # Every pet checked for status, id, name, photoUrls and unique IDs: only meaningful on data we control, so it runs
+  # on demand against the local stub, e.g. mvn test -Dcucumber.filter.tags=@stub -DstubEnabled=true
+  # -DstubSeedPets=30000 -DbaseUri=http://localhost:8080/v2/
+  @stub @petListIntegrity
+  Scenario: Every pet of a large status list is valid
+    Given Send get request for status "available"
+    Then Verify status code is 200
+    And Verify every pet in the response is valid for status "available"